@@ -0,0 +1,61 @@
+package org.franchise.management.benchmark;
+
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.entrypoints.webflux.dto.BranchRequestDTO;
+import org.franchise.management.entrypoints.webflux.dto.DTOMapper;
+import org.franchise.management.entrypoints.webflux.dto.FranchiseRequestDTO;
+import org.franchise.management.entrypoints.webflux.dto.ProductRequestDTO;
+import org.franchise.management.entrypoints.webflux.dto.UpdateStockRequestDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversiones DTO → dominio que se ejecutan en cada petición de escritura.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DTOMapperBenchmark {
+
+    private FranchiseRequestDTO franchiseRequest;
+    private BranchRequestDTO branchRequest;
+    private ProductRequestDTO productRequest;
+    private UpdateStockRequestDTO stockRequest;
+
+    @Setup
+    public void setUp() {
+        franchiseRequest = FranchiseRequestDTO.builder().name("McDonald's").build();
+        branchRequest = BranchRequestDTO.builder().name("Centro").build();
+        productRequest = ProductRequestDTO.builder().name("Coca Cola").stock(100).build();
+        stockRequest = UpdateStockRequestDTO.builder().stock(42).build();
+    }
+
+    @Benchmark
+    public Franchise toFranchise() {
+        return DTOMapper.toFranchise(franchiseRequest);
+    }
+
+    @Benchmark
+    public Branch toBranch() {
+        return DTOMapper.toBranch(branchRequest);
+    }
+
+    @Benchmark
+    public Product toProduct() {
+        return DTOMapper.toProduct(productRequest);
+    }
+
+    @Benchmark
+    public Product updateStockToProduct() {
+        return DTOMapper.updateStockToProduct(stockRequest);
+    }
+}
@@ -0,0 +1,88 @@
+package org.franchise.management.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización/deserialización JSON de las respuestas más frecuentes, con
+ * un ObjectMapper configurado como el de Spring Boot (módulos registrados,
+ * fechas ISO).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JacksonSerializationBenchmark {
+
+    /** Sucursales embebidas en Franchise.branchIds */
+    @Param({ "0", "100", "10000" })
+    private int branches;
+
+    private ObjectMapper objectMapper;
+    private Product product;
+    private Franchise franchise;
+    private String productJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        product = Product.builder()
+                .id("65f1c0ffee0000000000abcd")
+                .name("Coca Cola")
+                .stock(100)
+                .branchId("65f1c0ffee0000000000b001")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        List<String> branchIds = new ArrayList<>(branches);
+        for (int i = 0; i < branches; i++) {
+            branchIds.add(String.format("%024x", i));
+        }
+        franchise = Franchise.builder()
+                .id("65f1c0ffee0000000000f001")
+                .name("McDonald's")
+                .branchIds(branchIds)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        productJson = objectMapper.writeValueAsString(product);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public Product deserializeProduct() throws JsonProcessingException {
+        return objectMapper.readValue(productJson, Product.class);
+    }
+
+    @Benchmark
+    public byte[] serializeFranchise() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(franchise);
+    }
+}
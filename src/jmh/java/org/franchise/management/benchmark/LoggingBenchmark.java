@@ -0,0 +1,120 @@
+package org.franchise.management.benchmark;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.builder.api.AppenderComponentBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.api.RootLoggerComponentBuilder;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.franchise.management.application.logging.LogMarkers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput del hilo que registra un evento de stock, antes (síncrono,
+ * concatenando) y después (asíncrono, parametrizado, muestreado). El
+ * appender escribe a un fichero temporal con el mismo filtro de muestreo
+ * que log4j2-spring.xml.
+ *
+ * <p>En modo ASYNC con el ring buffer lleno los INFO se descartan, así que
+ * la cifra es la capacidad que ve la petición, no la de escritura a disco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class LoggingBenchmark {
+
+    @Param({ "SYNC", "ASYNC" })
+    private String mode;
+
+    private LoggerContext context;
+    private Logger logger;
+    private Path logFile;
+
+    private final String productName = "Coca Cola";
+    private final int stock = 42;
+
+    @Setup
+    public void setUp() throws IOException {
+        System.setProperty("log4j2.asyncQueueFullPolicy", "Discard");
+        System.setProperty("log4j2.discardThreshold", "INFO");
+        logFile = Files.createTempFile("franchise-logging-bench", ".log");
+
+        ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder();
+        builder.setConfigurationName("logging-benchmark-" + mode);
+        builder.setStatusLevel(Level.WARN);
+
+        AppenderComponentBuilder file = builder.newAppender("File", "RandomAccessFile")
+                .addAttribute("fileName", logFile.toString())
+                .addAttribute("immediateFlush", false)
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", "%d %5p [%t] %c{1.} : %m%n"))
+                .addComponent(builder.newComponent("Filters")
+                        .addComponent(builder.newFilter("MarkerFilter", Filter.Result.NEUTRAL, Filter.Result.ACCEPT)
+                                .addAttribute("marker", "REQUEST"))
+                        .addComponent(builder.newFilter("BurstFilter", Filter.Result.NEUTRAL, Filter.Result.DENY)
+                                .addAttribute("level", "INFO")
+                                .addAttribute("rate", 100)
+                                .addAttribute("maxBurst", 1000)));
+        builder.add(file);
+
+        RootLoggerComponentBuilder root = "ASYNC".equals(mode)
+                ? builder.newAsyncRootLogger(Level.INFO)
+                : builder.newRootLogger(Level.INFO);
+        builder.add(root.addAttribute("includeLocation", false).add(builder.newAppenderRef("File")));
+
+        context = new LoggerContext("logging-benchmark-" + mode);
+        context.start(builder.build());
+        logger = context.getLogger("org.franchise.management.benchmark.Logging");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    /** Antes: mensaje construido siempre, un evento por petición */
+    @Benchmark
+    public void infoConcatenated() {
+        logger.info("Stock actualizado: " + productName + " = " + stock);
+    }
+
+    @Benchmark
+    public void infoParameterized() {
+        logger.info("Stock actualizado: {} = {}", productName, stock);
+    }
+
+    /** Después: parametrizado y marcado como evento por petición (muestreado) */
+    @Benchmark
+    public void infoSampledRequest() {
+        logger.info(LogMarkers.REQUEST, "Stock actualizado: {} = {}", productName, stock);
+    }
+
+    /** Nivel deshabilitado: la concatenación se paga igualmente */
+    @Benchmark
+    public void debugDisabledConcatenated() {
+        logger.debug("Stock actualizado: " + productName + " = " + stock);
+    }
+
+    @Benchmark
+    public void debugDisabledParameterized() {
+        logger.debug("Stock actualizado: {} = {}", productName, stock);
+    }
+}
@@ -0,0 +1,74 @@
+package org.franchise.management.benchmark;
+
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.Franchise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de Branch.addProduct/removeProduct y Franchise.addBranch según el
+ * tamaño del array embebido: ambos recorren la lista (List.contains/remove).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MembershipBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    private int size;
+
+    private Branch branch;
+    private Franchise franchise;
+    private String lastId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(String.format("%024x", i));
+        }
+        lastId = ids.get(size - 1);
+        branch = Branch.builder().id("branch").name("Centro").productIds(new ArrayList<>(ids)).build();
+        franchise = Franchise.builder().id("franchise").name("Franquicia").branchIds(new ArrayList<>(ids)).build();
+    }
+
+    /** Alta de un id nuevo (recorrido completo + append) y su baja, para mantener el tamaño */
+    @Benchmark
+    public Branch addAndRemoveNewProduct() {
+        branch.addProduct("new-product");
+        branch.removeProduct("new-product");
+        return branch;
+    }
+
+    /** Alta de un id ya presente al final de la lista: solo el recorrido de contains */
+    @Benchmark
+    public Branch addExistingProduct() {
+        branch.addProduct(lastId);
+        return branch;
+    }
+
+    /** Baja de un id ausente: recorrido completo sin modificar la lista */
+    @Benchmark
+    public Branch removeMissingProduct() {
+        branch.removeProduct("missing-product");
+        return branch;
+    }
+
+    @Benchmark
+    public Franchise addAndRemoveNewBranch() {
+        franchise.addBranch("new-branch");
+        franchise.removeBranch("new-branch");
+        return franchise;
+    }
+}
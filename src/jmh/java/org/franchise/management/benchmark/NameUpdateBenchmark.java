@@ -0,0 +1,130 @@
+package org.franchise.management.benchmark;
+
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.franchise.management.domain.model.Branch;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bytes en el cable y coste de codificación de PUT /branches/{id}/name:
+ * findById + save del documento completo frente a findAndModify con $set.
+ * Los contadores {@code requestBytes}/{@code responseBytes} son los BSON que
+ * envía y recibe el driver por operación; con 50k productIds el save
+ * original sube y baja el array entero.
+ *
+ * <p>La latencia contra un servidor real la mide la prueba de carga en la
+ * ruta PUT /branches/{id}/name, por ejemplo con
+ * {@code ./gradlew loadTest -Dloadtest.franchises=1 -Dloadtest.branches=2 -Dloadtest.products=50000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NameUpdateBenchmark {
+
+    @Param({ "100", "50000" })
+    private int productIds;
+
+    private final DocumentCodec codec = new DocumentCodec();
+    private MappingMongoConverter converter;
+    private Branch branch;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireBytes {
+
+        public long requestBytes;
+        public long responseBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requestBytes = 0;
+            responseBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+
+        List<String> ids = new ArrayList<>(productIds);
+        for (int i = 0; i < productIds; i++) {
+            ids.add(String.format("%024x", i));
+        }
+        branch = Branch.builder()
+                .id("65f1c0ffee0000000000b001")
+                .name("Sucursal Centro")
+                .franchiseId("65f1c0ffee0000000000f001")
+                .productIds(ids)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    /** Antes: find (respuesta con el documento) + update de reemplazo con el documento */
+    @Benchmark
+    public int findAndSaveFullDocument(WireBytes bytes) {
+        Document stored = new Document();
+        converter.write(branch, stored);
+
+        int find = encode(new Document("find", "branches")
+                .append("filter", new Document("_id", branch.getId()))
+                .append("limit", 1));
+        int save = encode(new Document("update", "branches")
+                .append("updates", List.of(new Document("q", new Document("_id", branch.getId()))
+                        .append("u", stored)
+                        .append("upsert", true))));
+        int document = encode(stored);
+
+        bytes.requestBytes += find + save;
+        bytes.responseBytes += document;
+        return find + save + document;
+    }
+
+    /** Ahora: findAndModify con $set de name y updatedAt, devolviendo el documento nuevo */
+    @Benchmark
+    public int findAndModifySet(WireBytes bytes) {
+        Document stored = new Document();
+        converter.write(branch, stored);
+
+        int command = encode(new Document("findAndModify", "branches")
+                .append("query", new Document("_id", branch.getId()))
+                .append("update", new Document("$set", new Document("name", "Sucursal Norte")
+                        .append("updatedAt", LocalDateTime.now())))
+                .append("new", true));
+        int document = encode(stored);
+
+        bytes.requestBytes += command;
+        bytes.responseBytes += document;
+        return command + document;
+    }
+
+    private int encode(Document document) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            codec.encode(writer, document, EncoderContext.builder().build());
+        }
+        return buffer.getSize();
+    }
+}
@@ -0,0 +1,56 @@
+package org.franchise.management.benchmark;
+
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.franchise.management.entrypoints.webflux.dto.ProductRequestDTO;
+import org.franchise.management.entrypoints.webflux.util.ValidationUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValidationUtil.validate sobre un DTO válido (camino habitual) y uno
+ * inválido (construye el mensaje de error y el Mono.error).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private ValidationUtil validationUtil;
+    private ProductRequestDTO validRequest;
+    private ProductRequestDTO invalidRequest;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validationUtil = new ValidationUtil(validatorFactory.getValidator());
+        validRequest = ProductRequestDTO.builder().name("Coca Cola").stock(100).build();
+        invalidRequest = ProductRequestDTO.builder().name("").stock(-1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public ProductRequestDTO validateValid() {
+        return validationUtil.validate(validRequest).block();
+    }
+
+    @Benchmark
+    public ProductRequestDTO validateInvalid() {
+        return validationUtil.validate(invalidRequest)
+                .onErrorReturn(invalidRequest)
+                .block();
+    }
+}
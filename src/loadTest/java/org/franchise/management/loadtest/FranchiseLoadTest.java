@@ -0,0 +1,176 @@
+package org.franchise.management.loadtest;
+
+import lombok.extern.log4j.Log4j2;
+import org.franchise.management.FranchiseApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de carga de extremo a extremo: arranca la aplicación contra Mongo
+ * embebido, siembra el dataset sintético y ejercita todas las rutas de
+ * FranchiseRouter, BranchRouter y ProductRouter. Se ejecuta con
+ * {@code ./gradlew loadTest}, nunca con {@code test}.
+ */
+@Log4j2
+@Tag("load")
+@ActiveProfiles("loadtest")
+@SpringBootTest(classes = FranchiseApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class FranchiseLoadTest {
+
+    private static final int MONGO_PORT = freePort();
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.port", () -> MONGO_PORT);
+        registry.add("spring.data.mongodb.uri", () -> "mongodb://localhost:" + MONGO_PORT + "/franchise-loadtest");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private final Queue<String[]> createdProducts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Test
+    @DisplayName("Load test over every franchise, branch and product route")
+    void runLoadTest() throws IOException {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        SyntheticDataset dataset = SyntheticDataset.seed(mongoTemplate, settings);
+        log.info("Dataset sembrado: {} documentos", dataset.size());
+
+        WebClient client = WebClient.builder().baseUrl("http://localhost:" + port).build();
+        List<RouteScenario> scenarios = scenarios(client, dataset);
+
+        new OpenModelLoadGenerator(scenarios, settings.ratePerSecond(), settings.maxInFlight())
+                .run(settings.warmup(), new LatencyRecorder());
+
+        Instant startedAt = Instant.now();
+        LatencyRecorder recorder = new LatencyRecorder();
+        new OpenModelLoadGenerator(scenarios, settings.ratePerSecond(), settings.maxInFlight())
+                .run(settings.duration(), recorder);
+
+        LoadTestReport report = LoadTestReport.of(startedAt, settings, recorder);
+        report.write(settings.reportDir());
+        log.info("Informe de carga en {}: {}", settings.reportDir().toAbsolutePath(), report.total());
+
+        assertTrue(report.total().requests() > 0, "La prueba no completó ninguna petición");
+        assertEquals(0, report.droppedArrivals(),
+                "El generador descartó llegadas; sube loadtest.maxInFlight o baja la tasa");
+    }
+
+    private List<RouteScenario> scenarios(WebClient client, SyntheticDataset dataset) {
+        return List.of(
+                new RouteScenario("POST /franchises", () -> client.post().uri("/franchises")
+                        .bodyValue(Map.of("name", "Franquicia carga " + sequence.incrementAndGet()))
+                        .exchangeToMono(FranchiseLoadTest::status)),
+                new RouteScenario("GET /franchises/{id}/export", () -> client.get()
+                        .uri("/franchises/{id}/export", dataset.randomFranchiseId())
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .exchangeToMono(FranchiseLoadTest::status)),
+                new RouteScenario("POST /franchises/{id}/branches", () -> client.post()
+                        .uri("/franchises/{id}/branches", dataset.randomFranchiseId())
+                        .bodyValue(Map.of("name", "Sucursal carga " + sequence.incrementAndGet()))
+                        .exchangeToMono(FranchiseLoadTest::status)),
+                new RouteScenario("PUT /branches/{id}/name", () -> client.put()
+                        .uri("/branches/{id}/name", dataset.randomBranchId())
+                        .bodyValue(Map.of("name", "Sucursal " + sequence.incrementAndGet()))
+                        .exchangeToMono(FranchiseLoadTest::status)),
+                new RouteScenario("POST /branches/{id}/products", addProduct(client, dataset)),
+                new RouteScenario("DELETE /branches/{id}/products/{id}", () -> {
+                    String[] created = createdProducts.poll();
+                    return created == null ? Mono.empty()
+                            : client.delete().uri("/branches/{b}/products/{p}", created[0], created[1])
+                                    .exchangeToMono(FranchiseLoadTest::status);
+                }),
+                new RouteScenario("POST /branches/{id}/products:import", () -> client.post()
+                        .uri("/branches/{id}/products:import", dataset.randomBranchId())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .bodyValue(IntStream.range(0, 10)
+                                .mapToObj(i -> "{\"name\":\"Importado " + sequence.incrementAndGet()
+                                        + "\",\"stock\":" + i + "}")
+                                .collect(Collectors.joining("\n")))
+                        .exchangeToMono(FranchiseLoadTest::status)),
+                new RouteScenario("PUT /products/{id}/stock", () -> client.put()
+                        .uri("/products/{id}/stock", dataset.randomProductId())
+                        .bodyValue(Map.of("stock", ThreadLocalRandom.current().nextInt(0, 1000)))
+                        .exchangeToMono(FranchiseLoadTest::status)),
+                new RouteScenario("PATCH /products/{id}/stock/delta", () -> client.patch()
+                        .uri("/products/{id}/stock/delta", dataset.randomProductId())
+                        .bodyValue(Map.of("delta", 1))
+                        .exchangeToMono(FranchiseLoadTest::status)),
+                new RouteScenario("POST /products/stock:batch", () -> client.post()
+                        .uri("/products/stock:batch")
+                        .bodyValue(IntStream.range(0, 10)
+                                .mapToObj(i -> Map.of("productId", dataset.randomProductId(),
+                                        "stock", ThreadLocalRandom.current().nextInt(0, 1000)))
+                                .toList())
+                        .exchangeToMono(FranchiseLoadTest::status)),
+                new RouteScenario("PUT /products/{id}/name", () -> client.put()
+                        .uri("/products/{id}/name", dataset.randomProductId())
+                        .bodyValue(Map.of("name", "Producto " + sequence.incrementAndGet()))
+                        .exchangeToMono(FranchiseLoadTest::status)),
+                new RouteScenario("GET /franchises/{id}/products/max-stock", () -> client.get()
+                        .uri("/franchises/{id}/products/max-stock", dataset.randomFranchiseId())
+                        .exchangeToMono(FranchiseLoadTest::status)));
+    }
+
+    /** Los productos creados alimentan el escenario de borrado */
+    private Supplier<Mono<Integer>> addProduct(WebClient client, SyntheticDataset dataset) {
+        return () -> {
+            String branchId = dataset.randomBranchId();
+            return client.post().uri("/branches/{id}/products", branchId)
+                    .bodyValue(Map.of("name", "Producto carga " + sequence.incrementAndGet(), "stock", 10))
+                    .exchangeToMono(response -> response.bodyToMono(Map.class)
+                            .doOnNext(body -> {
+                                if (response.statusCode().is2xxSuccessful() && body.get("id") != null) {
+                                    createdProducts.add(new String[] { branchId, body.get("id").toString() });
+                                }
+                            })
+                            .thenReturn(response.statusCode().value()));
+        };
+    }
+
+    private static Mono<Integer> status(ClientResponse response) {
+        return response.releaseBody().thenReturn(response.statusCode().value());
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.franchise.management.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencias por ruta en nanosegundos. Se guardan todas las muestras para
+ * calcular percentiles exactos; el volumen de una prueba lo permite.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, RouteSamples> samples = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public void record(String route, long latencyNanos, boolean success) {
+        RouteSamples routeSamples = samples.computeIfAbsent(route, r -> new RouteSamples());
+        routeSamples.latencies.add(latencyNanos);
+        if (!success) {
+            routeSamples.errors.incrementAndGet();
+        }
+    }
+
+    /** Llegada que el generador no pudo emitir: cuenta como petición fallida */
+    public void recordDropped(String route, long latencyNanos) {
+        record(route, latencyNanos, false);
+        dropped.incrementAndGet();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public List<LoadTestReport.RouteResult> results(double durationSeconds) {
+        List<LoadTestReport.RouteResult> results = new ArrayList<>();
+        samples.forEach((route, routeSamples) -> results.add(toResult(route, routeSamples, durationSeconds)));
+        results.sort((a, b) -> a.route().compareTo(b.route()));
+        return results;
+    }
+
+    public LoadTestReport.RouteResult total(double durationSeconds) {
+        RouteSamples all = new RouteSamples();
+        samples.values().forEach(routeSamples -> {
+            all.latencies.addAll(routeSamples.latencies);
+            all.errors.addAndGet(routeSamples.errors.get());
+        });
+        return toResult("TOTAL", all, durationSeconds);
+    }
+
+    private static LoadTestReport.RouteResult toResult(String route, RouteSamples routeSamples,
+            double durationSeconds) {
+        long[] sorted;
+        synchronized (routeSamples.latencies) {
+            sorted = routeSamples.latencies.stream().mapToLong(Long::longValue).toArray();
+        }
+        Arrays.sort(sorted);
+        return new LoadTestReport.RouteResult(
+                route,
+                sorted.length,
+                routeSamples.errors.get(),
+                sorted.length / durationSeconds,
+                percentileMillis(sorted, 0.50),
+                percentileMillis(sorted, 0.99),
+                percentileMillis(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static final class RouteSamples {
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicLong errors = new AtomicLong();
+    }
+}
@@ -0,0 +1,100 @@
+package org.franchise.management.loadtest;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Resultado de una ejecución. Se escribe como JSON (para comparar entre
+ * commits) y como una tabla HTML para leerlo a simple vista.
+ */
+public record LoadTestReport(
+        Instant startedAt,
+        String gitCommit,
+        LoadTestSettingsSummary settings,
+        long droppedArrivals,
+        RouteResult total,
+        List<RouteResult> routes) {
+
+    public record RouteResult(
+            String route,
+            long requests,
+            long errors,
+            double throughputPerSecond,
+            double p50Millis,
+            double p99Millis,
+            double p999Millis,
+            double maxMillis) {
+    }
+
+    public record LoadTestSettingsSummary(
+            int franchises,
+            int branchesPerFranchise,
+            int productsPerBranch,
+            int ratePerSecond,
+            long durationSeconds) {
+
+        static LoadTestSettingsSummary of(LoadTestSettings settings) {
+            return new LoadTestSettingsSummary(settings.franchises(), settings.branchesPerFranchise(),
+                    settings.productsPerBranch(), settings.ratePerSecond(), settings.duration().toSeconds());
+        }
+    }
+
+    public static LoadTestReport of(Instant startedAt, LoadTestSettings settings, LatencyRecorder recorder) {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        return new LoadTestReport(startedAt, System.getProperty("loadtest.gitCommit", "unknown"),
+                LoadTestSettingsSummary.of(settings), recorder.dropped(), recorder.total(seconds),
+                recorder.results(seconds));
+    }
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .build()
+                .writeValue(directory.resolve("loadtest-report.json").toFile(), this);
+        Files.writeString(directory.resolve("index.html"), toHtml());
+    }
+
+    private String toHtml() {
+        StringBuilder rows = new StringBuilder();
+        for (RouteResult route : routes) {
+            rows.append(row(route));
+        }
+        rows.append(row(total));
+
+        return """
+                <!DOCTYPE html>
+                <html lang="es">
+                <head><meta charset="utf-8"><title>Prueba de carga</title>
+                <style>body{font-family:sans-serif}td,th{padding:4px 10px;text-align:right}td:first-child{text-align:left}</style>
+                </head>
+                <body>
+                <h1>Prueba de carga %s</h1>
+                <p>Commit %s · %d franquicias × %d sucursales × %d productos · %d req/s durante %d s</p>
+                <p>Llegadas descartadas por saturación del generador: %d</p>
+                <table>
+                <tr><th>Ruta</th><th>Peticiones</th><th>Errores</th><th>req/s</th><th>p50 ms</th><th>p99 ms</th><th>p999 ms</th><th>máx ms</th></tr>
+                %s</table>
+                </body>
+                </html>
+                """.formatted(startedAt, gitCommit, settings.franchises(), settings.branchesPerFranchise(),
+                settings.productsPerBranch(), settings.ratePerSecond(), settings.durationSeconds(), droppedArrivals,
+                rows);
+    }
+
+    private static String row(RouteResult r) {
+        return String.format(Locale.ROOT,
+                "<tr><td>%s</td><td>%d</td><td>%d</td><td>%.1f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td></tr>%n",
+                r.route(), r.requests(), r.errors(), r.throughputPerSecond(), r.p50Millis(), r.p99Millis(),
+                r.p999Millis(), r.maxMillis());
+    }
+}
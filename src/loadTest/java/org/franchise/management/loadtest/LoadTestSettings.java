@@ -0,0 +1,31 @@
+package org.franchise.management.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Parámetros de la prueba de carga, leídos de propiedades de sistema
+ * {@code loadtest.*} (la tarea Gradle reenvía las que se pasen con -D).
+ */
+public record LoadTestSettings(
+        int franchises,
+        int branchesPerFranchise,
+        int productsPerBranch,
+        int ratePerSecond,
+        Duration warmup,
+        Duration duration,
+        int maxInFlight,
+        Path reportDir) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.franchises", 5),
+                Integer.getInteger("loadtest.branches", 10),
+                Integer.getInteger("loadtest.products", 100),
+                Integer.getInteger("loadtest.rate", 200),
+                Duration.ofSeconds(Integer.getInteger("loadtest.warmupSeconds", 5)),
+                Duration.ofSeconds(Integer.getInteger("loadtest.durationSeconds", 30)),
+                Integer.getInteger("loadtest.maxInFlight", 10_000),
+                Path.of(System.getProperty("loadtest.reportDir", "build/reports/loadtest")));
+    }
+}
@@ -0,0 +1,68 @@
+package org.franchise.management.loadtest;
+
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Generador de carga de modelo abierto: las llegadas siguen una tasa fija,
+ * independiente de cuánto tarden las respuestas, y las rutas se reparten en
+ * round-robin. La latencia se mide desde el instante en que la petición
+ * debía salir, no desde que salió, para no ocultar colas (coordinated
+ * omission). Por la misma razón, una llegada que no puede salir porque ya hay
+ * {@code maxInFlight} peticiones en curso no se pierde: se registra como
+ * fallida, con latencia hasta el final de la ejecución.
+ */
+@Log4j2
+public class OpenModelLoadGenerator {
+
+    private final List<RouteScenario> scenarios;
+    private final int ratePerSecond;
+    private final int maxInFlight;
+
+    public OpenModelLoadGenerator(List<RouteScenario> scenarios, int ratePerSecond, int maxInFlight) {
+        this.scenarios = scenarios;
+        this.ratePerSecond = ratePerSecond;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public void run(Duration duration, LatencyRecorder recorder) {
+        long periodNanos = 1_000_000_000L / ratePerSecond;
+        long arrivals = duration.toNanos() / periodNanos;
+        long start = System.nanoTime();
+        Queue<Long> dropped = new ConcurrentLinkedQueue<>();
+
+        Flux.interval(Duration.ofNanos(periodNanos))
+                .take(arrivals)
+                .onBackpressureDrop(dropped::add)
+                .flatMap(tick -> fire(scenario(tick), start + tick * periodNanos, recorder), maxInFlight)
+                .blockLast(duration.plusMinutes(1));
+
+        long end = System.nanoTime();
+        dropped.forEach(tick -> recorder.recordDropped(scenario(tick).name(), end - (start + tick * periodNanos)));
+        if (!dropped.isEmpty()) {
+            log.warn("{} llegadas descartadas: generador saturado con {} peticiones en curso", dropped.size(),
+                    maxInFlight);
+        }
+    }
+
+    private RouteScenario scenario(long tick) {
+        return scenarios.get((int) (tick % scenarios.size()));
+    }
+
+    private Mono<Void> fire(RouteScenario scenario, long intendedStart, LatencyRecorder recorder) {
+        return Mono.defer(scenario.request())
+                .doOnNext(status -> recorder.record(scenario.name(), System.nanoTime() - intendedStart,
+                        status >= 200 && status < 300))
+                .onErrorResume(e -> {
+                    recorder.record(scenario.name(), System.nanoTime() - intendedStart, false);
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
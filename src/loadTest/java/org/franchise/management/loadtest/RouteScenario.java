@@ -0,0 +1,12 @@
+package org.franchise.management.loadtest;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Una ruta a ejercitar. La petición devuelve el código HTTP o vacío si no
+ * hay nada que hacer en este instante (p. ej. no quedan productos que borrar).
+ */
+public record RouteScenario(String name, Supplier<Mono<Integer>> request) {
+}
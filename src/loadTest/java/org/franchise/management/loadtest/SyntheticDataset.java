@@ -0,0 +1,98 @@
+package org.franchise.management.loadtest;
+
+import org.bson.types.ObjectId;
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.Product;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Dataset sintético N franquicias × M sucursales × K productos, insertado
+ * directamente con el template (en lotes) para no medir la siembra.
+ */
+public final class SyntheticDataset {
+
+    private static final int INSERT_BATCH = 1000;
+
+    private final List<String> franchiseIds = new ArrayList<>();
+    private final List<String> branchIds = new ArrayList<>();
+    private final List<String> productIds = new ArrayList<>();
+
+    private SyntheticDataset() {
+    }
+
+    public static SyntheticDataset seed(ReactiveMongoTemplate mongoTemplate, LoadTestSettings settings) {
+        SyntheticDataset dataset = new SyntheticDataset();
+        List<Franchise> franchises = new ArrayList<>();
+        List<Branch> branches = new ArrayList<>();
+        List<Product> products = new ArrayList<>();
+
+        for (int f = 0; f < settings.franchises(); f++) {
+            Franchise franchise = Franchise.builder()
+                    .id(new ObjectId().toHexString())
+                    .name("Franquicia " + f)
+                    .build();
+            for (int b = 0; b < settings.branchesPerFranchise(); b++) {
+                Branch branch = Branch.builder()
+                        .id(new ObjectId().toHexString())
+                        .name("Sucursal " + f + "-" + b)
+                        .franchiseId(franchise.getId())
+                        .build();
+                for (int p = 0; p < settings.productsPerBranch(); p++) {
+                    Product product = Product.builder()
+                            .id(new ObjectId().toHexString())
+                            .name("Producto " + f + "-" + b + "-" + p)
+                            .stock(ThreadLocalRandom.current().nextInt(0, 1000))
+                            .branchId(branch.getId())
+                            .build();
+                    // Los arrays embebidos se rellenan para que el dataset valga en ambos modos
+                    branch.addProduct(product.getId());
+                    products.add(product);
+                    dataset.productIds.add(product.getId());
+                }
+                franchise.addBranch(branch.getId());
+                branches.add(branch);
+                dataset.branchIds.add(branch.getId());
+            }
+            franchises.add(franchise);
+            dataset.franchiseIds.add(franchise.getId());
+        }
+
+        insertAll(mongoTemplate, franchises, Franchise.class);
+        insertAll(mongoTemplate, branches, Branch.class);
+        insertAll(mongoTemplate, products, Product.class);
+        return dataset;
+    }
+
+    private static <T> void insertAll(ReactiveMongoTemplate mongoTemplate, List<T> documents, Class<T> type) {
+        Flux.fromIterable(documents)
+                .buffer(INSERT_BATCH)
+                .concatMap(batch -> mongoTemplate.insert(batch, type))
+                .blockLast();
+    }
+
+    public String randomFranchiseId() {
+        return random(franchiseIds);
+    }
+
+    public String randomBranchId() {
+        return random(branchIds);
+    }
+
+    public String randomProductId() {
+        return random(productIds);
+    }
+
+    public int size() {
+        return franchiseIds.size() + branchIds.size() + productIds.size();
+    }
+
+    private static String random(List<String> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,292 @@
+package org.franchise.management.application.coalescing;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.franchise.management.application.config.StockCoalescingProperties;
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.application.metrics.UseCaseMetrics;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.StockChange;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Agrupa las escrituras de stock individuales que llegan dentro de una
+ * ventana de {@code window} y las aplica juntas.
+ *
+ * <p>Por producto se queda el último valor absoluto y la suma de los ajustes,
+ * que se aplican después de ese valor: es un orden posible de peticiones
+ * concurrentes y se resuelve sin leer el stock. Si el resultado no puede ser
+ * negativo (un valor absoluto que sigue siendo {@code >= 0} tras los ajustes,
+ * o solo ajustes que suman {@code >= 0}) el producto entra en un único
+ * bulkWrite por ventana. Si la suma es negativa se aplica con un único $inc
+ * condicionado y, solo si no hay stock para todo, las peticiones de ese
+ * producto se repiten una a una en orden de llegada para que cada una reciba
+ * su propio resultado; cualquier otro error llega tal cual a todas. Un ajuste
+ * que desbordaría la suma de su producto en la ventana se rechaza sin
+ * encolarlo.
+ *
+ * <p>Cada petición termina cuando su ventana está escrita y responde con el
+ * producto tal como quedó al cerrarla. El líder de cada sucursal afectada se
+ * refresca una vez por ventana en lugar de una por petición.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class StockWriteCoalescer {
+
+    private static final int LEADER_REFRESH_CONCURRENCY = 8;
+    private static final DistributionSummary WRITES_PER_WINDOW = UseCaseMetrics.itemsPerRequest("stock-coalescing");
+
+    private final ProductRepository productRepository;
+    private final BranchStockLeaderRepository stockLeaderRepository;
+    private final StockLeaderboard leaderboard;
+    private final StockCoalescingProperties properties;
+
+    private final Object lock = new Object();
+    private Window current;
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /** Fija el stock del producto en la próxima ventana */
+    public Mono<Product> set(String productId, Integer stock) {
+        if (stock == null || stock < 0) {
+            return Mono.error(new IllegalArgumentException("Stock cannot be negative"));
+        }
+        return enqueue(productId, new StockWrite(stock, null));
+    }
+
+    /** Suma {@code delta} al stock del producto en la próxima ventana */
+    public Mono<Product> adjust(String productId, Integer delta) {
+        if (delta == null) {
+            return Mono.error(new IllegalArgumentException("El ajuste de stock es obligatorio"));
+        }
+        return enqueue(productId, new StockWrite(null, delta));
+    }
+
+    private Mono<Product> enqueue(String productId, StockWrite write) {
+        return Mono.defer(() -> {
+            Sinks.One<Product> result = Sinks.one();
+            Window opened = null;
+            Window full = null;
+
+            synchronized (lock) {
+                if (current == null) {
+                    current = new Window();
+                    opened = current;
+                }
+                if (!current.add(productId, write, result)) {
+                    result.tryEmitError(new IllegalArgumentException("El ajuste de stock está fuera de rango"));
+                } else if (current.size() >= properties.getMaxProducts()) {
+                    full = current;
+                    current = null;
+                }
+            }
+
+            if (full != null) {
+                flush(full);
+            } else if (opened != null) {
+                Window scheduled = opened;
+                Mono.delay(properties.getWindow()).subscribe(tick -> close(scheduled));
+            }
+            return result.asMono();
+        });
+    }
+
+    private void close(Window window) {
+        synchronized (lock) {
+            // Ya cerrada por tamaño
+            if (current != window) {
+                return;
+            }
+            current = null;
+        }
+        flush(window);
+    }
+
+    private void flush(Window window) {
+        WRITES_PER_WINDOW.record(window.writes);
+
+        List<StockChange> changes = new ArrayList<>();
+        List<Mono<List<Outcome>>> writes = new ArrayList<>();
+        window.pending.forEach((productId, pending) -> {
+            long target = pending.absolute != null ? (long) pending.absolute + pending.delta : pending.delta;
+            if (target >= 0 && target <= Integer.MAX_VALUE) {
+                changes.add(pending.absolute != null
+                        ? StockChange.set(productId, (int) target)
+                        : StockChange.increment(productId, (int) target));
+            } else if (pending.absolute != null) {
+                // Fuera de rango: cada petición recibe su propio resultado
+                writes.add(oneByOne(productId, pending));
+            } else {
+                writes.add(adjustAll(productId, pending));
+            }
+        });
+        if (!changes.isEmpty()) {
+            writes.add(applyAll(changes, window.pending));
+        }
+
+        Flux.merge(writes)
+                .flatMapIterable(outcomes -> outcomes)
+                .collectList()
+                .flatMap(outcomes -> refreshLeaders(outcomes).thenReturn(outcomes))
+                .subscribe(outcomes -> outcomes.forEach(Outcome::emit),
+                        e -> window.pending.values().forEach(pending -> pending.failAll(e)));
+    }
+
+    /** Los cambios sin riesgo de stock negativo: un bulkWrite para toda la ventana */
+    private Mono<List<Outcome>> applyAll(List<StockChange> changes, Map<String, PendingStock> pending) {
+        return productRepository.applyStockChanges(changes)
+                .collectMap(Product::getId)
+                .map(updated -> changes.stream()
+                        .flatMap(change -> pending.get(change.getProductId()).resolve(
+                                updated.get(change.getProductId()),
+                                new IllegalArgumentException(change.getStock() != null
+                                        ? "Producto no encontrado"
+                                        : "Producto no encontrado o el ajuste supera el stock máximo permitido"))
+                                .stream())
+                        .toList())
+                .onErrorResume(e -> Mono.just(changes.stream()
+                        .flatMap(change -> pending.get(change.getProductId()).resolve(null, e).stream())
+                        .toList()));
+    }
+
+    /**
+     * Solo ajustes con suma negativa: un $inc condicionado y, si no hay stock
+     * para todo, uno a uno. Con cualquier otro error no se sabe si se aplicó,
+     * así que no se repite: todas las peticiones reciben ese error.
+     */
+    private Mono<List<Outcome>> adjustAll(String productId, PendingStock pending) {
+        return productRepository.adjustProductStock(productId, pending.delta)
+                .map(product -> pending.resolve(product, null))
+                .switchIfEmpty(Mono.defer(() -> oneByOne(productId, pending)))
+                .onErrorResume(ProductRepository.InsufficientStockException.class,
+                        e -> oneByOne(productId, pending))
+                .onErrorResume(e -> Mono.just(pending.resolve(null, e)));
+    }
+
+    private Mono<List<Outcome>> oneByOne(String productId, PendingStock pending) {
+        return Flux.fromIterable(pending.waiters)
+                .concatMap(waiter -> (waiter.write().stock() != null
+                        ? productRepository.updateProductStock(productId, waiter.write().stock())
+                        : productRepository.adjustProductStock(productId, waiter.write().delta()))
+                        .map(product -> new Outcome(waiter.result(), product, null))
+                        .switchIfEmpty(Mono.fromSupplier(() -> new Outcome(waiter.result(), null,
+                                new IllegalArgumentException("Producto no encontrado"))))
+                        .onErrorResume(e -> Mono.just(new Outcome(waiter.result(), null, e))))
+                .collectList();
+    }
+
+    /**
+     * Un refresco del líder por sucursal afectada. Si falla, el stock ya está
+     * escrito: se registra y la reconstrucción periódica corrige la proyección.
+     */
+    private Mono<Void> refreshLeaders(List<Outcome> outcomes) {
+        Map<String, Product> updated = new HashMap<>();
+        outcomes.stream()
+                .map(Outcome::product)
+                .filter(Objects::nonNull)
+                .forEach(product -> updated.put(product.getId(), product));
+        updated.values().forEach(leaderboard::onProductChanged);
+
+        return Flux.fromIterable(updated.values())
+                .mapNotNull(Product::getBranchId)
+                .distinct()
+                .flatMap(branchId -> stockLeaderRepository.refresh(branchId)
+                        .onErrorResume(e -> {
+                            log.warn("No se pudo refrescar el líder de la sucursal {}: {}", branchId, e.getMessage());
+                            return Mono.empty();
+                        }), LEADER_REFRESH_CONCURRENCY)
+                .then();
+    }
+
+    /** Valor absoluto o ajuste de una petición */
+    private record StockWrite(Integer stock, Integer delta) {
+    }
+
+    private record Waiter(StockWrite write, Sinks.One<Product> result) {
+    }
+
+    private record Outcome(Sinks.One<Product> result, Product product, Throwable error) {
+
+        void emit() {
+            if (error != null) {
+                result.tryEmitError(error);
+            } else {
+                result.tryEmitValue(product);
+            }
+        }
+    }
+
+    /** Escrituras de una ventana, agrupadas por producto en orden de llegada */
+    private static final class Window {
+
+        private final Map<String, PendingStock> pending = new LinkedHashMap<>();
+        private int writes;
+
+        /** false si el ajuste desbordaría la suma del producto; entonces no se añade */
+        boolean add(String productId, StockWrite write, Sinks.One<Product> result) {
+            PendingStock product = pending.get(productId);
+            if (product != null && !product.accepts(write)) {
+                return false;
+            }
+            pending.computeIfAbsent(productId, id -> new PendingStock()).add(write, result);
+            writes++;
+            return true;
+        }
+
+        int size() {
+            return pending.size();
+        }
+    }
+
+    private static final class PendingStock {
+
+        private final List<Waiter> waiters = new ArrayList<>();
+        private Integer absolute;
+        private int delta;
+
+        /** false si sumar el ajuste desbordaría {@code delta} */
+        boolean accepts(StockWrite write) {
+            if (write.delta() == null) {
+                return true;
+            }
+            long sum = (long) delta + write.delta();
+            return sum >= Integer.MIN_VALUE && sum <= Integer.MAX_VALUE;
+        }
+
+        void add(StockWrite write, Sinks.One<Product> result) {
+            waiters.add(new Waiter(write, result));
+            if (write.stock() != null) {
+                absolute = write.stock();
+            } else {
+                delta = Math.addExact(delta, write.delta());
+            }
+        }
+
+        /** Mismo resultado para todas las peticiones del producto */
+        List<Outcome> resolve(Product product, Throwable error) {
+            return waiters.stream()
+                    .map(waiter -> new Outcome(waiter.result(), product, product != null ? null : error))
+                    .toList();
+        }
+
+        void failAll(Throwable error) {
+            waiters.forEach(waiter -> waiter.result().tryEmitError(error));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.franchise.management.application.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Configuración del feed de eventos SSE de catálogo
+ * ({@code franchise.events.*}).
+ */
+@Data
+public class EventsProperties {
+
+    /** Eventos pendientes por suscriptor; si se llena se descartan los más antiguos */
+    private int bufferSize = 256;
+
+    /** Últimos eventos retenidos para reanudar por Last-Event-ID sin abrir otro change stream */
+    private int replaySize = 10_000;
+
+    /**
+     * Change streams propios abiertos a la vez para Last-Event-ID fuera del
+     * anillo. Por encima, el suscriptor empieza en el evento más antiguo del
+     * anillo.
+     */
+    private int maxCatchUpStreams = 16;
+
+    /** Intervalo de comentarios keep-alive en la conexión SSE */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    /** Espera inicial y máxima entre reintentos del change stream compartido */
+    private Duration retryMinBackoff = Duration.ofSeconds(1);
+    private Duration retryMaxBackoff = Duration.ofSeconds(30);
+
+    /**
+     * Activa changeStreamPreAndPostImages en products (MongoDB 6+) para saber
+     * la sucursal de un producto borrado. Sin pre-imagen el borrado no se
+     * puede asignar a una franquicia y no se publica.
+     */
+    private boolean preImages = true;
+}
@@ -0,0 +1,34 @@
+package org.franchise.management.application.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la cabecera Idempotency-Key en las altas por POST
+ * ({@code franchise.idempotency.*}).
+ */
+@Data
+public class IdempotencyProperties {
+
+    /** Sin habilitar, la cabecera se ignora */
+    private boolean enabled = true;
+
+    /** Tiempo durante el que una clave repetida devuelve la respuesta guardada */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Tiempo que una petición en curso retiene su clave. Mientras se ejecuta
+     * se renueva cada tercio de este tiempo; si la instancia cae a mitad, la
+     * clave vuelve a estar libre pasado este tiempo.
+     */
+    private Duration lockTimeout = Duration.ofSeconds(30);
+
+    /** Respuestas recientes que se sirven desde memoria sin consultar Mongo */
+    private long hotSetSize = 10_000;
+
+    /** Vida de cada respuesta en memoria; nunca supera {@code ttl} */
+    private Duration hotSetTtl = Duration.ofMinutes(10);
+
+    private int maxKeyLength = 255;
+}
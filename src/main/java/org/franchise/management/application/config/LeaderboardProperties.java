@@ -0,0 +1,36 @@
+package org.franchise.management.application.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Configuración del índice en proceso de líderes de stock
+ * ({@code franchise.leaderboard.*}).
+ */
+@Data
+public class LeaderboardProperties {
+
+    /**
+     * Consulta el índice antes que Mongo en GET /franchises/{id}/products/max-stock.
+     * Desactivado por defecto: el índice solo ve las escrituras de esta
+     * instancia, así que con varias instancias puede responder con un líder
+     * de hasta {@code maxAge} de antigüedad.
+     */
+    private boolean enabled = false;
+
+    /** Productos de mayor stock que se cargan por sucursal */
+    private int topK = 32;
+
+    /**
+     * Edad máxima de una franquicia cargada. Acota la desviación por
+     * escrituras de otras instancias, que este nodo no ve.
+     */
+    private Duration maxAge = Duration.ofMinutes(5);
+
+    /** Franquicias cargadas a la vez; por encima se responde desde Mongo */
+    private int maxFranchises = 10_000;
+
+    /** Sucursales consultadas en paralelo al cargar una franquicia */
+    private int loadConcurrency = 8;
+}
@@ -0,0 +1,28 @@
+package org.franchise.management.application.config;
+
+import lombok.Data;
+
+/**
+ * Tamaño de página de los listados por cursor de sucursales y productos
+ * ({@code franchise.pagination.*}).
+ */
+@Data
+public class PaginationProperties {
+
+    /** Elementos por página si la petición no indica limit */
+    private int defaultLimit = 50;
+
+    /** Máximo de limit admitido; por encima se responde 400 */
+    private int maxLimit = 500;
+
+    /** defaultLimit si no se indica; fuera de [1, maxLimit] es un error de la petición */
+    public int resolveLimit(Integer requested) {
+        if (requested == null) {
+            return defaultLimit;
+        }
+        if (requested < 1 || requested > maxLimit) {
+            throw new IllegalArgumentException("limit debe estar entre 1 y " + maxLimit);
+        }
+        return requested;
+    }
+}
@@ -0,0 +1,22 @@
+package org.franchise.management.application.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Agrupación de las escrituras de stock individuales
+ * ({@code franchise.stock-coalescing.*}).
+ */
+@Data
+public class StockCoalescingProperties {
+
+    /** Sin habilitar, cada PUT/PATCH de stock escribe en Mongo por separado */
+    private boolean enabled = false;
+
+    /** Tiempo que se acumulan escrituras antes de aplicarlas juntas */
+    private Duration window = Duration.ofMillis(20);
+
+    /** Productos distintos por ventana; al alcanzarlos se aplica sin esperar */
+    private int maxProducts = 1000;
+}
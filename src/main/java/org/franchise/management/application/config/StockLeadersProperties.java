@@ -0,0 +1,19 @@
+package org.franchise.management.application.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la proyección branch_stock_leaders
+ * ({@code franchise.stock-leaders.*}).
+ */
+@Data
+public class StockLeadersProperties {
+
+    /** Mantiene la proyección en cada escritura y la usa para la consulta de máximos */
+    private boolean enabled = false;
+
+    /** Intervalo de reconstrucción completa para reparar desviaciones */
+    private Duration rebuildInterval = Duration.ofMinutes(15);
+}
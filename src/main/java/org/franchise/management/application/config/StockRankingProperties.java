@@ -0,0 +1,17 @@
+package org.franchise.management.application.config;
+
+import lombok.Data;
+
+/**
+ * Configuración de las consultas de ranking de stock de una franquicia
+ * ({@code franchise.stock-ranking.*}).
+ */
+@Data
+public class StockRankingProperties {
+
+    /** Productos devueltos (en total o por sucursal) si la petición no indica n */
+    private int defaultLimit = 10;
+
+    /** Máximo de n admitido; por encima se responde 400 */
+    private int maxLimit = 1000;
+}
@@ -0,0 +1,214 @@
+package org.franchise.management.application.events;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.franchise.management.application.config.EventsProperties;
+import org.franchise.management.domain.model.CatalogChangeEvent;
+import org.franchise.management.domain.repository.CatalogChangeFeed;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reparte un único change stream entre todos los suscriptores SSE.
+ *
+ * <p>El stream compartido se abre con el primer suscriptor y se cierra con
+ * el último; al reabrirse (o tras un error) se reanuda desde el último token
+ * visto, así que no hay huecos. La excepción es un token que Mongo ya no
+ * puede reanudar (historial perdido): se descarta, el stream vuelve a abrirse
+ * desde ahora y el hueco queda en el log. Cada evento recibe un número de secuencia
+ * local y se guarda en un anillo de {@code replaySize} eventos; el sink
+ * multicast solo avisa de que hay eventos nuevos y cada suscriptor lee del
+ * anillo a partir de su última secuencia. Así la réplica por Last-Event-ID y
+ * el paso a directo no pueden perder ni duplicar eventos.
+ *
+ * <p>Cada suscriptor tiene un buffer de {@code bufferSize} eventos: un
+ * cliente lento pierde los más antiguos en lugar de frenar al resto. Un
+ * Last-Event-ID que ya no está en el anillo se atiende con un change stream
+ * propio reanudado en Mongo hasta que alcanza el anillo, como mucho
+ * {@code maxCatchUpStreams} a la vez. Por encima de ese límite, o si Mongo
+ * tampoco puede reanudar el token, el suscriptor empieza en el evento más
+ * antiguo del anillo.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class CatalogEventHub {
+
+    private final CatalogChangeFeed feed;
+    private final EventsProperties properties;
+
+    private final Sinks.Many<Long> notifications = Sinks.many().multicast().directBestEffort();
+    private final ConcurrentSkipListMap<Long, CatalogChangeEvent> ring = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, Long> sequenceByToken = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder catchUpStreams = new LongAdder();
+    private final AtomicInteger activeCatchUpStreams = new AtomicInteger();
+    private final LongAdder rejectedCatchUps = new LongAdder();
+    private final LongAdder lostResumeTokens = new LongAdder();
+
+    private Disposable upstream;
+    private int subscribers;
+    private volatile String lastToken;
+
+    /**
+     * Eventos de la franquicia posteriores a {@code lastEventId}, o desde ahora
+     * si es null. No termina nunca salvo error del change stream de reanudación.
+     */
+    public Flux<CatalogChangeEvent> events(String franchiseId, String lastEventId) {
+        return Flux.defer(() -> {
+            if (lastEventId == null) {
+                return fromSequence(sequence.get());
+            }
+            Long known = sequenceByToken.get(lastEventId);
+            return known != null ? fromSequence(known) : resumeFromStore(lastEventId);
+        })
+                .filter(event -> franchiseId.equals(event.getFranchiseId()))
+                .onBackpressureBuffer(properties.getBufferSize(), event -> {
+                    dropped.increment();
+                    log.debug("Suscriptor lento en franquicia {}: evento {} descartado", franchiseId,
+                            event.getId());
+                }, BufferOverflowStrategy.DROP_OLDEST)
+                .doOnSubscribe(s -> connect())
+                .doFinally(signal -> disconnect());
+    }
+
+    /**
+     * Lee del anillo todo lo posterior a {@code after} cada vez que llega un
+     * aviso. El aviso inicial cubre lo añadido entre la suscripción y el
+     * primer evento en directo.
+     */
+    private Flux<CatalogChangeEvent> fromSequence(long after) {
+        AtomicLong last = new AtomicLong(after);
+        return Flux.merge(notifications.asFlux(), Mono.just(after))
+                .concatMapIterable(notification -> drain(last));
+    }
+
+    private List<CatalogChangeEvent> drain(AtomicLong last) {
+        Map<Long, CatalogChangeEvent> pending = ring.tailMap(last.get(), false);
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        long first = pending.keySet().iterator().next();
+        if (first > last.get() + 1 && last.get() > 0) {
+            log.warn("{} eventos ya no están en el anillo de réplica", first - last.get() - 1);
+        }
+        List<CatalogChangeEvent> events = new ArrayList<>(pending.size());
+        pending.forEach((seq, event) -> {
+            events.add(event);
+            last.set(seq);
+        });
+        return events;
+    }
+
+    /** Change stream propio desde el token hasta dar con un evento del anillo */
+    private Flux<CatalogChangeEvent> resumeFromStore(String lastEventId) {
+        if (activeCatchUpStreams.incrementAndGet() > properties.getMaxCatchUpStreams()) {
+            activeCatchUpStreams.decrementAndGet();
+            rejectedCatchUps.increment();
+            log.warn("Límite de {} reanudaciones desde Mongo alcanzado, se sirve desde el inicio del anillo",
+                    properties.getMaxCatchUpStreams());
+            return fromRingStart();
+        }
+        catchUpStreams.increment();
+        log.info("Last-Event-ID fuera del anillo de réplica, reanudando desde Mongo");
+        AtomicReference<String> reached = new AtomicReference<>();
+
+        return feed.watch(lastEventId)
+                .takeUntil(event -> sequenceByToken.containsKey(event.getId()))
+                .doOnNext(event -> reached.set(event.getId()))
+                .doFinally(signal -> activeCatchUpStreams.decrementAndGet())
+                .onErrorResume(CatalogChangeFeed.ResumeTokenLostException.class, e -> {
+                    log.warn("Last-Event-ID no reanudable en Mongo, se sirve desde el inicio del anillo");
+                    return fromRingStart();
+                })
+                .concatWith(Flux.defer(() -> {
+                    Long seq = reached.get() != null ? sequenceByToken.get(reached.get()) : null;
+                    return fromSequence(seq != null ? seq : sequence.get());
+                }));
+    }
+
+    /** Todo lo que queda en el anillo; lo anterior se ha perdido para este suscriptor */
+    private Flux<CatalogChangeEvent> fromRingStart() {
+        Map.Entry<Long, CatalogChangeEvent> oldest = ring.firstEntry();
+        return fromSequence(oldest != null ? oldest.getKey() - 1 : sequence.get());
+    }
+
+    private synchronized void connect() {
+        if (subscribers++ > 0) {
+            return;
+        }
+        upstream = Flux.defer(() -> feed.watch(lastToken))
+                .doOnNext(this::append)
+                .doOnError(CatalogChangeFeed.ResumeTokenLostException.class, e -> {
+                    lostResumeTokens.increment();
+                    log.warn("El change stream de catálogo no puede reanudarse desde el último token: "
+                            + "se reabre desde ahora y se pierden los eventos intermedios");
+                    lastToken = null;
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getRetryMinBackoff())
+                        .maxBackoff(properties.getRetryMaxBackoff())
+                        .doBeforeRetry(retry -> log.warn("Change stream de catálogo interrumpido, reintentando: {}",
+                                retry.failure().getMessage())))
+                .subscribe();
+    }
+
+    private synchronized void disconnect() {
+        if (--subscribers > 0) {
+            return;
+        }
+        if (upstream != null) {
+            upstream.dispose();
+            upstream = null;
+        }
+    }
+
+    /** Solo lo llama el stream compartido, de uno en uno */
+    private void append(CatalogChangeEvent event) {
+        long seq = sequence.incrementAndGet();
+        ring.put(seq, event);
+        if (event.getId() != null) {
+            sequenceByToken.put(event.getId(), seq);
+            lastToken = event.getId();
+        }
+        while (ring.size() > properties.getReplaySize()) {
+            Map.Entry<Long, CatalogChangeEvent> evicted = ring.pollFirstEntry();
+            if (evicted != null && evicted.getValue().getId() != null) {
+                sequenceByToken.remove(evicted.getValue().getId());
+            }
+        }
+        notifications.tryEmitNext(seq);
+    }
+
+    /** Estado del feed para GET /admin/events */
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers);
+        stats.put("connected", upstream != null);
+        stats.put("sequence", sequence.get());
+        stats.put("replayed", ring.size());
+        stats.put("droppedEvents", dropped.sum());
+        stats.put("catchUpStreams", catchUpStreams.sum());
+        stats.put("activeCatchUpStreams", activeCatchUpStreams.get());
+        stats.put("rejectedCatchUps", rejectedCatchUps.sum());
+        stats.put("lostResumeTokens", lostResumeTokens.sum());
+        return stats;
+    }
+}
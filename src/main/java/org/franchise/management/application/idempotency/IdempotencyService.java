@@ -0,0 +1,113 @@
+package org.franchise.management.application.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.log4j.Log4j2;
+import org.franchise.management.application.config.IdempotencyProperties;
+import org.franchise.management.domain.model.IdempotencyRecord;
+import org.franchise.management.domain.repository.IdempotencyRepository;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Reserva y guarda las respuestas de las peticiones con Idempotency-Key.
+ *
+ * <p>La reserva es atómica en el repositorio, así que dos reintentos
+ * simultáneos en instancias distintas no ejecutan el caso de uso dos veces.
+ * Las respuestas terminadas no cambian y se guardan además en un conjunto en
+ * memoria (Caffeine) de {@code hotSetSize} entradas: un reintento poco
+ * después del original, que es el caso habitual, se responde sin ir a Mongo.
+ * Las reservas en curso no pasan por memoria porque otra instancia puede
+ * terminarlas o liberarlas.
+ */
+@Log4j2
+@Component
+public class IdempotencyService {
+
+    private final IdempotencyRepository repository;
+    private final IdempotencyProperties properties;
+    private final Cache<String, IdempotencyRecord> hotSet;
+
+    public IdempotencyService(IdempotencyRepository repository, IdempotencyProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+        Duration hotSetTtl = properties.getHotSetTtl().compareTo(properties.getTtl()) < 0
+                ? properties.getHotSetTtl()
+                : properties.getTtl();
+        this.hotSet = Caffeine.newBuilder()
+                .maximumSize(properties.getHotSetSize())
+                .expireAfterWrite(hotSetTtl)
+                .build();
+    }
+
+    /**
+     * Registro previo de la clave, terminado o en curso. Vacío si la clave
+     * queda reservada para esta petición, que debe ejecutarse y después
+     * llamar a {@link #complete} o {@link #release}.
+     */
+    public Mono<IdempotencyRecord> begin(String key, String fingerprint) {
+        IdempotencyRecord hot = hotSet.getIfPresent(key);
+        if (hot != null) {
+            return Mono.just(hot);
+        }
+
+        IdempotencyRecord pending = IdempotencyRecord.pending(key, fingerprint,
+                Instant.now().plus(properties.getLockTimeout()));
+        return repository.reserve(pending)
+                .flatMap(reserved -> reserved
+                        ? Mono.<IdempotencyRecord>empty()
+                        : repository.findByKey(key)
+                                .doOnNext(previous -> {
+                                    if (previous.isCompleted()) {
+                                        hotSet.put(key, previous);
+                                    }
+                                })
+                                // Liberada entre la reserva y la lectura: se responde como en curso
+                                .defaultIfEmpty(pending));
+    }
+
+    /**
+     * Guarda la respuesta durante {@code ttl}. Si falla, la reserva caduca en
+     * {@code lockTimeout} y un reintento posterior vuelve a ejecutarse.
+     */
+    public Mono<Void> complete(String key, String fingerprint, int status, String body) {
+        IdempotencyRecord completed = IdempotencyRecord.builder()
+                .key(key)
+                .fingerprint(fingerprint)
+                .status(status)
+                .body(body)
+                .expiresAt(Instant.now().plus(properties.getTtl()))
+                .build();
+
+        return repository.complete(completed)
+                .doOnSuccess(v -> hotSet.put(key, completed))
+                .onErrorResume(e -> {
+                    log.warn("No se pudo guardar la respuesta de la Idempotency-Key {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Renueva {@code lockTimeout} la reserva de una petición que sigue en
+     * curso. Si falla, la reserva caduca como si la instancia hubiera caído.
+     */
+    public Mono<Void> extend(String key, String fingerprint) {
+        return repository.extend(key, fingerprint, Instant.now().plus(properties.getLockTimeout()))
+                .onErrorResume(e -> {
+                    log.warn("No se pudo renovar la Idempotency-Key {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /** Libera la clave de una petición fallida para que el cliente pueda reintentar */
+    public Mono<Void> release(String key) {
+        return repository.release(key)
+                .onErrorResume(e -> {
+                    log.warn("No se pudo liberar la Idempotency-Key {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,393 @@
+package org.franchise.management.application.leaderboard;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.franchise.management.application.config.LeaderboardProperties;
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.repository.BranchRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Índice en proceso del producto de mayor stock por sucursal, consultado
+ * antes que Mongo en la consulta de máximos.
+ *
+ * <p>Por sucursal guarda los {@code topK} productos de mayor stock en un
+ * ConcurrentSkipListSet ordenado (stock desc, id) y el {@code floor}: ningún
+ * producto fuera del índice supera ese stock. El primero del conjunto es el
+ * máximo mientras su stock sea {@code >= floor}; si una bajada o un borrado lo
+ * deja por debajo, la sucursal pasa a desconocida y la franquicia se vuelve a
+ * cargar. Las franquicias se cargan bajo demanda tras un fallo y se descartan
+ * al superar {@code maxAge}, que acota la desviación por escrituras de otras
+ * instancias.
+ *
+ * <p>Los casos de uso de escritura notifican cada cambio. Una escritura que
+ * llega mientras su sucursal se está cargando invalida esa sucursal en lugar
+ * de competir con la lectura.
+ *
+ * <p>Dos escrituras concurrentes del mismo producto pueden notificarse en otro
+ * orden que el de Mongo. Cada entrada guarda el {@code updatedAt} del
+ * documento: una notificación que no es posterior a la del índice y trae otro
+ * stock invalida la sucursal en lugar de sobrescribir. Queda un caso que no se
+ * detecta: {@code updatedAt} lo fija la aplicación antes de escribir, así que
+ * dos escrituras pueden llegar a Mongo en orden inverso a sus fechas; ese
+ * líder, igual que los de las actualizaciones por lotes, que no traen fecha,
+ * se corrige como mucho al caducar la franquicia por {@code maxAge}.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class StockLeaderboard {
+
+    private final BranchRepository branchRepository;
+    private final ProductRepository productRepository;
+    private final LeaderboardProperties properties;
+
+    private final ConcurrentMap<String, FranchiseBoard> franchises = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, BranchBoard> branches = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile long lastWriteNanos;
+
+    /**
+     * Líderes de la franquicia si está cargada, no ha caducado y el máximo de
+     * cada sucursal está en el índice. Vacío en cualquier otro caso.
+     */
+    public Optional<List<Product>> leaders(String franchiseId) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+
+        FranchiseBoard franchise = franchises.get(franchiseId);
+        if (franchise == null || !franchise.ready) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (franchise.age().compareTo(properties.getMaxAge()) > 0) {
+            evict(franchiseId, franchise);
+            misses.increment();
+            return Optional.empty();
+        }
+
+        List<Product> leaders = new ArrayList<>(franchise.boards.size());
+        for (Map.Entry<String, BranchBoard> branch : franchise.boards.entrySet()) {
+            Entry top = branch.getValue().top();
+            if (top == BranchBoard.UNKNOWN) {
+                evict(franchiseId, franchise);
+                misses.increment();
+                return Optional.empty();
+            }
+            if (top != null) {
+                leaders.add(top.toProduct(branch.getKey()));
+            }
+        }
+        hits.increment();
+        return Optional.of(leaders);
+    }
+
+    /**
+     * Carga la franquicia en segundo plano. No hace nada si ya está cargada o
+     * cargándose, o si se alcanzó {@code maxFranchises}.
+     */
+    public void warmUp(String franchiseId) {
+        if (!properties.isEnabled() || franchises.size() >= properties.getMaxFranchises()) {
+            return;
+        }
+
+        FranchiseBoard franchise = new FranchiseBoard();
+        if (franchises.putIfAbsent(franchiseId, franchise) != null) {
+            return;
+        }
+
+        branchRepository.findAllByFranchise(franchiseId)
+                .flatMap(branch -> loadBranch(franchise, branch), properties.getLoadConcurrency())
+                .then(Mono.fromRunnable(() -> {
+                    franchise.loadedAtNanos = System.nanoTime();
+                    franchise.ready = true;
+                    log.debug("Índice de líderes cargado para franquicia {}: {} sucursales", franchiseId,
+                            franchise.boards.size());
+                }))
+                .subscribe(null, e -> {
+                    evict(franchiseId, franchise);
+                    log.warn("No se pudo cargar el índice de líderes de la franquicia {}: {}", franchiseId,
+                            e.getMessage());
+                });
+    }
+
+    private Mono<Void> loadBranch(FranchiseBoard franchise, Branch branch) {
+        // Se registra antes de consultar para que las escrituras concurrentes la marquen
+        BranchBoard board = new BranchBoard(properties.getTopK());
+        franchise.boards.put(branch.getId(), board);
+        branches.put(branch.getId(), board);
+
+        return productRepository.findTopStockProductsByBranch(branch.getId(), properties.getTopK())
+                .collectList()
+                .doOnNext(board::fill)
+                .then();
+    }
+
+    /** Producto creado o modificado con su documento completo */
+    public void onProductChanged(Product product) {
+        BranchBoard board = board(product.getBranchId());
+        if (board != null) {
+            board.upsert(product.getId(), product.getName(), product.getStock(), product.getUpdatedAt());
+        }
+    }
+
+    /** Stock actualizado sin el resto del documento (lotes) */
+    public void onStockChanged(String branchId, String productId, Integer stock) {
+        BranchBoard board = board(branchId);
+        if (board != null) {
+            board.upsert(productId, null, stock, null);
+        }
+    }
+
+    public void onProductRemoved(String branchId, String productId) {
+        BranchBoard board = board(branchId);
+        if (board != null) {
+            board.remove(productId);
+        }
+    }
+
+    /** Cambios de la sucursal que no se conocen producto a producto (importaciones) */
+    public void onBranchChanged(String branchId) {
+        BranchBoard board = board(branchId);
+        if (board != null) {
+            board.invalidate();
+        }
+    }
+
+    /** Una sucursal nueva no está en la franquicia cargada: se vuelve a cargar */
+    public void onBranchAdded(Branch branch) {
+        lastWriteNanos = System.nanoTime();
+        FranchiseBoard franchise = franchises.get(branch.getFranchiseId());
+        if (franchise != null) {
+            evict(branch.getFranchiseId(), franchise);
+        }
+    }
+
+    /** Tamaño y antigüedad del índice para GET /admin/leaderboard */
+    public Map<String, Object> stats() {
+        long now = System.nanoTime();
+        long ready = 0;
+        long oldest = 0;
+        long newest = Long.MAX_VALUE;
+        for (FranchiseBoard franchise : franchises.values()) {
+            if (franchise.ready) {
+                ready++;
+                long age = now - franchise.loadedAtNanos;
+                oldest = Math.max(oldest, age);
+                newest = Math.min(newest, age);
+            }
+        }
+        long entries = branches.values().stream().mapToLong(BranchBoard::size).sum();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("franchises", ready);
+        stats.put("loadingFranchises", franchises.size() - ready);
+        stats.put("branches", branches.size());
+        stats.put("entries", entries);
+        stats.put("hitCount", hitCount);
+        stats.put("missCount", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("oldestLoadAgeMillis", ready == 0 ? null : Duration.ofNanos(oldest).toMillis());
+        stats.put("newestLoadAgeMillis", ready == 0 ? null : Duration.ofNanos(newest).toMillis());
+        stats.put("lastWriteAgeMillis",
+                lastWriteNanos == 0 ? null : Duration.ofNanos(now - lastWriteNanos).toMillis());
+        stats.put("maxAgeMillis", properties.getMaxAge().toMillis());
+        return stats;
+    }
+
+    private BranchBoard board(String branchId) {
+        lastWriteNanos = System.nanoTime();
+        return branchId != null ? branches.get(branchId) : null;
+    }
+
+    private void evict(String franchiseId, FranchiseBoard franchise) {
+        if (franchises.remove(franchiseId, franchise)) {
+            franchise.boards.forEach(branches::remove);
+        }
+    }
+
+    private static final class FranchiseBoard {
+
+        private final ConcurrentMap<String, BranchBoard> boards = new ConcurrentHashMap<>();
+        private volatile boolean ready;
+        private volatile long loadedAtNanos;
+
+        private Duration age() {
+            return Duration.ofNanos(System.nanoTime() - loadedAtNanos);
+        }
+    }
+
+    /**
+     * Top-K de una sucursal. Las escrituras se serializan por sucursal; las
+     * lecturas no bloquean.
+     */
+    private static final class BranchBoard {
+
+        private static final Entry UNKNOWN = new Entry(null, null, Integer.MIN_VALUE, null);
+
+        private static final Comparator<Entry> BY_STOCK_DESC = Comparator
+                .comparingInt(Entry::stock).reversed()
+                .thenComparing(Entry::productId);
+
+        private final int capacity;
+        private final ConcurrentSkipListSet<Entry> byStock = new ConcurrentSkipListSet<>(BY_STOCK_DESC);
+        private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+        private boolean loading = true;
+        private boolean dirty;
+        /** Stock máximo fuera del índice; MIN_VALUE si la sucursal está completa, MAX_VALUE si es desconocida */
+        private volatile int floor = Integer.MAX_VALUE;
+
+        private BranchBoard(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void fill(List<Product> top) {
+            loading = false;
+            if (dirty) {
+                return;
+            }
+            top.stream()
+                    .filter(product -> product.getStock() != null)
+                    .forEach(product -> add(new Entry(product.getId(), product.getName(), product.getStock(),
+                            product.getUpdatedAt())));
+            Entry last = byStock.isEmpty() ? null : byStock.last();
+            floor = top.size() < capacity || last == null ? Integer.MIN_VALUE : last.stock();
+        }
+
+        /** El máximo, null si la sucursal no tiene productos o UNKNOWN si puede estar fuera del índice */
+        Entry top() {
+            int currentFloor = floor;
+            Entry first = firstOrNull();
+            if (first == null) {
+                return currentFloor == Integer.MIN_VALUE ? null : UNKNOWN;
+            }
+            return first.stock() >= currentFloor ? current(first) : UNKNOWN;
+        }
+
+        synchronized void upsert(String productId, String name, Integer stock, LocalDateTime updatedAt) {
+            if (loading) {
+                dirty = true;
+                return;
+            }
+            if (productId == null || stock == null) {
+                return;
+            }
+
+            Entry previous = byId.get(productId);
+            if (previous != null && updatedAt != null && previous.updatedAt() != null
+                    && !updatedAt.isAfter(previous.updatedAt())) {
+                // Llega después de una escritura más reciente: solo Mongo sabe cuál ganó
+                if (previous.stock() != stock) {
+                    invalidate();
+                }
+                return;
+            }
+            if (previous == null && stock <= floor) {
+                // Sigue fuera del índice y por debajo del suelo
+                return;
+            }
+            String resolvedName = name != null ? name : previous != null ? previous.name() : null;
+            if (resolvedName == null) {
+                // Sube por encima del suelo pero no conocemos el documento
+                invalidate();
+                return;
+            }
+
+            Entry updated = new Entry(productId, resolvedName, stock, updatedAt);
+            if (previous != null && previous.stock() == stock) {
+                // Mismo stock: el comparador lo considera el mismo nodo y add() no lo sustituiría
+                byId.put(productId, updated);
+                return;
+            }
+            add(updated);
+            if (previous != null) {
+                byStock.remove(previous);
+            }
+            trim();
+        }
+
+        synchronized void remove(String productId) {
+            if (loading) {
+                dirty = true;
+                return;
+            }
+            Entry previous = byId.remove(productId);
+            if (previous != null) {
+                byStock.remove(previous);
+            }
+        }
+
+        synchronized void invalidate() {
+            if (loading) {
+                dirty = true;
+                return;
+            }
+            floor = Integer.MAX_VALUE;
+        }
+
+        long size() {
+            return byId.size();
+        }
+
+        private void add(Entry entry) {
+            byId.put(entry.productId(), entry);
+            byStock.add(entry);
+        }
+
+        /** Con el doble de capacidad se descarta el último y sube el suelo */
+        private void trim() {
+            while (byId.size() > capacity * 2) {
+                Entry last = byStock.pollLast();
+                if (last == null) {
+                    return;
+                }
+                byId.remove(last.productId());
+                floor = Math.max(floor, last.stock());
+            }
+        }
+
+        /** Nombre y fecha vigentes de un nodo de byStock, que no se sustituye si el stock no cambia */
+        private Entry current(Entry node) {
+            Entry entry = byId.get(node.productId());
+            return entry != null && entry.stock() == node.stock() ? entry : node;
+        }
+
+        private Entry firstOrNull() {
+            var iterator = byStock.iterator();
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+    }
+
+    private record Entry(String productId, String name, int stock, LocalDateTime updatedAt) {
+
+        Product toProduct(String branchId) {
+            return Product.builder()
+                    .id(productId)
+                    .name(name)
+                    .stock(stock)
+                    .branchId(branchId)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.franchise.management.application.logging;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+/**
+ * Marcadores de log. Los eventos INFO marcados como {@link #REQUEST} se
+ * emiten una vez por petición y el appender los muestrea (ver
+ * log4j2-spring.xml, {@code franchise.logging.request-sample.*}); WARN y
+ * ERROR nunca se descartan.
+ */
+public final class LogMarkers {
+
+    public static final Marker REQUEST = MarkerManager.getMarker("REQUEST");
+
+    private LogMarkers() {
+        // Clase utilitaria, no se instancia
+    }
+}
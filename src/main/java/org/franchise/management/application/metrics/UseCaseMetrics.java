@@ -0,0 +1,48 @@
+package org.franchise.management.application.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Métricas de los casos de uso con Reactor + Micrometer. Cada pipeline
+ * instrumentado publica bajo {@value #METRIC_NAME} (etiqueta {@code usecase}):
+ * el timer {@code .flow.duration} por resultado, el contador
+ * {@code .subscribed} y la distribución {@code .requested}; en los Flux
+ * también el timer {@code .onNext.delay}.
+ *
+ * <p>Se usa el registro global, que Spring Boot enlaza con el de Prometheus;
+ * en los tests unitarios no hay registros y las métricas no cuestan nada.
+ */
+public final class UseCaseMetrics {
+
+    public static final String METRIC_NAME = "franchise.usecase";
+
+    private UseCaseMetrics() {
+        // Clase utilitaria, no se instancia
+    }
+
+    public static <T> Function<Mono<T>, Mono<T>> mono(String useCase) {
+        return mono -> mono.name(METRIC_NAME)
+                .tag("usecase", useCase)
+                .tap(Micrometer.metrics(Metrics.globalRegistry));
+    }
+
+    public static <T> Function<Flux<T>, Flux<T>> flux(String useCase) {
+        return flux -> flux.name(METRIC_NAME)
+                .tag("usecase", useCase)
+                .tap(Micrometer.metrics(Metrics.globalRegistry));
+    }
+
+    /** Tamaño de las operaciones masivas (elementos por petición) */
+    public static DistributionSummary itemsPerRequest(String useCase) {
+        return DistributionSummary.builder(METRIC_NAME + ".items")
+                .description("Elementos procesados por petición masiva")
+                .tag("usecase", useCase)
+                .register(Metrics.globalRegistry);
+    }
+}
@@ -1,7 +1,10 @@
 package org.franchise.management.application.usecase;
 
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.application.logging.LogMarkers;
+import org.franchise.management.application.metrics.UseCaseMetrics;
 import org.franchise.management.domain.model.Branch;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.BranchMongoAdapter;
+import org.franchise.management.domain.repository.BranchRepository;
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
@@ -13,16 +16,19 @@ import reactor.core.publisher.Mono;
 @Log4j2
 public class AddBranchToFranchiseUseCase {
 
-    private final BranchMongoAdapter branchRepository;
+    private final BranchRepository branchRepository;
+    private final StockLeaderboard leaderboard;
 
     public Mono<Branch> addBranch(String franchiseId, Branch branch) {
         branch.setFranchiseId(franchiseId);
         return branchRepository.addBranchToFranchise(franchiseId, branch)
-                .doOnNext(b -> log.info("Sucursal agregada a franquicia {}: {}", franchiseId, b.getName()))
+                .doOnNext(leaderboard::onBranchAdded)
+                .doOnNext(b -> log.info(LogMarkers.REQUEST, "Sucursal agregada a franquicia {}: {}", franchiseId, b.getName()))
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Franquicia no encontrada.")))
                 .onErrorResume(e -> {
                     log.error("Error al agregar sucursal: {}", e.getMessage());
                     return Mono.error(e);
-                });
+                })
+                .transform(UseCaseMetrics.mono("add-branch"));
     }
 }
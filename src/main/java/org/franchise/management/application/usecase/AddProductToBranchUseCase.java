@@ -1,8 +1,11 @@
 package org.franchise.management.application.usecase;
 
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.application.logging.LogMarkers;
+import org.franchise.management.application.metrics.UseCaseMetrics;
 import org.franchise.management.domain.model.Product;
 import org.franchise.management.domain.repository.ProductRepository;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.ProductMongoAdapter;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
@@ -14,15 +17,20 @@ import reactor.core.publisher.Mono;
 @Log4j2
 public class AddProductToBranchUseCase {
 
-    private final ProductMongoAdapter productRepository;
+    private final ProductRepository productRepository;
+    private final BranchStockLeaderRepository stockLeaderRepository;
+    private final StockLeaderboard leaderboard;
 
     public Mono<Product> addProduct(String branchId, Product product) {
         return productRepository.addProductToBranch(branchId, product)
-                .doOnNext(p -> log.info("Producto agregado: " + p.getName()))
+                .flatMap(p -> stockLeaderRepository.refresh(branchId).thenReturn(p))
+                .doOnNext(leaderboard::onProductChanged)
+                .doOnNext(p -> log.info(LogMarkers.REQUEST, "Producto agregado: {}", p.getName()))
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Sucursal no encontrada.")))
                 .onErrorResume(e -> {
-                    log.error("Error al agregar producto: " + e.getMessage());
+                    log.error("Error al agregar producto: {}", e.getMessage());
                     return Mono.error(e);
-                });
+                })
+                .transform(UseCaseMetrics.mono("add-product"));
     }
 }
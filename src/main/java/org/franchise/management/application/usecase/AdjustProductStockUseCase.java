@@ -0,0 +1,46 @@
+package org.franchise.management.application.usecase;
+
+import org.franchise.management.application.coalescing.StockWriteCoalescer;
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.application.logging.LogMarkers;
+import org.franchise.management.application.metrics.UseCaseMetrics;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class AdjustProductStockUseCase {
+
+    private final ProductRepository productRepository;
+    private final BranchStockLeaderRepository stockLeaderRepository;
+    private final StockLeaderboard leaderboard;
+    private final StockWriteCoalescer coalescer;
+
+    public Mono<Product> adjustStock(String productId, Integer delta) {
+        return write(productId, delta)
+                .doOnNext(p -> log.info(LogMarkers.REQUEST, "Stock ajustado para producto {}: {}", productId, p.getStock()))
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Producto no encontrado.")))
+                .onErrorResume(e -> {
+                    log.error("Error al ajustar stock del producto {}: {}", productId, e.getMessage());
+                    return Mono.error(e);
+                })
+                .transform(UseCaseMetrics.mono("adjust-stock"));
+    }
+
+    /** Con la agrupación habilitada, el coalescer escribe y refresca el líder por ventana */
+    private Mono<Product> write(String productId, Integer delta) {
+        if (coalescer.isEnabled()) {
+            return coalescer.adjust(productId, delta);
+        }
+        return productRepository.adjustProductStock(productId, delta)
+                .flatMap(p -> stockLeaderRepository.refresh(p.getBranchId()).thenReturn(p))
+                .doOnNext(leaderboard::onProductChanged);
+    }
+}
@@ -0,0 +1,69 @@
+package org.franchise.management.application.usecase;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.application.logging.LogMarkers;
+import org.franchise.management.application.metrics.UseCaseMetrics;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.StockUpdateResult;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class BatchUpdateProductStockUseCase {
+
+    private static final int LEADER_REFRESH_CONCURRENCY = 8;
+    private static final DistributionSummary BATCH_SIZE = UseCaseMetrics.itemsPerRequest("batch-update-stock");
+
+    private final ProductRepository productRepository;
+    private final BranchStockLeaderRepository stockLeaderRepository;
+    private final StockLeaderboard leaderboard;
+
+    /**
+     * Aplica el lote y, al terminar, refresca una sola vez el líder de cada
+     * sucursal afectada en lugar de hacerlo por producto.
+     */
+    public Flux<StockUpdateResult> updateStocks(Flux<Product> updates) {
+        return Flux.defer(() -> {
+            Set<String> touchedBranches = ConcurrentHashMap.newKeySet();
+            AtomicLong updated = new AtomicLong();
+            AtomicLong received = new AtomicLong();
+
+            return productRepository.bulkUpdateProductStock(updates)
+                    .doOnNext(result -> {
+                        received.incrementAndGet();
+                        if (result.getStatus() == StockUpdateResult.Status.UPDATED) {
+                            updated.incrementAndGet();
+                            leaderboard.onStockChanged(result.getBranchId(), result.getProductId(),
+                                    result.getStock());
+                            if (result.getBranchId() != null) {
+                                touchedBranches.add(result.getBranchId());
+                            }
+                        }
+                    })
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(touchedBranches)
+                            .flatMap(stockLeaderRepository::refresh, LEADER_REFRESH_CONCURRENCY)
+                            .thenMany(Flux.<StockUpdateResult>empty())))
+                    .doOnComplete(() -> {
+                        BATCH_SIZE.record(received.get());
+                        log.info(LogMarkers.REQUEST, "Lote de stock aplicado: {} productos actualizados en {} sucursales",
+                                updated.get(), touchedBranches.size());
+                    })
+                    .onErrorResume(e -> {
+                        log.error("Error al aplicar lote de stock: {}", e.getMessage());
+                        return Flux.error(e);
+                    });
+        }).transform(UseCaseMetrics.flux("batch-update-stock"));
+    }
+}
@@ -1,7 +1,9 @@
 package org.franchise.management.application.usecase;
 
+import org.franchise.management.application.logging.LogMarkers;
+import org.franchise.management.application.metrics.UseCaseMetrics;
 import org.franchise.management.domain.model.Franchise;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.FranchiseMongoAdapter;
+import org.franchise.management.domain.repository.FranchiseRepository;
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
@@ -13,14 +15,15 @@ import reactor.core.publisher.Mono;
 @Log4j2
 public class CreateFranchiseUseCase {
 
-    private final FranchiseMongoAdapter franchiseRepository;
+    private final FranchiseRepository franchiseRepository;
 
     public Mono<Franchise> createFranchise(Franchise franchise) {
         return franchiseRepository.save(franchise)
-                .doOnNext(f -> log.info("Nueva franquicia creada: " + f.getName()))
+                .doOnNext(f -> log.info(LogMarkers.REQUEST, "Nueva franquicia creada: {}", f.getName()))
                 .onErrorResume(e -> {
-                    log.error("Error al crear franquicia: " + e.getMessage());
+                    log.error("Error al crear franquicia: {}", e.getMessage());
                     return Mono.error(e);
-                });
+                })
+                .transform(UseCaseMetrics.mono("create-franchise"));
     }
 }
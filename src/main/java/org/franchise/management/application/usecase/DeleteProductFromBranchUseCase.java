@@ -1,6 +1,10 @@
 package org.franchise.management.application.usecase;
 
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.ProductMongoAdapter;
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.application.logging.LogMarkers;
+import org.franchise.management.application.metrics.UseCaseMetrics;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.ProductRepository;
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
@@ -12,14 +16,19 @@ import reactor.core.publisher.Mono;
 @Log4j2
 public class DeleteProductFromBranchUseCase {
 
-    private final ProductMongoAdapter productRepository;
+    private final ProductRepository productRepository;
+    private final BranchStockLeaderRepository stockLeaderRepository;
+    private final StockLeaderboard leaderboard;
 
     public Mono<Void> deleteProduct(String branchId, String productId) {
         return productRepository.deleteProductFromBranch(branchId, productId)
-                .doOnSuccess(v -> log.info("Producto eliminado: " + productId))
+                .doOnSuccess(v -> leaderboard.onProductRemoved(branchId, productId))
+                .then(stockLeaderRepository.refresh(branchId))
+                .doOnSuccess(v -> log.info(LogMarkers.REQUEST, "Producto eliminado: {}", productId))
                 .onErrorResume(e -> {
-                    log.error("Error al eliminar producto: " + e.getMessage());
+                    log.error("Error al eliminar producto: {}", e.getMessage());
                     return Mono.error(e);
-                });
+                })
+                .transform(UseCaseMetrics.mono("delete-product"));
     }
 }
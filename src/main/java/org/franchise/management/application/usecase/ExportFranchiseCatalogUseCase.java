@@ -0,0 +1,36 @@
+package org.franchise.management.application.usecase;
+
+import org.franchise.management.application.metrics.UseCaseMetrics;
+import org.franchise.management.domain.model.CatalogExportRecord;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.repository.CatalogExportRepository;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class ExportFranchiseCatalogUseCase {
+
+    private final CatalogExportRepository catalogExportRepository;
+
+    /** Se resuelve antes de abrir la respuesta para poder devolver 400 si no existe */
+    public Mono<Franchise> findFranchise(String franchiseId) {
+        return catalogExportRepository.findFranchise(franchiseId)
+                .onErrorResume(e -> {
+                    log.error("Error al exportar catálogo: {}", e.getMessage());
+                    return Mono.error(e);
+                });
+    }
+
+    public Flux<CatalogExportRecord> exportCatalog(Franchise franchise) {
+        return catalogExportRepository.exportCatalog(franchise)
+                .doOnError(e -> log.error("Export de catálogo interrumpido para franquicia {}: {}",
+                        franchise.getId(), e.getMessage()))
+                .transform(UseCaseMetrics.flux("export-catalog"));
+    }
+}
@@ -1,7 +1,12 @@
 package org.franchise.management.application.usecase;
 
+import org.franchise.management.application.config.StockLeadersProperties;
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.application.logging.LogMarkers;
+import org.franchise.management.application.metrics.UseCaseMetrics;
 import org.franchise.management.domain.model.Product;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.ProductMongoAdapter;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.ProductRepository;
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
@@ -13,14 +18,34 @@ import reactor.core.publisher.Flux;
 @Log4j2
 public class GetMaxStockProductByBranchUseCase {
 
-    private final ProductMongoAdapter productRepository;
+    private final ProductRepository productRepository;
+    private final BranchStockLeaderRepository stockLeaderRepository;
+    private final StockLeadersProperties stockLeadersProperties;
+    private final StockLeaderboard leaderboard;
 
+    /**
+     * Responde desde el índice en proceso si tiene la franquicia; si no,
+     * consulta Mongo y carga la franquicia en segundo plano para las
+     * siguientes peticiones.
+     */
     public Flux<Product> getMaxStockProducts(String franchiseId) {
-        return productRepository.findMaxStockProductByBranch(franchiseId)
-                .doOnNext(p -> log.info("Producto con mayor stock: " + p.getName() + " (" + p.getStock() + ")"))
+        Flux<Product> maxStockProducts = Flux.defer(() -> leaderboard.leaders(franchiseId)
+                .map(Flux::fromIterable)
+                .orElseGet(() -> findInStore(franchiseId)
+                        .doOnComplete(() -> leaderboard.warmUp(franchiseId))));
+
+        return maxStockProducts
+                .doOnNext(p -> log.info(LogMarkers.REQUEST, "Producto con mayor stock: {} ({})", p.getName(), p.getStock()))
                 .onErrorResume(e -> {
-                    log.error("Error al obtener productos con mayor stock: " + e.getMessage());
+                    log.error("Error al obtener productos con mayor stock: {}", e.getMessage());
                     return Flux.error(e);
-                });
+                })
+                .transform(UseCaseMetrics.flux("max-stock"));
+    }
+
+    private Flux<Product> findInStore(String franchiseId) {
+        return stockLeadersProperties.isEnabled()
+                ? stockLeaderRepository.findLeadersByFranchise(franchiseId)
+                : productRepository.findMaxStockProductByBranch(franchiseId);
     }
 }
@@ -0,0 +1,76 @@
+package org.franchise.management.application.usecase;
+
+import org.franchise.management.application.config.StockRankingProperties;
+import org.franchise.management.application.metrics.UseCaseMetrics;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.SparseFields;
+import org.franchise.management.domain.repository.CatalogExportRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class GetStockRankingUseCase {
+
+    private final CatalogExportRepository catalogExportRepository;
+    private final ProductRepository productRepository;
+    private final StockRankingProperties properties;
+
+    /** Se resuelve antes de abrir la respuesta para poder devolver 400 si no existe */
+    public Mono<Franchise> findFranchise(String franchiseId) {
+        return catalogExportRepository.findFranchise(franchiseId);
+    }
+
+    /**
+     * n por defecto si no se indica; fuera de [1, maxLimit] es un error de la
+     * petición. Los parámetros se validan antes de abrir la respuesta, porque
+     * un error a mitad del streaming ya no puede ser un 400.
+     */
+    public int resolveLimit(Integer requested) {
+        if (requested == null) {
+            return properties.getDefaultLimit();
+        }
+        if (requested < 1 || requested > properties.getMaxLimit()) {
+            throw new IllegalArgumentException("n debe estar entre 1 y " + properties.getMaxLimit());
+        }
+        return requested;
+    }
+
+    public int resolveThreshold(Integer below) {
+        if (below == null) {
+            throw new IllegalArgumentException("El parámetro below es obligatorio");
+        }
+        if (below < 0) {
+            throw new IllegalArgumentException("below no puede ser negativo");
+        }
+        return below;
+    }
+
+    /** Campos de ?fields=; todos los del producto si no se indica */
+    public Set<String> resolveFields(String fields) {
+        return SparseFields.parse(fields, SparseFields.PRODUCT, SparseFields.PRODUCT);
+    }
+
+    public Flux<Product> getTopStockProducts(Franchise franchise, int limit, boolean perBranch, Set<String> fields) {
+        return productRepository.findTopStockProducts(franchise, limit, perBranch, fields)
+                .doOnError(e -> log.error("Error al obtener top de stock de la franquicia {}: {}",
+                        franchise.getId(), e.getMessage()))
+                .transform(UseCaseMetrics.flux("top-stock"));
+    }
+
+    public Flux<Product> getLowStockProducts(Franchise franchise, int below, int limit, Set<String> fields) {
+        return productRepository.findLowStockProducts(franchise, below, limit, fields)
+                .doOnError(e -> log.error("Error al obtener productos con poco stock de la franquicia {}: {}",
+                        franchise.getId(), e.getMessage()))
+                .transform(UseCaseMetrics.flux("low-stock"));
+    }
+}
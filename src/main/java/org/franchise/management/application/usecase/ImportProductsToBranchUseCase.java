@@ -0,0 +1,47 @@
+package org.franchise.management.application.usecase;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.application.logging.LogMarkers;
+import org.franchise.management.application.metrics.UseCaseMetrics;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.ProductImportResult;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class ImportProductsToBranchUseCase {
+
+    private static final DistributionSummary IMPORTED_PRODUCTS = UseCaseMetrics.itemsPerRequest("import-products");
+
+    private final ProductRepository productRepository;
+    private final BranchStockLeaderRepository stockLeaderRepository;
+    private final StockLeaderboard leaderboard;
+
+    public Mono<ProductImportResult> importProducts(String branchId, Flux<Product> products) {
+        return productRepository.importProductsToBranch(branchId, products)
+                .flatMap(imported -> stockLeaderRepository.refresh(branchId).thenReturn(imported))
+                .doOnNext(imported -> leaderboard.onBranchChanged(branchId))
+                .map(imported -> ProductImportResult.builder()
+                        .branchId(branchId)
+                        .imported(imported)
+                        .build())
+                .doOnNext(result -> {
+                    IMPORTED_PRODUCTS.record(result.getImported());
+                    log.info(LogMarkers.REQUEST, "Productos importados en sucursal {}: {}", branchId, result.getImported());
+                })
+                .onErrorResume(e -> {
+                    log.error("Error al importar productos: {}", e.getMessage());
+                    return Mono.error(e);
+                })
+                .transform(UseCaseMetrics.mono("import-products"));
+    }
+}
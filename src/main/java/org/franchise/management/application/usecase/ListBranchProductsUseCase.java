@@ -0,0 +1,54 @@
+package org.franchise.management.application.usecase;
+
+import org.franchise.management.application.config.PaginationProperties;
+import org.franchise.management.application.metrics.UseCaseMetrics;
+import org.franchise.management.domain.model.CursorPage;
+import org.franchise.management.domain.model.PageCursor;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.ProductOrder;
+import org.franchise.management.domain.model.SparseFields;
+import org.franchise.management.domain.repository.BranchRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class ListBranchProductsUseCase {
+
+    private final BranchRepository branchRepository;
+    private final ProductRepository productRepository;
+    private final PaginationProperties paginationProperties;
+
+    /**
+     * Página de productos de la sucursal por id o por stock. El cursor lleva
+     * el orden con el que se generó: uno de id no sirve para el orden por
+     * stock. La sucursal se comprueba con exists, sin leer su productIds.
+     */
+    public Mono<CursorPage<Product>> listProducts(String branchId, String sort, String cursor, Integer limit,
+            String fields) {
+        return Mono.defer(() -> {
+            int size = paginationProperties.resolveLimit(limit);
+            ProductOrder order = ProductOrder.from(sort);
+            PageCursor after = PageCursor.decode(cursor);
+            Set<String> selected = SparseFields.parse(fields, SparseFields.PRODUCT, SparseFields.PRODUCT);
+            if (after != null && (order == ProductOrder.STOCK) != (after.getStock() != null)) {
+                return Mono.error(new IllegalArgumentException(
+                        "Cursor inválido para sort=" + order.name().toLowerCase()));
+            }
+            return branchRepository.existsById(branchId)
+                    .flatMap(exists -> exists
+                            ? productRepository.findPageByBranch(branchId, order, after, size, selected)
+                            : Mono.error(new IllegalArgumentException("Sucursal no encontrada.")));
+        })
+                .doOnError(e -> log.error("Error al listar productos de la sucursal {}: {}",
+                        branchId, e.getMessage()))
+                .transform(UseCaseMetrics.mono("list-products"));
+    }
+}
@@ -0,0 +1,45 @@
+package org.franchise.management.application.usecase;
+
+import org.franchise.management.application.config.PaginationProperties;
+import org.franchise.management.application.metrics.UseCaseMetrics;
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.CursorPage;
+import org.franchise.management.domain.model.PageCursor;
+import org.franchise.management.domain.model.SparseFields;
+import org.franchise.management.domain.repository.BranchRepository;
+import org.franchise.management.domain.repository.CatalogExportRepository;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class ListFranchiseBranchesUseCase {
+
+    private final CatalogExportRepository catalogExportRepository;
+    private final BranchRepository branchRepository;
+    private final PaginationProperties paginationProperties;
+
+    /**
+     * Página de sucursales por id; {@code cursor} es el nextCursor de la
+     * página anterior y {@code fields} la lista de campos pedida (por defecto
+     * todos menos productIds).
+     */
+    public Mono<CursorPage<Branch>> listBranches(String franchiseId, String cursor, Integer limit, String fields) {
+        return Mono.defer(() -> {
+            int size = paginationProperties.resolveLimit(limit);
+            PageCursor after = PageCursor.decode(cursor);
+            Set<String> selected = SparseFields.parse(fields, SparseFields.BRANCH, SparseFields.BRANCH_DEFAULT);
+            return catalogExportRepository.findFranchise(franchiseId)
+                    .flatMap(franchise -> branchRepository.findPageByFranchise(franchise, after, size, selected));
+        })
+                .doOnError(e -> log.error("Error al listar sucursales de la franquicia {}: {}",
+                        franchiseId, e.getMessage()))
+                .transform(UseCaseMetrics.mono("list-branches"));
+    }
+}
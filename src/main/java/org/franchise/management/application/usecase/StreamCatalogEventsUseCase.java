@@ -0,0 +1,43 @@
+package org.franchise.management.application.usecase;
+
+import org.franchise.management.application.config.EventsProperties;
+import org.franchise.management.application.events.CatalogEventHub;
+import org.franchise.management.domain.model.CatalogChangeEvent;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.repository.CatalogExportRepository;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class StreamCatalogEventsUseCase {
+
+    private final CatalogExportRepository catalogExportRepository;
+    private final CatalogEventHub eventHub;
+    private final EventsProperties eventsProperties;
+
+    /** Se resuelve antes de abrir el stream para poder devolver 400 si no existe */
+    public Mono<Franchise> findFranchise(String franchiseId) {
+        return catalogExportRepository.findFranchise(franchiseId);
+    }
+
+    public Flux<CatalogChangeEvent> events(Franchise franchise, String lastEventId) {
+        return eventHub.events(franchise.getId(), lastEventId)
+                .doOnSubscribe(s -> log.debug("Suscriptor de eventos conectado a franquicia {}", franchise.getId()))
+                .doOnError(e -> log.error("Stream de eventos interrumpido para franquicia {}: {}",
+                        franchise.getId(), e.getMessage()))
+                .doOnCancel(() -> log.debug("Suscriptor de eventos desconectado de franquicia {}",
+                        franchise.getId()));
+    }
+
+    public Duration heartbeat() {
+        return eventsProperties.getHeartbeat();
+    }
+}
@@ -2,8 +2,9 @@ package org.franchise.management.application.usecase;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.franchise.management.application.metrics.UseCaseMetrics;
 import org.franchise.management.domain.model.Branch;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.BranchMongoAdapter;
+import org.franchise.management.domain.repository.BranchRepository;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -12,11 +13,12 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class UpdateBranchNameUseCase {
 
-    private final BranchMongoAdapter branchRepository;
+    private final BranchRepository branchRepository;
 
     public Mono<Branch> updateBranchName(String branchId, String newName) {
         return branchRepository.updateBranchName(branchId, newName)
-                .switchIfEmpty(Mono.error(new IllegalArgumentException("Sucursal no encontrada con id: " + branchId)));
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Sucursal no encontrada con id: " + branchId)))
+                .transform(UseCaseMetrics.mono("update-branch-name"));
     }
 
 }
@@ -2,8 +2,12 @@ package org.franchise.management.application.usecase;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.application.logging.LogMarkers;
+import org.franchise.management.application.metrics.UseCaseMetrics;
 import org.franchise.management.domain.model.Product;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.ProductMongoAdapter;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.ProductRepository;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -12,15 +16,21 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class UpdateProductNameUseCase {
 
-    private final ProductMongoAdapter productRepository;
+    private final ProductRepository productRepository;
+    private final BranchStockLeaderRepository stockLeaderRepository;
+    private final StockLeaderboard leaderboard;
 
     public Mono<Product> updateProductName(String productId, String newName) {
         return productRepository.updateProductName(productId, newName)
-                .doOnNext(p -> log.info("Nombre actualizado para producto {}: {}", productId, newName))
+                // La proyección guarda el nombre del líder
+                .flatMap(p -> stockLeaderRepository.refresh(p.getBranchId()).thenReturn(p))
+                .doOnNext(leaderboard::onProductChanged)
+                .doOnNext(p -> log.info(LogMarkers.REQUEST, "Nombre actualizado para producto {}: {}", productId, newName))
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Producto no encontrado")))
                 .onErrorResume(e -> {
                     log.error("Error al actualizar nombre del producto {}: {}", productId, e.getMessage());
                     return Mono.error(e);
-                });
+                })
+                .transform(UseCaseMetrics.mono("update-product-name"));
     }
 }
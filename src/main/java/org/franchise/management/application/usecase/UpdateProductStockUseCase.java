@@ -1,7 +1,12 @@
 package org.franchise.management.application.usecase;
 
+import org.franchise.management.application.coalescing.StockWriteCoalescer;
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.application.logging.LogMarkers;
+import org.franchise.management.application.metrics.UseCaseMetrics;
 import org.franchise.management.domain.model.Product;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.ProductMongoAdapter;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.ProductRepository;
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
@@ -13,15 +18,29 @@ import reactor.core.publisher.Mono;
 @Log4j2
 public class UpdateProductStockUseCase {
 
-    private final ProductMongoAdapter productRepository;
+    private final ProductRepository productRepository;
+    private final BranchStockLeaderRepository stockLeaderRepository;
+    private final StockLeaderboard leaderboard;
+    private final StockWriteCoalescer coalescer;
 
     public Mono<Product> updateStock(String productId, Integer newStock) {
-        return productRepository.updateProductStock(productId, newStock)
-                .doOnNext(p -> log.info("Stock actualizado: " + p.getName() + " = " + p.getStock()))
+        return write(productId, newStock)
+                .doOnNext(p -> log.info(LogMarkers.REQUEST, "Stock actualizado: {} = {}", p.getName(), p.getStock()))
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Producto no encontrado.")))
                 .onErrorResume(e -> {
-                    log.error("Error al actualizar stock: " + e.getMessage());
+                    log.error("Error al actualizar stock: {}", e.getMessage());
                     return Mono.error(e);
-                });
+                })
+                .transform(UseCaseMetrics.mono("update-stock"));
+    }
+
+    /** Con franchise.stock-coalescing habilitado, el valor se escribe junto a los de su ventana */
+    private Mono<Product> write(String productId, Integer newStock) {
+        if (coalescer.isEnabled()) {
+            return coalescer.set(productId, newStock);
+        }
+        return productRepository.updateProductStock(productId, newStock)
+                .flatMap(p -> stockLeaderRepository.refresh(p.getBranchId()).thenReturn(p))
+                .doOnNext(leaderboard::onProductChanged);
     }
-}
\ No newline at end of file
+}
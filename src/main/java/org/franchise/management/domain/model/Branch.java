@@ -7,17 +7,21 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "branches")
+@CompoundIndex(name = "franchiseId_id_idx", def = "{'franchiseId': 1, '_id': 1}")
 public class Branch {
 
     @Id
@@ -27,6 +31,7 @@ public class Branch {
     private String name;
 
     @NotBlank(message = "Franchise ID is required")
+    @Indexed(name = "franchiseId_idx")
     private String franchiseId;
 
     @Builder.Default
@@ -62,4 +67,24 @@ public class Branch {
         }
         this.name = newName.trim();
     }
+
+    /** Deja a null los campos que no están en {@code fields} (ver SparseFields); el id se conserva */
+    public Branch retainFields(Set<String> fields) {
+        if (!fields.contains("name")) {
+            this.name = null;
+        }
+        if (!fields.contains("franchiseId")) {
+            this.franchiseId = null;
+        }
+        if (!fields.contains("productIds")) {
+            this.productIds = null;
+        }
+        if (!fields.contains("createdAt")) {
+            this.createdAt = null;
+        }
+        if (!fields.contains("updatedAt")) {
+            this.updatedAt = null;
+        }
+        return this;
+    }
 }
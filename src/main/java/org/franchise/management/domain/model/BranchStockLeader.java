@@ -0,0 +1,59 @@
+package org.franchise.management.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección materializada del producto con mayor stock de una sucursal.
+ * Se mantiene en cada escritura de stock para que la consulta de máximos
+ * sea una única lectura indexada por franquicia.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "branch_stock_leaders")
+public class BranchStockLeader {
+
+    @MongoId(FieldType.STRING)
+    private String branchId;
+
+    @Indexed(name = "franchiseId_idx")
+    private String franchiseId;
+
+    private String productId;
+
+    private String productName;
+
+    private Integer stock;
+
+    private LocalDateTime updatedAt;
+
+    public static BranchStockLeader of(Branch branch, Product product) {
+        return BranchStockLeader.builder()
+                .branchId(branch.getId())
+                .franchiseId(branch.getFranchiseId())
+                .productId(product.getId())
+                .productName(product.getName())
+                .stock(product.getStock())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    public Product toProduct() {
+        return Product.builder()
+                .id(productId)
+                .name(productName)
+                .stock(stock)
+                .branchId(branchId)
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package org.franchise.management.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Cambio de stock o catálogo publicado en GET /franchises/{id}/events. El
+ * {@code id} es el token de reanudación del change stream: viaja como id del
+ * evento SSE y el cliente lo devuelve en Last-Event-ID al reconectar.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogChangeEvent {
+
+    private String id;
+
+    private Type type;
+
+    private String franchiseId;
+
+    private String branchId;
+
+    private String productId;
+
+    private String name;
+
+    private Integer stock;
+
+    private Instant timestamp;
+
+    public enum Type {
+        PRODUCT_CHANGED,
+        PRODUCT_DELETED,
+        BRANCH_CHANGED
+    }
+}
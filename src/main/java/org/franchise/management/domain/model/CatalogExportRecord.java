@@ -0,0 +1,46 @@
+package org.franchise.management.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Línea del export de catálogo de una franquicia. El export es plano: una
+ * línea FRANCHISE, y por cada sucursal una línea BRANCH seguida de sus
+ * PRODUCT, de modo que se puede escribir y leer en streaming.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogExportRecord {
+
+    private Type type;
+
+    private String id;
+
+    private String name;
+
+    private String franchiseId;
+
+    private String branchId;
+
+    private Integer stock;
+
+    public enum Type {
+        FRANCHISE,
+        BRANCH,
+        PRODUCT
+    }
+
+    public static CatalogExportRecord of(Franchise franchise) {
+        return CatalogExportRecord.builder()
+                .type(Type.FRANCHISE)
+                .id(franchise.getId())
+                .name(franchise.getName())
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package org.franchise.management.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import java.time.Instant;
+
+/**
+ * Petición POST registrada con su Idempotency-Key. Mientras se ejecuta solo
+ * tiene la huella de la petición y caduca en {@code lock-timeout}; al
+ * terminar guarda el estado y el cuerpo JSON de la respuesta y caduca en
+ * {@code ttl}. El índice TTL de {@code expiresAt} borra ambos casos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+
+    @MongoId(FieldType.STRING)
+    private String key;
+
+    /** SHA-256 de método, ruta y cuerpo: la misma clave con otra petición se rechaza */
+    private String fingerprint;
+
+    /** Estado HTTP de la respuesta; null mientras la petición está en curso */
+    private Integer status;
+
+    private String body;
+
+    @Indexed(name = "expiresAt_ttl_idx", expireAfterSeconds = 0)
+    private Instant expiresAt;
+
+    public static IdempotencyRecord pending(String key, String fingerprint, Instant expiresAt) {
+        return IdempotencyRecord.builder()
+                .key(key)
+                .fingerprint(fingerprint)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    public boolean isCompleted() {
+        return status != null;
+    }
+}
@@ -0,0 +1,55 @@
+package org.franchise.management.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición de la última fila devuelta en un listado paginado: el id y, en el
+ * orden por stock, también el stock. Se envía al cliente como texto opaco
+ * (base64url) y la siguiente página empieza justo después.
+ */
+@Data
+@AllArgsConstructor
+public class PageCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final Integer stock;
+
+    private final String id;
+
+    public static PageCursor of(String id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor of(Integer stock, String id) {
+        return new PageCursor(stock, id);
+    }
+
+    public String encode() {
+        String raw = stock != null ? stock + SEPARATOR + id : id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Null si no se indica cursor (primera página) */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            String id = separator < 0 ? raw : raw.substring(separator + 1);
+            if (id.isBlank()) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return separator < 0 ? of(id) : of(Integer.valueOf(raw.substring(0, separator)), id);
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException también es IllegalArgumentException
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
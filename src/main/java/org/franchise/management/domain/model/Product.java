@@ -7,12 +7,15 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * Producto - Entidad de dominio que representa un producto
@@ -23,6 +26,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "products")
+@CompoundIndexes({
+        @CompoundIndex(name = "branchId_stock_idx", def = "{'branchId': 1, 'stock': -1}"),
+        @CompoundIndex(name = "branchId_id_idx", def = "{'branchId': 1, '_id': 1}"),
+        @CompoundIndex(name = "branchId_stock_id_idx", def = "{'branchId': 1, 'stock': -1, '_id': 1}")
+})
 public class Product {
 
     @Id
@@ -57,4 +65,24 @@ public class Product {
         }
         this.name = newName.trim();
     }
+
+    /** Deja a null los campos que no están en {@code fields} (ver SparseFields); el id se conserva */
+    public Product retainFields(Set<String> fields) {
+        if (!fields.contains("name")) {
+            this.name = null;
+        }
+        if (!fields.contains("stock")) {
+            this.stock = null;
+        }
+        if (!fields.contains("branchId")) {
+            this.branchId = null;
+        }
+        if (!fields.contains("createdAt")) {
+            this.createdAt = null;
+        }
+        if (!fields.contains("updatedAt")) {
+            this.updatedAt = null;
+        }
+        return this;
+    }
 }
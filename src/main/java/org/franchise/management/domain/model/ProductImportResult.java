@@ -0,0 +1,29 @@
+package org.franchise.management.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumen de una importación masiva de productos en una sucursal.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResult {
+
+    private String branchId;
+
+    private long imported;
+
+    private long rejected;
+
+    /** Primeras líneas rechazadas con su motivo, acotadas para no crecer con el fichero */
+    @Builder.Default
+    private List<String> errors = new ArrayList<>();
+}
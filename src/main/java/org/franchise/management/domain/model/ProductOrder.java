@@ -0,0 +1,25 @@
+package org.franchise.management.domain.model;
+
+/**
+ * Orden del listado paginado de productos de una sucursal.
+ */
+public enum ProductOrder {
+
+    /** Por id, el orden de alta */
+    ID,
+
+    /** Por stock de mayor a menor; a igual stock, por id */
+    STOCK;
+
+    /** Valor del parámetro sort; null es ID */
+    public static ProductOrder from(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "id" -> ID;
+            case "stock" -> STOCK;
+            default -> throw new IllegalArgumentException("sort debe ser id o stock");
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package org.franchise.management.domain.model;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Campos que se pueden pedir con {@code ?fields=} en los listados. El id se
+ * devuelve siempre; los campos no pedidos no se leen de Mongo y no aparecen
+ * en la respuesta.
+ */
+public final class SparseFields {
+
+    public static final Set<String> BRANCH = Set.of("name", "franchiseId", "productIds", "createdAt", "updatedAt");
+
+    /** productIds puede tener decenas de miles de ids: solo se devuelve si se pide */
+    public static final Set<String> BRANCH_DEFAULT = Set.of("name", "franchiseId", "createdAt", "updatedAt");
+
+    public static final Set<String> PRODUCT = Set.of("name", "stock", "branchId", "createdAt", "updatedAt");
+
+    /**
+     * Campos de max-stock, los mismos que guardan el índice de líderes y
+     * branch_stock_leaders: la respuesta no depende de qué fuente la sirve.
+     */
+    public static final Set<String> PRODUCT_SUMMARY = Set.of("name", "stock", "branchId");
+
+    private SparseFields() {
+        // Clase utilitaria, no se instancia
+    }
+
+    /**
+     * Lista separada por comas; {@code defaults} si no se indica. "id" se
+     * acepta y se ignora porque va siempre.
+     */
+    public static Set<String> parse(String fields, Set<String> allowed, Set<String> defaults) {
+        if (fields == null || fields.isBlank()) {
+            return defaults;
+        }
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty() && !"id".equals(field))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (String field : requested) {
+            if (!allowed.contains(field)) {
+                throw new IllegalArgumentException("Campo no permitido en fields: " + field);
+            }
+        }
+        return Set.copyOf(requested);
+    }
+}
@@ -0,0 +1,36 @@
+package org.franchise.management.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cambio de stock de un producto: un valor absoluto ({@code stock}) o un
+ * incremento ({@code delta}), nunca ambos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockChange {
+
+    private String productId;
+
+    private Integer stock;
+
+    private Integer delta;
+
+    public static StockChange set(String productId, int stock) {
+        return StockChange.builder().productId(productId).stock(stock).build();
+    }
+
+    public static StockChange increment(String productId, int delta) {
+        return StockChange.builder().productId(productId).delta(delta).build();
+    }
+
+    /** Ni el valor absoluto ni el incremento pueden dejar el stock en negativo */
+    public boolean isNonNegative() {
+        return productId != null && (stock != null ? stock >= 0 && delta == null : delta != null && delta >= 0);
+    }
+}
@@ -0,0 +1,33 @@
+package org.franchise.management.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado individual de una actualización de stock dentro de un lote.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockUpdateResult {
+
+    private String productId;
+
+    private String branchId;
+
+    private Integer stock;
+
+    private Status status;
+
+    private String message;
+
+    public enum Status {
+        UPDATED,
+        NOT_FOUND,
+        INVALID,
+        SUPERSEDED
+    }
+}
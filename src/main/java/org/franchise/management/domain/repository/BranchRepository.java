@@ -1,9 +1,14 @@
 package org.franchise.management.domain.repository;
 
 import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.CursorPage;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.PageCursor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Set;
+
 /**
  * ✅ Puerto del dominio para la gestión de sucursales.
  * Soporta operaciones reactivas con MongoDB.
@@ -14,8 +19,18 @@ public interface BranchRepository {
 
     Flux<Branch> findAllByFranchise(String franchiseId);
 
+    /**
+     * Hasta {@code limit} sucursales por id a partir de {@code after} (null es
+     * la primera página), leyendo solo {@code fields} (ver SparseFields).
+     */
+    Mono<CursorPage<Branch>> findPageByFranchise(Franchise franchise, PageCursor after, int limit,
+            Set<String> fields);
+
     Mono<Branch> findById(String branchId);
 
+    /** Sin leer el documento, que en EMBEDDED incluye productIds */
+    Mono<Boolean> existsById(String branchId);
+
     Mono<Branch> updateBranchName(String branchId, String newName);
 
 }
@@ -0,0 +1,22 @@
+package org.franchise.management.domain.repository;
+
+import org.franchise.management.domain.model.Product;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * ✅ Puerto para la proyección de productos con mayor stock por sucursal.
+ */
+public interface BranchStockLeaderRepository {
+
+    /**
+     * Recalcula el líder de la sucursal después de una escritura, fuera de su
+     * transacción: la proyección es eventualmente consistente.
+     */
+    Mono<Void> refresh(String branchId);
+
+    Flux<Product> findLeadersByFranchise(String franchiseId);
+
+    Mono<Long> rebuild();
+
+}
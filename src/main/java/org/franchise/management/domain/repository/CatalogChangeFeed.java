@@ -0,0 +1,26 @@
+package org.franchise.management.domain.repository;
+
+import org.franchise.management.domain.model.CatalogChangeEvent;
+import reactor.core.publisher.Flux;
+
+/**
+ * Flujo infinito de cambios de productos y sucursales de todas las
+ * franquicias, en orden de escritura.
+ */
+public interface CatalogChangeFeed {
+
+    /**
+     * Cambios posteriores a {@code resumeToken}, o desde ahora si es null.
+     * Falla con {@link ResumeTokenLostException} si el token ya no se puede
+     * reanudar (historial perdido o token inválido).
+     */
+    Flux<CatalogChangeEvent> watch(String resumeToken);
+
+    /** Reintentar con el mismo token volvería a fallar: hay que empezar desde ahora */
+    class ResumeTokenLostException extends RuntimeException {
+
+        public ResumeTokenLostException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
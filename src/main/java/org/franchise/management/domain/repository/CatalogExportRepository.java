@@ -0,0 +1,17 @@
+package org.franchise.management.domain.repository;
+
+import org.franchise.management.domain.model.CatalogExportRecord;
+import org.franchise.management.domain.model.Franchise;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lectura en streaming del catálogo completo de una franquicia.
+ */
+public interface CatalogExportRepository {
+
+    Mono<Franchise> findFranchise(String franchiseId);
+
+    Flux<CatalogExportRecord> exportCatalog(Franchise franchise);
+
+}
@@ -0,0 +1,33 @@
+package org.franchise.management.domain.repository;
+
+import org.franchise.management.domain.model.IdempotencyRecord;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * ✅ Puerto para las Idempotency-Key de las peticiones POST.
+ */
+public interface IdempotencyRepository {
+
+    /**
+     * Guarda el registro en curso si la clave no existe o ya caducó. false si
+     * otra petición la tiene.
+     */
+    Mono<Boolean> reserve(IdempotencyRecord pending);
+
+    /** Registro vigente de la clave; vacío si no existe o ya caducó */
+    Mono<IdempotencyRecord> findByKey(String key);
+
+    Mono<Void> complete(IdempotencyRecord completed);
+
+    /**
+     * Alarga hasta {@code expiresAt} la reserva en curso de la clave si sigue
+     * siendo de la petición con {@code fingerprint}.
+     */
+    Mono<Void> extend(String key, String fingerprint, Instant expiresAt);
+
+    /** Borra la reserva de una petición que no terminó bien, si sigue en curso */
+    Mono<Void> release(String key);
+
+}
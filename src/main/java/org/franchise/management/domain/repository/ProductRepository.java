@@ -1,9 +1,18 @@
 package org.franchise.management.domain.repository;
 
+import org.franchise.management.domain.model.CursorPage;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.PageCursor;
 import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.ProductOrder;
+import org.franchise.management.domain.model.StockChange;
+import org.franchise.management.domain.model.StockUpdateResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Set;
+
 /**
  * ✅ Este repositorio cubre los endpoints para productos: agregar, eliminar,
  * actualizar stock y obtener el de mayor stock por sucursal.
@@ -12,12 +21,58 @@ public interface ProductRepository {
 
     Mono<Product> addProductToBranch(String branchId, Product product);
 
+    Mono<Long> importProductsToBranch(String branchId, Flux<Product> products);
+
     Mono<Void> deleteProductFromBranch(String branchId, String productId);
 
     Mono<Product> updateProductStock(String productId, Integer newStock);
 
+    /**
+     * Suma {@code delta} al stock de forma atómica. Falla con
+     * {@link InsufficientStockException} si el stock quedaría en negativo.
+     */
+    Mono<Product> adjustProductStock(String productId, Integer delta);
+
+    Flux<StockUpdateResult> bulkUpdateProductStock(Flux<Product> updates);
+
+    /**
+     * Aplica {@code changes}, a lo sumo uno por producto y ninguno que pueda
+     * dejar el stock en negativo, y emite los productos cuyo cambio se aplicó.
+     * Los que no existen, o cuyo incremento superaría {@code Integer.MAX_VALUE},
+     * no se modifican ni se emiten.
+     */
+    Flux<Product> applyStockChanges(List<StockChange> changes);
+
     Flux<Product> findMaxStockProductByBranch(String franchiseId);
 
+    Flux<Product> findTopStockProductsByBranch(String branchId, int limit);
+
+    /**
+     * Los {@code limit} de mayor stock de la franquicia, o de cada sucursal
+     * con {@code perBranch}, con solo {@code fields}.
+     */
+    Flux<Product> findTopStockProducts(Franchise franchise, int limit, boolean perBranch, Set<String> fields);
+
+    /**
+     * Por sucursal, los {@code limit} de menor stock por debajo de
+     * {@code below}, de menor a mayor, con solo {@code fields}.
+     */
+    Flux<Product> findLowStockProducts(Franchise franchise, int below, int limit, Set<String> fields);
+
+    /**
+     * Hasta {@code limit} productos de la sucursal en {@code order} a partir
+     * de {@code after}, leyendo solo {@code fields} (ver SparseFields).
+     */
+    Mono<CursorPage<Product>> findPageByBranch(String branchId, ProductOrder order, PageCursor after, int limit,
+            Set<String> fields);
+
     Mono<Product> updateProductName(String productId, String newName);
 
+    /** Un ajuste que dejaría el stock en negativo; no se ha aplicado */
+    class InsufficientStockException extends IllegalArgumentException {
+
+        public InsufficientStockException() {
+            super("Stock insuficiente para aplicar el ajuste");
+        }
+    }
 }
@@ -34,6 +34,13 @@ public class DTOMapper {
                 .build();
     }
 
+    public static Product toStockUpdate(StockUpdateItemDTO dto) {
+        return Product.builder()
+                .id(dto.getProductId())
+                .stock(dto.getStock())
+                .build();
+    }
+
     public static Product updateNameRequestToProduct(UpdateNameRequestDTO dto) {
         return Product.builder()
                 .name(dto.getName())
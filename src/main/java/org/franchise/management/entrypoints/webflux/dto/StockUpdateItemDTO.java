@@ -0,0 +1,21 @@
+package org.franchise.management.entrypoints.webflux.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Elemento de una actualización masiva de stock. La validación se hace por
+ * elemento en el adaptador para que un elemento inválido no aborte el lote.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockUpdateItemDTO {
+
+    private String productId;
+
+    private Integer stock;
+}
@@ -0,0 +1,19 @@
+package org.franchise.management.entrypoints.webflux.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateStockDeltaRequestDTO {
+
+    @NotNull(message = "El ajuste de stock es obligatorio")
+    @Min(value = -Integer.MAX_VALUE, message = "El ajuste de stock está fuera de rango")
+    private Integer delta;
+}
@@ -0,0 +1,88 @@
+package org.franchise.management.entrypoints.webflux.handler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.franchise.management.application.events.CatalogEventHub;
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.entrypoints.webflux.util.ResponseUtil;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
+import org.franchise.management.infrastructure.drivenadapters.mongo.index.MongoIndexManager;
+import org.franchise.management.infrastructure.drivenadapters.mongo.migration.MembershipMigration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Endpoints operativos (índices, diagnósticos) no expuestos al dominio.
+ */
+@Log4j2
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class AdminHandler {
+
+        private final MongoIndexManager indexManager;
+        private final BranchStockLeaderRepository stockLeaderRepository;
+        private final LookupCaches lookupCaches;
+        private final MembershipMigration membershipMigration;
+        private final StockLeaderboard leaderboard;
+        private final CatalogEventHub eventHub;
+
+        /** GET /admin/indexes */
+        public Mono<ServerResponse> getIndexStats(ServerRequest request) {
+                return indexManager.indexUsageStats()
+                                .collectList()
+                                .flatMap(ResponseUtil::ok)
+                                .onErrorResume(e -> ResponseUtil.handleError("obtener estadísticas de índices", e));
+        }
+
+        /** POST /admin/indexes */
+        public Mono<ServerResponse> ensureIndexes(ServerRequest request) {
+                return indexManager.ensureIndexes()
+                                .collectList()
+                                .flatMap(ResponseUtil::ok)
+                                .onErrorResume(e -> ResponseUtil.handleError("asegurar índices", e));
+        }
+
+        /** POST /admin/stock-leaders/rebuild */
+        public Mono<ServerResponse> rebuildStockLeaders(ServerRequest request) {
+                return stockLeaderRepository.rebuild()
+                                .map(count -> Map.of("rebuiltBranches", count))
+                                .flatMap(ResponseUtil::ok)
+                                .onErrorResume(e -> ResponseUtil.handleError("reconstruir líderes de stock", e));
+        }
+
+        /** GET /admin/caches */
+        public Mono<ServerResponse> getCacheStats(ServerRequest request) {
+                return ResponseUtil.ok(lookupCaches.stats());
+        }
+
+        /** GET /admin/leaderboard */
+        public Mono<ServerResponse> getLeaderboardStats(ServerRequest request) {
+                return ResponseUtil.ok(leaderboard.stats());
+        }
+
+        /** GET /admin/events */
+        public Mono<ServerResponse> getEventStats(ServerRequest request) {
+                return ResponseUtil.ok(eventHub.stats());
+        }
+
+        /** POST /admin/membership/migrate */
+        public Mono<ServerResponse> migrateMembership(ServerRequest request) {
+                return membershipMigration.migrate()
+                                .flatMap(ResponseUtil::ok)
+                                .onErrorResume(e -> ResponseUtil.handleError("migrar pertenencia", e));
+        }
+
+        /** POST /admin/membership/compact, solo con todos los nodos en REFERENCE */
+        public Mono<ServerResponse> compactMembership(ServerRequest request) {
+                return membershipMigration.compact()
+                                .flatMap(ResponseUtil::ok)
+                                .onErrorResume(e -> ResponseUtil.handleError("compactar pertenencia", e));
+        }
+}
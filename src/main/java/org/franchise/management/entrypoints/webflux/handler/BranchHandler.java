@@ -3,16 +3,21 @@ package org.franchise.management.entrypoints.webflux.handler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.franchise.management.application.usecase.AddBranchToFranchiseUseCase;
+import org.franchise.management.application.usecase.ListFranchiseBranchesUseCase;
 import org.franchise.management.application.usecase.UpdateBranchNameUseCase;
 import org.franchise.management.entrypoints.webflux.dto.BranchRequestDTO;
 import org.franchise.management.entrypoints.webflux.dto.DTOMapper;
 import org.franchise.management.entrypoints.webflux.util.ResponseUtil;
+import org.franchise.management.entrypoints.webflux.util.SparseJsonWriter;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
 import org.franchise.management.entrypoints.webflux.util.ValidationUtil;
 
+import static org.franchise.management.entrypoints.webflux.util.QueryParams.intParam;
+import static org.franchise.management.entrypoints.webflux.util.QueryParams.stringParam;
+
 @Log4j2
 @Component
 @RequiredArgsConstructor
@@ -20,7 +25,9 @@ public class BranchHandler {
 
         private final AddBranchToFranchiseUseCase addBranchToFranchiseUseCase;
         private final UpdateBranchNameUseCase updateBranchNameUseCase;
+        private final ListFranchiseBranchesUseCase listFranchiseBranchesUseCase;
         private final ValidationUtil validationUtil;
+        private final SparseJsonWriter sparseJsonWriter;
 
         /** POST /franchises/{franchiseId}/branches */
         public Mono<ServerResponse> addBranch(ServerRequest request) {
@@ -35,6 +42,21 @@ public class BranchHandler {
                                 .onErrorResume(e -> ResponseUtil.handleError("agregar sucursal", e));
         }
 
+        /**
+         * GET /franchises/{franchiseId}/branches?limit=&cursor=&fields=
+         * Página de sucursales por id; nextCursor pide la siguiente y fields
+         * limita los campos leídos y devueltos.
+         */
+        public Mono<ServerResponse> listBranches(ServerRequest request) {
+                String franchiseId = request.pathVariable("franchiseId");
+
+                return Mono.defer(() -> listFranchiseBranchesUseCase.listBranches(franchiseId,
+                                                stringParam(request, "cursor"), intParam(request, "limit"),
+                                                stringParam(request, "fields")))
+                                .flatMap(sparseJsonWriter::ok)
+                                .onErrorResume(e -> ResponseUtil.handleError("listar sucursales", e));
+        }
+
         /** PUT /branches/{branchId}/name */
         public Mono<ServerResponse> updateBranchName(ServerRequest request) {
                 String branchId = request.pathVariable("branchId");
@@ -3,21 +3,32 @@ package org.franchise.management.entrypoints.webflux.handler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.franchise.management.application.usecase.CreateFranchiseUseCase;
+import org.franchise.management.application.usecase.ExportFranchiseCatalogUseCase;
+import org.franchise.management.application.usecase.StreamCatalogEventsUseCase;
+import org.franchise.management.domain.model.CatalogExportRecord;
 import org.franchise.management.entrypoints.webflux.dto.DTOMapper;
 import org.franchise.management.entrypoints.webflux.dto.FranchiseRequestDTO;
 import org.franchise.management.entrypoints.webflux.util.ResponseUtil;
 import org.franchise.management.entrypoints.webflux.util.ValidationUtil;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+
 @Log4j2
 @Component
 @RequiredArgsConstructor
 public class FranchiseHandler {
 
     private final CreateFranchiseUseCase createFranchiseUseCase;
+    private final ExportFranchiseCatalogUseCase exportFranchiseCatalogUseCase;
+    private final StreamCatalogEventsUseCase streamCatalogEventsUseCase;
     private final ValidationUtil validationUtil;
 
     public Mono<ServerResponse> createFranchise(ServerRequest request) {
@@ -26,11 +37,63 @@ public class FranchiseHandler {
                         .map(DTOMapper::toFranchise)
                         .flatMap(createFranchiseUseCase::createFranchise)
                         .flatMap(savedFranchise -> {
-                            log.info("Franquicia creada exitosamente: {}", savedFranchise.getName());
+                            log.debug("Franquicia creada exitosamente: {}", savedFranchise.getName());
                             return ResponseUtil.ok(savedFranchise);
                         }))
                 .switchIfEmpty(ResponseUtil.emptyBody())
                 .onErrorResume(e -> ResponseUtil.handleError("crear franquicia", e));
     }
 
-}
\ No newline at end of file
+    /**
+     * GET /franchises/{franchiseId}/export
+     * NDJSON por defecto; con Accept: application/json se envía como un array
+     * JSON en chunks. En ambos casos se escribe a medida que llega del cursor.
+     */
+    public Mono<ServerResponse> exportCatalog(ServerRequest request) {
+        String franchiseId = request.pathVariable("franchiseId");
+        MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_JSON)
+                ? MediaType.APPLICATION_JSON
+                : MediaType.APPLICATION_NDJSON;
+
+        return exportFranchiseCatalogUseCase.findFranchise(franchiseId)
+                .flatMap(franchise -> ServerResponse.ok()
+                        .contentType(mediaType)
+                        .body(exportFranchiseCatalogUseCase.exportCatalog(franchise), CatalogExportRecord.class))
+                .onErrorResume(e -> ResponseUtil.handleError("exportar catálogo", e));
+    }
+
+    /**
+     * GET /franchises/{franchiseId}/events
+     * Server-Sent Events con los cambios de productos y sucursales de la
+     * franquicia. El id de cada evento es el token de reanudación: al
+     * reconectar, el cliente lo envía en Last-Event-ID (o ?lastEventId=) y
+     * recibe lo que se perdió. Un comentario periódico mantiene viva la
+     * conexión a través de proxies.
+     */
+    public Mono<ServerResponse> streamEvents(ServerRequest request) {
+        String franchiseId = request.pathVariable("franchiseId");
+        String header = request.headers().firstHeader("Last-Event-ID");
+        String lastEventId = header != null ? header : request.queryParam("lastEventId").orElse(null);
+
+        return streamCatalogEventsUseCase.findFranchise(franchiseId)
+                .flatMap(franchise -> {
+                    Flux<ServerSentEvent<Object>> events = streamCatalogEventsUseCase.events(franchise, lastEventId)
+                            .map(event -> ServerSentEvent.builder((Object) event)
+                                    .id(event.getId())
+                                    .event(event.getType().name())
+                                    .build())
+                            // Tras abrir el stream ya no hay 400: el error viaja como evento
+                            .onErrorResume(e -> Flux.just(ServerSentEvent.builder((Object) Map.of("error",
+                                    String.valueOf(e.getMessage()))).event("error").build()));
+                    Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(streamCatalogEventsUseCase.heartbeat())
+                            .map(tick -> ServerSentEvent.builder().comment("keep-alive").build());
+
+                    return ServerResponse.ok()
+                            .contentType(MediaType.TEXT_EVENT_STREAM)
+                            .body(BodyInserters.fromServerSentEvents(events.publish(shared -> Flux.merge(shared,
+                                    heartbeats.takeUntilOther(shared.then(Mono.just(true)))))));
+                })
+                .onErrorResume(e -> ResponseUtil.handleError("abrir stream de eventos", e));
+    }
+
+}
@@ -4,17 +4,33 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.franchise.management.application.usecase.*;
 import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.StockUpdateResult;
 import org.franchise.management.entrypoints.webflux.dto.DTOMapper;
 import org.franchise.management.entrypoints.webflux.dto.ProductRequestDTO;
+import org.franchise.management.entrypoints.webflux.dto.StockUpdateItemDTO;
 import org.franchise.management.entrypoints.webflux.dto.UpdateNameRequestDTO;
+import org.franchise.management.entrypoints.webflux.dto.UpdateStockDeltaRequestDTO;
 import org.franchise.management.entrypoints.webflux.dto.UpdateStockRequestDTO;
 import org.franchise.management.entrypoints.webflux.util.ResponseUtil;
+import org.franchise.management.entrypoints.webflux.util.SparseJsonWriter;
 import org.franchise.management.entrypoints.webflux.util.ValidationUtil;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.franchise.management.entrypoints.webflux.util.QueryParams.booleanParam;
+import static org.franchise.management.entrypoints.webflux.util.QueryParams.intParam;
+import static org.franchise.management.entrypoints.webflux.util.QueryParams.stringParam;
+
 @Log4j2
 @Component
 @RequiredArgsConstructor
@@ -24,8 +40,17 @@ public class ProductHandler {
         private final UpdateProductNameUseCase updateProductNameUseCase;
         private final DeleteProductFromBranchUseCase deleteProductFromBranchUseCase;
         private final UpdateProductStockUseCase updateProductStockUseCase;
+        private final AdjustProductStockUseCase adjustProductStockUseCase;
+        private final BatchUpdateProductStockUseCase batchUpdateProductStockUseCase;
+        private final ImportProductsToBranchUseCase importProductsToBranchUseCase;
         private final GetMaxStockProductByBranchUseCase findMaxStockProductByFranchiseUseCase;
+        private final GetStockRankingUseCase getStockRankingUseCase;
+        private final ListBranchProductsUseCase listBranchProductsUseCase;
         private final ValidationUtil validationUtil;
+        private final SparseJsonWriter sparseJsonWriter;
+
+        /** Máximo de líneas rechazadas que se detallan en la respuesta de importación */
+        private static final int MAX_IMPORT_ERRORS = 100;
 
         /** POST /franchises/{franchiseId}/branches/{branchId}/products */
         public Mono<ServerResponse> addProduct(ServerRequest request) {
@@ -41,6 +66,52 @@ public class ProductHandler {
                                 .onErrorResume(e -> ResponseUtil.handleError("agregar producto", e));
         }
 
+        /**
+         * GET /branches/{branchId}/products?limit=&cursor=&sort=id|stock&fields=
+         * Página de productos de la sucursal; nextCursor pide la siguiente y
+         * fields limita los campos leídos y devueltos.
+         */
+        public Mono<ServerResponse> listProducts(ServerRequest request) {
+                String branchId = request.pathVariable("branchId");
+
+                return Mono.defer(() -> listBranchProductsUseCase.listProducts(branchId,
+                                                stringParam(request, "sort"), stringParam(request, "cursor"),
+                                                intParam(request, "limit"), stringParam(request, "fields")))
+                                .flatMap(sparseJsonWriter::ok)
+                                .onErrorResume(e -> ResponseUtil.handleError("listar productos", e));
+        }
+
+        /**
+         * POST /branches/{branchId}/products:import
+         * Cuerpo NDJSON, una línea por producto. Las líneas inválidas se cuentan y
+         * se omiten sin abortar la importación.
+         */
+        public Mono<ServerResponse> importProducts(ServerRequest request) {
+                String branchId = request.pathVariable("branchId");
+                AtomicLong rejected = new AtomicLong();
+                List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+                Flux<Product> products = request.bodyToFlux(ProductRequestDTO.class)
+                                .index()
+                                .concatMap(line -> validationUtil.validate(line.getT2())
+                                                .map(DTOMapper::toProduct)
+                                                .onErrorResume(IllegalArgumentException.class, e -> {
+                                                        if (rejected.incrementAndGet() <= MAX_IMPORT_ERRORS) {
+                                                                errors.add("Línea " + (line.getT1() + 1) + ": "
+                                                                                + e.getMessage());
+                                                        }
+                                                        return Mono.empty();
+                                                }));
+
+                return importProductsToBranchUseCase.importProducts(branchId, products)
+                                .doOnNext(result -> {
+                                        result.setRejected(rejected.get());
+                                        result.setErrors(List.copyOf(errors));
+                                })
+                                .flatMap(ResponseUtil::ok)
+                                .onErrorResume(e -> ResponseUtil.handleError("importar productos", e));
+        }
+
         /** DELETE /franchises/{franchiseId}/branches/{branchId}/products/{productId} */
         public Mono<ServerResponse> deleteProduct(ServerRequest request) {
                 String branchId = request.pathVariable("branchId");
@@ -67,6 +138,33 @@ public class ProductHandler {
                                 .onErrorResume(e -> ResponseUtil.handleError("actualizar stock", e));
         }
 
+        /** PATCH /products/{productId}/stock/delta */
+        public Mono<ServerResponse> adjustStock(ServerRequest request) {
+                String productId = request.pathVariable("productId");
+
+                return request.bodyToMono(UpdateStockDeltaRequestDTO.class)
+                                .flatMap(validationUtil::validate)
+                                .flatMap(body -> adjustProductStockUseCase.adjustStock(productId, body.getDelta()))
+                                .flatMap(ResponseUtil::ok)
+                                .switchIfEmpty(ResponseUtil.emptyBody())
+                                .onErrorResume(e -> ResponseUtil.handleError("ajustar stock", e));
+        }
+
+        /**
+         * POST /products/stock:batch
+         * Acepta un array JSON o NDJSON de {productId, stock}; los elementos se
+         * decodifican en streaming y la respuesta lleva un resultado por elemento.
+         */
+        public Mono<ServerResponse> batchUpdateStock(ServerRequest request) {
+                Flux<Product> updates = request.bodyToFlux(StockUpdateItemDTO.class)
+                                .map(DTOMapper::toStockUpdate);
+
+                return ServerResponse.ok()
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .body(batchUpdateProductStockUseCase.updateStocks(updates), StockUpdateResult.class)
+                                .onErrorResume(e -> ResponseUtil.handleError("actualizar stock en lote", e));
+        }
+
         /** GET /franchises/{franchiseId}/max-stock */
         public Mono<ServerResponse> getMaxStockProducts(ServerRequest request) {
                 String franchiseId = request.pathVariable("franchiseId");
@@ -77,6 +175,48 @@ public class ProductHandler {
                                 .onErrorResume(e -> ResponseUtil.handleError("obtener productos con mayor stock", e));
         }
 
+        /**
+         * GET /franchises/{franchiseId}/products/top?n=&perBranch=&fields=
+         * Los n productos de mayor stock de la franquicia, o de cada sucursal con
+         * perBranch=true.
+         */
+        public Mono<ServerResponse> getTopStockProducts(ServerRequest request) {
+                String franchiseId = request.pathVariable("franchiseId");
+
+                return Mono.fromCallable(() -> getStockRankingUseCase.resolveLimit(intParam(request, "n")))
+                                .flatMap(limit -> {
+                                        boolean perBranch = booleanParam(request, "perBranch");
+                                        Set<String> fields = getStockRankingUseCase
+                                                        .resolveFields(stringParam(request, "fields"));
+                                        return getStockRankingUseCase.findFranchise(franchiseId)
+                                                        .flatMap(franchise -> sparseJsonWriter.stream(request,
+                                                                        getStockRankingUseCase.getTopStockProducts(
+                                                                                franchise, limit, perBranch, fields)));
+                                })
+                                .onErrorResume(e -> ResponseUtil.handleError("obtener top de stock", e));
+        }
+
+        /**
+         * GET /franchises/{franchiseId}/products/low-stock?below=&n=&fields=
+         * Por sucursal, los n productos con stock menor que below, de menor a
+         * mayor.
+         */
+        public Mono<ServerResponse> getLowStockProducts(ServerRequest request) {
+                String franchiseId = request.pathVariable("franchiseId");
+
+                return Mono.fromCallable(() -> getStockRankingUseCase.resolveLimit(intParam(request, "n")))
+                                .flatMap(limit -> {
+                                        int below = getStockRankingUseCase.resolveThreshold(intParam(request, "below"));
+                                        Set<String> fields = getStockRankingUseCase
+                                                        .resolveFields(stringParam(request, "fields"));
+                                        return getStockRankingUseCase.findFranchise(franchiseId)
+                                                        .flatMap(franchise -> sparseJsonWriter.stream(request,
+                                                                        getStockRankingUseCase.getLowStockProducts(
+                                                                                franchise, below, limit, fields)));
+                                })
+                                .onErrorResume(e -> ResponseUtil.handleError("obtener productos con poco stock", e));
+        }
+
         /** PUT /franchises/{franchiseId}/products/{productId}/name */
         public Mono<ServerResponse> updateProductName(ServerRequest request) {
                 String productId = request.pathVariable("productId");
@@ -0,0 +1,29 @@
+package org.franchise.management.entrypoints.webflux.router;
+
+import org.franchise.management.entrypoints.webflux.handler.AdminHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+
+@Configuration
+@Profile("!inmemory")
+public class AdminRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> adminRoutes(AdminHandler handler) {
+        return RouterFunctions.route(GET("/admin/indexes"), handler::getIndexStats)
+                .andRoute(POST("/admin/indexes"), handler::ensureIndexes)
+                .andRoute(POST("/admin/stock-leaders/rebuild"), handler::rebuildStockLeaders)
+                .andRoute(GET("/admin/caches"), handler::getCacheStats)
+                .andRoute(GET("/admin/leaderboard"), handler::getLeaderboardStats)
+                .andRoute(GET("/admin/events"), handler::getEventStats)
+                .andRoute(POST("/admin/membership/migrate"), handler::migrateMembership)
+                .andRoute(POST("/admin/membership/compact"), handler::compactMembership);
+    }
+}
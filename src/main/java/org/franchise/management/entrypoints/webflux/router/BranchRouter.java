@@ -1,12 +1,15 @@
 package org.franchise.management.entrypoints.webflux.router;
 
 import org.franchise.management.entrypoints.webflux.handler.BranchHandler;
+import org.franchise.management.entrypoints.webflux.util.HandlerMetrics;
+import org.franchise.management.entrypoints.webflux.util.IdempotencyFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.RouterFunctions;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
 import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
 import static org.springframework.web.reactive.function.server.RequestPredicates.PUT;
 
@@ -14,8 +17,11 @@ import static org.springframework.web.reactive.function.server.RequestPredicates
 public class BranchRouter {
 
     @Bean
-    public RouterFunction<ServerResponse> branchRoutes(BranchHandler handler) {
-        return RouterFunctions.route(POST("/franchises/{franchiseId}/branches"), handler::addBranch)
-                .andRoute(PUT("/branches/{branchId}/name"), handler::updateBranchName);
+    public RouterFunction<ServerResponse> branchRoutes(BranchHandler handler, IdempotencyFilter idempotencyFilter) {
+        return RouterFunctions.route(POST("/franchises/{franchiseId}/branches"),
+                        idempotencyFilter.apply(handler::addBranch))
+                .andRoute(GET("/franchises/{franchiseId}/branches"), handler::listBranches)
+                .andRoute(PUT("/branches/{branchId}/name"), handler::updateBranchName)
+                .filter(HandlerMetrics.filter());
     }
 }
@@ -1,19 +1,25 @@
 package org.franchise.management.entrypoints.webflux.router;
 
 import org.franchise.management.entrypoints.webflux.handler.FranchiseHandler;
+import org.franchise.management.entrypoints.webflux.util.HandlerMetrics;
+import org.franchise.management.entrypoints.webflux.util.IdempotencyFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.RouterFunctions;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
 import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
 
 @Configuration
 public class FranchiseRouter {
 
     @Bean
-    RouterFunction<ServerResponse> franchiseRoutes(FranchiseHandler handler) {
-        return RouterFunctions.route(POST("/franchises"), handler::createFranchise);
+    RouterFunction<ServerResponse> franchiseRoutes(FranchiseHandler handler, IdempotencyFilter idempotencyFilter) {
+        return RouterFunctions.route(POST("/franchises"), idempotencyFilter.apply(handler::createFranchise))
+                .andRoute(GET("/franchises/{franchiseId}/export"), handler::exportCatalog)
+                .andRoute(GET("/franchises/{franchiseId}/events"), handler::streamEvents)
+                .filter(HandlerMetrics.filter());
     }
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package org.franchise.management.entrypoints.webflux.router;
 
 import org.franchise.management.entrypoints.webflux.handler.ProductHandler;
+import org.franchise.management.entrypoints.webflux.util.HandlerMetrics;
+import org.franchise.management.entrypoints.webflux.util.IdempotencyFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.RouterFunctions;
 import org.springframework.web.reactive.function.server.ServerResponse;
@@ -13,16 +16,31 @@ import static org.springframework.web.reactive.function.server.RequestPredicates
 public class ProductRouter {
 
         @Bean
-        public RouterFunction<ServerResponse> productRoutes(ProductHandler handler) {
+        public RouterFunction<ServerResponse> productRoutes(ProductHandler handler,
+                        IdempotencyFilter idempotencyFilter) {
                 return RouterFunctions
                                 .route(POST("/branches/{branchId}/products"),
-                                                handler::addProduct)
+                                                idempotencyFilter.apply(handler::addProduct))
+                                .andRoute(GET("/branches/{branchId}/products"),
+                                                handler::listProducts)
+                                .andRoute(POST("/branches/{branchId}/products:import")
+                                                .and(contentType(MediaType.APPLICATION_NDJSON)),
+                                                handler::importProducts)
                                 .andRoute(DELETE("/branches/{branchId}/products/{productId}"),
                                                 handler::deleteProduct)
                                 .andRoute(PUT("/products/{productId}/stock"),
                                                 handler::updateStock)
+                                .andRoute(PATCH("/products/{productId}/stock/delta"),
+                                                handler::adjustStock)
+                                .andRoute(POST("/products/stock:batch"),
+                                                handler::batchUpdateStock)
                                 .andRoute(GET("/franchises/{franchiseId}/products/max-stock"),
                                                 handler::getMaxStockProducts)
-                                .andRoute(PUT("/products/{productId}/name"), handler::updateProductName);
+                                .andRoute(GET("/franchises/{franchiseId}/products/top"),
+                                                handler::getTopStockProducts)
+                                .andRoute(GET("/franchises/{franchiseId}/products/low-stock"),
+                                                handler::getLowStockProducts)
+                                .andRoute(PUT("/products/{productId}/name"), handler::updateProductName)
+                                .filter(HandlerMetrics.filter());
         }
 }
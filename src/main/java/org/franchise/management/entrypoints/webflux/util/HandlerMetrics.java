@@ -0,0 +1,32 @@
+package org.franchise.management.entrypoints.webflux.util;
+
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.observability.micrometer.Micrometer;
+
+/**
+ * Filtro de routers que instrumenta el pipeline de cada handler bajo
+ * {@value #METRIC_NAME}, etiquetado por método y patrón de ruta. Mide hasta
+ * que el handler entrega la respuesta; en las rutas en streaming el envío
+ * del cuerpo queda fuera (lo cubre http.server.requests).
+ */
+public final class HandlerMetrics {
+
+    public static final String METRIC_NAME = "franchise.handler";
+
+    private HandlerMetrics() {
+        // Clase utilitaria, no se instancia
+    }
+
+    public static HandlerFilterFunction<ServerResponse, ServerResponse> filter() {
+        return (request, next) -> next.handle(request)
+                .name(METRIC_NAME)
+                .tag("method", request.method().name())
+                .tag("route", request.attribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE)
+                        .map(Object::toString)
+                        .orElse("UNKNOWN"))
+                .tap(Micrometer.metrics(Metrics.globalRegistry));
+    }
+}
@@ -0,0 +1,161 @@
+package org.franchise.management.entrypoints.webflux.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.franchise.management.application.config.IdempotencyProperties;
+import org.franchise.management.application.idempotency.IdempotencyService;
+import org.franchise.management.domain.model.IdempotencyRecord;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.EntityResponse;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Filtro de las altas por POST que atiende la cabecera Idempotency-Key.
+ *
+ * <p>La primera petición con una clave la reserva, se ejecuta y, si termina
+ * en 2xx, guarda el estado y el cuerpo JSON. Un reintento con la misma clave
+ * y la misma petición (método, ruta y cuerpo) recibe esa respuesta con
+ * {@value #REPLAYED_HEADER}: true, sin volver a ejecutar el caso de uso. La
+ * misma clave con otra petición responde 400 y, mientras la original sigue en
+ * curso, 409. Las respuestas de error no se guardan: la clave se libera y el
+ * cliente puede corregir y reintentar. Sin cabecera el filtro no hace nada.
+ *
+ * <p>La ejecución y el guardado no dependen de la conexión: si el cliente
+ * cancela o agota su timeout, terminan igual y el reintento recibe la
+ * respuesta guardada. Mientras se ejecutan, la reserva se renueva cada tercio
+ * de {@code lockTimeout}, así que un caso de uso lento tampoco la pierde.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /** Mismo límite que spring.codec.max-in-memory-size por defecto */
+    private static final int MAX_BODY_BYTES = 256 * 1024;
+
+    private final IdempotencyService idempotencyService;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        String key = request.headers().firstHeader(HEADER);
+        if (key == null || !properties.isEnabled()) {
+            return next.handle(request);
+        }
+        if (key.isBlank() || key.length() > properties.getMaxKeyLength()) {
+            return ResponseUtil.badRequest(HEADER + " debe tener entre 1 y " + properties.getMaxKeyLength()
+                    + " caracteres");
+        }
+
+        // El cuerpo se lee una vez para la huella y se vuelve a entregar al handler
+        return DataBufferUtils.join(request.bodyToFlux(DataBuffer.class), MAX_BODY_BYTES)
+                .map(IdempotencyFilter::toBytes)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(body -> {
+                    String fingerprint = fingerprint(request, body);
+                    return idempotencyService.begin(key, fingerprint)
+                            .flatMap(previous -> respondTo(previous, fingerprint))
+                            .switchIfEmpty(Mono.defer(() -> execute(key, fingerprint, withBody(request, body), next)));
+                })
+                .onErrorResume(DataBufferLimitException.class,
+                        e -> ResponseUtil.badRequest("El cuerpo de la solicitud es demasiado grande"));
+    }
+
+    private Mono<ServerResponse> respondTo(IdempotencyRecord previous, String fingerprint) {
+        if (!fingerprint.equals(previous.getFingerprint())) {
+            return ResponseUtil.badRequest(HEADER + " ya usada con otra petición");
+        }
+        if (!previous.isCompleted()) {
+            return ResponseUtil.conflict("Hay una petición en curso con la misma " + HEADER);
+        }
+
+        log.debug("Respuesta repetida para la Idempotency-Key {}", previous.getKey());
+        return ServerResponse.status(previous.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .bodyValue(previous.getBody().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mono<ServerResponse> execute(String key, String fingerprint, ServerRequest request,
+            HandlerFunction<ServerResponse> next) {
+        return Mono.deferContextual(context -> {
+            Disposable heartbeat = Flux.interval(properties.getLockTimeout().dividedBy(3))
+                    .concatMap(tick -> idempotencyService.extend(key, fingerprint))
+                    .subscribe();
+
+            Mono<ServerResponse> execution = next.handle(request)
+                    .flatMap(response -> store(key, fingerprint, response))
+                    .onErrorResume(e -> idempotencyService.release(key).then(Mono.error(e)))
+                    .doFinally(signal -> heartbeat.dispose())
+                    .contextWrite(context)
+                    .cache();
+            // Suscripción propia: cancelar la respuesta no cancela la ejecución
+            execution.subscribe(null, e -> log.debug("Petición con Idempotency-Key {} fallida: {}", key,
+                    e.getMessage()));
+            return execution;
+        });
+    }
+
+    /** Solo se guardan las respuestas 2xx con cuerpo, que es lo que devuelven las altas */
+    private Mono<ServerResponse> store(String key, String fingerprint, ServerResponse response) {
+        if (!response.statusCode().is2xxSuccessful() || !(response instanceof EntityResponse<?> entity)) {
+            return idempotencyService.release(key).thenReturn(response);
+        }
+
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(entity.entity()))
+                .flatMap(body -> idempotencyService.complete(key, fingerprint, response.statusCode().value(), body))
+                .onErrorResume(e -> {
+                    log.warn("No se pudo serializar la respuesta de la Idempotency-Key {}: {}", key, e.getMessage());
+                    return idempotencyService.release(key);
+                })
+                .thenReturn(response);
+    }
+
+    private static ServerRequest withBody(ServerRequest request, byte[] body) {
+        return ServerRequest.from(request)
+                .body(Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body))))
+                .build();
+    }
+
+    private static byte[] toBytes(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    static String fingerprint(ServerRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.method().name() + " " + request.path() + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.franchise.management.entrypoints.webflux.util;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+/**
+ * Lectura de parámetros de consulta. Un valor mal formado es un
+ * IllegalArgumentException, que ResponseUtil.handleError convierte en 400.
+ */
+public class QueryParams {
+
+    private QueryParams() {
+        // Clase utilitaria, no se instancia
+    }
+
+    /** Null si no se indica */
+    public static Integer intParam(ServerRequest request, String name) {
+        return request.queryParam(name)
+                .map(value -> {
+                    try {
+                        return Integer.valueOf(value.trim());
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException(name + " debe ser un número entero");
+                    }
+                })
+                .orElse(null);
+    }
+
+    /** False si no se indica */
+    public static boolean booleanParam(ServerRequest request, String name) {
+        return request.queryParam(name)
+                .map(value -> {
+                    if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                        throw new IllegalArgumentException(name + " debe ser true o false");
+                    }
+                    return Boolean.parseBoolean(value);
+                })
+                .orElse(false);
+    }
+
+    /** Null si no se indica */
+    public static String stringParam(ServerRequest request, String name) {
+        return request.queryParam(name).orElse(null);
+    }
+}
@@ -1,8 +1,11 @@
 package org.franchise.management.entrypoints.webflux.util;
 
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
@@ -28,6 +31,27 @@ public class ResponseUtil {
                 .bodyValue(Map.of("error", message));
     }
 
+    /** Respuesta 409 Conflict con mensaje JSON */
+    public static Mono<ServerResponse> conflict(String message) {
+        return ServerResponse.status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("error", message));
+    }
+
+    /**
+     * 200 OK escribiendo los elementos a medida que llegan: array JSON por
+     * defecto o NDJSON con Accept: application/x-ndjson.
+     */
+    public static <T> Mono<ServerResponse> stream(ServerRequest request, Flux<T> elements, Class<T> type) {
+        MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+
+        return ServerResponse.ok()
+                .contentType(mediaType)
+                .body(elements, type);
+    }
+
     /** Manejo de cuerpo vacío */
     public static Mono<ServerResponse> emptyBody() {
         return badRequest("El cuerpo de la solicitud está vacío");
@@ -0,0 +1,41 @@
+package org.franchise.management.entrypoints.webflux.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Respuestas de los endpoints con {@code fields=}: los campos no
+ * seleccionados llegan a null desde el modelo y aquí se omiten del JSON. El
+ * resto de endpoints serializa Branch y Product completos, null incluidos.
+ */
+@Component
+public class SparseJsonWriter {
+
+    private final ObjectMapper sparseMapper;
+
+    public SparseJsonWriter(ObjectMapper objectMapper) {
+        // Misma configuración que el encoder (fechas, módulos), sin los null
+        this.sparseMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    /** 200 OK con el cuerpo JSON sin los campos null */
+    public Mono<ServerResponse> ok(Object body) {
+        return Mono.fromCallable(() -> toJson(body))
+                .flatMap(ResponseUtil::ok);
+    }
+
+    /** Como {@link ResponseUtil#stream}, con cada elemento sin sus campos null */
+    public Mono<ServerResponse> stream(ServerRequest request, Flux<?> elements) {
+        return ResponseUtil.stream(request, elements.map(this::toJson), JsonNode.class);
+    }
+
+    private JsonNode toJson(Object value) {
+        return sparseMapper.valueToTree(value);
+    }
+}
@@ -0,0 +1,63 @@
+package org.franchise.management.infrastructure.config;
+
+import org.franchise.management.application.config.EventsProperties;
+import org.franchise.management.application.config.IdempotencyProperties;
+import org.franchise.management.application.config.LeaderboardProperties;
+import org.franchise.management.application.config.PaginationProperties;
+import org.franchise.management.application.config.StockCoalescingProperties;
+import org.franchise.management.application.config.StockLeadersProperties;
+import org.franchise.management.application.config.StockRankingProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enlaza con {@code franchise.*} la configuración que leen los casos de uso.
+ * Las clases viven en la capa de aplicación, sin anotaciones de Spring Boot,
+ * para que esa capa no dependa de infraestructura.
+ */
+@Configuration
+public class ApplicationPropertiesConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "franchise.pagination")
+    PaginationProperties paginationProperties() {
+        return new PaginationProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "franchise.stock-ranking")
+    StockRankingProperties stockRankingProperties() {
+        return new StockRankingProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "franchise.stock-leaders")
+    StockLeadersProperties stockLeadersProperties() {
+        return new StockLeadersProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "franchise.leaderboard")
+    LeaderboardProperties leaderboardProperties() {
+        return new LeaderboardProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "franchise.stock-coalescing")
+    StockCoalescingProperties stockCoalescingProperties() {
+        return new StockCoalescingProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "franchise.events")
+    EventsProperties eventsProperties() {
+        return new EventsProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "franchise.idempotency")
+    IdempotencyProperties idempotencyProperties() {
+        return new IdempotencyProperties();
+    }
+}
@@ -0,0 +1,24 @@
+package org.franchise.management.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lectura de las sucursales de una franquicia en modo EMBEDDED
+ * ({@code franchise.branch-listing.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "franchise.branch-listing")
+public class BranchListingProperties {
+
+    /** Ids de Franchise.branchIds por consulta $in */
+    private int chunkSize = 500;
+
+    /** Consultas $in en vuelo a la vez */
+    private int concurrency = 4;
+
+    /** Sucursales pedidas por adelantado a cada consulta en vuelo */
+    private int prefetch = 32;
+}
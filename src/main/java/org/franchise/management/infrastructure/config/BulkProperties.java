@@ -0,0 +1,17 @@
+package org.franchise.management.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuración de las escrituras masivas ({@code franchise.bulk.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "franchise.bulk")
+public class BulkProperties {
+
+    /** Elementos por bulkWrite */
+    private int chunkSize = 1000;
+}
@@ -0,0 +1,17 @@
+package org.franchise.management.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuración del export de catálogo ({@code franchise.export.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "franchise.export")
+public class ExportProperties {
+
+    /** Documentos por lote del cursor del driver (getMore) */
+    private int cursorBatchSize = 500;
+}
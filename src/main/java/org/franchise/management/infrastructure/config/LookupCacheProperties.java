@@ -0,0 +1,33 @@
+package org.franchise.management.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuración de las cachés en proceso de franquicias y sucursales
+ * ({@code franchise.cache.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "franchise.cache")
+public class LookupCacheProperties {
+
+    private boolean enabled = true;
+
+    private Spec franchises = new Spec();
+
+    private Spec branches = new Spec();
+
+    @Data
+    public static class Spec {
+
+        /** Número máximo de entradas antes de desalojar por tamaño */
+        private long maximumSize = 10_000;
+
+        /** Tiempo de vida de cada entrada desde su carga */
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+}
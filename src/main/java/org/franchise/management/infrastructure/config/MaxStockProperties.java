@@ -0,0 +1,30 @@
+package org.franchise.management.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuración de la consulta de productos con mayor stock por sucursal
+ * ({@code franchise.max-stock.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "franchise.max-stock")
+public class MaxStockProperties {
+
+    /**
+     * Estrategia de consulta:
+     * AGGREGATION resuelve todas las sucursales en un único pipeline,
+     * FAN_OUT lanza una consulta por sucursal (comportamiento original).
+     */
+    private Strategy strategy = Strategy.AGGREGATION;
+
+    /** Permite al pipeline usar disco si el $sort supera el límite de memoria */
+    private boolean allowDiskUse = false;
+
+    public enum Strategy {
+        AGGREGATION,
+        FAN_OUT
+    }
+}
@@ -0,0 +1,35 @@
+package org.franchise.management.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cómo se almacena la pertenencia sucursal → franquicia y producto → sucursal
+ * ({@code franchise.membership.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "franchise.membership")
+public class MembershipProperties {
+
+    /**
+     * EMBEDDED mantiene los arrays Franchise.branchIds y Branch.productIds en
+     * cada alta/baja (comportamiento original). REFERENCE deriva la pertenencia
+     * de Branch.franchiseId y Product.branchId, ambos indexados, y no toca los
+     * arrays: el coste de escritura no depende del tamaño del catálogo.
+     */
+    private Mode mode = Mode.EMBEDDED;
+
+    /** Rellena las referencias al arrancar (solo en modo REFERENCE); no elimina los arrays */
+    private boolean migrateOnStartup = false;
+
+    public enum Mode {
+        EMBEDDED,
+        REFERENCE
+    }
+
+    public boolean isReference() {
+        return mode == Mode.REFERENCE;
+    }
+}
@@ -0,0 +1,28 @@
+package org.franchise.management.infrastructure.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas propias registradas en Micrometer. La latencia por comando de
+ * Mongo (mongodb.driver.commands) y el pool de conexiones
+ * (mongodb.driver.pool.*) los registra Spring Boot con sus CommandListener y
+ * ConnectionPoolListener al estar Actuator en el classpath.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    MeterBinder lookupCacheMetrics(LookupCaches lookupCaches) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, lookupCaches.franchises().asyncCache(),
+                    lookupCaches.franchises().getName(), Tags.empty());
+            CaffeineCacheMetrics.monitor(registry, lookupCaches.branches().asyncCache(),
+                    lookupCaches.branches().getName(), Tags.empty());
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package org.franchise.management.infrastructure.config;
+
+import com.mongodb.ReadPreference;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pool de conexiones, timeouts, compresión y preferencias de lectura del
+ * driver de Mongo ({@code franchise.mongo.*}). Los valores por defecto son
+ * los del driver; lo que se fije en la URI queda sustituido por estos.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "franchise.mongo")
+public class MongoClientProperties {
+
+    private Pool pool = new Pool();
+
+    /** Tiempo máximo para abrir una conexión TCP */
+    private Duration connectTimeout = Duration.ofSeconds(10);
+
+    /** Tiempo máximo de espera de una respuesta; cero es sin límite */
+    private Duration socketTimeout = Duration.ZERO;
+
+    /** Tiempo máximo para encontrar un servidor que cumpla la preferencia de lectura */
+    private Duration serverSelectionTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Compresores en orden de preferencia (zstd, snappy, zlib); el servidor
+     * elige el primero que soporte. Vacío desactiva la compresión.
+     */
+    private List<String> compressors = new ArrayList<>();
+
+    /** Preferencia de lectura por defecto (primary, secondaryPreferred, nearest...); null usa la de la URI */
+    private String readPreference;
+
+    /**
+     * Preferencia de lectura por operación: max-stock, top-stock, low-stock,
+     * leaderboard, list-products y export. Las que no aparecen usan la del cliente.
+     */
+    private Map<String, String> readPreferences = new HashMap<>();
+
+    @Data
+    public static class Pool {
+
+        /** Conexiones que el pool mantiene abiertas aunque estén ociosas */
+        private int minSize = 0;
+
+        /** Conexiones simultáneas por servidor; el resto de operaciones esperan */
+        private int maxSize = 100;
+
+        /** Espera máxima por una conexión libre antes de fallar la operación */
+        private Duration maxWaitTime = Duration.ofMinutes(2);
+
+        /** Conexiones que se pueden estar estableciendo a la vez por servidor */
+        private int maxConnecting = 2;
+
+        /** Cierre de conexiones ociosas; cero es sin límite */
+        private Duration maxIdleTime = Duration.ZERO;
+
+        /** Vida máxima de una conexión; cero es sin límite */
+        private Duration maxLifeTime = Duration.ZERO;
+    }
+
+    /** Preferencia configurada para la operación, o null para usar la del cliente */
+    public ReadPreference readPreferenceFor(String operation) {
+        String name = readPreferences.get(operation);
+        return name != null ? ReadPreference.valueOf(name) : null;
+    }
+}
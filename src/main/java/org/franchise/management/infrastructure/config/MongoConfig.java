@@ -1,16 +1,30 @@
 package org.franchise.management.infrastructure.config;
 
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
 import lombok.extern.slf4j.Slf4j;
+import org.franchise.management.infrastructure.drivenadapters.mongo.index.MongoIndexManager;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.ReactiveAuditorAware;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
 import org.springframework.data.mongodb.config.EnableReactiveMongoAuditing;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @Configuration
+@Profile("!inmemory")
 @EnableReactiveMongoAuditing
 public class MongoConfig {
 
@@ -26,8 +40,75 @@ public class MongoConfig {
         };
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "franchise.indexes", name = "bootstrap", havingValue = "true", matchIfMissing = true)
+    CommandLineRunner ensureIndexes(MongoIndexManager indexManager) {
+        return args -> indexManager.ensureIndexes()
+                .doOnError(error -> log.error("Index bootstrap failed: {}", error.getMessage()))
+                .subscribe();
+    }
+
+    /**
+     * Aplica franchise.mongo.* sobre los ajustes de la URI. Modifica el
+     * builder del pool en lugar de sustituirlo, así que se conserva el
+     * listener que publica mongodb.driver.pool.* en Micrometer.
+     */
+    @Bean
+    MongoClientSettingsBuilderCustomizer mongoClientTuning(MongoClientProperties properties) {
+        return builder -> {
+            MongoClientProperties.Pool pool = properties.getPool();
+            builder.applyToConnectionPoolSettings(settings -> settings
+                            .minSize(pool.getMinSize())
+                            .maxSize(pool.getMaxSize())
+                            .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                            .maxConnecting(pool.getMaxConnecting())
+                            .maxConnectionIdleTime(pool.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                            .maxConnectionLifeTime(pool.getMaxLifeTime().toMillis(), TimeUnit.MILLISECONDS))
+                    .applyToSocketSettings(settings -> settings
+                            .connectTimeout((int) properties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                            .readTimeout((int) properties.getSocketTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                    .applyToClusterSettings(settings -> settings
+                            .serverSelectionTimeout(properties.getServerSelectionTimeout().toMillis(),
+                                    TimeUnit.MILLISECONDS));
+
+            if (!properties.getCompressors().isEmpty()) {
+                builder.compressorList(compressors(properties.getCompressors()));
+            }
+            if (properties.getReadPreference() != null) {
+                builder.readPreference(ReadPreference.valueOf(properties.getReadPreference()));
+            }
+            log.info("Pool de Mongo: min {}, max {}, maxConnecting {}, compresión {}", pool.getMinSize(),
+                    pool.getMaxSize(), pool.getMaxConnecting(), properties.getCompressors());
+        };
+    }
+
+    static List<MongoCompressor> compressors(List<String> names) {
+        return names.stream()
+                .map(name -> switch (name.toLowerCase(Locale.ROOT)) {
+                    case "zstd" -> MongoCompressor.createZstdCompressor();
+                    case "snappy" -> MongoCompressor.createSnappyCompressor();
+                    case "zlib" -> MongoCompressor.createZlibCompressor();
+                    default -> throw new IllegalArgumentException("Compresor de Mongo no soportado: " + name);
+                })
+                .toList();
+    }
+
     @Bean
     ReactiveAuditorAware<String> auditorProvider() {
         return () -> Mono.just("system");
     }
-}
\ No newline at end of file
+
+    /**
+     * Solo participan en la transacción las operaciones dentro de
+     * TransactionalOperator; el resto de escrituras no cambia.
+     */
+    @Bean
+    ReactiveMongoTransactionManager transactionManager(ReactiveMongoDatabaseFactory databaseFactory) {
+        return new ReactiveMongoTransactionManager(databaseFactory);
+    }
+
+    @Bean
+    TransactionalOperator transactionalOperator(ReactiveMongoTransactionManager transactionManager) {
+        return TransactionalOperator.create(transactionManager);
+    }
+}
@@ -0,0 +1,29 @@
+package org.franchise.management.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Transacciones multi-documento de las altas y bajas de producto
+ * ({@code franchise.transactions.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "franchise.transactions")
+public class TransactionProperties {
+
+    /**
+     * Requiere replica set o cluster. Desactivado, las escrituras se ejecutan
+     * sin transacción (servidores standalone, Mongo embebido de la prueba de carga).
+     */
+    private boolean enabled = true;
+
+    /** Reintentos de la transacción completa ante TransientTransactionError */
+    private int maxRetries = 3;
+
+    /** Espera antes del primer reintento; crece exponencialmente con jitter */
+    private Duration minBackoff = Duration.ofMillis(50);
+}
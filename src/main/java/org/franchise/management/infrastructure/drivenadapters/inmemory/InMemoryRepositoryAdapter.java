@@ -0,0 +1,774 @@
+package org.franchise.management.infrastructure.drivenadapters.inmemory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.bson.types.ObjectId;
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.CatalogChangeEvent;
+import org.franchise.management.domain.model.CatalogExportRecord;
+import org.franchise.management.domain.model.CursorPage;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.IdempotencyRecord;
+import org.franchise.management.domain.model.PageCursor;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.ProductOrder;
+import org.franchise.management.domain.model.StockChange;
+import org.franchise.management.domain.model.StockUpdateResult;
+import org.franchise.management.domain.repository.BranchRepository;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.CatalogChangeFeed;
+import org.franchise.management.domain.repository.CatalogExportRepository;
+import org.franchise.management.domain.repository.FranchiseRepository;
+import org.franchise.management.domain.repository.IdempotencyRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.franchise.management.infrastructure.config.BulkProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * 📦 Implementación en memoria de todos los puertos de persistencia, activa
+ * con el perfil {@code inmemory}. Sirve para medir el techo de la capa web
+ * y reactiva sin coste de base de datos y para tests de integración rápidos.
+ *
+ * <p>Cada colección es un ConcurrentHashMap y cada sucursal mantiene un
+ * índice ordenado (stock desc, id) de sus productos, de modo que el producto
+ * de mayor stock es siempre el primero. Las escrituras de un producto se
+ * hacen dentro de {@code compute} sobre su clave, así que el documento y su
+ * entrada en el índice cambian juntos. La pertenencia (branchIds y
+ * productIds) se guarda en conjuntos concurrentes aparte, para que añadir un
+ * elemento sea O(log n) y no una copia del array. Los documentos almacenados
+ * no se modifican nunca (se sustituyen) y los lectores reciben copias.
+ */
+@Log4j2
+@Component
+@Profile("inmemory")
+@RequiredArgsConstructor
+public class InMemoryRepositoryAdapter implements FranchiseRepository, BranchRepository, ProductRepository,
+        BranchStockLeaderRepository, CatalogExportRepository, CatalogChangeFeed, IdempotencyRepository {
+
+    private static final Comparator<StockEntry> BY_STOCK_DESC = Comparator
+            .comparingInt(StockEntry::stock).reversed()
+            .thenComparing(StockEntry::productId);
+
+    private final ConcurrentMap<String, Franchise> franchises = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Branch> branches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Product> products = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NavigableSet<String>> franchiseBranches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NavigableSet<String>> branchProducts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NavigableSet<StockEntry>> stockIndex = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, IdempotencyRecord> idempotencyKeys = new ConcurrentHashMap<>();
+    private final Sinks.Many<CatalogChangeEvent> changes = Sinks.many().multicast().directBestEffort();
+    private final AtomicLong changeSequence = new AtomicLong();
+
+    private final BulkProperties bulkProperties;
+
+    @Override
+    public Mono<Franchise> save(Franchise franchise) {
+        return Mono.fromSupplier(() -> {
+            Franchise stored = copy(franchise);
+            LocalDateTime now = LocalDateTime.now();
+            stored.setId(stored.getId() != null ? stored.getId() : newId());
+            stored.setCreatedAt(stored.getCreatedAt() != null ? stored.getCreatedAt() : now);
+            stored.setUpdatedAt(now);
+            NavigableSet<String> branchIds = franchiseBranches.computeIfAbsent(stored.getId(), id -> newMembers());
+            if (franchise.getBranchIds() != null) {
+                branchIds.addAll(franchise.getBranchIds());
+            }
+            stored.setBranchIds(List.of());
+            franchises.put(stored.getId(), stored);
+            return view(stored);
+        });
+    }
+
+    @Override
+    public Mono<Franchise> update(Franchise franchise) {
+        return save(franchise);
+    }
+
+    @Override
+    public Mono<Franchise> findFranchise(String franchiseId) {
+        return Mono.fromSupplier(() -> view(franchises.get(franchiseId)))
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Franquicia no encontrada")));
+    }
+
+    @Override
+    public Mono<Branch> addBranchToFranchise(String franchiseId, Branch branch) {
+        return Mono.defer(() -> {
+            if (!franchises.containsKey(franchiseId)) {
+                return Mono.error(new IllegalArgumentException("Franquicia no encontrada"));
+            }
+
+            Branch stored = copy(branch);
+            LocalDateTime now = LocalDateTime.now();
+            stored.setId(stored.getId() != null ? stored.getId() : newId());
+            stored.setFranchiseId(franchiseId);
+            stored.setCreatedAt(now);
+            stored.setUpdatedAt(now);
+            stored.setProductIds(List.of());
+            branchProducts.computeIfAbsent(stored.getId(), id -> newMembers());
+            branches.put(stored.getId(), stored);
+            franchiseBranches.computeIfAbsent(franchiseId, id -> newMembers()).add(stored.getId());
+            publishBranch(stored);
+            return Mono.just(view(stored));
+        });
+    }
+
+    @Override
+    public Flux<Branch> findAllByFranchise(String franchiseId) {
+        return Mono.fromSupplier(() -> branchIdsOf(franchiseId))
+                .flatMapIterable(branchIds -> branchIds)
+                .mapNotNull(branchId -> view(branches.get(branchId)));
+    }
+
+    @Override
+    public Mono<CursorPage<Branch>> findPageByFranchise(Franchise franchise, PageCursor after, int limit,
+            Set<String> fields) {
+        return Mono.fromSupplier(() -> page(membersOf(franchiseBranches, franchise.getId()),
+                after != null ? after.getId() : null, limit,
+                branchId -> {
+                    Branch stored = branches.get(branchId);
+                    // productIds solo se copia si se pide
+                    Branch branch = fields.contains("productIds") ? view(stored) : copy(stored);
+                    return branch != null ? branch.retainFields(fields) : null;
+                },
+                branch -> PageCursor.of(branch.getId())));
+    }
+
+    @Override
+    public Mono<Branch> findById(String branchId) {
+        return Mono.fromSupplier(() -> view(branches.get(branchId)));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(String branchId) {
+        return Mono.fromSupplier(() -> branches.containsKey(branchId));
+    }
+
+    @Override
+    public Mono<Branch> updateBranchName(String branchId, String newName) {
+        return Mono.fromSupplier(() -> view(branches.computeIfPresent(branchId, (id, current) -> {
+            Branch renamed = copy(current);
+            renamed.setName(newName);
+            renamed.setUpdatedAt(LocalDateTime.now());
+            return renamed;
+        })))
+                .doOnNext(this::publishBranch);
+    }
+
+    @Override
+    public Mono<Product> addProductToBranch(String branchId, Product product) {
+        return Mono.fromSupplier(() -> {
+            if (!branches.containsKey(branchId)) {
+                return null;
+            }
+            return copy(insert(branchId, product));
+        });
+    }
+
+    @Override
+    public Mono<Long> importProductsToBranch(String branchId, Flux<Product> imported) {
+        return Mono.defer(() -> {
+            if (!branches.containsKey(branchId)) {
+                return Mono.error(new IllegalArgumentException("Sucursal no encontrada."));
+            }
+            return imported
+                    .doOnNext(product -> insert(branchId, product))
+                    .count();
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteProductFromBranch(String branchId, String productId) {
+        return Mono.<Void>fromRunnable(() -> {
+            if (!branches.containsKey(branchId)) {
+                throw new IllegalArgumentException("Branch no encontrado: " + branchId);
+            }
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new IllegalArgumentException("Producto no encontrado: " + productId);
+            }
+            if (!branchId.equals(product.getBranchId())) {
+                throw new IllegalArgumentException("El producto no pertenece al branch especificado");
+            }
+
+            products.computeIfPresent(productId, (id, current) -> {
+                unindex(current);
+                return null;
+            });
+            membersOf(branchProducts, branchId).remove(productId);
+            publishProduct(CatalogChangeEvent.Type.PRODUCT_DELETED, product);
+        })
+                .doOnSuccess(v -> log.debug("Producto {} eliminado de branch {}", productId, branchId));
+    }
+
+    @Override
+    public Mono<Product> updateProductStock(String productId, Integer newStock) {
+        if (newStock == null || newStock < 0) {
+            return Mono.error(new IllegalArgumentException("Stock cannot be negative"));
+        }
+
+        return Mono.fromSupplier(() -> copy(setStock(productId, newStock)))
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Producto no encontrado")));
+    }
+
+    /**
+     * Igual que en Mongo, la comprobación de que {@code stock + delta} queda
+     * entre 0 e {@code Integer.MAX_VALUE} y el incremento son una única
+     * operación atómica sobre el producto.
+     */
+    @Override
+    public Mono<Product> adjustProductStock(String productId, Integer delta) {
+        if (delta == null) {
+            return Mono.error(new IllegalArgumentException("El ajuste de stock es obligatorio"));
+        }
+
+        if (delta == Integer.MIN_VALUE) {
+            return Mono.error(new IllegalArgumentException("El ajuste de stock está fuera de rango"));
+        }
+
+        return Mono.fromCallable(() -> {
+            AtomicBoolean rejected = new AtomicBoolean();
+            Product adjusted = products.computeIfPresent(productId, (id, current) -> {
+                long adjustedStock = (long) current.getStock() + delta;
+                if (adjustedStock < 0 || adjustedStock > Integer.MAX_VALUE) {
+                    rejected.set(true);
+                    return current;
+                }
+                return withStock(current, (int) adjustedStock);
+            });
+
+            if (adjusted == null) {
+                throw new IllegalArgumentException("Producto no encontrado");
+            }
+            if (rejected.get()) {
+                throw delta < 0
+                        ? new InsufficientStockException()
+                        : new IllegalArgumentException("El ajuste supera el stock máximo permitido");
+            }
+            publishProduct(CatalogChangeEvent.Type.PRODUCT_CHANGED, adjusted);
+            return copy(adjusted);
+        });
+    }
+
+    /**
+     * Mismas reglas que el bulkWrite de Mongo: por lote de
+     * {@code franchise.bulk.chunk-size} gana la última actualización de cada
+     * producto y los resultados se emiten en el orden de entrada.
+     */
+    @Override
+    public Flux<StockUpdateResult> bulkUpdateProductStock(Flux<Product> updates) {
+        return updates
+                .buffer(bulkProperties.getChunkSize())
+                .concatMapIterable(this::applyStockChunk);
+    }
+
+    /**
+     * Cada cambio es atómico sobre su producto, como cada updateOne del
+     * bulkWrite, y un incremento que dejaría el stock fuera de rango no se
+     * aplica ni se emite, como con el filtro de Mongo.
+     */
+    @Override
+    public Flux<Product> applyStockChanges(List<StockChange> changes) {
+        if (!changes.stream().allMatch(StockChange::isNonNegative)) {
+            return Flux.error(new IllegalArgumentException(
+                    "Los cambios agrupados no pueden dejar el stock en negativo"));
+        }
+
+        return Flux.fromIterable(changes)
+                .mapNotNull(change -> {
+                    AtomicBoolean applied = new AtomicBoolean();
+                    Product updated = products.computeIfPresent(change.getProductId(), (id, current) -> {
+                        long newStock = change.getStock() != null ? change.getStock()
+                                : (long) current.getStock() + change.getDelta();
+                        if (newStock < 0 || newStock > Integer.MAX_VALUE) {
+                            log.warn("Cambio agrupado fuera de rango para el producto {}: se descarta", id);
+                            return current;
+                        }
+                        applied.set(true);
+                        return withStock(current, (int) newStock);
+                    });
+                    if (!applied.get()) {
+                        return null;
+                    }
+                    publishProduct(CatalogChangeEvent.Type.PRODUCT_CHANGED, updated);
+                    return copy(updated);
+                });
+    }
+
+    private List<StockUpdateResult> applyStockChunk(List<Product> chunk) {
+        Map<String, Integer> lastIndexById = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (isValidStockUpdate(chunk.get(i))) {
+                lastIndexById.put(chunk.get(i).getId(), i);
+            }
+        }
+
+        Map<String, String> updated = new HashMap<>();
+        lastIndexById.forEach((id, index) -> {
+            Product product = setStock(id, chunk.get(index).getStock());
+            if (product != null) {
+                updated.put(id, product.getBranchId());
+            }
+        });
+
+        List<StockUpdateResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(toStockUpdateResult(i, chunk.get(i), lastIndexById, updated));
+        }
+        return results;
+    }
+
+    private static boolean isValidStockUpdate(Product item) {
+        return item.getId() != null && !item.getId().isBlank() && item.getStock() != null && item.getStock() >= 0;
+    }
+
+    private static StockUpdateResult toStockUpdateResult(int index, Product item, Map<String, Integer> lastIndexById,
+            Map<String, String> updated) {
+        StockUpdateResult.StockUpdateResultBuilder result = StockUpdateResult.builder()
+                .productId(item.getId())
+                .stock(item.getStock());
+
+        if (!isValidStockUpdate(item)) {
+            return result.status(StockUpdateResult.Status.INVALID)
+                    .message("productId es obligatorio y el stock no puede ser negativo")
+                    .build();
+        }
+        if (lastIndexById.get(item.getId()) != index) {
+            return result.status(StockUpdateResult.Status.SUPERSEDED)
+                    .message("Reemplazada por una actualización posterior del mismo producto")
+                    .build();
+        }
+        if (!updated.containsKey(item.getId())) {
+            return result.status(StockUpdateResult.Status.NOT_FOUND)
+                    .message("Producto no encontrado")
+                    .build();
+        }
+        return result.status(StockUpdateResult.Status.UPDATED)
+                .branchId(updated.get(item.getId()))
+                .build();
+    }
+
+    /** Cabeza del índice ordenado de cada sucursal: O(1) por sucursal */
+    @Override
+    public Flux<Product> findMaxStockProductByBranch(String franchiseId) {
+        return Mono.fromSupplier(() -> branchIdsOf(franchiseId))
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Franquicia no encontrada")))
+                .flatMapIterable(branchIds -> branchIds)
+                .mapNotNull(this::topProduct);
+    }
+
+    @Override
+    public Flux<Product> findTopStockProductsByBranch(String branchId, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(stockIndex.getOrDefault(branchId, Collections.emptyNavigableSet())))
+                .take(limit)
+                .mapNotNull(entry -> copy(products.get(entry.productId())));
+    }
+
+    /** tailSet del conjunto de ids o del índice (stock desc, id), que ya tienen el orden de la página */
+    @Override
+    public Mono<CursorPage<Product>> findPageByBranch(String branchId, ProductOrder order, PageCursor after,
+            int limit, Set<String> fields) {
+        return Mono.fromSupplier(() -> {
+            CursorPage<Product> page = order == ProductOrder.STOCK
+                    ? page(stockIndex.getOrDefault(branchId, Collections.emptyNavigableSet()),
+                            after != null ? new StockEntry(after.getStock(), after.getId()) : null, limit,
+                            entry -> copy(products.get(entry.productId())),
+                            product -> PageCursor.of(product.getStock(), product.getId()))
+                    : page(membersOf(branchProducts, branchId), after != null ? after.getId() : null, limit,
+                            productId -> copy(products.get(productId)), product -> PageCursor.of(product.getId()));
+            page.getItems().forEach(product -> product.retainFields(fields));
+            return page;
+        });
+    }
+
+    /** Hasta limit + 1 elementos posteriores a {@code after}; los que ya no existen se omiten */
+    private static <E, T> CursorPage<T> page(NavigableSet<E> ordered, E after, int limit, Function<E, T> load,
+            Function<T, PageCursor> cursorOf) {
+        List<T> fetched = new ArrayList<>(limit + 1);
+        for (E element : after != null ? ordered.tailSet(after, false) : ordered) {
+            T item = load.apply(element);
+            if (item != null) {
+                fetched.add(item);
+                if (fetched.size() > limit) {
+                    break;
+                }
+            }
+        }
+        return CursorPage.of(fetched, limit, cursorOf);
+    }
+
+    /** Por sucursal recorre su índice; el global ordena los N primeros de cada una */
+    @Override
+    public Flux<Product> findTopStockProducts(Franchise franchise, int limit, boolean perBranch,
+            Set<String> fields) {
+        return Flux.defer(() -> {
+            NavigableSet<String> branchIds = branchIdsOf(franchise.getId());
+            if (branchIds == null) {
+                return Flux.empty();
+            }
+            if (perBranch) {
+                return Flux.fromIterable(branchIds)
+                        .concatMap(branchId -> findTopStockProductsByBranch(branchId, limit));
+            }
+
+            List<StockEntry> candidates = new ArrayList<>();
+            for (String branchId : branchIds) {
+                stockIndex.getOrDefault(branchId, Collections.emptyNavigableSet()).stream()
+                        .limit(limit)
+                        .forEach(candidates::add);
+            }
+            candidates.sort(BY_STOCK_DESC);
+            return Flux.fromIterable(candidates)
+                    .take(limit)
+                    .mapNotNull(entry -> copy(products.get(entry.productId())));
+        })
+                .map(product -> product.retainFields(fields));
+    }
+
+    @Override
+    public Flux<Product> findLowStockProducts(Franchise franchise, int below, int limit, Set<String> fields) {
+        return Flux.defer(() -> {
+            NavigableSet<String> branchIds = branchIdsOf(franchise.getId());
+            return branchIds == null ? Flux.<String>empty() : Flux.fromIterable(branchIds);
+        })
+                .concatMapIterable(branchId -> lowestBelow(branchId, below, limit))
+                .mapNotNull(entry -> copy(products.get(entry.productId())))
+                .map(product -> product.retainFields(fields));
+    }
+
+    /** En orden (stock desc, id) los menores que {@code below} empiezan en (below - 1, "") */
+    private List<StockEntry> lowestBelow(String branchId, int below, int limit) {
+        NavigableSet<StockEntry> entries = stockIndex.get(branchId);
+        if (entries == null) {
+            return List.of();
+        }
+
+        List<StockEntry> lowest = new ArrayList<>();
+        Iterator<StockEntry> iterator = entries.tailSet(new StockEntry(below - 1, ""), true).descendingIterator();
+        while (iterator.hasNext() && lowest.size() < limit) {
+            lowest.add(iterator.next());
+        }
+        return lowest;
+    }
+
+    @Override
+    public Mono<Product> updateProductName(String productId, String newName) {
+        return Mono.fromSupplier(() -> copy(products.computeIfPresent(productId, (id, current) -> {
+            Product renamed = copy(current);
+            renamed.updateName(newName);
+            renamed.setUpdatedAt(LocalDateTime.now());
+            return renamed;
+        })))
+                .doOnNext(renamed -> publishProduct(CatalogChangeEvent.Type.PRODUCT_CHANGED, renamed))
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Producto no encontrado")));
+    }
+
+    /**
+     * Cambios publicados por las escrituras de este adaptador. No hay
+     * historial: el token solo numera los eventos y watch empieza siempre en
+     * directo.
+     */
+    @Override
+    public Flux<CatalogChangeEvent> watch(String resumeToken) {
+        return changes.asFlux();
+    }
+
+    private void publishProduct(CatalogChangeEvent.Type type, Product product) {
+        Branch branch = branches.get(product.getBranchId());
+        publish(CatalogChangeEvent.builder()
+                .type(type)
+                .franchiseId(branch != null ? branch.getFranchiseId() : null)
+                .branchId(product.getBranchId())
+                .productId(product.getId())
+                .name(product.getName())
+                .stock(type == CatalogChangeEvent.Type.PRODUCT_DELETED ? null : product.getStock()));
+    }
+
+    private void publishBranch(Branch branch) {
+        publish(CatalogChangeEvent.builder()
+                .type(CatalogChangeEvent.Type.BRANCH_CHANGED)
+                .franchiseId(branch.getFranchiseId())
+                .branchId(branch.getId())
+                .name(branch.getName()));
+    }
+
+    /** El sink no admite emisiones concurrentes; se serializan aquí */
+    private synchronized void publish(CatalogChangeEvent.CatalogChangeEventBuilder event) {
+        changes.tryEmitNext(event
+                .id(Long.toString(changeSequence.incrementAndGet()))
+                .timestamp(Instant.now())
+                .build());
+    }
+
+    /** El índice por sucursal ya está al día tras cada escritura */
+    @Override
+    public Mono<Void> refresh(String branchId) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Flux<Product> findLeadersByFranchise(String franchiseId) {
+        return findMaxStockProductByBranch(franchiseId);
+    }
+
+    @Override
+    public Mono<Long> rebuild() {
+        return Mono.fromSupplier(() -> stockIndex.values().stream()
+                .filter(entries -> !entries.isEmpty())
+                .count());
+    }
+
+    /** Como el upsert de Mongo: una clave caducada se puede volver a reservar */
+    @Override
+    public Mono<Boolean> reserve(IdempotencyRecord pending) {
+        return Mono.fromSupplier(() -> {
+            AtomicBoolean reserved = new AtomicBoolean();
+            idempotencyKeys.compute(pending.getKey(), (key, current) -> {
+                if (current != null && !expired(current)) {
+                    return current;
+                }
+                reserved.set(true);
+                return pending;
+            });
+            return reserved.get();
+        });
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> findByKey(String key) {
+        return Mono.justOrEmpty(idempotencyKeys.get(key))
+                .filter(record -> !expired(record));
+    }
+
+    @Override
+    public Mono<Void> complete(IdempotencyRecord completed) {
+        return Mono.fromRunnable(() -> idempotencyKeys.put(completed.getKey(), completed));
+    }
+
+    @Override
+    public Mono<Void> extend(String key, String fingerprint, Instant expiresAt) {
+        return Mono.fromRunnable(() -> idempotencyKeys.computeIfPresent(key, (k, current) ->
+                !current.isCompleted() && fingerprint.equals(current.getFingerprint())
+                        ? IdempotencyRecord.pending(key, fingerprint, expiresAt)
+                        : current));
+    }
+
+    @Override
+    public Mono<Void> release(String key) {
+        return Mono.fromRunnable(() -> idempotencyKeys.computeIfPresent(key,
+                (k, current) -> current.isCompleted() ? current : null));
+    }
+
+    private static boolean expired(IdempotencyRecord record) {
+        return !record.getExpiresAt().isAfter(Instant.now());
+    }
+
+    @Override
+    public Flux<CatalogExportRecord> exportCatalog(Franchise franchise) {
+        Flux<CatalogExportRecord> rows = Flux.fromIterable(membersOf(franchiseBranches, franchise.getId()))
+                .mapNotNull(branches::get)
+                .concatMap(branch -> Flux.concat(
+                        Mono.just(CatalogExportRecord.builder()
+                                .type(CatalogExportRecord.Type.BRANCH)
+                                .id(branch.getId())
+                                .name(branch.getName())
+                                .franchiseId(franchise.getId())
+                                .build()),
+                        Flux.fromIterable(membersOf(branchProducts, branch.getId()))
+                                .mapNotNull(products::get)
+                                .map(product -> CatalogExportRecord.builder()
+                                        .type(CatalogExportRecord.Type.PRODUCT)
+                                        .id(product.getId())
+                                        .name(product.getName())
+                                        .branchId(branch.getId())
+                                        .stock(product.getStock())
+                                        .build())));
+
+        return Flux.concat(Mono.just(CatalogExportRecord.of(franchise)), rows);
+    }
+
+    private Product insert(String branchId, Product product) {
+        Product stored = copy(product);
+        LocalDateTime now = LocalDateTime.now();
+        stored.setId(stored.getId() != null ? stored.getId() : newId());
+        stored.setBranchId(branchId);
+        stored.setCreatedAt(now);
+        stored.setUpdatedAt(now);
+
+        AtomicReference<String> previousBranchId = new AtomicReference<>();
+        products.compute(stored.getId(), (id, previous) -> {
+            if (previous != null) {
+                unindex(previous);
+                previousBranchId.set(previous.getBranchId());
+            }
+            index(stored);
+            return stored;
+        });
+        membersOf(branchProducts, branchId).add(stored.getId());
+        // Un id que ya existía en otra sucursal se mueve, no se duplica
+        if (previousBranchId.get() != null && !branchId.equals(previousBranchId.get())) {
+            membersOf(branchProducts, previousBranchId.get()).remove(stored.getId());
+        }
+        publishProduct(CatalogChangeEvent.Type.PRODUCT_CHANGED, stored);
+        return stored;
+    }
+
+    private Product setStock(String productId, Integer newStock) {
+        Product updated = products.computeIfPresent(productId, (id, current) -> withStock(current, newStock));
+        if (updated != null) {
+            publishProduct(CatalogChangeEvent.Type.PRODUCT_CHANGED, updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Sustituye el producto por una copia con el nuevo stock. La entrada nueva
+     * se añade al índice antes de retirar la antigua: un lector concurrente
+     * puede ver ambas un instante, pero nunca una sucursal sin su máximo. Con
+     * el mismo stock la entrada no cambia (se compara por stock e id) y no se
+     * toca: añadirla y retirarla la borraría.
+     */
+    private Product withStock(Product current, int newStock) {
+        Product updated = copy(current);
+        updated.setStock(newStock);
+        updated.setUpdatedAt(LocalDateTime.now());
+        if (!Objects.equals(current.getStock(), updated.getStock())) {
+            index(updated);
+            unindex(current);
+        }
+        return updated;
+    }
+
+    private void index(Product product) {
+        if (product.getStock() == null) {
+            return;
+        }
+        stockIndex.computeIfAbsent(product.getBranchId(), id -> new ConcurrentSkipListSet<>(BY_STOCK_DESC))
+                .add(new StockEntry(product.getStock(), product.getId()));
+    }
+
+    private void unindex(Product product) {
+        NavigableSet<StockEntry> entries = stockIndex.get(product.getBranchId());
+        if (entries != null && product.getStock() != null) {
+            entries.remove(new StockEntry(product.getStock(), product.getId()));
+        }
+    }
+
+    private Product topProduct(String branchId) {
+        NavigableSet<StockEntry> entries = stockIndex.get(branchId);
+        if (entries == null) {
+            return null;
+        }
+        // El iterador es débilmente consistente: first() lanzaría si otra escritura vacía el conjunto
+        Iterator<StockEntry> iterator = entries.iterator();
+        return iterator.hasNext() ? copy(products.get(iterator.next().productId())) : null;
+    }
+
+    /** Sucursales de la franquicia, o null si no existe */
+    private NavigableSet<String> branchIdsOf(String franchiseId) {
+        return franchises.containsKey(franchiseId) ? membersOf(franchiseBranches, franchiseId) : null;
+    }
+
+    /**
+     * Ids de los miembros. ConcurrentSkipListSet ordena por id, que para
+     * ObjectId es el orden de inserción, como el $sort por _id del export.
+     */
+    private static NavigableSet<String> membersOf(ConcurrentMap<String, NavigableSet<String>> members, String key) {
+        return members.computeIfAbsent(key, id -> newMembers());
+    }
+
+    private static NavigableSet<String> newMembers() {
+        return new ConcurrentSkipListSet<>();
+    }
+
+    private Franchise view(Franchise stored) {
+        Franchise franchise = copy(stored);
+        if (franchise != null) {
+            franchise.setBranchIds(new ArrayList<>(membersOf(franchiseBranches, franchise.getId())));
+        }
+        return franchise;
+    }
+
+    private Branch view(Branch stored) {
+        Branch branch = copy(stored);
+        if (branch != null) {
+            branch.setProductIds(new ArrayList<>(membersOf(branchProducts, branch.getId())));
+        }
+        return branch;
+    }
+
+    private static String newId() {
+        return new ObjectId().toHexString();
+    }
+
+    private static Franchise copy(Franchise franchise) {
+        if (franchise == null) {
+            return null;
+        }
+        return Franchise.builder()
+                .id(franchise.getId())
+                .name(franchise.getName())
+                .branchIds(franchise.getBranchIds() != null
+                        ? new ArrayList<>(franchise.getBranchIds())
+                        : new ArrayList<>())
+                .createdAt(franchise.getCreatedAt())
+                .updatedAt(franchise.getUpdatedAt())
+                .build();
+    }
+
+    private static Branch copy(Branch branch) {
+        if (branch == null) {
+            return null;
+        }
+        return Branch.builder()
+                .id(branch.getId())
+                .name(branch.getName())
+                .franchiseId(branch.getFranchiseId())
+                .productIds(branch.getProductIds() != null
+                        ? new ArrayList<>(branch.getProductIds())
+                        : new ArrayList<>())
+                .createdAt(branch.getCreatedAt())
+                .updatedAt(branch.getUpdatedAt())
+                .build();
+    }
+
+    private static Product copy(Product product) {
+        if (product == null) {
+            return null;
+        }
+        return Product.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .stock(product.getStock())
+                .branchId(product.getBranchId())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+
+    private record StockEntry(int stock, String productId) {
+    }
+}
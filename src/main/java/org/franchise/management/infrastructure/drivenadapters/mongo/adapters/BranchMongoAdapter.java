@@ -1,35 +1,70 @@
 package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
 
 import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.CursorPage;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.PageCursor;
 import org.franchise.management.domain.repository.BranchRepository;
+import org.franchise.management.infrastructure.config.BranchListingProperties;
+import org.franchise.management.infrastructure.config.MembershipProperties;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
 import org.franchise.management.infrastructure.drivenadapters.mongo.repository.BranchMongoRepository;
 import org.franchise.management.infrastructure.drivenadapters.mongo.repository.FranchiseMongoRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
 @Log4j2
 @Repository
+@Profile("!inmemory")
 @RequiredArgsConstructor
 public class BranchMongoAdapter implements BranchRepository {
 
     private final BranchMongoRepository branchMongoRepository;
     private final FranchiseMongoRepository franchiseMongoRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final LookupCaches lookupCaches;
+    private final MembershipProperties membershipProperties;
+    private final BranchListingProperties branchListingProperties;
 
     @Override
     public Mono<Branch> addBranchToFranchise(String franchiseId, Branch branch) {
-        return franchiseMongoRepository.findById(franchiseId)
+        return findFranchise(franchiseId)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Franquicia no encontrada")))
                 .flatMap(franchise -> {
                     branch.setFranchiseId(franchiseId);
                     return branchMongoRepository.save(branch)
                             .flatMap(savedBranch -> {
-                                franchise.addBranch(savedBranch.getId());
-                                log.info("Agregando sucursal '{}' a la franquicia '{}'", branch.getName(),
+                                log.debug("Agregando sucursal '{}' a la franquicia '{}'", branch.getName(),
                                         franchiseId);
-                                return franchiseMongoRepository.save(franchise)
+                                if (membershipProperties.isReference()) {
+                                    // La pertenencia es Branch.franchiseId; la franquicia no cambia
+                                    return Mono.just(savedBranch);
+                                }
+                                // $addToSet en lugar de reescribir la franquicia cacheada (compartida)
+                                Query franchiseQuery = new Query(Criteria.where("_id").is(franchiseId));
+                                Update update = new Update().addToSet("branchIds", savedBranch.getId());
+
+                                return mongoTemplate.updateFirst(franchiseQuery, update, Franchise.class)
+                                        .doOnNext(result -> lookupCaches.franchises().invalidate(franchiseId))
                                         .thenReturn(savedBranch);
                             });
                 });
@@ -37,25 +72,168 @@ public class BranchMongoAdapter implements BranchRepository {
 
     @Override
     public Flux<Branch> findAllByFranchise(String franchiseId) {
-        return franchiseMongoRepository.findById(franchiseId)
+        return findFranchise(franchiseId)
                 .flatMapMany(franchise -> {
-                    log.info("Listando sucursales de la franquicia '{}'", franchiseId);
-                    return Flux.fromIterable(franchise.getBranchIds())
-                            .flatMap(branchMongoRepository::findById);
+                    log.debug("Listando sucursales de la franquicia '{}'", franchiseId);
+                    if (membershipProperties.isReference()) {
+                        return branchMongoRepository.findByFranchiseId(franchiseId);
+                    }
+                    return findAllById(franchise.getBranchIds());
                 });
     }
 
+    /**
+     * Keyset por _id: en REFERENCE es un rango sobre franchiseId_id_idx
+     * ({@code _id > after}) con limit + 1, así que una página profunda cuesta
+     * lo mismo que la primera. En EMBEDDED los ids ya vienen en la franquicia:
+     * se ordenan en memoria (el orden hexadecimal es el de ObjectId) y las
+     * sucursales de la página salen de la caché de sucursales si ya están
+     * cargadas y el resto se lee con un único $in. hasMore sale de los ids y
+     * no de las sucursales encontradas, para que un id huérfano no corte el
+     * listado. Las lecturas de Mongo proyectan {@code fields}, así que por
+     * defecto productIds no viaja; por eso no llenan la caché, que guarda
+     * documentos completos. Solo una página que pide productIds en EMBEDDED
+     * lee y cachea documentos completos, como findAllByFranchise.
+     */
+    @Override
+    public Mono<CursorPage<Branch>> findPageByFranchise(Franchise franchise, PageCursor after, int limit,
+            Set<String> fields) {
+        if (membershipProperties.isReference()) {
+            Criteria criteria = Criteria.where("franchiseId").is(franchise.getId());
+            if (after != null) {
+                criteria = criteria.and("_id").gt(after.getId());
+            }
+            Query query = project(Query.query(criteria), fields)
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .limit(limit + 1);
+
+            return mongoTemplate.find(query, Branch.class)
+                    .map(branch -> branch.retainFields(fields))
+                    .collectList()
+                    .map(branches -> CursorPage.of(branches, limit, branch -> PageCursor.of(branch.getId())));
+        }
+
+        List<String> ids = franchise.getBranchIds() == null ? List.of() : franchise.getBranchIds().stream()
+                .filter(id -> after == null || id.compareTo(after.getId()) > 0)
+                .sorted()
+                .limit(limit + 1L)
+                .toList();
+        boolean hasMore = ids.size() > limit;
+        List<String> pageIds = hasMore ? ids.subList(0, limit) : ids;
+
+        return findPage(pageIds, fields)
+                .map(branches -> CursorPage.<Branch>builder()
+                        .items(branches)
+                        .nextCursor(hasMore ? PageCursor.of(pageIds.get(limit - 1)).encode() : null)
+                        .build());
+    }
+
+    private Mono<List<Branch>> findPage(List<String> pageIds, Set<String> fields) {
+        if (fields.contains("productIds")) {
+            // Documentos completos de todos modos: por la caché; la copia evita recortar la entrada cacheada
+            return findAllById(pageIds)
+                    .map(branch -> copyOf(branch).retainFields(fields))
+                    .collectList();
+        }
+
+        Map<String, Branch> cached = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        pageIds.forEach(id -> {
+            Branch branch = lookupCaches.branches().getIfLoaded(id);
+            if (branch != null) {
+                cached.put(id, branch);
+            } else {
+                missing.add(id);
+            }
+        });
+
+        Mono<Map<String, Branch>> read = missing.isEmpty()
+                ? Mono.just(Map.of())
+                : mongoTemplate.find(project(Query.query(Criteria.where("_id").in(missing)), fields), Branch.class)
+                        .collectMap(Branch::getId);
+
+        return read.map(found -> pageIds.stream()
+                .map(id -> cached.containsKey(id) ? copyOf(cached.get(id)) : found.get(id))
+                .filter(Objects::nonNull)
+                .map(branch -> branch.retainFields(fields))
+                .toList());
+    }
+
+    private static Branch copyOf(Branch branch) {
+        return Branch.builder()
+                .id(branch.getId())
+                .name(branch.getName())
+                .franchiseId(branch.getFranchiseId())
+                .productIds(branch.getProductIds() != null ? new ArrayList<>(branch.getProductIds()) : null)
+                .createdAt(branch.getCreatedAt())
+                .updatedAt(branch.getUpdatedAt())
+                .build();
+    }
+
+    /** Proyección de los campos pedidos; _id va siempre */
+    private static Query project(Query query, Set<String> fields) {
+        query.fields().include("_id");
+        fields.forEach(query.fields()::include);
+        return query;
+    }
+
+    /**
+     * Lotes de {@code chunkSize} ids: cada lote es una consulta $in solo por
+     * los que no están en la caché, con {@code concurrency} lotes en vuelo.
+     * flatMapSequential conserva el orden de branchIds; los ids sin sucursal
+     * se omiten.
+     */
+    private Flux<Branch> findAllById(List<String> branchIds) {
+        if (branchIds == null || branchIds.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return Flux.fromIterable(branchIds)
+                .buffer(branchListingProperties.getChunkSize())
+                .flatMapSequential(chunk -> lookupCaches.branches().getAll(chunk, this::findByIds)
+                                .flatMapIterable(found -> chunk.stream()
+                                        .map(found::get)
+                                        .filter(Objects::nonNull)
+                                        .toList()),
+                        branchListingProperties.getConcurrency(), branchListingProperties.getPrefetch());
+    }
+
+    private Mono<Map<String, Branch>> findByIds(Collection<String> branchIds) {
+        return mongoTemplate.find(Query.query(Criteria.where("_id").in(branchIds)), Branch.class)
+                .collectMap(Branch::getId);
+    }
+
     @Override
     public Mono<Branch> findById(String branchId) {
-        return branchMongoRepository.findById(branchId);
+        return lookupCaches.branches().get(branchId, branchMongoRepository::findById);
     }
 
+    /** Si la sucursal ya está en caché no hay consulta; si no, exists no trae el documento */
+    @Override
+    public Mono<Boolean> existsById(String branchId) {
+        if (lookupCaches.branches().getIfLoaded(branchId) != null) {
+            return Mono.just(true);
+        }
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(branchId)), Branch.class);
+    }
+
+    /**
+     * $set de name y updatedAt con findAndModify: no se lee ni se reescribe el
+     * array productIds, que en EMBEDDED puede tener decenas de miles de ids.
+     */
     @Override
     public Mono<Branch> updateBranchName(String branchId, String newName) {
-        return branchMongoRepository.findById(branchId)
-                .flatMap(branch -> {
-                    branch.setName(newName);
-                    return branchMongoRepository.save(branch);
-                });
+        Query query = Query.query(Criteria.where("_id").is(branchId));
+        Update update = new Update()
+                .set("name", newName)
+                .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                        Branch.class)
+                .doOnNext(branch -> lookupCaches.branches().invalidate(branchId));
+    }
+
+    private Mono<Franchise> findFranchise(String franchiseId) {
+        return lookupCaches.franchises().get(franchiseId, franchiseMongoRepository::findById);
     }
-}
\ No newline at end of file
+}
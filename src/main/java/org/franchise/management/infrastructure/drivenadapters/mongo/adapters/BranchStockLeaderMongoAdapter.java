@@ -0,0 +1,156 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.franchise.management.application.config.StockLeadersProperties;
+import org.franchise.management.domain.model.BranchStockLeader;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 📦 Adaptador Mongo de la proyección branch_stock_leaders: un documento por
+ * sucursal con su producto de mayor stock.
+ *
+ * <p>La proyección es eventualmente consistente: se refresca en un paso
+ * posterior a la escritura del producto y no dentro de su transacción, porque
+ * $merge no se admite en transacciones. Entre la escritura y el refresco, o si
+ * el refresco falla, max-stock puede servir el líder anterior hasta el
+ * siguiente refresco de la sucursal o la reconstrucción periódica.
+ */
+@Log4j2
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class BranchStockLeaderMongoAdapter implements BranchStockLeaderRepository {
+
+    static final String COLLECTION = "branch_stock_leaders";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final StockLeadersProperties stockLeadersProperties;
+
+    /**
+     * Recalcula el líder de la sucursal en el servidor con una sola agregación:
+     * la sucursal, su producto de mayor stock (subpipeline sobre el índice
+     * (branchId, stock)) y un $merge en la proyección. El $merge solo sustituye
+     * un líder calculado antes ({@code updatedAt} es el $$NOW de cada
+     * agregación), así que de dos refrescos concurrentes no gana el más
+     * antiguo por terminar el último. Una sucursal sin productos deja un líder
+     * sin producto, que las lecturas descartan. Los fallos no se propagan a la
+     * escritura original, que ya está confirmada; la reconstrucción periódica
+     * repara la desviación.
+     */
+    @Override
+    public Mono<Void> refresh(String branchId) {
+        if (!stockLeadersProperties.isEnabled() || branchId == null) {
+            return Mono.empty();
+        }
+
+        Object id = ObjectId.isValid(branchId) ? new ObjectId(branchId) : branchId;
+        List<AggregationOperation> stages = List.of(
+                stage("$match", new Document("_id", id)),
+                stage("$addFields", new Document("bid", new Document("$literal", branchId))),
+                topProductLookup(),
+                stage("$unwind", new Document("path", "$top").append("preserveNullAndEmptyArrays", true)),
+                leaderProjection(new Document("$literal", branchId)),
+                mergeIfNewer());
+
+        Aggregation aggregation = Aggregation.newAggregation(stages)
+                .withOptions(AggregationOptions.builder().skipOutput().build());
+
+        return mongoTemplate.aggregate(aggregation, "branches", Document.class)
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("No se pudo refrescar el líder de stock de la sucursal {}: {}", branchId,
+                            e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Flux<Product> findLeadersByFranchise(String franchiseId) {
+        return mongoTemplate.find(Query.query(Criteria.where("franchiseId").is(franchiseId)
+                        .and("productId").ne(null)),
+                BranchStockLeader.class)
+                .map(BranchStockLeader::toProduct)
+                .switchIfEmpty(mongoTemplate.exists(Query.query(Criteria.where("_id").is(franchiseId)), "franchises")
+                        .flatMapMany(exists -> exists
+                                ? Flux.<Product>empty()
+                                : Flux.error(new IllegalArgumentException("Franquicia no encontrada"))));
+    }
+
+    /**
+     * Reconstruye la proyección completa en el servidor: por cada sucursal
+     * busca su producto de mayor stock (subpipeline indexado) y lo escribe con
+     * el mismo $merge que {@link #refresh}. Un refresco que empieza después
+     * que la reconstrucción lleva un {@code updatedAt} posterior y no se
+     * sobrescribe con la foto de la reconstrucción, que $out sí borraría.
+     */
+    @Override
+    public Mono<Long> rebuild() {
+        List<AggregationOperation> stages = List.of(
+                stage("$project", new Document("franchiseId", 1)
+                        .append("bid", new Document("$toString", "$_id"))),
+                topProductLookup(),
+                stage("$unwind", new Document("path", "$top").append("preserveNullAndEmptyArrays", true)),
+                leaderProjection("$bid"),
+                mergeIfNewer());
+
+        Aggregation aggregation = Aggregation.newAggregation(stages)
+                .withOptions(AggregationOptions.builder().skipOutput().build());
+
+        return mongoTemplate.aggregate(aggregation, "branches", Document.class)
+                .then(mongoTemplate.count(new Query(), COLLECTION))
+                .doOnNext(count -> log.info("Proyección {} reconstruida: {} sucursales", COLLECTION, count));
+    }
+
+    /** Producto de mayor stock de la sucursal en {@code top}; espera el id como texto en {@code bid} */
+    private static AggregationOperation topProductLookup() {
+        return stage("$lookup", new Document("from", "products")
+                .append("let", new Document("bid", "$bid"))
+                .append("pipeline", List.of(
+                        new Document("$match", new Document("$expr",
+                                new Document("$eq", List.of("$branchId", "$$bid")))),
+                        new Document("$sort", new Document("stock", -1)),
+                        new Document("$limit", 1)))
+                .append("as", "top"));
+    }
+
+    /** Documento de la proyección a partir de la sucursal y {@code top}; {@code updatedAt} es el $$NOW */
+    private static AggregationOperation leaderProjection(Object branchId) {
+        return stage("$project", new Document("_id", branchId)
+                .append("franchiseId", 1)
+                .append("productId", new Document("$toString", "$top._id"))
+                .append("productName", "$top.name")
+                .append("stock", "$top.stock")
+                .append("updatedAt", "$$NOW"));
+    }
+
+    /** Sustituye el líder guardado solo si se calculó antes que el nuevo */
+    private static AggregationOperation mergeIfNewer() {
+        return stage("$merge", new Document("into", COLLECTION)
+                .append("on", "_id")
+                .append("whenMatched", List.of(new Document("$replaceWith", new Document("$cond", List.of(
+                        new Document("$gte", List.of("$$new.updatedAt", "$updatedAt")),
+                        "$$new",
+                        "$$ROOT")))))
+                .append("whenNotMatched", "insert"));
+    }
+
+    private static AggregationOperation stage(String operator, Object body) {
+        return context -> new Document(operator, body);
+    }
+}
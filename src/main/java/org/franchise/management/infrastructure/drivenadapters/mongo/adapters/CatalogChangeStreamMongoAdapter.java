@@ -0,0 +1,159 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.OperationType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.franchise.management.application.config.EventsProperties;
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.CatalogChangeEvent;
+import org.franchise.management.domain.repository.CatalogChangeFeed;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Un único change stream a nivel de base de datos filtrado a products y
+ * branches. Los cambios de producto llevan solo branchId; la franquicia se
+ * resuelve con la caché de sucursales, así que en régimen estable no hay una
+ * consulta por evento.
+ */
+@Log4j2
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class CatalogChangeStreamMongoAdapter implements CatalogChangeFeed {
+
+    private static final List<String> COLLECTIONS = List.of("products", "branches");
+    private static final List<String> OPERATIONS = List.of("insert", "update", "replace", "delete");
+    /** InvalidResumeToken, ChangeStreamFatalError y ChangeStreamHistoryLost */
+    private static final Set<Integer> NON_RESUMABLE_CODES = Set.of(260, 280, 286);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final LookupCaches lookupCaches;
+    private final EventsProperties eventsProperties;
+
+    @Override
+    public Flux<CatalogChangeEvent> watch(String resumeToken) {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+                .filter(new Document("$match", new Document("ns.coll", new Document("$in", COLLECTIONS))
+                        .append("operationType", new Document("$in", OPERATIONS))))
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP);
+        if (eventsProperties.isPreImages()) {
+            options.fullDocumentBeforeChangeLookup(FullDocumentBeforeChange.WHEN_AVAILABLE);
+        }
+        if (resumeToken != null) {
+            options.resumeAfter(new BsonDocument("_data", new BsonString(resumeToken)));
+        }
+
+        return enablePreImages()
+                .thenMany(mongoTemplate.changeStream(null, null, options.build(), Document.class))
+                .concatMap(this::toEvent)
+                .onErrorMap(e -> resumeToken != null && isNonResumable(e),
+                        e -> new ResumeTokenLostException("El token de reanudación ya no es válido", e))
+                .doOnSubscribe(s -> log.info("Change stream de catálogo abierto (reanudación: {})",
+                        resumeToken != null))
+                .doOnCancel(() -> log.info("Change stream de catálogo cerrado"));
+    }
+
+    /** collMod es idempotente; en servidores sin soporte solo se avisa */
+    private Mono<Void> enablePreImages() {
+        if (!eventsProperties.isPreImages()) {
+            return Mono.empty();
+        }
+
+        return mongoTemplate.executeCommand(new Document("collMod", "products")
+                .append("changeStreamPreAndPostImages", new Document("enabled", true)))
+                .onErrorResume(e -> {
+                    log.warn("No se pudieron activar las pre-imágenes de products: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /** El error puede llegar traducido por Spring: se busca la MongoException en la causa */
+    private static boolean isNonResumable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongo) {
+                return mongo.hasErrorLabel("NonResumableChangeStreamError")
+                        || NON_RESUMABLE_CODES.contains(mongo.getCode());
+            }
+        }
+        return false;
+    }
+
+    private Mono<CatalogChangeEvent> toEvent(ChangeStreamEvent<Document> event) {
+        OperationType operation = event.getOperationType();
+        String id = tokenOf(event.getResumeToken());
+        String documentId = idOf(event.getRaw() != null ? event.getRaw().getDocumentKey() : null);
+
+        if ("branches".equals(event.getCollectionName())) {
+            Document branch = event.getBody();
+            if (operation == OperationType.DELETE || branch == null) {
+                return Mono.empty();
+            }
+            lookupCaches.branches().invalidate(documentId);
+            return Mono.just(CatalogChangeEvent.builder()
+                    .id(id)
+                    .type(CatalogChangeEvent.Type.BRANCH_CHANGED)
+                    .franchiseId(branch.getString("franchiseId"))
+                    .branchId(documentId)
+                    .name(branch.getString("name"))
+                    .timestamp(event.getTimestamp())
+                    .build());
+        }
+
+        boolean deleted = operation == OperationType.DELETE;
+        Document product = deleted ? event.getRaw().getFullDocumentBeforeChange() : event.getBody();
+        if (product == null || product.getString("branchId") == null) {
+            log.debug("Cambio de producto {} sin documento, no se publica", documentId);
+            return Mono.empty();
+        }
+
+        String branchId = product.getString("branchId");
+        return lookupCaches.branches().get(branchId, this::findBranch)
+                .map(branch -> CatalogChangeEvent.builder()
+                        .id(id)
+                        .type(deleted ? CatalogChangeEvent.Type.PRODUCT_DELETED
+                                : CatalogChangeEvent.Type.PRODUCT_CHANGED)
+                        .franchiseId(branch.getFranchiseId())
+                        .branchId(branchId)
+                        .productId(documentId)
+                        .name(product.getString("name"))
+                        .stock(deleted ? null : product.getInteger("stock"))
+                        .timestamp(event.getTimestamp())
+                        .build());
+    }
+
+    private Mono<Branch> findBranch(String branchId) {
+        return mongoTemplate.findById(branchId, Branch.class);
+    }
+
+    private static String tokenOf(BsonValue resumeToken) {
+        return resumeToken != null && resumeToken.isDocument()
+                ? resumeToken.asDocument().getString("_data").getValue()
+                : null;
+    }
+
+    private static String idOf(BsonDocument documentKey) {
+        if (documentKey == null || !documentKey.containsKey("_id")) {
+            return null;
+        }
+        BsonValue id = documentKey.get("_id");
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+}
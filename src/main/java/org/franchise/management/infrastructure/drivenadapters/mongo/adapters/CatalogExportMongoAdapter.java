@@ -0,0 +1,127 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
+
+import com.mongodb.ReadPreference;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
+import org.franchise.management.domain.model.CatalogExportRecord;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.repository.CatalogExportRepository;
+import org.franchise.management.infrastructure.config.ExportProperties;
+import org.franchise.management.infrastructure.config.MongoClientProperties;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Log4j2
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class CatalogExportMongoAdapter implements CatalogExportRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final LookupCaches lookupCaches;
+    private final ExportProperties exportProperties;
+    private final MongoClientProperties mongoClientProperties;
+
+    @Override
+    public Mono<Franchise> findFranchise(String franchiseId) {
+        return lookupCaches.franchises()
+                .get(franchiseId, id -> mongoTemplate.findOne(Query.query(Criteria.where("_id").is(id)),
+                        Franchise.class, "franchises"))
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Franquicia no encontrada")));
+    }
+
+    /**
+     * Un único pipeline sobre branches: $lookup de los productos de cada
+     * sucursal seguido de $unwind, que el servidor fusiona para no construir
+     * nunca el array completo de productos. Cada documento del cursor es una
+     * pareja (sucursal, producto) y se emite en cuanto llega; en memoria solo
+     * está el lote actual del cursor.
+     */
+    @Override
+    public Flux<CatalogExportRecord> exportCatalog(Franchise franchise) {
+        List<AggregationOperation> stages = List.of(
+                stage("$match", new Document("franchiseId", franchise.getId())),
+                stage("$sort", new Document("_id", 1)),
+                stage("$project", new Document("name", 1)
+                        .append("bid", new Document("$toString", "$_id"))),
+                stage("$lookup", new Document("from", "products")
+                        .append("let", new Document("bid", "$bid"))
+                        .append("pipeline", List.of(
+                                new Document("$match", new Document("$expr",
+                                        new Document("$eq", List.of("$branchId", "$$bid")))),
+                                new Document("$project", new Document("_id", 0)
+                                        .append("id", new Document("$toString", "$_id"))
+                                        .append("name", 1)
+                                        .append("stock", 1))))
+                        .append("as", "product")),
+                stage("$unwind", new Document("path", "$product")
+                        .append("preserveNullAndEmptyArrays", true)),
+                stage("$project", new Document("_id", 0)
+                        .append("branchId", "$bid")
+                        .append("branchName", "$name")
+                        .append("product", 1)));
+
+        AggregationOptions.Builder options = AggregationOptions.builder()
+                .cursorBatchSize(exportProperties.getCursorBatchSize());
+        ReadPreference readPreference = mongoClientProperties.readPreferenceFor("export");
+        if (readPreference != null) {
+            options.readPreference(readPreference);
+        }
+        Aggregation aggregation = Aggregation.newAggregation(stages).withOptions(options.build());
+
+        Flux<CatalogExportRecord> rows = Flux.defer(() -> {
+            // Las filas llegan agrupadas por sucursal; la cabecera BRANCH se emite al cambiar
+            AtomicReference<String> currentBranch = new AtomicReference<>();
+            return mongoTemplate.aggregate(aggregation, "branches", Document.class)
+                    .concatMapIterable(row -> toRecords(franchise.getId(), row, currentBranch));
+        });
+
+        return Flux.concat(Mono.just(CatalogExportRecord.of(franchise)), rows)
+                .doOnComplete(() -> log.info("Catálogo exportado para franquicia {}", franchise.getId()));
+    }
+
+    private static List<CatalogExportRecord> toRecords(String franchiseId, Document row,
+            AtomicReference<String> currentBranch) {
+        List<CatalogExportRecord> records = new ArrayList<>(2);
+        String branchId = row.getString("branchId");
+
+        if (!branchId.equals(currentBranch.getAndSet(branchId))) {
+            records.add(CatalogExportRecord.builder()
+                    .type(CatalogExportRecord.Type.BRANCH)
+                    .id(branchId)
+                    .name(row.getString("branchName"))
+                    .franchiseId(franchiseId)
+                    .build());
+        }
+
+        Document product = row.get("product", Document.class);
+        if (product != null) {
+            records.add(CatalogExportRecord.builder()
+                    .type(CatalogExportRecord.Type.PRODUCT)
+                    .id(product.getString("id"))
+                    .name(product.getString("name"))
+                    .branchId(branchId)
+                    .stock(product.getInteger("stock"))
+                    .build());
+        }
+        return records;
+    }
+
+    private static AggregationOperation stage(String operator, Object body) {
+        return context -> new Document(operator, body);
+    }
+}
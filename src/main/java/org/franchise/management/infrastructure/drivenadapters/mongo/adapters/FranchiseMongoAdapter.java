@@ -2,29 +2,52 @@ package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
 
 import org.franchise.management.domain.model.Franchise;
 import org.franchise.management.domain.repository.FranchiseRepository;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
 import org.franchise.management.infrastructure.drivenadapters.mongo.repository.FranchiseMongoRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+
 @Log4j2
 @Repository
+@Profile("!inmemory")
 @RequiredArgsConstructor
 public class FranchiseMongoAdapter implements FranchiseRepository {
 
     private final FranchiseMongoRepository franchiseMongoRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final LookupCaches lookupCaches;
 
     @Override
     public Mono<Franchise> save(Franchise franchise) {
-        log.info("Guardando nueva franquicia: {}", franchise.getName());
+        log.debug("Guardando nueva franquicia: {}", franchise.getName());
         return franchiseMongoRepository.save(franchise);
     }
 
+    /**
+     * Solo actualiza el nombre con $set: branchIds lo mantienen las altas con
+     * $addToSet y reescribirlo aquí pisaría las sucursales añadidas entre la
+     * lectura y la escritura.
+     */
     @Override
     public Mono<Franchise> update(Franchise franchise) {
-        log.info("Actualizando franquicia: {}", franchise.getId());
-        return franchiseMongoRepository.save(franchise);
+        log.debug("Actualizando franquicia: {}", franchise.getId());
+        Query query = Query.query(Criteria.where("_id").is(franchise.getId()));
+        Update update = new Update()
+                .set("name", franchise.getName())
+                .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                        Franchise.class)
+                .doOnNext(saved -> lookupCaches.franchises().invalidate(saved.getId()));
     }
-}
\ No newline at end of file
+}
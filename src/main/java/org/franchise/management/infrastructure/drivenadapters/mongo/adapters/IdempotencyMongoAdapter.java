@@ -0,0 +1,76 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
+
+import lombok.RequiredArgsConstructor;
+import org.franchise.management.domain.model.IdempotencyRecord;
+import org.franchise.management.domain.repository.IdempotencyRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * 📦 Adaptador Mongo de idempotency_keys. Los documentos caducados los borra
+ * el índice TTL de expiresAt, que pasa como mucho cada minuto; mientras
+ * tanto las lecturas y las reservas los tratan como inexistentes.
+ */
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class IdempotencyMongoAdapter implements IdempotencyRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /**
+     * Upsert sobre {@code _id = key, expiresAt < now}: crea la clave o
+     * sustituye una caducada. Si hay un documento vigente no coincide, el
+     * upsert intenta insertar el mismo _id y Mongo responde duplicate key.
+     * Es una única operación atómica, sin leer antes.
+     */
+    @Override
+    public Mono<Boolean> reserve(IdempotencyRecord pending) {
+        Query query = Query.query(Criteria.where("_id").is(pending.getKey())
+                .and("expiresAt").lt(Instant.now()));
+        Update update = new Update()
+                .set("fingerprint", pending.getFingerprint())
+                .set("expiresAt", pending.getExpiresAt())
+                .unset("status")
+                .unset("body");
+
+        return mongoTemplate.upsert(query, update, IdempotencyRecord.class)
+                .thenReturn(true)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> findByKey(String key) {
+        return mongoTemplate.findOne(Query.query(Criteria.where("_id").is(key)
+                .and("expiresAt").gt(Instant.now())), IdempotencyRecord.class);
+    }
+
+    @Override
+    public Mono<Void> complete(IdempotencyRecord completed) {
+        return mongoTemplate.save(completed).then();
+    }
+
+    @Override
+    public Mono<Void> extend(String key, String fingerprint, Instant expiresAt) {
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(key)
+                        .and("fingerprint").is(fingerprint)
+                        .and("status").exists(false)),
+                new Update().set("expiresAt", expiresAt), IdempotencyRecord.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Void> release(String key) {
+        return mongoTemplate.remove(Query.query(Criteria.where("_id").is(key).and("status").exists(false)),
+                IdempotencyRecord.class)
+                .then();
+    }
+}
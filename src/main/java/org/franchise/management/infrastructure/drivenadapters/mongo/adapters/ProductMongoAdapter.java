@@ -1,41 +1,97 @@
 package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
 
+import com.mongodb.ReadPreference;
+import com.mongodb.client.result.DeleteResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.CursorPage;
 import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.PageCursor;
 import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.ProductOrder;
+import org.franchise.management.domain.model.SparseFields;
+import org.franchise.management.domain.model.StockChange;
+import org.franchise.management.domain.model.StockUpdateResult;
 import org.franchise.management.domain.repository.ProductRepository;
+import org.franchise.management.infrastructure.config.BulkProperties;
+import org.franchise.management.infrastructure.config.MaxStockProperties;
+import org.franchise.management.infrastructure.config.MembershipProperties;
+import org.franchise.management.infrastructure.config.MongoClientProperties;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
 import org.franchise.management.infrastructure.drivenadapters.mongo.repository.BranchMongoRepository;
 import org.franchise.management.infrastructure.drivenadapters.mongo.repository.ProductMongoRepository;
+import org.franchise.management.infrastructure.drivenadapters.mongo.transaction.MongoTransactions;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.function.Tuple2;
 
 @Log4j2
 @Component
+@Profile("!inmemory")
 @RequiredArgsConstructor
 public class ProductMongoAdapter implements ProductRepository {
 
+    private static final int GUARDED_INCREMENT_CONCURRENCY = 16;
+
     private final ProductMongoRepository productMongoRepository;
     private final BranchMongoRepository branchMongoRepository;
     private final ReactiveMongoTemplate mongoTemplate;
+    private final MaxStockProperties maxStockProperties;
+    private final LookupCaches lookupCaches;
+    private final BulkProperties bulkProperties;
+    private final MembershipProperties membershipProperties;
+    private final MongoTransactions transactions;
+    private final MongoClientProperties mongoClientProperties;
 
+    /**
+     * EMBEDDED con transacciones: el insert del producto y el $addToSet en la
+     * sucursal se confirman juntos, sin la consulta exists previa. Si la
+     * sucursal no existe el $addToSet no coincide con nada y la transacción se
+     * aborta, así que no queda un producto huérfano. Sin transacciones se
+     * mantiene exists → save → $addToSet.
+     */
     @Override
     public Mono<Product> addProductToBranch(String branchId, Product product) {
+        Query branchQuery = new Query(Criteria.where("_id").is(branchId));
+
+        if (!membershipProperties.isReference() && transactions.isEnabled()) {
+            product.setBranchId(branchId);
+            Mono<Product> writes = mongoTemplate.insert(product)
+                    .flatMap(saved -> mongoTemplate.updateFirst(branchQuery,
+                            new Update().addToSet("productIds", saved.getId()), "branches")
+                            .flatMap(result -> result.getMatchedCount() == 0
+                                    ? Mono.<Product>error(new BranchNotFound())
+                                    : Mono.just(saved)));
 
-        Query branchExistsQuery = new Query(Criteria.where("_id").is(branchId));
+            return transactions.inTransaction(writes)
+                    .doOnNext(saved -> lookupCaches.branches().invalidate(branchId))
+                    .onErrorResume(BranchNotFound.class, e -> Mono.empty());
+        }
 
-        return mongoTemplate.exists(branchExistsQuery, "branches")
+        return mongoTemplate.exists(branchQuery, "branches")
                 .flatMap(exists -> {
                     if (!exists) {
                         return Mono.empty();
@@ -45,89 +101,581 @@ public class ProductMongoAdapter implements ProductRepository {
                     return mongoTemplate.save(product);
                 })
                 .flatMap(savedProduct -> {
-                    Query branchQuery = new Query(Criteria.where("_id").is(branchId));
+                    if (membershipProperties.isReference()) {
+                        // La pertenencia es Product.branchId; la sucursal no cambia
+                        return Mono.just(savedProduct);
+                    }
+
                     Update update = new Update().addToSet("productIds", savedProduct.getId());
 
                     return mongoTemplate.updateFirst(branchQuery, update, "branches")
+                            .doOnNext(result -> lookupCaches.branches().invalidate(branchId))
                             .thenReturn(savedProduct);
                 });
     }
 
+    /** Aborta la transacción de alta cuando la sucursal no existe */
+    private static final class BranchNotFound extends RuntimeException {
+
+        private BranchNotFound() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Inserta productos en lotes de {@code franchise.bulk.chunk-size}: un
+     * insertMany y un único $addToSet/$each sobre la sucursal por lote. Los
+     * lotes se procesan de uno en uno, así que como mucho hay un lote en
+     * memoria y la demanda hacia el cuerpo de la petición marca el ritmo.
+     */
+    @Override
+    public Mono<Long> importProductsToBranch(String branchId, Flux<Product> products) {
+        Query branchQuery = Query.query(Criteria.where("_id").is(branchId));
+
+        return mongoTemplate.exists(branchQuery, "branches")
+                .flatMap(exists -> {
+                    if (!exists) {
+                        return Mono.error(new IllegalArgumentException("Sucursal no encontrada."));
+                    }
+
+                    return products
+                            .doOnNext(product -> product.setBranchId(branchId))
+                            .buffer(bulkProperties.getChunkSize())
+                            .concatMap(chunk -> insertChunk(branchQuery, chunk), 1)
+                            .reduce(0L, Long::sum)
+                            .doFinally(signal -> lookupCaches.branches().invalidate(branchId));
+                });
+    }
+
+    private Mono<Long> insertChunk(Query branchQuery, List<Product> chunk) {
+        if (membershipProperties.isReference()) {
+            return mongoTemplate.insert(chunk, Product.class).count();
+        }
+
+        return mongoTemplate.insert(chunk, Product.class)
+                .map(Product::getId)
+                .collectList()
+                .flatMap(ids -> mongoTemplate.updateFirst(branchQuery,
+                        new Update().addToSet("productIds").each(ids.toArray()), "branches")
+                        .thenReturn((long) ids.size()));
+    }
+
+    /**
+     * Las dos comprobaciones se lanzan a la vez. El borrado filtra también por
+     * branchId y la sucursal se actualiza con $pull en lugar de reescribirla
+     * entera, así que un alta concurrente en la misma sucursal no se pierde;
+     * en EMBEDDED ambas escrituras van en una transacción.
+     */
     @Override
     public Mono<Void> deleteProductFromBranch(String branchId, String productId) {
+        Query productQuery = Query.query(Criteria.where("_id").is(productId).and("branchId").is(branchId));
+
         return validateBranchAndProduct(branchId, productId)
-                .flatMap(tuple -> {
-                    var branch = tuple.getT1();
-                    var product = tuple.getT2();
+                .then(Mono.defer(() -> {
+                    if (membershipProperties.isReference()) {
+                        return removeProduct(productQuery, productId);
+                    }
 
-                    branch.getProductIds().remove(productId);
-                    branch.setUpdatedAt(LocalDateTime.now());
+                    Update update = new Update()
+                            .pull("productIds", productId)
+                            .set("updatedAt", LocalDateTime.now());
 
-                    return productMongoRepository.delete(product)
-                            .then(branchMongoRepository.save(branch))
-                            .then();
-                })
-                .doOnSuccess(v -> log.info("Producto {} eliminado de branch {}", productId, branchId))
+                    return transactions.inTransaction(removeProduct(productQuery, productId)
+                            .then(mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(branchId)),
+                                    update, "branches")))
+                            .doOnSuccess(result -> lookupCaches.branches().invalidate(branchId));
+                }))
+                .then()
+                .doOnSuccess(v -> log.debug("Producto {} eliminado de branch {}", productId, branchId))
                 .doOnError(e -> log.error("Error al eliminar producto {} de branch {}: {}", productId, branchId,
                         e.getMessage()));
     }
 
-    private Mono<Tuple2<Branch, Product>> validateBranchAndProduct(String branchId, String productId) {
-        return branchMongoRepository.findById(branchId)
-                .switchIfEmpty(Mono.error(new IllegalArgumentException("Branch no encontrado: " + branchId)))
-                .zipWhen(branch -> productMongoRepository.findById(productId)
-                        .switchIfEmpty(Mono.error(new IllegalArgumentException("Producto no encontrado: " + productId)))
-                        .flatMap(product -> {
-                            if (!branchId.equals(product.getBranchId())) {
-                                return Mono.error(new IllegalArgumentException(
-                                        "El producto no pertenece al branch especificado"));
-                            }
-                            return Mono.just(product);
-                        }));
+    /** Un borrado concurrente entre la validación y aquí se informa igual que si no existiera */
+    private Mono<DeleteResult> removeProduct(Query productQuery, String productId) {
+        return mongoTemplate.remove(productQuery, Product.class)
+                .flatMap(result -> result.getDeletedCount() == 0
+                        ? Mono.error(new IllegalArgumentException("Producto no encontrado: " + productId))
+                        : Mono.just(result));
+    }
+
+    private Mono<Product> validateBranchAndProduct(String branchId, String productId) {
+        return Mono.zip(
+                        branchMongoRepository.existsById(branchId),
+                        productMongoRepository.findById(productId).map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .flatMap(tuple -> {
+                    if (!tuple.getT1()) {
+                        return Mono.error(new IllegalArgumentException("Branch no encontrado: " + branchId));
+                    }
+                    Product product = tuple.getT2().orElse(null);
+                    if (product == null) {
+                        return Mono.error(new IllegalArgumentException("Producto no encontrado: " + productId));
+                    }
+                    if (!branchId.equals(product.getBranchId())) {
+                        return Mono.error(new IllegalArgumentException(
+                                "El producto no pertenece al branch especificado"));
+                    }
+                    return Mono.just(product);
+                });
     }
 
+    /**
+     * Actualización atómica en un solo viaje: findAndModify con $set devuelve
+     * el documento ya modificado, sin la carrera de leer-modificar-guardar.
+     */
     @Override
     public Mono<Product> updateProductStock(String productId, Integer newStock) {
-        return productMongoRepository.findById(productId)
+        if (newStock == null || newStock < 0) {
+            return Mono.error(new IllegalArgumentException("Stock cannot be negative"));
+        }
+
+        Query query = Query.query(Criteria.where("_id").is(productId));
+        Update update = new Update()
+                .set("stock", newStock)
+                .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Product.class)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Producto no encontrado")))
-                .flatMap(product -> {
-                    product.updateStock(newStock);
-                    return productMongoRepository.save(product);
-                })
-                .doOnNext(p -> log.info("Stock actualizado: {} → {}", p.getName(), p.getStock()));
+                .doOnNext(p -> log.debug("Stock actualizado: {} → {}", p.getName(), p.getStock()));
     }
 
+    /**
+     * Ajuste relativo con $inc. La condición {@code stock >= -delta} (o
+     * {@code stock <= Integer.MAX_VALUE - delta} si el ajuste es positivo)
+     * forma parte del filtro, de modo que el servidor nunca deja el stock en
+     * negativo ni lo desborda a int64 aunque haya escrituras concurrentes.
+     */
     @Override
-    public Flux<Product> findMaxStockProductByBranch(String franchiseId) {
-        Query franchiseQuery = Query.query(Criteria.where("_id").is(franchiseId));
+    public Mono<Product> adjustProductStock(String productId, Integer delta) {
+        if (delta == null) {
+            return Mono.error(new IllegalArgumentException("El ajuste de stock es obligatorio"));
+        }
+        if (delta == Integer.MIN_VALUE) {
+            return Mono.error(new IllegalArgumentException("El ajuste de stock está fuera de rango"));
+        }
+
+        Criteria stock = Criteria.where("_id").is(productId).and("stock");
+        Query query = Query.query(delta < 0 ? stock.gte(-delta) : stock.lte(Integer.MAX_VALUE - delta));
+        Update update = new Update()
+                .inc("stock", delta)
+                .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Product.class)
+                // Solo en el camino de error: distinguir producto inexistente de stock insuficiente
+                .switchIfEmpty(Mono.defer(() -> productMongoRepository.existsById(productId)
+                        .flatMap(exists -> Mono.error(!exists
+                                ? new IllegalArgumentException("Producto no encontrado")
+                                : delta < 0
+                                        ? new InsufficientStockException()
+                                        : new IllegalArgumentException("El ajuste supera el stock máximo permitido"))))
+                .doOnNext(p -> log.debug("Stock ajustado: {} ({}{}) → {}", p.getName(), delta >= 0 ? "+" : "",
+                        delta, p.getStock()));
+    }
+
+    /**
+     * Aplica actualizaciones absolutas de stock en lotes con bulkWrite no
+     * ordenado. Los lotes se escriben uno tras otro, así que la última
+     * actualización de un producto gana aunque las anteriores estén en otro
+     * lote. Por lote: un único bulkWrite y después una consulta $in para la
+     * sucursal de cada producto. Los resultados se emiten en el orden de
+     * entrada.
+     */
+    @Override
+    public Flux<StockUpdateResult> bulkUpdateProductStock(Flux<Product> updates) {
+        return updates
+                .buffer(bulkProperties.getChunkSize())
+                .concatMap(this::applyStockChunk);
+    }
+
+    private Flux<StockUpdateResult> applyStockChunk(List<Product> chunk) {
+        // Dentro de un lote gana la última actualización de cada producto
+        Map<String, Integer> lastIndexById = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (isValidStockUpdate(chunk.get(i))) {
+                lastIndexById.put(chunk.get(i).getId(), i);
+            }
+        }
+
+        if (lastIndexById.isEmpty()) {
+            return Flux.range(0, chunk.size())
+                    .map(i -> toStockUpdateResult(i, chunk.get(i), lastIndexById, Map.of()));
+        }
+
+        ReactiveBulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        LocalDateTime now = LocalDateTime.now();
+        lastIndexById.forEach((id, index) -> bulkOps.updateOne(Query.query(Criteria.where("_id").is(id)),
+                new Update()
+                        .set("stock", chunk.get(index).getStock())
+                        .set("updatedAt", now)));
+
+        Query updatedQuery = Query.query(Criteria.where("_id").in(lastIndexById.keySet()));
+        updatedQuery.fields().include("branchId");
+
+        return bulkOps.execute()
+                .doOnNext(result -> log.debug("bulkWrite de stock: {} de {} productos encontrados",
+                        result.getMatchedCount(), lastIndexById.size()))
+                .flatMap(result -> mongoTemplate.find(updatedQuery, Product.class)
+                        .collectMap(Product::getId, Product::getBranchId)
+                        .map(updated -> {
+                            // Si todos los updateOne encontraron su producto, uno que ya no se lee
+                            // se borró después de la escritura: se actualizó igualmente
+                            if (result.getMatchedCount() == lastIndexById.size()) {
+                                lastIndexById.keySet().forEach(id -> updated.putIfAbsent(id, null));
+                            }
+                            return updated;
+                        }))
+                .flatMapMany(updated -> Flux.range(0, chunk.size())
+                        .map(i -> toStockUpdateResult(i, chunk.get(i), lastIndexById, updated)));
+    }
+
+    /**
+     * Los $set van en un único bulkWrite no ordenado, seguido de una consulta
+     * $in con el stock resultante; un $set siempre se aplica si el producto
+     * existe. Cada $inc lleva la condición {@code stock <= MAX_VALUE - delta}
+     * y se aplica con su propio findAndModify, que devuelve el documento solo
+     * si esa operación se aplicó: el resultado del bulkWrite es global y no
+     * dice cuál de sus operaciones no coincidió. Se emiten solo los productos
+     * cuyo cambio se aplicó.
+     */
+    @Override
+    public Flux<Product> applyStockChanges(List<StockChange> changes) {
+        if (changes.isEmpty()) {
+            return Flux.empty();
+        }
+        if (!changes.stream().allMatch(StockChange::isNonNegative)) {
+            return Flux.error(new IllegalArgumentException(
+                    "Los cambios agrupados no pueden dejar el stock en negativo"));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StockChange> sets = changes.stream().filter(change -> change.getStock() != null).toList();
+        List<StockChange> increments = changes.stream().filter(change -> change.getStock() == null).toList();
+
+        return Flux.merge(
+                applyStockSets(sets, now),
+                Flux.fromIterable(increments)
+                        .flatMap(change -> applyGuardedIncrement(change, now), GUARDED_INCREMENT_CONCURRENCY));
+    }
+
+    private Flux<Product> applyStockSets(List<StockChange> sets, LocalDateTime now) {
+        if (sets.isEmpty()) {
+            return Flux.empty();
+        }
+
+        ReactiveBulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        sets.forEach(change -> bulkOps.updateOne(Query.query(Criteria.where("_id").is(change.getProductId())),
+                new Update()
+                        .set("stock", change.getStock())
+                        .set("updatedAt", now)));
+
+        Query updatedQuery = Query.query(Criteria.where("_id")
+                .in(sets.stream().map(StockChange::getProductId).collect(Collectors.toSet())));
+        updatedQuery.fields().include("name", "stock", "branchId", "updatedAt");
 
-        return mongoTemplate.findOne(franchiseQuery, Franchise.class, "franchises")
+        return bulkOps.execute()
+                .doOnNext(result -> log.debug("bulkWrite de stock agrupado: {} de {} productos",
+                        result.getMatchedCount(), sets.size()))
+                .flatMapMany(result -> mongoTemplate.find(updatedQuery, Product.class));
+    }
+
+    /** Vacío si el producto no existe o el incremento desbordaría el stock */
+    private Mono<Product> applyGuardedIncrement(StockChange change, LocalDateTime now) {
+        // Sin este límite $inc promocionaría el stock a int64
+        Query query = Query.query(Criteria.where("_id").is(change.getProductId())
+                .and("stock").lte(Integer.MAX_VALUE - change.getDelta()));
+        query.fields().include("name", "stock", "branchId", "updatedAt");
+
+        return mongoTemplate.findAndModify(query,
+                new Update()
+                        .inc("stock", change.getDelta())
+                        .set("updatedAt", now),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+    }
+
+    private static boolean isValidStockUpdate(Product item) {
+        return item.getId() != null && !item.getId().isBlank() && item.getStock() != null && item.getStock() >= 0;
+    }
+
+    private static StockUpdateResult toStockUpdateResult(int index, Product item, Map<String, Integer> lastIndexById,
+            Map<String, String> existing) {
+        StockUpdateResult.StockUpdateResultBuilder result = StockUpdateResult.builder()
+                .productId(item.getId())
+                .stock(item.getStock());
+
+        if (!isValidStockUpdate(item)) {
+            return result.status(StockUpdateResult.Status.INVALID)
+                    .message("productId es obligatorio y el stock no puede ser negativo")
+                    .build();
+        }
+        if (lastIndexById.get(item.getId()) != index) {
+            return result.status(StockUpdateResult.Status.SUPERSEDED)
+                    .message("Reemplazada por una actualización posterior del mismo producto")
+                    .build();
+        }
+        if (!existing.containsKey(item.getId())) {
+            return result.status(StockUpdateResult.Status.NOT_FOUND)
+                    .message("Producto no encontrado")
+                    .build();
+        }
+        return result.status(StockUpdateResult.Status.UPDATED)
+                .branchId(existing.get(item.getId()))
+                .build();
+    }
+
+    @Override
+    public Flux<Product> findMaxStockProductByBranch(String franchiseId) {
+        return lookupCaches.franchises()
+                .get(franchiseId, id -> mongoTemplate.findOne(Query.query(Criteria.where("_id").is(id)),
+                        Franchise.class, "franchises"))
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Franquicia no encontrada")))
-                .flatMapMany(franchise -> {
-                    if (franchise.getBranchIds() == null || franchise.getBranchIds().isEmpty()) {
+                .flatMap(this::branchIdsOf)
+                .flatMapMany(branchIds -> {
+                    if (branchIds.isEmpty()) {
                         log.warn("Franquicia {} no tiene sucursales", franchiseId);
+                        return Flux.empty();
                     }
 
-                    return Flux.fromIterable(franchise.getBranchIds())
-                            .flatMap(branchId -> mongoTemplate.find(
-                                    Query.query(Criteria.where("branchId").is(branchId))
-                                            .with(Sort.by(Sort.Direction.DESC, "stock"))
-                                            .limit(1),
-                                    Product.class));
+                    return maxStockProperties.getStrategy() == MaxStockProperties.Strategy.FAN_OUT
+                            ? findMaxStockByFanOut(branchIds)
+                            : findMaxStockByAggregation(branchIds);
                 })
-                .doOnNext(p -> log.info("Max stock product: {} (stock: {}, branch: {})",
+                .doOnNext(p -> log.debug("Max stock product: {} (stock: {}, branch: {})",
                         p.getName(), p.getStock(), p.getBranchId()))
-                .doOnComplete(() -> log.info("Query completed for franchise {}", franchiseId));
+                .doOnComplete(() -> log.debug("Query completed for franchise {}", franchiseId));
+    }
+
+    /**
+     * Sucursales de la franquicia: el array embebido en modo EMBEDDED o una
+     * consulta sobre franchiseId_idx (solo _id) en modo REFERENCE.
+     */
+    private Mono<List<String>> branchIdsOf(Franchise franchise) {
+        if (!membershipProperties.isReference()) {
+            return Mono.just(franchise.getBranchIds() != null ? franchise.getBranchIds() : List.of());
+        }
+
+        Query query = Query.query(Criteria.where("franchiseId").is(franchise.getId()));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Branch.class)
+                .map(Branch::getId)
+                .collectList();
+    }
+
+    /**
+     * Resuelve el producto con mayor stock de todas las sucursales en un único
+     * pipeline: $match por sucursal, $sort (branchId, stock desc) y $group
+     * quedándose con el primer documento de cada sucursal. El $project final
+     * deja los campos de SparseFields.PRODUCT_SUMMARY; va al final para no
+     * impedir que el $sort use el índice.
+     */
+    private Flux<Product> findMaxStockByAggregation(List<String> branchIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("branchId").in(branchIds)),
+                Aggregation.sort(Sort.by(Sort.Direction.ASC, "branchId")
+                        .and(Sort.by(Sort.Direction.DESC, "stock"))),
+                Aggregation.group("branchId").first(Aggregation.ROOT).as("product"),
+                Aggregation.replaceRoot("product"),
+                Aggregation.project(SparseFields.PRODUCT_SUMMARY.toArray(String[]::new)))
+                .withOptions(aggregationOptions("max-stock"));
+
+        return mongoTemplate.aggregate(aggregation, "products", Product.class);
+    }
+
+    /**
+     * Estrategia original: una consulta ordenada con limit(1) por sucursal.
+     * Se conserva como alternativa para comparar latencias.
+     */
+    private Flux<Product> findMaxStockByFanOut(List<String> branchIds) {
+        return Flux.fromIterable(branchIds)
+                .flatMap(branchId -> {
+                    Query query = Query.query(Criteria.where("branchId").is(branchId))
+                            .with(Sort.by(Sort.Direction.DESC, "stock"))
+                            .limit(1);
+                    SparseFields.PRODUCT_SUMMARY.forEach(query.fields()::include);
+                    return mongoTemplate.find(withReadPreference(query, "max-stock"), Product.class);
+                });
     }
 
+    /** Los {@code limit} productos de mayor stock, leídos en orden de branchId_stock_idx */
     @Override
-    public Mono<Product> updateProductName(String productId, String newName) {
-        return productMongoRepository.findById(productId)
-                .flatMap(product -> {
-                    product.updateName(newName);
-                    return productMongoRepository.save(product);
+    public Flux<Product> findTopStockProductsByBranch(String branchId, int limit) {
+        Query query = Query.query(Criteria.where("branchId").is(branchId))
+                .with(Sort.by(Sort.Direction.DESC, "stock"))
+                .limit(limit);
+        query.fields().include("name", "stock", "branchId", "updatedAt");
+        return mongoTemplate.find(withReadPreference(query, "leaderboard"), Product.class);
+    }
+
+    /**
+     * Keyset en lugar de skip/limit: la página siguiente es un rango que
+     * empieza justo después del cursor, así que una página profunda recorre
+     * las mismas entradas de índice que la primera. Por id usa
+     * branchId_id_idx ({@code _id > after}); por stock, branchId_stock_id_idx
+     * con {@code stock < s OR (stock = s AND _id > id)}, el mismo orden
+     * (stock desc, _id) que el sort. Se leen limit + 1 para saber si hay
+     * siguiente página. Solo se proyectan {@code fields}, más stock cuando el
+     * cursor lo necesita.
+     */
+    @Override
+    public Mono<CursorPage<Product>> findPageByBranch(String branchId, ProductOrder order, PageCursor after,
+            int limit, Set<String> fields) {
+        boolean byStock = order == ProductOrder.STOCK;
+        Criteria criteria = Criteria.where("branchId").is(branchId);
+        if (after != null && byStock) {
+            criteria = criteria.orOperator(
+                    Criteria.where("stock").lt(after.getStock()),
+                    Criteria.where("stock").is(after.getStock()).and("_id").gt(after.getId()));
+        } else if (after != null) {
+            criteria = criteria.and("_id").gt(after.getId());
+        }
+        Sort sort = byStock
+                ? Sort.by(Sort.Order.desc("stock"), Sort.Order.asc("_id"))
+                : Sort.by(Sort.Direction.ASC, "_id");
+        Query query = Query.query(criteria).with(sort).limit(limit + 1);
+        query.fields().include("_id");
+        fields.forEach(query.fields()::include);
+        if (byStock) {
+            query.fields().include("stock");
+        }
+
+        return mongoTemplate.find(withReadPreference(query, "list-products"), Product.class)
+                .collectList()
+                .map(products -> {
+                    CursorPage<Product> page = CursorPage.of(products, limit, product -> byStock
+                            ? PageCursor.of(product.getStock(), product.getId())
+                            : PageCursor.of(product.getId()));
+                    page.getItems().forEach(product -> product.retainFields(fields));
+                    return page;
+                });
+    }
+
+    /**
+     * Global: $sort + $limit, que el servidor ejecuta como un top-k reteniendo
+     * solo {@code limit} documentos. Por sucursal: $group con $topN, que
+     * guarda N documentos por grupo en lugar de ordenar el catálogo entero.
+     * El $match por branchId usa branchId_stock_idx. El $project tras el
+     * $match deja solo {@code fields} (más stock y branchId, que usan el orden
+     * y el grupo), así que $topN retiene documentos pequeños.
+     */
+    @Override
+    public Flux<Product> findTopStockProducts(Franchise franchise, int limit, boolean perBranch,
+            Set<String> fields) {
+        return branchIdsOf(franchise)
+                .flatMapMany(branchIds -> {
+                    if (branchIds.isEmpty()) {
+                        return Flux.empty();
+                    }
+
+                    Document match = new Document("branchId", new Document("$in", branchIds));
+                    Document byStockDesc = new Document("stock", -1).append("_id", 1);
+                    List<AggregationOperation> stages = perBranch
+                            ? List.of(
+                                    stage("$match", match),
+                                    stage("$project", projection(fields, "stock", "branchId")),
+                                    stage("$group", new Document("_id", "$branchId")
+                                            .append("products", new Document("$topN", new Document("n", limit)
+                                                    .append("sortBy", byStockDesc)
+                                                    .append("output", "$$ROOT")))),
+                                    stage("$unwind", "$products"),
+                                    stage("$replaceWith", "$products"))
+                            : List.of(
+                                    stage("$match", match),
+                                    stage("$sort", byStockDesc),
+                                    stage("$limit", limit),
+                                    stage("$project", projection(fields)));
+
+                    return aggregateProducts(stages, "top-stock")
+                            .map(product -> product.retainFields(fields));
+                })
+                .doOnComplete(() -> log.debug("Top {} de stock calculado para franquicia {} (por sucursal: {})",
+                        limit, franchise.getId(), perBranch));
+    }
+
+    /**
+     * El filtro {@code stock < below} es un rango sobre branchId_stock_idx, así
+     * que solo se leen los productos bajo el umbral. $bottomN en el orden
+     * (stock desc, _id) se queda con los N más bajos de cada sucursal y
+     * $reverseArray los deja de menor a mayor. Como en el top, $bottomN
+     * retiene solo los campos proyectados.
+     */
+    @Override
+    public Flux<Product> findLowStockProducts(Franchise franchise, int below, int limit, Set<String> fields) {
+        return branchIdsOf(franchise)
+                .flatMapMany(branchIds -> {
+                    if (branchIds.isEmpty()) {
+                        return Flux.empty();
+                    }
+
+                    return aggregateProducts(List.of(
+                            stage("$match", new Document("branchId", new Document("$in", branchIds))
+                                    .append("stock", new Document("$lt", below))),
+                            stage("$project", projection(fields, "stock", "branchId")),
+                            stage("$group", new Document("_id", "$branchId")
+                                    .append("products", new Document("$bottomN", new Document("n", limit)
+                                            .append("sortBy", new Document("stock", -1).append("_id", 1))
+                                            .append("output", "$$ROOT")))),
+                            stage("$set", new Document("products", new Document("$reverseArray", "$products"))),
+                            stage("$unwind", "$products"),
+                            stage("$replaceWith", "$products")), "low-stock")
+                            .map(product -> product.retainFields(fields));
                 })
-                .doOnNext(p -> log.info("Nombre de producto actualizado: {} → {}", productId, newName))
+                .doOnComplete(() -> log.debug("Productos con stock menor a {} calculados para franquicia {}",
+                        below, franchise.getId()));
+    }
+
+    private Flux<Product> aggregateProducts(List<AggregationOperation> stages, String operation) {
+        Aggregation aggregation = Aggregation.newAggregation(stages)
+                .withOptions(aggregationOptions(operation));
+
+        return mongoTemplate.aggregate(aggregation, "products", Product.class);
+    }
+
+    /** Las lecturas analíticas pueden ir a secundarios según franchise.mongo.read-preferences */
+    private AggregationOptions aggregationOptions(String operation) {
+        AggregationOptions.Builder options = AggregationOptions.builder()
+                .allowDiskUse(maxStockProperties.isAllowDiskUse());
+        ReadPreference readPreference = mongoClientProperties.readPreferenceFor(operation);
+        if (readPreference != null) {
+            options.readPreference(readPreference);
+        }
+        return options.build();
+    }
+
+    private Query withReadPreference(Query query, String operation) {
+        ReadPreference readPreference = mongoClientProperties.readPreferenceFor(operation);
+        return readPreference != null ? query.withReadPreference(readPreference) : query;
+    }
+
+    /** $project de los campos pedidos más {@code required}; _id va siempre */
+    private static Document projection(Set<String> fields, String... required) {
+        Document projection = new Document();
+        fields.forEach(field -> projection.append(field, 1));
+        for (String field : required) {
+            projection.append(field, 1);
+        }
+        return projection.isEmpty() ? new Document("_id", 1) : projection;
+    }
+
+    private static AggregationOperation stage(String operator, Object body) {
+        return context -> new Document(operator, body);
+    }
+
+    /** $set de name y updatedAt en un solo viaje, como updateProductStock */
+    @Override
+    public Mono<Product> updateProductName(String productId, String newName) {
+        if (newName == null || newName.isBlank()) {
+            return Mono.error(new IllegalArgumentException("Product name cannot be empty"));
+        }
+
+        Query query = Query.query(Criteria.where("_id").is(productId));
+        Update update = new Update()
+                .set("name", newName.trim())
+                .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                        Product.class)
+                .doOnNext(p -> log.debug("Nombre de producto actualizado: {} → {}", productId, newName))
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Producto no encontrado")));
     }
 
@@ -0,0 +1,54 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.infrastructure.config.LookupCacheProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 📦 Cachés de lectura por id de franquicias y sucursales compartidas por los
+ * adaptadores Mongo. Las escrituras que modifican un documento cacheado deben
+ * invalidar su entrada.
+ */
+@Component
+public class LookupCaches {
+
+    private final ReactiveLookupCache<Franchise> franchises;
+    private final ReactiveLookupCache<Branch> branches;
+
+    public LookupCaches(LookupCacheProperties properties) {
+        this.franchises = new ReactiveLookupCache<>("franchises", properties.isEnabled(), properties.getFranchises());
+        this.branches = new ReactiveLookupCache<>("branches", properties.isEnabled(), properties.getBranches());
+    }
+
+    public ReactiveLookupCache<Franchise> franchises() {
+        return franchises;
+    }
+
+    public ReactiveLookupCache<Branch> branches() {
+        return branches;
+    }
+
+    /** Métricas de acierto, fallo y desalojo de cada caché */
+    public List<Map<String, Object>> stats() {
+        return List.of(toStats(franchises), toStats(branches));
+    }
+
+    private static Map<String, Object> toStats(ReactiveLookupCache<?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", cache.getName());
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        return result;
+    }
+}
@@ -0,0 +1,89 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.franchise.management.infrastructure.config.LookupCacheProperties;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Caché asíncrona acotada por tamaño y TTL para lecturas por id.
+ * Las cargas concurrentes de la misma clave comparten una única consulta,
+ * y los resultados vacíos o fallidos no se almacenan.
+ */
+public class ReactiveLookupCache<V> {
+
+    private final String name;
+    private final boolean enabled;
+    private final AsyncCache<String, V> cache;
+
+    public ReactiveLookupCache(String name, boolean enabled, LookupCacheProperties.Spec spec) {
+        this.name = name;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Mono<V> get(String key, Function<String, Mono<V>> loader) {
+        if (!enabled || key == null) {
+            return loader.apply(key);
+        }
+        // suppressCancel: cancelar un suscriptor no debe cancelar la carga compartida
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> loader.apply(k).toFuture()), true);
+    }
+
+    /**
+     * Varias claves en una llamada: las que no están en caché se cargan todas
+     * juntas con {@code loader}. Las que el loader no devuelve no aparecen en
+     * el resultado ni se almacenan.
+     */
+    public Mono<Map<String, V>> getAll(Collection<String> keys,
+            Function<Collection<String>, Mono<Map<String, V>>> loader) {
+        if (!enabled) {
+            return loader.apply(keys);
+        }
+        return Mono.fromFuture(() -> cache.getAll(keys,
+                (missing, executor) -> loader.apply(List.copyOf(missing)).toFuture()), true);
+    }
+
+    /** Valor ya cargado, o null; no espera ni dispara una carga */
+    public V getIfLoaded(String key) {
+        CompletableFuture<V> future = enabled && key != null ? cache.getIfPresent(key) : null;
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    public void invalidate(String key) {
+        if (key != null) {
+            cache.synchronous().invalidate(key);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public AsyncCache<String, V> asyncCache() {
+        return cache;
+    }
+}
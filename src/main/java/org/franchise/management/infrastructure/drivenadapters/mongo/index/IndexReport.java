@@ -0,0 +1,22 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de asegurar un índice gestionado: si fue creado en este arranque
+ * y cuánto tardó la operación.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexReport {
+
+    private String collection;
+    private String name;
+    private boolean created;
+    private long elapsedMillis;
+}
@@ -0,0 +1,25 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Estadísticas de uso de un índice obtenidas con {@code $indexStats}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexUsage {
+
+    private String collection;
+    private String name;
+    private Map<String, Object> key;
+    private long ops;
+    private Date since;
+}
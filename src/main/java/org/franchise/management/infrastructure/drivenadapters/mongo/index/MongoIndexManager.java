@@ -0,0 +1,121 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 📦 Gestión de los índices que respaldan las consultas de los adaptadores.
+ * La creación es idempotente: los índices existentes se reportan como no
+ * creados y Mongo no los reconstruye.
+ */
+@Log4j2
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class MongoIndexManager {
+
+    static final List<ManagedIndex> MANAGED_INDEXES = List.of(
+            new ManagedIndex("products", new Index()
+                    .on("branchId", Sort.Direction.ASC)
+                    .on("stock", Sort.Direction.DESC)
+                    .named("branchId_stock_idx")),
+            new ManagedIndex("branches", new Index()
+                    .on("franchiseId", Sort.Direction.ASC)
+                    .named("franchiseId_idx")),
+            new ManagedIndex("branch_stock_leaders", new Index()
+                    .on("franchiseId", Sort.Direction.ASC)
+                    .named("franchiseId_idx")),
+            new ManagedIndex("products", new Index()
+                    .on("branchId", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .named("branchId_id_idx")),
+            new ManagedIndex("products", new Index()
+                    .on("branchId", Sort.Direction.ASC)
+                    .on("stock", Sort.Direction.DESC)
+                    .on("_id", Sort.Direction.ASC)
+                    .named("branchId_stock_id_idx")),
+            new ManagedIndex("branches", new Index()
+                    .on("franchiseId", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .named("franchiseId_id_idx")),
+            new ManagedIndex("idempotency_keys", new Index()
+                    .on("expiresAt", Sort.Direction.ASC)
+                    .expire(Duration.ZERO)
+                    .named("expiresAt_ttl_idx")));
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /**
+     * Asegura todos los índices gestionados, uno detrás de otro para no
+     * competir por recursos del servidor durante el arranque.
+     */
+    public Flux<IndexReport> ensureIndexes() {
+        return Flux.fromIterable(MANAGED_INDEXES)
+                .concatMap(this::ensureIndex)
+                .doOnNext(report -> log.info("Índice {}.{} {} en {} ms", report.getCollection(), report.getName(),
+                        report.isCreated() ? "creado" : "ya existía", report.getElapsedMillis()));
+    }
+
+    /**
+     * Estadísticas de uso ($indexStats) de las colecciones con índices
+     * gestionados, para comprobar que las consultas los aprovechan.
+     */
+    public Flux<IndexUsage> indexUsageStats() {
+        return Flux.fromIterable(MANAGED_INDEXES)
+                .map(ManagedIndex::collection)
+                .distinct()
+                .concatMap(this::indexUsageStats);
+    }
+
+    private Mono<IndexReport> ensureIndex(ManagedIndex managed) {
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(managed.collection());
+
+        return indexOps.getIndexInfo()
+                .any(info -> managed.name().equals(info.getName()))
+                .flatMap(exists -> indexOps.ensureIndex(managed.index())
+                        .elapsed()
+                        .map(result -> IndexReport.builder()
+                                .collection(managed.collection())
+                                .name(result.getT2())
+                                .created(!exists)
+                                .elapsedMillis(result.getT1())
+                                .build()));
+    }
+
+    private Flux<IndexUsage> indexUsageStats(String collection) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                context -> new Document("$indexStats", new Document()));
+
+        return mongoTemplate.aggregate(aggregation, collection, Document.class)
+                .map(stats -> {
+                    Document accesses = stats.get("accesses", Document.class);
+                    return IndexUsage.builder()
+                            .collection(collection)
+                            .name(stats.getString("name"))
+                            .key(stats.get("key", Document.class))
+                            .ops(accesses != null ? ((Number) accesses.get("ops")).longValue() : 0L)
+                            .since(accesses != null ? accesses.getDate("since") : null)
+                            .build();
+                });
+    }
+
+    record ManagedIndex(String collection, Index index) {
+
+        String name() {
+            return (String) index.getIndexOptions().get("name");
+        }
+    }
+}
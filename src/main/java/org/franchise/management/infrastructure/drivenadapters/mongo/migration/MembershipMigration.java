@@ -0,0 +1,128 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.migration;
+
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
+import org.franchise.management.infrastructure.config.MembershipProperties;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 📦 Migración de la pertenencia embebida (Franchise.branchIds,
+ * Branch.productIds) a referencias (Branch.franchiseId, Product.branchId).
+ *
+ * <p>{@link #migrate()} rellena las referencias que falten a partir de los
+ * arrays con $merge en el servidor y no borra nada, así que puede ejecutarse
+ * durante un despliegue gradual mientras haya nodos en EMBEDDED.
+ * {@link #compact()} elimina los arrays y es un paso aparte y manual: solo
+ * debe lanzarse cuando todos los nodos estén en REFERENCE, porque un nodo en
+ * EMBEDDED lee y escribe la pertenencia en esos arrays. Ambos pasos son
+ * idempotentes y solo se permiten en modo REFERENCE.
+ */
+@Log4j2
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class MembershipMigration {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MembershipProperties membershipProperties;
+    private final LookupCaches lookupCaches;
+
+    /** Rellena las referencias desde los arrays, que se conservan */
+    public Mono<MembershipMigrationReport> migrate() {
+        if (!membershipProperties.isReference()) {
+            return Mono.error(new IllegalStateException(
+                    "La migración requiere franchise.membership.mode=REFERENCE"));
+        }
+
+        long start = System.currentTimeMillis();
+        MembershipMigrationReport report = new MembershipMigrationReport();
+
+        return backfill("franchises", "branchIds", "branches", "franchiseId")
+                .then(backfill("branches", "productIds", "products", "branchId"))
+                .then(countMissing("branches", "franchiseId")).doOnNext(report::setBranchesWithoutFranchise)
+                .then(countMissing("products", "branchId")).doOnNext(report::setProductsWithoutBranch)
+                .then(Mono.fromCallable(() -> {
+                    report.setElapsedMillis(System.currentTimeMillis() - start);
+                    return report;
+                }))
+                .doOnNext(r -> log.info("Migración de pertenencia completada: {}", r));
+    }
+
+    /**
+     * Elimina Franchise.branchIds y Branch.productIds. Rellena antes las
+     * referencias por si alguna alta en EMBEDDED llegó después de migrate().
+     */
+    public Mono<MembershipMigrationReport> compact() {
+        return migrate()
+                .flatMap(report -> unset("franchises", "branchIds").doOnNext(report::setFranchisesCompacted)
+                        .then(unset("branches", "productIds")).doOnNext(report::setBranchesCompacted)
+                        .then(Mono.fromCallable(() -> {
+                            // Las copias cacheadas aún llevan los arrays eliminados
+                            lookupCaches.franchises().invalidateAll();
+                            lookupCaches.branches().invalidateAll();
+                            return report;
+                        })))
+                .doOnNext(r -> log.info("Arrays de pertenencia eliminados: {}", r));
+    }
+
+    /**
+     * Por cada id del array del padre, fija la referencia en el hijo si aún no
+     * la tiene. Los ids que no son ObjectId válidos se descartan.
+     */
+    private Mono<Void> backfill(String parentCollection, String arrayField, String childCollection,
+            String referenceField) {
+        List<AggregationOperation> stages = List.of(
+                stage("$match", new Document(arrayField, new Document("$exists", true).append("$ne", List.of()))),
+                stage("$project", new Document("_id", 0)
+                        .append("parentId", new Document("$toString", "$_id"))
+                        .append("childId", "$" + arrayField)),
+                stage("$unwind", "$childId"),
+                stage("$project", new Document("parentId", 1)
+                        .append("_id", new Document("$convert", new Document("input", "$childId")
+                                .append("to", "objectId")
+                                .append("onError", null)
+                                .append("onNull", null)))),
+                stage("$match", new Document("_id", new Document("$ne", null))),
+                stage("$merge", new Document("into", childCollection)
+                        .append("on", "_id")
+                        .append("whenMatched", List.of(new Document("$set", new Document(referenceField,
+                                new Document("$ifNull", List.of("$" + referenceField, "$$new.parentId"))))))
+                        .append("whenNotMatched", "discard")));
+
+        Aggregation aggregation = Aggregation.newAggregation(stages)
+                .withOptions(AggregationOptions.builder().skipOutput().build());
+
+        return mongoTemplate.aggregate(aggregation, parentCollection, Document.class)
+                .then()
+                .doOnSuccess(v -> log.info("Referencias {}.{} rellenadas desde {}.{}", childCollection,
+                        referenceField, parentCollection, arrayField));
+    }
+
+    private Mono<Long> countMissing(String collection, String field) {
+        return mongoTemplate.count(Query.query(Criteria.where(field).exists(false)), collection);
+    }
+
+    private Mono<Long> unset(String collection, String field) {
+        return mongoTemplate.updateMulti(Query.query(Criteria.where(field).exists(true)),
+                new Update().unset(field), collection)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    private static AggregationOperation stage(String operator, Object body) {
+        return context -> new Document(operator, body);
+    }
+}
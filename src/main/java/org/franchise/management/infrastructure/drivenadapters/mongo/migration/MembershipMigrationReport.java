@@ -0,0 +1,30 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.migration;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de la migración de pertenencia embebida a referencias.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipMigrationReport {
+
+    /** Sucursales que siguen sin franchiseId tras el relleno (huérfanas) */
+    private long branchesWithoutFranchise;
+
+    /** Productos que siguen sin branchId tras el relleno (huérfanos) */
+    private long productsWithoutBranch;
+
+    /** Franquicias a las que se les eliminó branchIds */
+    private long franchisesCompacted;
+
+    /** Sucursales a las que se les eliminó productIds */
+    private long branchesCompacted;
+
+    private long elapsedMillis;
+}
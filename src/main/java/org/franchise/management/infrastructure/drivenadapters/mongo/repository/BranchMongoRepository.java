@@ -2,6 +2,10 @@ package org.franchise.management.infrastructure.drivenadapters.mongo.repository;
 
 import org.franchise.management.domain.model.Branch;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
 
 public interface BranchMongoRepository extends ReactiveMongoRepository<Branch, String> {
-}
\ No newline at end of file
+
+    Flux<Branch> findByFranchiseId(String franchiseId);
+
+}
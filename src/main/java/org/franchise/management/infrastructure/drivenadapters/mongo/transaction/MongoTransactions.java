@@ -0,0 +1,60 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.transaction;
+
+import com.mongodb.MongoException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.franchise.management.infrastructure.config.TransactionProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Ejecuta varias escrituras en una transacción de Mongo y, si falla con la
+ * etiqueta TransientTransactionError (conflicto de escritura, elección de
+ * primario), la repite entera: el servidor garantiza que no se aplicó nada.
+ * UnknownTransactionCommitResult no se reintenta porque el commit pudo
+ * aplicarse y repetir las escrituras no sería idempotente.
+ */
+@Log4j2
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class MongoTransactions {
+
+    private final TransactionalOperator transactionalOperator;
+    private final TransactionProperties properties;
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * {@code writes} debe ser perezoso: se vuelve a suscribir en cada intento.
+     * Con las transacciones desactivadas se devuelve tal cual.
+     */
+    public <T> Mono<T> inTransaction(Mono<T> writes) {
+        if (!properties.isEnabled()) {
+            return writes;
+        }
+
+        return Mono.defer(() -> transactionalOperator.transactional(writes))
+                .retryWhen(Retry.backoff(properties.getMaxRetries(), properties.getMinBackoff())
+                        .filter(MongoTransactions::isTransient)
+                        .doBeforeRetry(retry -> log.warn("Transacción abortada por error transitorio, reintento {}: {}",
+                                retry.totalRetries() + 1, retry.failure().getMessage()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    /** Spring traduce las excepciones del driver; la etiqueta queda en la causa */
+    static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException
+                    && mongoException.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,34 @@
+package org.franchise.management.infrastructure.jobs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.franchise.management.infrastructure.drivenadapters.mongo.migration.MembershipMigration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ejecuta una vez el relleno de referencias al arrancar. Es idempotente y no
+ * borra los arrays, así que puede dejarse activo durante el despliegue. La
+ * eliminación de los arrays (POST /admin/membership/compact) nunca se lanza
+ * desde aquí.
+ */
+@Log4j2
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "franchise.membership", name = "migrate-on-startup", havingValue = "true")
+public class MembershipMigrationJob {
+
+    private final MembershipMigration membershipMigration;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        membershipMigration.migrate()
+                .subscribe(
+                        report -> log.info("Migración de pertenencia al arrancar: {}", report),
+                        e -> log.error("Error en la migración de pertenencia: {}", e.getMessage()));
+    }
+}
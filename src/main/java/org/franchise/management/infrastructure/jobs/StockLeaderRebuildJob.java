@@ -0,0 +1,34 @@
+package org.franchise.management.infrastructure.jobs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconstrucción periódica de branch_stock_leaders. La primera ejecución se
+ * lanza al arrancar para poblar la proyección sobre datos existentes.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "franchise.stock-leaders", name = "enabled", havingValue = "true")
+public class StockLeaderRebuildJob {
+
+    private final BranchStockLeaderRepository stockLeaderRepository;
+
+    /**
+     * Bloquea el hilo del scheduler (no un hilo de Reactor) para que dos
+     * reconstrucciones nunca se solapen.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${franchise.stock-leaders.rebuild-interval:PT15M}")
+    public void rebuild() {
+        try {
+            stockLeaderRepository.rebuild().block();
+        } catch (RuntimeException e) {
+            log.error("Error al reconstruir la proyección de líderes de stock: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package org.franchise.management;
+
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+/**
+ * Test de integración de las rutas sobre el perfil {@code inmemory}: la
+ * aplicación completa (routers, handlers, casos de uso) sin Mongo.
+ */
+@ActiveProfiles("inmemory")
+@AutoConfigureWebTestClient
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class FranchiseApiInMemoryTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    @DisplayName("Should create a franchise, branch and products and resolve the max-stock product")
+    void shouldServeFullFlowWithoutMongo() {
+        Franchise franchise = webTestClient.post().uri("/franchises")
+                .bodyValue(Map.of("name", "Franquicia"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Franchise.class)
+                .returnResult().getResponseBody();
+
+        Branch branch = webTestClient.post().uri("/franchises/{id}/branches", franchise.getId())
+                .bodyValue(Map.of("name", "Centro"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Branch.class)
+                .returnResult().getResponseBody();
+
+        webTestClient.post().uri("/branches/{id}/products", branch.getId())
+                .bodyValue(Map.of("name", "Té", "stock", 3))
+                .exchange()
+                .expectStatus().isOk();
+
+        Product coffee = webTestClient.post().uri("/branches/{id}/products", branch.getId())
+                .bodyValue(Map.of("name", "Café", "stock", 8))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Product.class)
+                .returnResult().getResponseBody();
+
+        webTestClient.get().uri("/franchises/{id}/products/max-stock", franchise.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(coffee.getId())
+                .jsonPath("$[0].stock").isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should page branch products by stock following nextCursor to the last page")
+    void shouldPageProductsByStock() {
+        Franchise franchise = webTestClient.post().uri("/franchises")
+                .bodyValue(Map.of("name", "Franquicia"))
+                .exchange()
+                .expectBody(Franchise.class)
+                .returnResult().getResponseBody();
+        Branch branch = webTestClient.post().uri("/franchises/{id}/branches", franchise.getId())
+                .bodyValue(Map.of("name", "Centro"))
+                .exchange()
+                .expectBody(Branch.class)
+                .returnResult().getResponseBody();
+        for (int stock : new int[] {5, 9, 5, 1}) {
+            webTestClient.post().uri("/branches/{id}/products", branch.getId())
+                    .bodyValue(Map.of("name", "Producto " + stock, "stock", stock))
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+
+        Map<?, ?> first = webTestClient.get()
+                .uri("/branches/{id}/products?sort=stock&limit=2", branch.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult().getResponseBody();
+
+        webTestClient.get()
+                .uri("/branches/{id}/products?sort=stock&limit=2&fields=stock&cursor={cursor}", branch.getId(),
+                        first.get("nextCursor"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.items[0].stock").isEqualTo(5)
+                .jsonPath("$.items[0].name").doesNotExist()
+                .jsonPath("$.items[1].stock").isEqualTo(1)
+                .jsonPath("$.nextCursor").doesNotExist();
+
+        webTestClient.get().uri("/franchises/{id}/branches?limit=1", franchise.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].id").isEqualTo(branch.getId())
+                .jsonPath("$.items[0].name").isEqualTo("Centro")
+                .jsonPath("$.items[0].productIds").doesNotExist()
+                .jsonPath("$.nextCursor").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should replay a retried POST with the same Idempotency-Key without creating a duplicate")
+    void shouldReplayRetriedPost() {
+        Franchise franchise = webTestClient.post().uri("/franchises")
+                .bodyValue(Map.of("name", "Franquicia"))
+                .exchange()
+                .expectBody(Franchise.class)
+                .returnResult().getResponseBody();
+        Branch branch = webTestClient.post().uri("/franchises/{id}/branches", franchise.getId())
+                .bodyValue(Map.of("name", "Centro"))
+                .exchange()
+                .expectBody(Branch.class)
+                .returnResult().getResponseBody();
+
+        Product created = webTestClient.post().uri("/branches/{id}/products", branch.getId())
+                .header("Idempotency-Key", "retry-1")
+                .bodyValue(Map.of("name", "Café", "stock", 5))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Product.class)
+                .returnResult().getResponseBody();
+
+        webTestClient.post().uri("/branches/{id}/products", branch.getId())
+                .header("Idempotency-Key", "retry-1")
+                .bodyValue(Map.of("name", "Café", "stock", 5))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("Idempotent-Replayed", "true")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(created.getId());
+
+        webTestClient.post().uri("/branches/{id}/products", branch.getId())
+                .header("Idempotency-Key", "retry-1")
+                .bodyValue(Map.of("name", "Té", "stock", 5))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.get().uri("/branches/{id}/products", branch.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should map a missing franchise to 400")
+    void shouldReturnBadRequestForMissingFranchise() {
+        webTestClient.post().uri("/franchises/{id}/branches", "missing")
+                .bodyValue(Map.of("name", "Centro"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Franquicia no encontrada");
+    }
+}
@@ -0,0 +1,161 @@
+package org.franchise.management.application.coalescing;
+
+import org.franchise.management.application.config.StockCoalescingProperties;
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.StockChange;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockWriteCoalescerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private BranchStockLeaderRepository stockLeaderRepository;
+
+    @Mock
+    private StockLeaderboard leaderboard;
+
+    private final StockCoalescingProperties properties = new StockCoalescingProperties();
+    private StockWriteCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        lenient().when(stockLeaderRepository.refresh(any())).thenReturn(Mono.empty());
+        coalescer = new StockWriteCoalescer(productRepository, stockLeaderRepository, leaderboard, properties);
+    }
+
+    private static Product product(String id, int stock) {
+        return Product.builder().id(id).name("Producto " + id).stock(stock).branchId("b1").build();
+    }
+
+    @Test
+    @DisplayName("Should merge a window into one bulk write and refresh each branch once")
+    void shouldMergeWindowIntoOneBulkWrite() {
+        when(productRepository.applyStockChanges(List.of(StockChange.set("p1", 7), StockChange.increment("p2", 5))))
+                .thenReturn(Flux.just(product("p1", 7), product("p2", 15)));
+
+        StepVerifier.create(Mono.zip(coalescer.set("p1", 10), coalescer.adjust("p1", -3), coalescer.adjust("p2", 5)))
+                .expectNextMatches(results -> results.getT1().getStock() == 7 && results.getT2().getStock() == 7
+                        && results.getT3().getStock() == 15)
+                .verifyComplete();
+
+        verify(productRepository, times(1)).applyStockChanges(any());
+        verify(stockLeaderRepository, times(1)).refresh("b1");
+        verify(leaderboard, times(2)).onProductChanged(any());
+    }
+
+    @Test
+    @DisplayName("Should flush without waiting once the window reaches maxProducts")
+    void shouldFlushFullWindowImmediately() {
+        properties.setWindow(Duration.ofHours(1));
+        properties.setMaxProducts(2);
+        when(productRepository.applyStockChanges(any())).thenReturn(Flux.just(product("p1", 1), product("p2", 2)));
+
+        StepVerifier.create(Mono.zip(coalescer.set("p1", 1), coalescer.set("p2", 2)))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should replay each adjustment in order when the merged decrement cannot be applied")
+    void shouldReplayAdjustmentsOneByOne() {
+        when(productRepository.adjustProductStock("p1", -5))
+                .thenReturn(Mono.error(new ProductRepository.InsufficientStockException()));
+        when(productRepository.adjustProductStock("p1", -2)).thenReturn(Mono.just(product("p1", 1)));
+        when(productRepository.adjustProductStock("p1", -3))
+                .thenReturn(Mono.error(new ProductRepository.InsufficientStockException()));
+
+        Mono<Product> first = coalescer.adjust("p1", -2);
+        Mono<String> second = coalescer.adjust("p1", -3)
+                .map(Product::getName)
+                .onErrorResume(e -> Mono.just(e.getMessage()));
+
+        StepVerifier.create(Mono.zip(first, second))
+                .expectNextMatches(results -> results.getT1().getStock() == 1
+                        && results.getT2().startsWith("Stock insuficiente"))
+                .verifyComplete();
+
+        verify(productRepository, never()).applyStockChanges(any());
+    }
+
+    @Test
+    @DisplayName("Should pass other adjustment errors to every request without replaying them")
+    void shouldNotReplayAdjustmentsOnOtherErrors() {
+        when(productRepository.adjustProductStock("p1", -5))
+                .thenReturn(Mono.error(new IllegalStateException("timeout")));
+
+        Mono<String> first = coalescer.adjust("p1", -2).map(Product::getName)
+                .onErrorResume(e -> Mono.just(e.getMessage()));
+        Mono<String> second = coalescer.adjust("p1", -3).map(Product::getName)
+                .onErrorResume(e -> Mono.just(e.getMessage()));
+
+        StepVerifier.create(Mono.zip(first, second))
+                .expectNextMatches(results -> "timeout".equals(results.getT1())
+                        && "timeout".equals(results.getT2()))
+                .verifyComplete();
+
+        verify(productRepository, never()).adjustProductStock("p1", -2);
+        verify(productRepository, never()).adjustProductStock("p1", -3);
+    }
+
+    @Test
+    @DisplayName("Should reject an adjustment that would overflow the window sum")
+    void shouldRejectOverflowingAdjustment() {
+        when(productRepository.applyStockChanges(any())).thenReturn(Flux.just(product("p1", Integer.MAX_VALUE)));
+
+        Mono<Product> first = coalescer.adjust("p1", Integer.MAX_VALUE);
+        Mono<String> second = coalescer.adjust("p1", 1).map(Product::getName)
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(e.getMessage()));
+
+        StepVerifier.create(Mono.zip(first, second))
+                .expectNextMatches(results -> results.getT1().getStock() == Integer.MAX_VALUE
+                        && results.getT2().equals("El ajuste de stock está fuera de rango"))
+                .verifyComplete();
+
+        verify(productRepository).applyStockChanges(List.of(StockChange.increment("p1", Integer.MAX_VALUE)));
+    }
+
+    @Test
+    @DisplayName("Should fail the requests of a product missing from the bulk write")
+    void shouldFailMissingProduct() {
+        when(productRepository.applyStockChanges(any())).thenReturn(Flux.empty());
+
+        StepVerifier.create(coalescer.set("missing", 3))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException
+                        && "Producto no encontrado".equals(e.getMessage()))
+                .verify();
+
+        verify(stockLeaderRepository, never()).refresh(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a negative value without queueing it")
+    void shouldRejectNegativeStock() {
+        StepVerifier.create(coalescer.set("p1", -1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(productRepository);
+    }
+}
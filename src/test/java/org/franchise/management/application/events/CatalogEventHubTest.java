@@ -0,0 +1,207 @@
+package org.franchise.management.application.events;
+
+import org.franchise.management.application.config.EventsProperties;
+import org.franchise.management.domain.model.CatalogChangeEvent;
+import org.franchise.management.domain.repository.CatalogChangeFeed;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogEventHubTest {
+
+    @Mock
+    private CatalogChangeFeed feed;
+
+    @Spy
+    private EventsProperties properties = new EventsProperties();
+
+    @InjectMocks
+    private CatalogEventHub hub;
+
+    private Sinks.Many<CatalogChangeEvent> source;
+
+    @BeforeEach
+    void setUp() {
+        source = Sinks.many().multicast().onBackpressureBuffer();
+        lenient().when(feed.watch(null)).thenReturn(source.asFlux());
+    }
+
+    private static CatalogChangeEvent event(String id, String franchiseId) {
+        return CatalogChangeEvent.builder()
+                .id(id)
+                .type(CatalogChangeEvent.Type.PRODUCT_CHANGED)
+                .franchiseId(franchiseId)
+                .productId("p" + id)
+                .build();
+    }
+
+    private void emit(String... ids) {
+        for (String id : ids) {
+            source.tryEmitNext(event(id, "f1"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver only the franchise events over a single shared stream")
+    void shouldFilterByFranchiseOverSharedStream() {
+        Disposable other = hub.events("f2", null).subscribe();
+
+        StepVerifier.create(hub.events("f1", null))
+                .then(() -> {
+                    source.tryEmitNext(event("1", "f1"));
+                    source.tryEmitNext(event("2", "f2"));
+                    source.tryEmitNext(event("3", "f1"));
+                })
+                .expectNextMatches(e -> e.getId().equals("1"))
+                .expectNextMatches(e -> e.getId().equals("3"))
+                .thenCancel()
+                .verify();
+
+        other.dispose();
+        verify(feed, times(1)).watch(null);
+    }
+
+    @Test
+    @DisplayName("Should replay from the ring after Last-Event-ID and continue live")
+    void shouldReplayFromRing() {
+        Disposable first = hub.events("f1", null).subscribe();
+        emit("1", "2", "3");
+
+        StepVerifier.create(hub.events("f1", "1"))
+                .expectNextMatches(e -> e.getId().equals("2"))
+                .expectNextMatches(e -> e.getId().equals("3"))
+                .then(() -> emit("4"))
+                .expectNextMatches(e -> e.getId().equals("4"))
+                .thenCancel()
+                .verify();
+
+        first.dispose();
+        verify(feed, never()).watch("1");
+    }
+
+    @Test
+    @DisplayName("Should resume an unknown token from the store until it reaches the ring")
+    void shouldResumeFromStoreUntilRing() {
+        Disposable first = hub.events("f1", null).subscribe();
+        emit("1", "2");
+        when(feed.watch("old")).thenReturn(Flux.just(event("0", "f1"), event("1", "f1"), event("9", "f1")));
+
+        StepVerifier.create(hub.events("f1", "old"))
+                .expectNextMatches(e -> e.getId().equals("0"))
+                .expectNextMatches(e -> e.getId().equals("1"))
+                .expectNextMatches(e -> e.getId().equals("2"))
+                .thenCancel()
+                .verify();
+
+        first.dispose();
+        assertEquals(1L, hub.stats().get("catchUpStreams"));
+    }
+
+    @Test
+    @DisplayName("Should serve from the ring start once the catch-up stream limit is reached")
+    void shouldCapCatchUpStreams() {
+        properties.setMaxCatchUpStreams(1);
+        Disposable first = hub.events("f1", null).subscribe();
+        emit("1", "2");
+        when(feed.watch("old")).thenReturn(Flux.never());
+        Disposable catchingUp = hub.events("f1", "old").subscribe();
+
+        StepVerifier.create(hub.events("f1", "older"))
+                .expectNextMatches(e -> e.getId().equals("1"))
+                .expectNextMatches(e -> e.getId().equals("2"))
+                .thenCancel()
+                .verify();
+
+        catchingUp.dispose();
+        first.dispose();
+        verify(feed, never()).watch("older");
+        assertEquals(1L, hub.stats().get("rejectedCatchUps"));
+        assertEquals(0, hub.stats().get("activeCatchUpStreams"));
+    }
+
+    @Test
+    @DisplayName("Should serve from the ring start when the store cannot resume the token")
+    void shouldFallBackToRingWhenTokenLost() {
+        Disposable first = hub.events("f1", null).subscribe();
+        emit("1");
+        when(feed.watch("old")).thenReturn(Flux.error(
+                new CatalogChangeFeed.ResumeTokenLostException("perdido", null)));
+
+        StepVerifier.create(hub.events("f1", "old"))
+                .expectNextMatches(e -> e.getId().equals("1"))
+                .thenCancel()
+                .verify();
+
+        first.dispose();
+    }
+
+    @Test
+    @DisplayName("Should drop a lost resume token and reopen the shared stream from now")
+    void shouldDropLostResumeToken() {
+        properties.setRetryMinBackoff(Duration.ofMillis(1));
+        when(feed.watch("1")).thenReturn(Flux.error(new CatalogChangeFeed.ResumeTokenLostException("perdido", null)));
+
+        StepVerifier.create(hub.events("f1", null))
+                .then(() -> emit("1"))
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+
+        Disposable again = hub.events("f1", null).subscribe();
+
+        verify(feed, timeout(1000)).watch("1");
+        verify(feed, timeout(1000).times(2)).watch(null);
+        assertEquals(1L, hub.stats().get("lostResumeTokens"));
+        again.dispose();
+    }
+
+    @Test
+    @DisplayName("Should close the shared stream with the last subscriber and resume from the last token")
+    void shouldReconnectFromLastToken() {
+        when(feed.watch("1")).thenReturn(Flux.never());
+
+        StepVerifier.create(hub.events("f1", null))
+                .then(() -> emit("1"))
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+        assertEquals(false, hub.stats().get("connected"));
+
+        Disposable again = hub.events("f1", null).subscribe();
+
+        assertEquals(true, hub.stats().get("connected"));
+        verify(feed).watch("1");
+        again.dispose();
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest events of a slow subscriber")
+    void shouldDropOldestForSlowSubscriber() {
+        properties.setBufferSize(2);
+
+        StepVerifier.create(hub.events("f1", null), 0)
+                .then(() -> emit("1", "2", "3", "4", "5"))
+                .thenRequest(2)
+                .expectNextMatches(e -> e.getId().equals("4"))
+                .expectNextMatches(e -> e.getId().equals("5"))
+                .thenCancel()
+                .verify();
+
+        assertEquals(3L, hub.stats().get("droppedEvents"));
+    }
+}
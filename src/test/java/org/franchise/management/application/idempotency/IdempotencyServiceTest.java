@@ -0,0 +1,101 @@
+package org.franchise.management.application.idempotency;
+
+import org.franchise.management.application.config.IdempotencyProperties;
+import org.franchise.management.domain.model.IdempotencyRecord;
+import org.franchise.management.domain.repository.IdempotencyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRepository repository;
+
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyService(repository, properties);
+    }
+
+    @Test
+    @DisplayName("Should reserve a new key with the lock timeout")
+    void shouldReserveNewKey() {
+        when(repository.reserve(any())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.begin("k1", "abc"))
+                .verifyComplete();
+
+        verify(repository).reserve(argThat(pending -> "k1".equals(pending.getKey())
+                && "abc".equals(pending.getFingerprint()) && !pending.isCompleted()
+                && pending.getExpiresAt().isBefore(Instant.now().plus(properties.getLockTimeout()).plusSeconds(1))));
+        verify(repository, never()).findByKey(any());
+    }
+
+    @Test
+    @DisplayName("Should return the stored record when the key is taken")
+    void shouldReturnStoredRecord() {
+        IdempotencyRecord stored = IdempotencyRecord.builder().key("k1").fingerprint("abc").status(200).body("{}")
+                .expiresAt(Instant.now().plusSeconds(60)).build();
+        when(repository.reserve(any())).thenReturn(Mono.just(false));
+        when(repository.findByKey("k1")).thenReturn(Mono.just(stored));
+
+        StepVerifier.create(service.begin("k1", "abc"))
+                .expectNext(stored)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should treat a key released between reserve and read as in flight")
+    void shouldTreatVanishedKeyAsInFlight() {
+        when(repository.reserve(any())).thenReturn(Mono.just(false));
+        when(repository.findByKey("k1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.begin("k1", "abc"))
+                .expectNextMatches(previous -> !previous.isCompleted())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should answer a completed key from the hot set without the repository")
+    void shouldServeCompletedKeyFromHotSet() {
+        when(repository.complete(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.complete("k1", "abc", 200, "{\"id\":\"f1\"}"))
+                .verifyComplete();
+        StepVerifier.create(service.begin("k1", "abc"))
+                .expectNextMatches(previous -> previous.getStatus() == 200
+                        && "{\"id\":\"f1\"}".equals(previous.getBody()))
+                .verifyComplete();
+
+        verify(repository, never()).reserve(any());
+        verify(repository).complete(argThat(completed -> completed.getExpiresAt()
+                .isAfter(Instant.now().plus(properties.getTtl()).minusSeconds(60))));
+    }
+
+    @Test
+    @DisplayName("Should not cache a response that could not be stored")
+    void shouldNotCacheFailedCompletion() {
+        when(repository.complete(any())).thenReturn(Mono.error(new IllegalStateException("Mongo caído")));
+        when(repository.reserve(any())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.complete("k1", "abc", 200, "{}"))
+                .verifyComplete();
+        StepVerifier.create(service.begin("k1", "abc"))
+                .verifyComplete();
+    }
+}
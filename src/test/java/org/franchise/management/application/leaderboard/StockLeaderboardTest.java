@@ -0,0 +1,221 @@
+package org.franchise.management.application.leaderboard;
+
+import org.franchise.management.application.config.LeaderboardProperties;
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.repository.BranchRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLeaderboardTest {
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Spy
+    private LeaderboardProperties properties = new LeaderboardProperties();
+
+    @InjectMocks
+    private StockLeaderboard leaderboard;
+
+    private final String franchiseId = "franchise1";
+    private final String branchId = "branch1";
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        lenient().when(branchRepository.findAllByFranchise(franchiseId))
+                .thenReturn(Flux.just(Branch.builder().id(branchId).franchiseId(franchiseId).build()));
+    }
+
+    private static Product product(String id, int stock) {
+        return Product.builder().id(id).name("Producto " + id).stock(stock).branchId("branch1").build();
+    }
+
+    private void loadWith(Product... top) {
+        when(productRepository.findTopStockProductsByBranch(eq(branchId), anyInt())).thenReturn(Flux.just(top));
+        leaderboard.warmUp(franchiseId);
+    }
+
+    private String leaderId() {
+        return leaderboard.leaders(franchiseId).orElseThrow().get(0).getId();
+    }
+
+    @Test
+    @DisplayName("Should miss until the franchise is warmed up")
+    void shouldMissUntilWarmedUp() {
+        assertTrue(leaderboard.leaders(franchiseId).isEmpty());
+
+        loadWith(product("p1", 10), product("p2", 5));
+
+        Optional<List<Product>> leaders = leaderboard.leaders(franchiseId);
+        assertTrue(leaders.isPresent());
+        assertEquals(1, leaders.get().size());
+        assertEquals("p1", leaders.get().get(0).getId());
+        assertEquals(branchId, leaders.get().get(0).getBranchId());
+    }
+
+    @Test
+    @DisplayName("Should follow stock writes on a fully loaded branch")
+    void shouldFollowWritesOnCompleteBranch() {
+        loadWith(product("p1", 10), product("p2", 5));
+
+        leaderboard.onProductChanged(product("p1", 1));
+        assertEquals("p2", leaderId());
+
+        leaderboard.onProductChanged(product("p3", 50));
+        assertEquals("p3", leaderId());
+
+        leaderboard.onProductRemoved(branchId, "p3");
+        assertEquals("p2", leaderId());
+    }
+
+    @Test
+    @DisplayName("Should keep the leader when it is renamed or written with the same stock")
+    void shouldKeepLeaderOnSameStockWrite() {
+        loadWith(product("p1", 10), product("p2", 5));
+
+        Product renamed = product("p1", 10);
+        renamed.setName("Renombrado");
+        leaderboard.onProductChanged(renamed);
+        assertEquals("Renombrado", leaderboard.leaders(franchiseId).orElseThrow().get(0).getName());
+
+        leaderboard.onStockChanged(branchId, "p1", 10);
+        assertEquals("p1", leaderId());
+
+        leaderboard.onProductChanged(product("p1", 3));
+        assertEquals("p2", leaderId());
+    }
+
+    @Test
+    @DisplayName("Should miss when the leader drops below products outside the index")
+    void shouldMissWhenLeaderDropsBelowFloor() {
+        properties.setTopK(2);
+        loadWith(product("p1", 10), product("p2", 5));
+
+        leaderboard.onProductChanged(product("p1", 4));
+        assertEquals("p2", leaderId());
+
+        // Algún producto no cargado puede tener hasta 5
+        leaderboard.onProductChanged(product("p2", 3));
+        assertTrue(leaderboard.leaders(franchiseId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should invalidate a branch when a batch raises an unknown product above the floor")
+    void shouldInvalidateOnUnknownBatchUpdate() {
+        properties.setTopK(2);
+        loadWith(product("p1", 10), product("p2", 5));
+
+        leaderboard.onStockChanged(branchId, "p9", 3);
+        assertEquals("p1", leaderId());
+
+        leaderboard.onStockChanged(branchId, "p9", 30);
+        assertTrue(leaderboard.leaders(franchiseId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should invalidate a branch when an older write is notified after a newer one")
+    void shouldInvalidateOnOutOfOrderWrite() {
+        LocalDateTime now = LocalDateTime.now();
+        loadWith(product("p1", 10), product("p2", 5));
+
+        Product newer = product("p2", 20);
+        newer.setUpdatedAt(now);
+        leaderboard.onProductChanged(newer);
+        assertEquals("p2", leaderId());
+
+        Product older = product("p2", 1);
+        older.setUpdatedAt(now.minusNanos(1_000_000));
+        leaderboard.onProductChanged(older);
+        assertTrue(leaderboard.leaders(franchiseId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should discard a branch written while it was loading")
+    void shouldDiscardBranchWrittenDuringLoad() {
+        Sinks.Many<Product> top = Sinks.many().unicast().onBackpressureBuffer();
+        when(productRepository.findTopStockProductsByBranch(eq(branchId), anyInt())).thenReturn(top.asFlux());
+        leaderboard.warmUp(franchiseId);
+
+        leaderboard.onProductRemoved(branchId, "p1");
+        top.tryEmitNext(product("p1", 10));
+        top.tryEmitComplete();
+
+        assertTrue(leaderboard.leaders(franchiseId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should evict franchises older than max-age")
+    void shouldEvictExpiredFranchise() {
+        properties.setMaxAge(Duration.ZERO);
+        loadWith(product("p1", 10));
+
+        assertTrue(leaderboard.leaders(franchiseId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reload the franchise after a branch is added")
+    void shouldReloadAfterBranchAdded() {
+        loadWith(product("p1", 10));
+
+        leaderboard.onBranchAdded(Branch.builder().id("branch2").franchiseId(franchiseId).build());
+
+        assertTrue(leaderboard.leaders(franchiseId).isEmpty());
+        leaderboard.warmUp(franchiseId);
+        assertEquals("p1", leaderId());
+        verify(branchRepository, times(2)).findAllByFranchise(franchiseId);
+    }
+
+    @Test
+    @DisplayName("Should not answer when disabled")
+    void shouldNotAnswerWhenDisabled() {
+        properties.setEnabled(false);
+
+        leaderboard.warmUp(franchiseId);
+
+        assertTrue(leaderboard.leaders(franchiseId).isEmpty());
+        verifyNoInteractions(branchRepository, productRepository);
+    }
+
+    @Test
+    @DisplayName("Should report size, hit rate and load age")
+    void shouldReportStats() {
+        loadWith(product("p1", 10), product("p2", 5));
+        leaderboard.leaders(franchiseId);
+        leaderboard.leaders("other");
+
+        Map<String, Object> stats = leaderboard.stats();
+
+        assertEquals(1L, stats.get("franchises"));
+        assertEquals(1, stats.get("branches"));
+        assertEquals(2L, stats.get("entries"));
+        assertEquals(1L, stats.get("hitCount"));
+        assertEquals(1L, stats.get("missCount"));
+        assertTrue(stats.get("oldestLoadAgeMillis") instanceof Long);
+    }
+}
@@ -0,0 +1,64 @@
+package org.franchise.management.application.metrics;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DisplayName("UseCaseMetrics Tests")
+class UseCaseMetricsTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        Metrics.globalRegistry.add(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.globalRegistry.remove(registry);
+        registry.close();
+    }
+
+    @Test
+    @DisplayName("Should time a Mono use case tagged by name and outcome")
+    void shouldTimeMonoUseCase() {
+        StepVerifier.create(Mono.just("ok").transform(UseCaseMetrics.mono("test-mono")))
+                .expectNext("ok")
+                .verifyComplete();
+
+        Timer timer = registry.find(UseCaseMetrics.METRIC_NAME + ".flow.duration")
+                .tag("usecase", "test-mono")
+                .tag("status", "completed")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    @DisplayName("Should record errors of a Flux use case")
+    void shouldRecordFluxErrors() {
+        StepVerifier.create(Flux.error(new IllegalArgumentException("boom"))
+                .transform(UseCaseMetrics.flux("test-flux")))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        Timer timer = registry.find(UseCaseMetrics.METRIC_NAME + ".flow.duration")
+                .tag("usecase", "test-flux")
+                .tag("status", "error")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+}
@@ -1,8 +1,8 @@
 package org.franchise.management.application.usecase;
 
+import org.franchise.management.application.leaderboard.StockLeaderboard;
 import org.franchise.management.domain.model.Branch;
 import org.franchise.management.domain.repository.BranchRepository;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.BranchMongoAdapter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -25,7 +25,10 @@ import static org.mockito.Mockito.*;
 class AddBranchToFranchiseUseCaseTest {
 
         @Mock
-        private BranchMongoAdapter branchRepository;
+        private BranchRepository branchRepository;
+
+        @Mock
+        private StockLeaderboard leaderboard;
 
         @InjectMocks
         private AddBranchToFranchiseUseCase useCase;
@@ -1,7 +1,9 @@
 package org.franchise.management.application.usecase;
 
+import org.franchise.management.application.leaderboard.StockLeaderboard;
 import org.franchise.management.domain.model.Product;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.ProductMongoAdapter;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -24,7 +26,13 @@ import static org.mockito.Mockito.*;
 class AddProductToBranchUseCaseTest {
 
         @Mock
-        private ProductMongoAdapter productRepository;
+        private ProductRepository productRepository;
+
+        @Mock
+        private BranchStockLeaderRepository stockLeaderRepository;
+
+        @Mock
+        private StockLeaderboard leaderboard;
 
         @InjectMocks
         private AddProductToBranchUseCase useCase;
@@ -34,6 +42,7 @@ class AddProductToBranchUseCaseTest {
 
         @BeforeEach
         void setUp() {
+                lenient().when(stockLeaderRepository.refresh(any())).thenReturn(Mono.empty());
                 branchId = "branch456";
                 product = Product.builder()
                                 .id("product789")
@@ -0,0 +1,107 @@
+package org.franchise.management.application.usecase;
+
+import org.franchise.management.application.coalescing.StockWriteCoalescer;
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para AdjustProductStockUseCase
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AdjustProductStockUseCase Tests")
+class AdjustProductStockUseCaseTest {
+
+        @Mock
+        private ProductRepository productRepository;
+
+        @Mock
+        private BranchStockLeaderRepository stockLeaderRepository;
+
+        @Mock
+        private StockLeaderboard leaderboard;
+
+        @Mock
+        private StockWriteCoalescer coalescer;
+
+        @InjectMocks
+        private AdjustProductStockUseCase useCase;
+
+        private Product product;
+
+        @BeforeEach
+        void setUp() {
+                lenient().when(stockLeaderRepository.refresh(any())).thenReturn(Mono.empty());
+                product = Product.builder()
+                                .id("product789")
+                                .name("Coca Cola")
+                                .stock(97)
+                                .branchId("branch456")
+                                .build();
+        }
+
+        @Test
+        @DisplayName("Should adjust stock and refresh the branch leader")
+        void shouldAdjustStockAndRefreshLeader() {
+                when(productRepository.adjustProductStock(eq("product789"), eq(-3))).thenReturn(Mono.just(product));
+
+                StepVerifier.create(useCase.adjustStock("product789", -3))
+                                .expectNext(product)
+                                .verifyComplete();
+
+                verify(stockLeaderRepository).refresh("branch456");
+        }
+
+        @Test
+        @DisplayName("Should propagate insufficient stock error")
+        void shouldPropagateInsufficientStockError() {
+                when(productRepository.adjustProductStock(eq("product789"), eq(-500)))
+                                .thenReturn(Mono.error(new IllegalArgumentException("Stock insuficiente para aplicar el ajuste")));
+
+                StepVerifier.create(useCase.adjustStock("product789", -500))
+                                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                                                e.getMessage().contains("Stock insuficiente"))
+                                .verify();
+
+                verify(stockLeaderRepository, never()).refresh(any());
+        }
+
+        @Test
+        @DisplayName("Should return error when product not found")
+        void shouldReturnErrorWhenProductNotFound() {
+                when(productRepository.adjustProductStock(eq("missing"), eq(1))).thenReturn(Mono.empty());
+
+                StepVerifier.create(useCase.adjustStock("missing", 1))
+                                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                                                e.getMessage().equals("Producto no encontrado."))
+                                .verify();
+        }
+
+        @Test
+        @DisplayName("Should write through the coalescer when it is enabled")
+        void shouldWriteThroughCoalescerWhenEnabled() {
+                when(coalescer.isEnabled()).thenReturn(true);
+                when(coalescer.adjust("product789", -3)).thenReturn(Mono.just(product));
+
+                StepVerifier.create(useCase.adjustStock("product789", -3))
+                                .expectNext(product)
+                                .verifyComplete();
+
+                verify(productRepository, never()).adjustProductStock(any(), any());
+                verify(stockLeaderRepository, never()).refresh(any());
+        }
+}
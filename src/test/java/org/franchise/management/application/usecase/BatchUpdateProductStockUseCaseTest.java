@@ -0,0 +1,80 @@
+package org.franchise.management.application.usecase;
+
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.StockUpdateResult;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para BatchUpdateProductStockUseCase
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BatchUpdateProductStockUseCase Tests")
+class BatchUpdateProductStockUseCaseTest {
+
+        @Mock
+        private ProductRepository productRepository;
+
+        @Mock
+        private BranchStockLeaderRepository stockLeaderRepository;
+
+        @Mock
+        private StockLeaderboard leaderboard;
+
+        @InjectMocks
+        private BatchUpdateProductStockUseCase useCase;
+
+        private StockUpdateResult result(String productId, String branchId, StockUpdateResult.Status status) {
+                return StockUpdateResult.builder()
+                                .productId(productId)
+                                .branchId(branchId)
+                                .stock(5)
+                                .status(status)
+                                .build();
+        }
+
+        @Test
+        @DisplayName("Should refresh each touched branch leader once after the batch")
+        void shouldRefreshTouchedBranchesOnce() {
+                when(productRepository.bulkUpdateProductStock(any())).thenReturn(Flux.just(
+                                result("p1", "branch1", StockUpdateResult.Status.UPDATED),
+                                result("p2", "branch1", StockUpdateResult.Status.UPDATED),
+                                result("p3", "branch2", StockUpdateResult.Status.UPDATED),
+                                result("p4", null, StockUpdateResult.Status.NOT_FOUND)));
+                when(stockLeaderRepository.refresh(any())).thenReturn(Mono.empty());
+
+                StepVerifier.create(useCase.updateStocks(Flux.just(Product.builder().id("p1").stock(5).build())))
+                                .expectNextCount(4)
+                                .verifyComplete();
+
+                verify(stockLeaderRepository, times(1)).refresh("branch1");
+                verify(stockLeaderRepository, times(1)).refresh("branch2");
+                verifyNoMoreInteractions(stockLeaderRepository);
+        }
+
+        @Test
+        @DisplayName("Should not refresh leaders when nothing was updated")
+        void shouldNotRefreshWhenNothingUpdated() {
+                when(productRepository.bulkUpdateProductStock(any())).thenReturn(Flux.just(
+                                result("p1", null, StockUpdateResult.Status.INVALID)));
+
+                StepVerifier.create(useCase.updateStocks(Flux.empty()))
+                                .expectNextCount(1)
+                                .verifyComplete();
+
+                verify(stockLeaderRepository, never()).refresh(any());
+        }
+}
@@ -2,7 +2,6 @@ package org.franchise.management.application.usecase;
 
 import org.franchise.management.domain.model.Franchise;
 import org.franchise.management.domain.repository.FranchiseRepository;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.FranchiseMongoAdapter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -27,7 +26,7 @@ import static org.mockito.Mockito.*;
 class CreateFranchiseUseCaseTest {
 
         @Mock
-        private FranchiseMongoAdapter franchiseRepository;
+        private FranchiseRepository franchiseRepository;
 
         @InjectMocks
         private CreateFranchiseUseCase useCase;
@@ -1,7 +1,8 @@
 package org.franchise.management.application.usecase;
 
+import org.franchise.management.application.leaderboard.StockLeaderboard;
 import org.franchise.management.domain.repository.ProductRepository;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.ProductMongoAdapter;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -13,6 +14,7 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -23,7 +25,13 @@ import static org.mockito.Mockito.*;
 class DeleteProductFromBranchUseCaseTest {
 
         @Mock
-        private ProductMongoAdapter productRepository;
+        private ProductRepository productRepository;
+
+        @Mock
+        private BranchStockLeaderRepository stockLeaderRepository;
+
+        @Mock
+        private StockLeaderboard leaderboard;
 
         @InjectMocks
         private DeleteProductFromBranchUseCase useCase;
@@ -34,6 +42,7 @@ class DeleteProductFromBranchUseCaseTest {
 
         @BeforeEach
         void setUp() {
+                lenient().when(stockLeaderRepository.refresh(any())).thenReturn(Mono.empty());
                 franchiseId = "franchise123";
                 branchId = "branch456";
                 productId = "product789";
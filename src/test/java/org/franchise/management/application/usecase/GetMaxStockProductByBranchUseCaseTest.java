@@ -1,21 +1,26 @@
 package org.franchise.management.application.usecase;
 
+import org.franchise.management.application.config.StockLeadersProperties;
+import org.franchise.management.application.leaderboard.StockLeaderboard;
 import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
 import org.franchise.management.domain.repository.ProductRepository;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.ProductMongoAdapter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -27,7 +32,16 @@ import static org.mockito.Mockito.*;
 class GetMaxStockProductByBranchUseCaseTest {
 
         @Mock
-        private ProductMongoAdapter productRepository;
+        private ProductRepository productRepository;
+
+        @Mock
+        private BranchStockLeaderRepository stockLeaderRepository;
+
+        @Mock
+        private StockLeaderboard leaderboard;
+
+        @Spy
+        private StockLeadersProperties stockLeadersProperties = new StockLeadersProperties();
 
         @InjectMocks
         private GetMaxStockProductByBranchUseCase useCase;
@@ -309,4 +323,64 @@ class GetMaxStockProductByBranchUseCaseTest {
                                 .expectNextCount(100)
                                 .verifyComplete();
         }
-}
\ No newline at end of file
+
+        @Test
+        @DisplayName("Should read max stock products from the stock leaders projection when enabled")
+        void shouldReadFromStockLeadersProjectionWhenEnabled() {
+
+                stockLeadersProperties.setEnabled(true);
+
+                when(stockLeaderRepository.findLeadersByFranchise(eq(franchiseId)))
+                                .thenReturn(Flux.fromIterable(products));
+
+                StepVerifier.create(useCase.getMaxStockProducts(franchiseId))
+                                .expectNextCount(3)
+                                .verifyComplete();
+
+                verify(stockLeaderRepository).findLeadersByFranchise(eq(franchiseId));
+                verify(productRepository, never()).findMaxStockProductByBranch(any());
+        }
+
+        @Test
+        @DisplayName("Should answer from the in-process leaderboard without querying Mongo")
+        void shouldAnswerFromLeaderboard() {
+
+                when(leaderboard.leaders(franchiseId)).thenReturn(Optional.of(products));
+
+                StepVerifier.create(useCase.getMaxStockProducts(franchiseId))
+                                .expectNextCount(3)
+                                .verifyComplete();
+
+                verify(productRepository, never()).findMaxStockProductByBranch(any());
+                verify(leaderboard, never()).warmUp(any());
+        }
+
+        @Test
+        @DisplayName("Should fall back to Mongo and warm up the leaderboard on a miss")
+        void shouldWarmUpLeaderboardOnMiss() {
+
+                when(leaderboard.leaders(franchiseId)).thenReturn(Optional.empty());
+                when(productRepository.findMaxStockProductByBranch(eq(franchiseId)))
+                                .thenReturn(Flux.fromIterable(products));
+
+                StepVerifier.create(useCase.getMaxStockProducts(franchiseId))
+                                .expectNextCount(3)
+                                .verifyComplete();
+
+                verify(leaderboard).warmUp(franchiseId);
+        }
+
+        @Test
+        @DisplayName("Should not warm up the leaderboard when Mongo fails")
+        void shouldNotWarmUpLeaderboardOnError() {
+
+                when(productRepository.findMaxStockProductByBranch(eq(franchiseId)))
+                                .thenReturn(Flux.error(new IllegalArgumentException("Franquicia no encontrada")));
+
+                StepVerifier.create(useCase.getMaxStockProducts(franchiseId))
+                                .expectError(IllegalArgumentException.class)
+                                .verify();
+
+                verify(leaderboard, never()).warmUp(any());
+        }
+}
@@ -0,0 +1,108 @@
+package org.franchise.management.application.usecase;
+
+import org.franchise.management.application.config.StockRankingProperties;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.SparseFields;
+import org.franchise.management.domain.repository.CatalogExportRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para GetStockRankingUseCase
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GetStockRankingUseCase Tests")
+class GetStockRankingUseCaseTest {
+
+        @Mock
+        private CatalogExportRepository catalogExportRepository;
+
+        @Mock
+        private ProductRepository productRepository;
+
+        @Spy
+        private StockRankingProperties properties = new StockRankingProperties();
+
+        @InjectMocks
+        private GetStockRankingUseCase useCase;
+
+        private final Franchise franchise = Franchise.builder().id("franchise123").build();
+
+        @Test
+        @DisplayName("Should use the default limit and reject limits out of range")
+        void shouldResolveLimit() {
+                assertEquals(10, useCase.resolveLimit(null));
+                assertEquals(1000, useCase.resolveLimit(1000));
+                assertThrows(IllegalArgumentException.class, () -> useCase.resolveLimit(0));
+                assertThrows(IllegalArgumentException.class, () -> useCase.resolveLimit(1001));
+        }
+
+        @Test
+        @DisplayName("Should require a non-negative threshold")
+        void shouldResolveThreshold() {
+                assertEquals(0, useCase.resolveThreshold(0));
+                assertThrows(IllegalArgumentException.class, () -> useCase.resolveThreshold(null));
+                assertThrows(IllegalArgumentException.class, () -> useCase.resolveThreshold(-1));
+        }
+
+        @Test
+        @DisplayName("Should return every product field by default and reject unknown fields")
+        void shouldResolveFields() {
+                assertEquals(SparseFields.PRODUCT, useCase.resolveFields(null));
+                assertEquals(Set.of("name", "stock"), useCase.resolveFields("id, name,stock"));
+                assertThrows(IllegalArgumentException.class, () -> useCase.resolveFields("name,price"));
+        }
+
+        @Test
+        @DisplayName("Should fail when the franchise does not exist")
+        void shouldFailWhenFranchiseMissing() {
+                when(catalogExportRepository.findFranchise("missing"))
+                                .thenReturn(Mono.error(new IllegalArgumentException("Franquicia no encontrada")));
+
+                StepVerifier.create(useCase.findFranchise("missing"))
+                                .expectErrorMessage("Franquicia no encontrada")
+                                .verify();
+        }
+
+        @Test
+        @DisplayName("Should stream the top stock products from the repository")
+        void shouldGetTopStockProducts() {
+                Product product = Product.builder().id("p1").stock(50).branchId("b1").build();
+                when(productRepository.findTopStockProducts(franchise, 5, true, SparseFields.PRODUCT))
+                                .thenReturn(Flux.just(product));
+
+                StepVerifier.create(useCase.getTopStockProducts(franchise, 5, true, SparseFields.PRODUCT))
+                                .expectNext(product)
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should stream the low stock products from the repository")
+        void shouldGetLowStockProducts() {
+                Product product = Product.builder().id("p1").stock(2).branchId("b1").build();
+                when(productRepository.findLowStockProducts(franchise, 3, 10, Set.of("stock")))
+                                .thenReturn(Flux.just(product));
+
+                StepVerifier.create(useCase.getLowStockProducts(franchise, 3, 10, Set.of("stock")))
+                                .expectNext(product)
+                                .verifyComplete();
+
+                verify(productRepository, never()).findTopStockProducts(any(), anyInt(), anyBoolean(), any());
+        }
+}
@@ -0,0 +1,68 @@
+package org.franchise.management.application.usecase;
+
+import org.franchise.management.application.leaderboard.StockLeaderboard;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ImportProductsToBranchUseCase
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImportProductsToBranchUseCase Tests")
+class ImportProductsToBranchUseCaseTest {
+
+        @Mock
+        private ProductRepository productRepository;
+
+        @Mock
+        private BranchStockLeaderRepository stockLeaderRepository;
+
+        @Mock
+        private StockLeaderboard leaderboard;
+
+        @InjectMocks
+        private ImportProductsToBranchUseCase useCase;
+
+        @Test
+        @DisplayName("Should import products and refresh the branch leader once")
+        void shouldImportProductsAndRefreshLeaderOnce() {
+                Flux<Product> products = Flux.just(Product.builder().name("Café").stock(3).build());
+                when(productRepository.importProductsToBranch(eq("branch456"), any())).thenReturn(Mono.just(1L));
+                when(stockLeaderRepository.refresh("branch456")).thenReturn(Mono.empty());
+
+                StepVerifier.create(useCase.importProducts("branch456", products))
+                                .expectNextMatches(result -> result.getImported() == 1
+                                                && "branch456".equals(result.getBranchId()))
+                                .verifyComplete();
+
+                verify(stockLeaderRepository, times(1)).refresh("branch456");
+        }
+
+        @Test
+        @DisplayName("Should propagate branch not found error")
+        void shouldPropagateBranchNotFound() {
+                when(productRepository.importProductsToBranch(eq("missing"), any()))
+                                .thenReturn(Mono.error(new IllegalArgumentException("Sucursal no encontrada.")));
+
+                StepVerifier.create(useCase.importProducts("missing", Flux.empty()))
+                                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                                                e.getMessage().equals("Sucursal no encontrada."))
+                                .verify();
+
+                verify(stockLeaderRepository, never()).refresh(any());
+        }
+}
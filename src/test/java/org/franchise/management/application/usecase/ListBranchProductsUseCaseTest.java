@@ -0,0 +1,86 @@
+package org.franchise.management.application.usecase;
+
+import org.franchise.management.application.config.PaginationProperties;
+import org.franchise.management.domain.model.CursorPage;
+import org.franchise.management.domain.model.PageCursor;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.ProductOrder;
+import org.franchise.management.domain.model.SparseFields;
+import org.franchise.management.domain.repository.BranchRepository;
+import org.franchise.management.domain.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ListBranchProductsUseCase
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ListBranchProductsUseCase Tests")
+class ListBranchProductsUseCaseTest {
+
+        @Mock
+        private BranchRepository branchRepository;
+
+        @Mock
+        private ProductRepository productRepository;
+
+        @Spy
+        private PaginationProperties paginationProperties = new PaginationProperties();
+
+        @InjectMocks
+        private ListBranchProductsUseCase useCase;
+
+        @Test
+        @DisplayName("Should list a page ordered by stock after the cursor")
+        void shouldListPageByStock() {
+                Product product = Product.builder().id("p2").stock(5).build();
+                CursorPage<Product> page = CursorPage.<Product>builder().items(List.of(product)).build();
+                when(branchRepository.existsById("branch1")).thenReturn(Mono.just(true));
+                when(productRepository.findPageByBranch("branch1", ProductOrder.STOCK, PageCursor.of(10, "p1"), 20,
+                                SparseFields.PRODUCT)).thenReturn(Mono.just(page));
+
+                StepVerifier.create(useCase.listProducts("branch1", "stock", PageCursor.of(10, "p1").encode(), 20, null))
+                                .expectNext(page)
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should fail when the branch does not exist")
+        void shouldFailWhenBranchMissing() {
+                when(branchRepository.existsById("missing")).thenReturn(Mono.just(false));
+
+                StepVerifier.create(useCase.listProducts("missing", null, null, null, null))
+                                .expectErrorMessage("Sucursal no encontrada.")
+                                .verify();
+
+                verifyNoInteractions(productRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject a cursor generated for another order and unknown fields")
+        void shouldRejectCursorOfAnotherOrder() {
+                StepVerifier.create(useCase.listProducts("branch1", "stock", PageCursor.of("p1").encode(), null, null))
+                                .expectErrorMessage("Cursor inválido para sort=stock")
+                                .verify();
+                StepVerifier.create(useCase.listProducts("branch1", "name", null, null, null))
+                                .expectErrorMessage("sort debe ser id o stock")
+                                .verify();
+                StepVerifier.create(useCase.listProducts("branch1", null, null, null, "stock,productIds"))
+                                .expectErrorMessage("Campo no permitido en fields: productIds")
+                                .verify();
+
+                verifyNoInteractions(branchRepository, productRepository);
+        }
+}
@@ -0,0 +1,101 @@
+package org.franchise.management.application.usecase;
+
+import org.franchise.management.application.config.PaginationProperties;
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.CursorPage;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.PageCursor;
+import org.franchise.management.domain.model.SparseFields;
+import org.franchise.management.domain.repository.BranchRepository;
+import org.franchise.management.domain.repository.CatalogExportRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ListFranchiseBranchesUseCase
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ListFranchiseBranchesUseCase Tests")
+class ListFranchiseBranchesUseCaseTest {
+
+        @Mock
+        private CatalogExportRepository catalogExportRepository;
+
+        @Mock
+        private BranchRepository branchRepository;
+
+        @Spy
+        private PaginationProperties paginationProperties = new PaginationProperties();
+
+        @InjectMocks
+        private ListFranchiseBranchesUseCase useCase;
+
+        private final Franchise franchise = Franchise.builder().id("franchise123").build();
+
+        @Test
+        @DisplayName("Should fail when the franchise does not exist")
+        void shouldFailWhenFranchiseMissing() {
+                when(catalogExportRepository.findFranchise("missing"))
+                                .thenReturn(Mono.error(new IllegalArgumentException("Franquicia no encontrada")));
+
+                StepVerifier.create(useCase.listBranches("missing", null, null, null))
+                                .expectErrorMessage("Franquicia no encontrada")
+                                .verify();
+        }
+
+        @Test
+        @DisplayName("Should read the first page with the default limit")
+        void shouldListFirstPage() {
+                Branch b1 = Branch.builder().id("b1").build();
+                CursorPage<Branch> page = CursorPage.<Branch>builder().items(List.of(b1)).build();
+                when(catalogExportRepository.findFranchise("franchise123")).thenReturn(Mono.just(franchise));
+                when(branchRepository.findPageByFranchise(franchise, null, 50, SparseFields.BRANCH_DEFAULT))
+                                .thenReturn(Mono.just(page));
+
+                StepVerifier.create(useCase.listBranches("franchise123", null, null, null))
+                                .expectNext(page)
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should continue after the decoded cursor with the requested fields")
+        void shouldContinueAfterCursor() {
+                String cursor = PageCursor.of("b1").encode();
+                when(catalogExportRepository.findFranchise("franchise123")).thenReturn(Mono.just(franchise));
+                when(branchRepository.findPageByFranchise(franchise, PageCursor.of("b1"), 10, Set.of("name")))
+                                .thenReturn(Mono.just(CursorPage.<Branch>builder().items(List.of()).build()));
+
+                StepVerifier.create(useCase.listBranches("franchise123", cursor, 10, "id,name"))
+                                .expectNextMatches(page -> page.getNextCursor() == null)
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should reject a limit above the maximum, a malformed cursor and unknown fields")
+        void shouldRejectInvalidParameters() {
+                StepVerifier.create(useCase.listBranches("franchise123", null, 501, null))
+                                .expectErrorMessage("limit debe estar entre 1 y 500")
+                                .verify();
+                StepVerifier.create(useCase.listBranches("franchise123", "%%%", null, null))
+                                .expectErrorMessage("Cursor inválido")
+                                .verify();
+                StepVerifier.create(useCase.listBranches("franchise123", null, null, "name,password"))
+                                .expectErrorMessage("Campo no permitido en fields: password")
+                                .verify();
+
+                verifyNoInteractions(catalogExportRepository, branchRepository);
+        }
+}
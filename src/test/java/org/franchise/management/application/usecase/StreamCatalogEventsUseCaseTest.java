@@ -0,0 +1,64 @@
+package org.franchise.management.application.usecase;
+
+import org.franchise.management.application.config.EventsProperties;
+import org.franchise.management.application.events.CatalogEventHub;
+import org.franchise.management.domain.model.CatalogChangeEvent;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.repository.CatalogExportRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para StreamCatalogEventsUseCase
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StreamCatalogEventsUseCase Tests")
+class StreamCatalogEventsUseCaseTest {
+
+        @Mock
+        private CatalogExportRepository catalogExportRepository;
+
+        @Mock
+        private CatalogEventHub eventHub;
+
+        @Spy
+        private EventsProperties eventsProperties = new EventsProperties();
+
+        @InjectMocks
+        private StreamCatalogEventsUseCase useCase;
+
+        @Test
+        @DisplayName("Should fail before streaming when the franchise does not exist")
+        void shouldFailWhenFranchiseMissing() {
+                when(catalogExportRepository.findFranchise("missing"))
+                                .thenReturn(Mono.error(new IllegalArgumentException("Franquicia no encontrada")));
+
+                StepVerifier.create(useCase.findFranchise("missing"))
+                                .expectErrorMessage("Franquicia no encontrada")
+                                .verify();
+
+                verifyNoInteractions(eventHub);
+        }
+
+        @Test
+        @DisplayName("Should stream the franchise events from the hub")
+        void shouldStreamEventsFromHub() {
+                Franchise franchise = Franchise.builder().id("franchise123").build();
+                CatalogChangeEvent event = CatalogChangeEvent.builder().id("token2").franchiseId("franchise123").build();
+                when(eventHub.events("franchise123", "token1")).thenReturn(Flux.just(event));
+
+                StepVerifier.create(useCase.events(franchise, "token1"))
+                                .expectNext(event)
+                                .verifyComplete();
+        }
+}
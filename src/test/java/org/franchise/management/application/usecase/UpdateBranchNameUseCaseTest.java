@@ -1,7 +1,7 @@
 package org.franchise.management.application.usecase;
 
 import org.franchise.management.domain.model.Branch;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.BranchMongoAdapter;
+import org.franchise.management.domain.repository.BranchRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,7 +16,7 @@ import static org.mockito.Mockito.*;
 class UpdateBranchNameUseCaseTest {
 
     @Mock
-    private BranchMongoAdapter branchRepository;
+    private BranchRepository branchRepository;
 
     @InjectMocks
     private UpdateBranchNameUseCase updateBranchNameUseCase;
@@ -1,8 +1,9 @@
 package org.franchise.management.application.usecase;
 
+import org.franchise.management.application.leaderboard.StockLeaderboard;
 import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
 import org.franchise.management.domain.repository.ProductRepository;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.ProductMongoAdapter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -24,7 +26,13 @@ import static org.mockito.Mockito.*;
 class UpdateProductNameUseCaseTest {
 
         @Mock
-        private ProductMongoAdapter productRepository;
+        private ProductRepository productRepository;
+
+        @Mock
+        private BranchStockLeaderRepository stockLeaderRepository;
+
+        @Mock
+        private StockLeaderboard leaderboard;
 
         @InjectMocks
         private UpdateProductNameUseCase updateProductNameUseCase;
@@ -35,6 +43,7 @@ class UpdateProductNameUseCaseTest {
 
         @BeforeEach
         void setUp() {
+                lenient().when(stockLeaderRepository.refresh(any())).thenReturn(Mono.empty());
                 productId = "product123";
                 newName = "Café Premium 500g";
                 product = Product.builder()
@@ -55,6 +64,8 @@ class UpdateProductNameUseCaseTest {
                                 .expectNextMatches(p -> p.getName().equals(newName))
                                 .verifyComplete();
 
+                verify(stockLeaderRepository).refresh("branch001");
+
                 verify(productRepository).updateProductName(productId, newName);
         }
 
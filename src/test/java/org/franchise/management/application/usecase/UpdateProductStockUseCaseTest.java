@@ -1,8 +1,10 @@
 package org.franchise.management.application.usecase;
 
+import org.franchise.management.application.coalescing.StockWriteCoalescer;
+import org.franchise.management.application.leaderboard.StockLeaderboard;
 import org.franchise.management.domain.model.Product;
 import org.franchise.management.domain.repository.ProductRepository;
-import org.franchise.management.infrastructure.drivenadapters.mongo.adapters.ProductMongoAdapter;
+import org.franchise.management.domain.repository.BranchStockLeaderRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +16,7 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -24,7 +27,16 @@ import static org.mockito.Mockito.*;
 class UpdateProductStockUseCaseTest {
 
         @Mock
-        private ProductMongoAdapter productRepository;
+        private ProductRepository productRepository;
+
+        @Mock
+        private BranchStockLeaderRepository stockLeaderRepository;
+
+        @Mock
+        private StockLeaderboard leaderboard;
+
+        @Mock
+        private StockWriteCoalescer coalescer;
 
         @InjectMocks
         private UpdateProductStockUseCase useCase;
@@ -36,6 +48,7 @@ class UpdateProductStockUseCaseTest {
 
         @BeforeEach
         void setUp() {
+                lenient().when(stockLeaderRepository.refresh(any())).thenReturn(Mono.empty());
                 franchiseId = "franchise123";
                 branchId = "branch456";
                 productId = "product789";
@@ -326,4 +339,26 @@ class UpdateProductStockUseCaseTest {
                                 .expectNextMatches(p -> p.getStock().equals(secondStock))
                                 .verifyComplete();
         }
-}
\ No newline at end of file
+
+        @Test
+        @DisplayName("Should write through the coalescer when it is enabled")
+        void shouldWriteThroughCoalescerWhenEnabled() {
+
+                Product updatedProduct = Product.builder()
+                                .id(productId)
+                                .name("Coca Cola")
+                                .stock(newStock)
+                                .branchId(branchId)
+                                .build();
+
+                when(coalescer.isEnabled()).thenReturn(true);
+                when(coalescer.set(productId, newStock)).thenReturn(Mono.just(updatedProduct));
+
+                StepVerifier.create(useCase.updateStock(productId, newStock))
+                                .expectNext(updatedProduct)
+                                .verifyComplete();
+
+                verify(productRepository, never()).updateProductStock(any(), any());
+                verify(stockLeaderRepository, never()).refresh(any());
+        }
+}
@@ -0,0 +1,58 @@
+package org.franchise.management.domain.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para PageCursor y CursorPage
+ */
+@DisplayName("PageCursor Domain Model Tests")
+class PageCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip id and stock cursors")
+    void shouldRoundTrip() {
+        assertEquals(PageCursor.of("65a1b2c3d4e5f6a7b8c9d0e1"),
+                PageCursor.decode(PageCursor.of("65a1b2c3d4e5f6a7b8c9d0e1").encode()));
+        assertEquals(PageCursor.of(0, "p1"), PageCursor.decode(PageCursor.of(0, "p1").encode()));
+    }
+
+    @Test
+    @DisplayName("Should treat a missing cursor as the first page")
+    void shouldDecodeMissingCursorAsNull() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors")
+    void shouldRejectMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("%%%"));
+        String nonNumericStock = Base64.getUrlEncoder().encodeToString("abc:p1".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(nonNumericStock));
+    }
+
+    @Test
+    @DisplayName("Should keep limit items and point the cursor at the last one")
+    void shouldBuildPageFromExtraRow() {
+        CursorPage<String> page = CursorPage.of(List.of("a", "b", "c"), 2, PageCursor::of);
+
+        assertEquals(List.of("a", "b"), page.getItems());
+        assertEquals(PageCursor.of("b"), PageCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("Should end the listing when no extra row was read")
+    void shouldEndWithoutExtraRow() {
+        CursorPage<String> page = CursorPage.of(List.of("a", "b"), 2, PageCursor::of);
+
+        assertEquals(List.of("a", "b"), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+}
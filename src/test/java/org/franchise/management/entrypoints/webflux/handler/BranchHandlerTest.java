@@ -1,10 +1,14 @@
 package org.franchise.management.entrypoints.webflux.handler;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.franchise.management.application.usecase.AddBranchToFranchiseUseCase;
+import org.franchise.management.application.usecase.ListFranchiseBranchesUseCase;
 import org.franchise.management.application.usecase.UpdateBranchNameUseCase;
 import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.CursorPage;
 import org.franchise.management.domain.repository.BranchRepository;
 import org.franchise.management.entrypoints.webflux.dto.BranchRequestDTO;
+import org.franchise.management.entrypoints.webflux.util.SparseJsonWriter;
 import org.franchise.management.entrypoints.webflux.util.ValidationUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,12 +16,17 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+import java.util.Optional;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -39,12 +48,18 @@ class BranchHandlerTest {
         @Mock
         private UpdateBranchNameUseCase updateBranchNameUseCase;
 
+        @Mock
+        private ListFranchiseBranchesUseCase listFranchiseBranchesUseCase;
+
         @Mock
         private ServerRequest serverRequest;
 
         @Mock
         private ValidationUtil validationUtil;
 
+        @Spy
+        private SparseJsonWriter sparseJsonWriter = new SparseJsonWriter(new ObjectMapper().findAndRegisterModules());
+
         @InjectMocks
         private BranchHandler branchHandler;
 
@@ -89,6 +104,51 @@ class BranchHandlerTest {
                                 .addBranch(eq(franchiseId), any(Branch.class));
         }
 
+        @Test
+        @DisplayName("Should return a page of franchise branches")
+        void shouldListBranchPage() {
+                CursorPage<Branch> page = CursorPage.<Branch>builder().items(List.of(branch)).nextCursor("next").build();
+
+                when(serverRequest.pathVariable("franchiseId")).thenReturn(franchiseId);
+                when(serverRequest.queryParam("cursor")).thenReturn(Optional.of("abc"));
+                when(serverRequest.queryParam("limit")).thenReturn(Optional.of("20"));
+                when(serverRequest.queryParam("fields")).thenReturn(Optional.of("name,productIds"));
+                when(listFranchiseBranchesUseCase.listBranches(franchiseId, "abc", 20, "name,productIds"))
+                                .thenReturn(Mono.just(page));
+
+                StepVerifier.create(branchHandler.listBranches(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().is2xxSuccessful()
+                                                && MediaType.APPLICATION_JSON.equals(res.headers().getContentType()))
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should return bad request when listing branches of a missing franchise")
+        void shouldReturnBadRequestWhenListingMissingFranchise() {
+                when(serverRequest.pathVariable("franchiseId")).thenReturn(franchiseId);
+                when(serverRequest.queryParam(anyString())).thenReturn(Optional.empty());
+                when(listFranchiseBranchesUseCase.listBranches(franchiseId, null, null, null))
+                                .thenReturn(Mono.error(new IllegalArgumentException("Franquicia no encontrada")));
+
+                StepVerifier.create(branchHandler.listBranches(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().is4xxClientError())
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should return bad request when limit is not a number")
+        void shouldReturnBadRequestWhenLimitIsNotANumber() {
+                when(serverRequest.pathVariable("franchiseId")).thenReturn(franchiseId);
+                when(serverRequest.queryParam("cursor")).thenReturn(Optional.empty());
+                when(serverRequest.queryParam("limit")).thenReturn(Optional.of("diez"));
+
+                StepVerifier.create(branchHandler.listBranches(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().is4xxClientError())
+                                .verifyComplete();
+
+                verifyNoInteractions(listFranchiseBranchesUseCase);
+        }
+
         @Test
         @DisplayName("Should return bad request when use case fails")
         void shouldReturnBadRequestWhenUseCaseFails() {
@@ -1,6 +1,10 @@
 package org.franchise.management.entrypoints.webflux.handler;
 
 import org.franchise.management.application.usecase.CreateFranchiseUseCase;
+import org.franchise.management.application.usecase.ExportFranchiseCatalogUseCase;
+import org.franchise.management.application.usecase.StreamCatalogEventsUseCase;
+import org.franchise.management.domain.model.CatalogChangeEvent;
+import org.franchise.management.domain.model.CatalogExportRecord;
 import org.franchise.management.domain.model.Franchise;
 import org.franchise.management.entrypoints.webflux.dto.FranchiseRequestDTO;
 import org.franchise.management.entrypoints.webflux.util.ValidationUtil;
@@ -11,12 +15,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -31,6 +39,12 @@ class FranchiseHandlerTest {
         @Mock
         private CreateFranchiseUseCase createFranchiseUseCase;
 
+        @Mock
+        private ExportFranchiseCatalogUseCase exportFranchiseCatalogUseCase;
+
+        @Mock
+        private StreamCatalogEventsUseCase streamCatalogEventsUseCase;
+
         @Mock
         private ValidationUtil validationUtil;
 
@@ -389,4 +403,81 @@ class FranchiseHandlerTest {
                 verify(validationUtil, times(1)).validate(any(FranchiseRequestDTO.class));
                 verify(createFranchiseUseCase, never()).createFranchise(any());
         }
-}
\ No newline at end of file
+
+        @Test
+        @DisplayName("Should stream catalog export as NDJSON")
+        void shouldStreamCatalogExportAsNdjson() {
+                Franchise franchise = Franchise.builder().id("franchise123").name("McDonald's").build();
+                ServerRequest.Headers headers = mock(ServerRequest.Headers.class);
+
+                when(serverRequest.pathVariable("franchiseId")).thenReturn("franchise123");
+                when(serverRequest.headers()).thenReturn(headers);
+                when(headers.accept()).thenReturn(List.of());
+                when(exportFranchiseCatalogUseCase.findFranchise("franchise123")).thenReturn(Mono.just(franchise));
+                when(exportFranchiseCatalogUseCase.exportCatalog(franchise))
+                                .thenReturn(Flux.just(CatalogExportRecord.of(franchise)));
+
+                StepVerifier.create(franchiseHandler.exportCatalog(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().is2xxSuccessful()
+                                                && MediaType.APPLICATION_NDJSON.equals(res.headers().getContentType()))
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should return bad request when exporting unknown franchise")
+        void shouldReturnBadRequestWhenExportingUnknownFranchise() {
+                ServerRequest.Headers headers = mock(ServerRequest.Headers.class);
+
+                when(serverRequest.pathVariable("franchiseId")).thenReturn("missing");
+                when(serverRequest.headers()).thenReturn(headers);
+                when(headers.accept()).thenReturn(List.of());
+                when(exportFranchiseCatalogUseCase.findFranchise("missing"))
+                                .thenReturn(Mono.error(new IllegalArgumentException("Franquicia no encontrada")));
+
+                StepVerifier.create(franchiseHandler.exportCatalog(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().is4xxClientError())
+                                .verifyComplete();
+
+                verify(exportFranchiseCatalogUseCase, never()).exportCatalog(any());
+        }
+
+        @Test
+        @DisplayName("Should open an SSE stream resuming from Last-Event-ID")
+        void shouldStreamEventsFromLastEventId() {
+                Franchise franchise = Franchise.builder().id("franchise123").build();
+                ServerRequest.Headers headers = mock(ServerRequest.Headers.class);
+
+                when(serverRequest.pathVariable("franchiseId")).thenReturn("franchise123");
+                when(serverRequest.headers()).thenReturn(headers);
+                when(headers.firstHeader("Last-Event-ID")).thenReturn("token1");
+                when(streamCatalogEventsUseCase.findFranchise("franchise123")).thenReturn(Mono.just(franchise));
+                when(streamCatalogEventsUseCase.heartbeat()).thenReturn(Duration.ofSeconds(15));
+                when(streamCatalogEventsUseCase.events(franchise, "token1")).thenReturn(Flux.just(CatalogChangeEvent
+                                .builder().id("token2").type(CatalogChangeEvent.Type.PRODUCT_CHANGED).build()));
+
+                StepVerifier.create(franchiseHandler.streamEvents(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().is2xxSuccessful()
+                                                && MediaType.TEXT_EVENT_STREAM.equals(res.headers().getContentType()))
+                                .verifyComplete();
+
+                verify(serverRequest, never()).queryParam("lastEventId");
+        }
+
+        @Test
+        @DisplayName("Should return bad request when streaming events of an unknown franchise")
+        void shouldReturnBadRequestWhenStreamingUnknownFranchise() {
+                ServerRequest.Headers headers = mock(ServerRequest.Headers.class);
+
+                when(serverRequest.pathVariable("franchiseId")).thenReturn("missing");
+                when(serverRequest.headers()).thenReturn(headers);
+                when(streamCatalogEventsUseCase.findFranchise("missing"))
+                                .thenReturn(Mono.error(new IllegalArgumentException("Franquicia no encontrada")));
+
+                StepVerifier.create(franchiseHandler.streamEvents(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().is4xxClientError())
+                                .verifyComplete();
+
+                verify(streamCatalogEventsUseCase, never()).events(any(), any());
+        }
+
+}
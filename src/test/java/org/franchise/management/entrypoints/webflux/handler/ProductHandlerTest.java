@@ -1,10 +1,18 @@
 package org.franchise.management.entrypoints.webflux.handler;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.franchise.management.application.usecase.*;
+import org.franchise.management.domain.model.CursorPage;
+import org.franchise.management.domain.model.Franchise;
 import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.ProductImportResult;
+import org.franchise.management.domain.model.StockUpdateResult;
 import org.franchise.management.entrypoints.webflux.dto.ProductRequestDTO;
+import org.franchise.management.entrypoints.webflux.dto.StockUpdateItemDTO;
 import org.franchise.management.entrypoints.webflux.dto.UpdateNameRequestDTO;
+import org.franchise.management.entrypoints.webflux.dto.UpdateStockDeltaRequestDTO;
 import org.franchise.management.entrypoints.webflux.dto.UpdateStockRequestDTO;
+import org.franchise.management.entrypoints.webflux.util.SparseJsonWriter;
 import org.franchise.management.entrypoints.webflux.util.ValidationUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,14 +20,22 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -42,15 +58,33 @@ class ProductHandlerTest {
         @Mock
         private UpdateProductStockUseCase updateProductStockUseCase;
 
+        @Mock
+        private AdjustProductStockUseCase adjustProductStockUseCase;
+
+        @Mock
+        private BatchUpdateProductStockUseCase batchUpdateProductStockUseCase;
+
+        @Mock
+        private ImportProductsToBranchUseCase importProductsToBranchUseCase;
+
         @Mock
         private GetMaxStockProductByBranchUseCase findMaxStockProductByFranchiseUseCase;
 
+        @Mock
+        private GetStockRankingUseCase getStockRankingUseCase;
+
+        @Mock
+        private ListBranchProductsUseCase listBranchProductsUseCase;
+
         @Mock
         private ServerRequest serverRequest;
 
         @Mock
         private ValidationUtil validationUtil;
 
+        @Spy
+        private SparseJsonWriter sparseJsonWriter = new SparseJsonWriter(new ObjectMapper().findAndRegisterModules());
+
         @InjectMocks
         private ProductHandler productHandler;
 
@@ -297,6 +331,91 @@ class ProductHandlerTest {
                                 .verifyComplete();
         }
 
+        @Test
+        @DisplayName("Should stream the top stock products as NDJSON when requested")
+        void shouldStreamTopStockProducts() {
+                Franchise franchise = Franchise.builder().id(franchiseId).build();
+                ServerRequest.Headers headers = mock(ServerRequest.Headers.class);
+
+                when(serverRequest.pathVariable("franchiseId")).thenReturn(franchiseId);
+                when(serverRequest.queryParam("n")).thenReturn(Optional.of("5"));
+                when(serverRequest.queryParam("perBranch")).thenReturn(Optional.of("true"));
+                when(serverRequest.queryParam("fields")).thenReturn(Optional.of("name,stock"));
+                when(serverRequest.headers()).thenReturn(headers);
+                when(headers.accept()).thenReturn(List.of(MediaType.APPLICATION_NDJSON));
+                when(getStockRankingUseCase.resolveLimit(5)).thenReturn(5);
+                when(getStockRankingUseCase.findFranchise(franchiseId)).thenReturn(Mono.just(franchise));
+                when(getStockRankingUseCase.resolveFields("name,stock")).thenReturn(Set.of("name", "stock"));
+                when(getStockRankingUseCase.getTopStockProducts(franchise, 5, true, Set.of("name", "stock")))
+                                .thenReturn(Flux.just(Product.builder().id("p1").stock(50).build()));
+
+                StepVerifier.create(productHandler.getTopStockProducts(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().is2xxSuccessful()
+                                                && MediaType.APPLICATION_NDJSON.equals(res.headers().getContentType()))
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should return a page of branch products")
+        void shouldListProductPage() {
+                CursorPage<Product> page = CursorPage.<Product>builder()
+                                .items(List.of(Product.builder().id("p1").stock(50).build()))
+                                .build();
+
+                when(serverRequest.pathVariable("branchId")).thenReturn("branch1");
+                when(serverRequest.queryParam("sort")).thenReturn(Optional.of("stock"));
+                when(serverRequest.queryParam("cursor")).thenReturn(Optional.empty());
+                when(serverRequest.queryParam("limit")).thenReturn(Optional.of("100"));
+                when(serverRequest.queryParam("fields")).thenReturn(Optional.of("name"));
+                when(listBranchProductsUseCase.listProducts("branch1", "stock", null, 100, "name"))
+                                .thenReturn(Mono.just(page));
+
+                StepVerifier.create(productHandler.listProducts(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().is2xxSuccessful())
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should return bad request when the product page cannot be read")
+        void shouldReturnBadRequestWhenListingFails() {
+                when(serverRequest.pathVariable("branchId")).thenReturn("missing");
+                when(serverRequest.queryParam(anyString())).thenReturn(Optional.empty());
+                when(listBranchProductsUseCase.listProducts("missing", null, null, null, null))
+                                .thenReturn(Mono.error(new IllegalArgumentException("Sucursal no encontrada.")));
+
+                StepVerifier.create(productHandler.listProducts(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().equals(HttpStatus.BAD_REQUEST))
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should return bad request for a non-numeric n without querying")
+        void shouldRejectNonNumericLimit() {
+                when(serverRequest.pathVariable("franchiseId")).thenReturn(franchiseId);
+                when(serverRequest.queryParam("n")).thenReturn(Optional.of("diez"));
+
+                StepVerifier.create(productHandler.getTopStockProducts(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().equals(HttpStatus.BAD_REQUEST))
+                                .verifyComplete();
+
+                verify(getStockRankingUseCase, never()).findFranchise(any());
+        }
+
+        @Test
+        @DisplayName("Should return bad request when below is missing")
+        void shouldRejectMissingThreshold() {
+                when(serverRequest.pathVariable("franchiseId")).thenReturn(franchiseId);
+                when(getStockRankingUseCase.resolveLimit(null)).thenReturn(10);
+                when(getStockRankingUseCase.resolveThreshold(null))
+                                .thenThrow(new IllegalArgumentException("El parámetro below es obligatorio"));
+
+                StepVerifier.create(productHandler.getLowStockProducts(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().equals(HttpStatus.BAD_REQUEST))
+                                .verifyComplete();
+
+                verify(getStockRankingUseCase, never()).getLowStockProducts(any(), anyInt(), anyInt(), any());
+        }
+
         @Test
         @DisplayName("Should handle runtime exception in add product")
         void shouldHandleRuntimeExceptionInAddProduct() {
@@ -427,4 +546,83 @@ class ProductHandlerTest {
                 verify(updateProductNameUseCase).updateProductName(eq(productId), eq("Café Premium"));
         }
 
-}
\ No newline at end of file
+        @Test
+        @DisplayName("Should adjust stock by delta successfully")
+        void shouldAdjustStockByDeltaSuccessfully() {
+                UpdateStockDeltaRequestDTO body = UpdateStockDeltaRequestDTO.builder().delta(-3).build();
+
+                when(serverRequest.pathVariable("productId")).thenReturn(productId);
+                when(serverRequest.bodyToMono(UpdateStockDeltaRequestDTO.class)).thenReturn(Mono.just(body));
+                when(validationUtil.validate(body)).thenReturn(Mono.just(body));
+                when(adjustProductStockUseCase.adjustStock(eq(productId), eq(-3))).thenReturn(Mono.just(product));
+
+                StepVerifier.create(productHandler.adjustStock(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().is2xxSuccessful())
+                                .verifyComplete();
+
+                verify(adjustProductStockUseCase).adjustStock(eq(productId), eq(-3));
+        }
+
+        @Test
+        @DisplayName("Should return bad request when stock adjustment is rejected")
+        void shouldReturnBadRequestWhenAdjustmentRejected() {
+                UpdateStockDeltaRequestDTO body = UpdateStockDeltaRequestDTO.builder().delta(-500).build();
+
+                when(serverRequest.pathVariable("productId")).thenReturn(productId);
+                when(serverRequest.bodyToMono(UpdateStockDeltaRequestDTO.class)).thenReturn(Mono.just(body));
+                when(validationUtil.validate(body)).thenReturn(Mono.just(body));
+                when(adjustProductStockUseCase.adjustStock(eq(productId), eq(-500)))
+                                .thenReturn(Mono.error(new IllegalArgumentException("Stock insuficiente para aplicar el ajuste")));
+
+                StepVerifier.create(productHandler.adjustStock(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().is4xxClientError())
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should stream batch stock update results")
+        void shouldStreamBatchStockUpdateResults() {
+                StockUpdateItemDTO item = StockUpdateItemDTO.builder().productId(productId).stock(5).build();
+                StockUpdateResult result = StockUpdateResult.builder()
+                                .productId(productId)
+                                .branchId(branchId)
+                                .stock(5)
+                                .status(StockUpdateResult.Status.UPDATED)
+                                .build();
+
+                when(serverRequest.bodyToFlux(StockUpdateItemDTO.class)).thenReturn(Flux.just(item));
+                when(batchUpdateProductStockUseCase.updateStocks(any())).thenReturn(Flux.just(result));
+
+                StepVerifier.create(productHandler.batchUpdateStock(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().is2xxSuccessful())
+                                .verifyComplete();
+
+                verify(batchUpdateProductStockUseCase).updateStocks(any());
+        }
+
+        @Test
+        @DisplayName("Should import valid NDJSON lines and report rejected ones")
+        void shouldImportProductsAndReportRejectedLines() {
+                ProductRequestDTO invalid = ProductRequestDTO.builder().name("").stock(1).build();
+                ProductImportResult result = ProductImportResult.builder().branchId(branchId).imported(1).build();
+
+                when(serverRequest.pathVariable("branchId")).thenReturn(branchId);
+                when(serverRequest.bodyToFlux(ProductRequestDTO.class))
+                                .thenReturn(Flux.just(productRequestDTO, invalid));
+                when(validationUtil.validate(productRequestDTO)).thenReturn(Mono.just(productRequestDTO));
+                when(validationUtil.validate(invalid))
+                                .thenReturn(Mono.error(new IllegalArgumentException("El nombre del producto es obligatorio")));
+                when(importProductsToBranchUseCase.importProducts(eq(branchId), any())).thenAnswer(invocation -> {
+                        Flux<Product> products = invocation.getArgument(1);
+                        return products.count().thenReturn(result);
+                });
+
+                StepVerifier.create(productHandler.importProducts(serverRequest))
+                                .expectNextMatches(res -> res.statusCode().is2xxSuccessful())
+                                .verifyComplete();
+
+                assertEquals(1, result.getRejected());
+                assertTrue(result.getErrors().get(0).startsWith("Línea 2"));
+        }
+
+}
@@ -0,0 +1,133 @@
+package org.franchise.management.entrypoints.webflux.router;
+
+import org.franchise.management.entrypoints.webflux.handler.AdminHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.web.reactive.function.server.RouterFunctions.toWebHandler;
+
+class AdminRouterTest {
+
+    private AdminHandler handler;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        handler = mock(AdminHandler.class);
+
+        AdminRouter router = new AdminRouter();
+        RouterFunction<ServerResponse> route = router.adminRoutes(handler);
+
+        webTestClient = WebTestClient.bindToWebHandler(toWebHandler(route)).build();
+    }
+
+    @Test
+    @DisplayName("Should route GET /admin/indexes to getIndexStats handler")
+    void shouldRouteToGetIndexStats() {
+        when(handler.getIndexStats(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.get()
+                .uri("/admin/indexes")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).getIndexStats(any());
+    }
+
+    @Test
+    @DisplayName("Should route POST /admin/indexes to ensureIndexes handler")
+    void shouldRouteToEnsureIndexes() {
+        when(handler.ensureIndexes(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.post()
+                .uri("/admin/indexes")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).ensureIndexes(any());
+    }
+
+    @Test
+    @DisplayName("Should route POST /admin/stock-leaders/rebuild to rebuildStockLeaders handler")
+    void shouldRouteToRebuildStockLeaders() {
+        when(handler.rebuildStockLeaders(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.post()
+                .uri("/admin/stock-leaders/rebuild")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).rebuildStockLeaders(any());
+    }
+
+    @Test
+    @DisplayName("Should route GET /admin/caches to getCacheStats handler")
+    void shouldRouteToGetCacheStats() {
+        when(handler.getCacheStats(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.get()
+                .uri("/admin/caches")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).getCacheStats(any());
+    }
+
+    @Test
+    @DisplayName("Should route GET /admin/leaderboard to getLeaderboardStats handler")
+    void shouldRouteToGetLeaderboardStats() {
+        when(handler.getLeaderboardStats(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.get()
+                .uri("/admin/leaderboard")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).getLeaderboardStats(any());
+    }
+
+    @Test
+    @DisplayName("Should route GET /admin/events to getEventStats handler")
+    void shouldRouteToGetEventStats() {
+        when(handler.getEventStats(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.get()
+                .uri("/admin/events")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).getEventStats(any());
+    }
+
+    @Test
+    @DisplayName("Should route POST /admin/membership/migrate to migrateMembership handler")
+    void shouldRouteToMigrateMembership() {
+        when(handler.migrateMembership(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.post()
+                .uri("/admin/membership/migrate")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).migrateMembership(any());
+    }
+
+    @Test
+    @DisplayName("Should route POST /admin/membership/compact to compactMembership handler")
+    void shouldRouteToCompactMembership() {
+        when(handler.compactMembership(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.post()
+                .uri("/admin/membership/compact")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).compactMembership(any());
+    }
+}
@@ -1,6 +1,10 @@
 package org.franchise.management.entrypoints.webflux.router;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.franchise.management.application.config.IdempotencyProperties;
+import org.franchise.management.application.idempotency.IdempotencyService;
 import org.franchise.management.entrypoints.webflux.handler.BranchHandler;
+import org.franchise.management.entrypoints.webflux.util.IdempotencyFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,10 +23,12 @@ class BranchRouterTest {
 
     @BeforeEach
     void setUp() {
+        IdempotencyFilter idempotencyFilter = new IdempotencyFilter(mock(IdempotencyService.class),
+                new IdempotencyProperties(), new ObjectMapper());
         handler = mock(BranchHandler.class);
 
         BranchRouter router = new BranchRouter();
-        RouterFunction<ServerResponse> route = router.branchRoutes(handler);
+        RouterFunction<ServerResponse> route = router.branchRoutes(handler, idempotencyFilter);
 
         webTestClient = WebTestClient.bindToWebHandler(toWebHandler(route)).build();
     }
@@ -52,4 +58,17 @@ class BranchRouterTest {
 
         verify(handler, times(1)).updateBranchName(any());
     }
+
+    @Test
+    @DisplayName("Should route GET /franchises/{franchiseId}/branches to listBranches handler")
+    void shouldRouteToListBranches() {
+        when(handler.listBranches(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.get()
+                .uri("/franchises/123/branches")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).listBranches(any());
+    }
 }
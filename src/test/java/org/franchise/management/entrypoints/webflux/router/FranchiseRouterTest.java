@@ -1,6 +1,10 @@
 package org.franchise.management.entrypoints.webflux.router;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.franchise.management.application.config.IdempotencyProperties;
+import org.franchise.management.application.idempotency.IdempotencyService;
 import org.franchise.management.entrypoints.webflux.handler.FranchiseHandler;
+import org.franchise.management.entrypoints.webflux.util.IdempotencyFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,10 +24,12 @@ class FranchiseRouterTest {
 
     @BeforeEach
     void setUp() {
+        IdempotencyFilter idempotencyFilter = new IdempotencyFilter(mock(IdempotencyService.class),
+                new IdempotencyProperties(), new ObjectMapper());
         handler = mock(FranchiseHandler.class);
 
         FranchiseRouter router = new FranchiseRouter();
-        RouterFunction<ServerResponse> route = router.franchiseRoutes(handler);
+        RouterFunction<ServerResponse> route = router.franchiseRoutes(handler, idempotencyFilter);
 
         webTestClient = WebTestClient.bindToWebHandler(toWebHandler(route)).build();
     }
@@ -40,4 +46,30 @@ class FranchiseRouterTest {
 
         verify(handler, times(1)).createFranchise(any());
     }
+
+    @Test
+    @DisplayName("Should route GET /franchises/{franchiseId}/export to exportCatalog handler")
+    void shouldRouteToExportCatalog() {
+        when(handler.exportCatalog(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.get()
+                .uri("/franchises/123/export")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).exportCatalog(any());
+    }
+
+    @Test
+    @DisplayName("Should route GET /franchises/{franchiseId}/events to streamEvents handler")
+    void shouldRouteToStreamEvents() {
+        when(handler.streamEvents(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.get()
+                .uri("/franchises/123/events")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).streamEvents(any());
+    }
 }
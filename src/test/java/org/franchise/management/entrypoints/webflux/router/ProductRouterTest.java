@@ -1,9 +1,14 @@
 package org.franchise.management.entrypoints.webflux.router;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.franchise.management.application.config.IdempotencyProperties;
+import org.franchise.management.application.idempotency.IdempotencyService;
 import org.franchise.management.entrypoints.webflux.handler.ProductHandler;
+import org.franchise.management.entrypoints.webflux.util.IdempotencyFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerResponse;
@@ -20,9 +25,11 @@ class ProductRouterTest {
 
     @BeforeEach
     void setUp() {
+        IdempotencyFilter idempotencyFilter = new IdempotencyFilter(mock(IdempotencyService.class),
+                new IdempotencyProperties(), new ObjectMapper());
         handler = mock(ProductHandler.class);
         ProductRouter router = new ProductRouter();
-        RouterFunction<ServerResponse> route = router.productRoutes(handler);
+        RouterFunction<ServerResponse> route = router.productRoutes(handler, idempotencyFilter);
         webTestClient = WebTestClient.bindToWebHandler(toWebHandler(route)).build();
     }
 
@@ -39,6 +46,35 @@ class ProductRouterTest {
         verify(handler, times(1)).addProduct(any());
     }
 
+    @Test
+    @DisplayName("Should route GET /branches/{branchId}/products to listProducts handler")
+    void shouldRouteToListProducts() {
+        when(handler.listProducts(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.get()
+                .uri("/branches/123/products?sort=stock&limit=20")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).listProducts(any());
+    }
+
+    @Test
+    @DisplayName("Should route NDJSON POST /branches/{branchId}/products:import to importProducts handler")
+    void shouldRouteToImportProducts() {
+        when(handler.importProducts(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.post()
+                .uri("/branches/123/products:import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"name\":\"Café\",\"stock\":1}\n")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).importProducts(any());
+        verify(handler, never()).addProduct(any());
+    }
+
     @Test
     @DisplayName("Should route DELETE /branches/{branchId}/products/{productId} to deleteProduct handler")
     void shouldRouteToDeleteProduct() {
@@ -65,6 +101,32 @@ class ProductRouterTest {
         verify(handler, times(1)).updateStock(any());
     }
 
+    @Test
+    @DisplayName("Should route PATCH /products/{productId}/stock/delta to adjustStock handler")
+    void shouldRouteToAdjustStock() {
+        when(handler.adjustStock(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.patch()
+                .uri("/products/456/stock/delta")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).adjustStock(any());
+    }
+
+    @Test
+    @DisplayName("Should route POST /products/stock:batch to batchUpdateStock handler")
+    void shouldRouteToBatchUpdateStock() {
+        when(handler.batchUpdateStock(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.post()
+                .uri("/products/stock:batch")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).batchUpdateStock(any());
+    }
+
     @Test
     @DisplayName("Should route GET /franchises/{franchiseId}/products/max-stock to getMaxStockProducts handler")
     void shouldRouteToGetMaxStockProducts() {
@@ -78,6 +140,32 @@ class ProductRouterTest {
         verify(handler, times(1)).getMaxStockProducts(any());
     }
 
+    @Test
+    @DisplayName("Should route GET /franchises/{franchiseId}/products/top to getTopStockProducts handler")
+    void shouldRouteToGetTopStockProducts() {
+        when(handler.getTopStockProducts(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.get()
+                .uri("/franchises/789/products/top?n=5&perBranch=true")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).getTopStockProducts(any());
+    }
+
+    @Test
+    @DisplayName("Should route GET /franchises/{franchiseId}/products/low-stock to getLowStockProducts handler")
+    void shouldRouteToGetLowStockProducts() {
+        when(handler.getLowStockProducts(any())).thenReturn(ServerResponse.ok().build());
+
+        webTestClient.get()
+                .uri("/franchises/789/products/low-stock?below=3")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(handler, times(1)).getLowStockProducts(any());
+    }
+
     @Test
     @DisplayName("Should route PUT /products/{productId}/name to updateProductName handler")
     void shouldRouteToUpdateProductName() {
@@ -0,0 +1,188 @@
+package org.franchise.management.entrypoints.webflux.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.franchise.management.application.config.IdempotencyProperties;
+import org.franchise.management.application.idempotency.IdempotencyService;
+import org.franchise.management.domain.model.IdempotencyRecord;
+import org.franchise.management.infrastructure.config.BulkProperties;
+import org.franchise.management.infrastructure.drivenadapters.inmemory.InMemoryRepositoryAdapter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private final AtomicInteger executions = new AtomicInteger();
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyFilter filter = new IdempotencyFilter(idempotencyService, properties, new ObjectMapper());
+        webTestClient = WebTestClient.bindToRouterFunction(RouterFunctions.route(POST("/franchises"),
+                filter.apply(request -> request.bodyToMono(Map.class)
+                        .flatMap(body -> {
+                            executions.incrementAndGet();
+                            return "".equals(body.get("name"))
+                                    ? ResponseUtil.badRequest("El nombre es obligatorio")
+                                    : ResponseUtil.ok(Map.of("id", "f1", "name", body.get("name")));
+                        }))))
+                .build();
+    }
+
+    private WebTestClient.ResponseSpec post(String key, String name) {
+        WebTestClient.RequestBodySpec spec = webTestClient.post().uri("/franchises");
+        if (key != null) {
+            spec.header(IdempotencyFilter.HEADER, key);
+        }
+        return spec.bodyValue(Map.of("name", name)).exchange();
+    }
+
+    private static IdempotencyRecord completed(String fingerprint) {
+        return IdempotencyRecord.builder()
+                .key("k1")
+                .fingerprint(fingerprint)
+                .status(200)
+                .body("{\"id\":\"f1\",\"name\":\"Franquicia\"}")
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should pass requests without the header straight through")
+    void shouldIgnoreRequestsWithoutKey() {
+        post(null, "Franquicia").expectStatus().isOk();
+
+        assertEquals(1, executions.get());
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    @DisplayName("Should execute the first request and store its response")
+    void shouldStoreFirstResponse() {
+        when(idempotencyService.begin(eq("k1"), anyString())).thenReturn(Mono.empty());
+        when(idempotencyService.complete(eq("k1"), anyString(), eq(200), anyString())).thenReturn(Mono.empty());
+
+        post("k1", "Franquicia")
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(IdempotencyFilter.REPLAYED_HEADER)
+                .expectBody().jsonPath("$.id").isEqualTo("f1");
+
+        assertEquals(1, executions.get());
+        verify(idempotencyService).complete(eq("k1"), anyString(), eq(200),
+                argThat(body -> body.contains("\"id\":\"f1\"")));
+    }
+
+    @Test
+    @DisplayName("Should replay the stored response without executing the handler")
+    void shouldReplayCompletedResponse() {
+        when(idempotencyService.begin(eq("k1"), anyString()))
+                .thenAnswer(invocation -> Mono.just(completed(invocation.getArgument(1))));
+
+        post("k1", "Franquicia")
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(IdempotencyFilter.REPLAYED_HEADER, "true")
+                .expectBody().jsonPath("$.id").isEqualTo("f1");
+
+        assertEquals(0, executions.get());
+        verify(idempotencyService, never()).complete(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject the same key with another body and answer 409 while it is in flight")
+    void shouldRejectMismatchAndInFlight() {
+        when(idempotencyService.begin(eq("k1"), anyString()))
+                .thenReturn(Mono.just(completed("otra")))
+                .thenAnswer(invocation -> Mono.just(IdempotencyRecord.pending("k1", invocation.getArgument(1),
+                        Instant.now().plusSeconds(30))));
+
+        post("k1", "Franquicia").expectStatus().isBadRequest();
+        post("k1", "Franquicia").expectStatus().isEqualTo(409);
+
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should release the key when the handler answers with an error")
+    void shouldReleaseKeyOnError() {
+        when(idempotencyService.begin(eq("k1"), anyString())).thenReturn(Mono.empty());
+        when(idempotencyService.release("k1")).thenReturn(Mono.empty());
+
+        post("k1", "").expectStatus().isBadRequest();
+
+        verify(idempotencyService).release("k1");
+        verify(idempotencyService, never()).complete(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should finish and store a request the client cancelled, and replay it on retry")
+    void shouldFinishCancelledRequestAndReplayOnRetry() {
+        properties.setLockTimeout(Duration.ofMillis(60));
+        IdempotencyFilter filter = new IdempotencyFilter(new IdempotencyService(
+                new InMemoryRepositoryAdapter(new BulkProperties()), properties), properties, new ObjectMapper());
+        Sinks.Empty<Void> gate = Sinks.empty();
+        HandlerFunction<ServerResponse> slow = request -> Mono.fromRunnable(executions::incrementAndGet)
+                .then(gate.asMono())
+                .then(ResponseUtil.ok(Map.of("id", "f1")));
+
+        StepVerifier.create(filter.filter(request("k1"), slow))
+                .thenCancel()
+                .verify();
+        // Varias veces lockTimeout: sin renovar, la reserva habría caducado
+        Mono.delay(Duration.ofMillis(200)).block();
+        StepVerifier.create(filter.filter(request("k1"), slow))
+                .expectNextMatches(response -> response.statusCode().value() == 409)
+                .verifyComplete();
+
+        gate.tryEmitEmpty();
+        StepVerifier.create(Mono.delay(Duration.ofMillis(20)).then(filter.filter(request("k1"), slow)))
+                .expectNextMatches(response -> response.statusCode().is2xxSuccessful()
+                        && "true".equals(response.headers().getFirst(IdempotencyFilter.REPLAYED_HEADER)))
+                .verifyComplete();
+        assertEquals(1, executions.get());
+    }
+
+    private static ServerRequest request(String key) {
+        return ServerRequest.create(MockServerWebExchange.from(MockServerHttpRequest.post("/franchises")
+                        .header(IdempotencyFilter.HEADER, key)
+                        .body("{\"name\":\"Franquicia\"}")),
+                HandlerStrategies.withDefaults().messageReaders());
+    }
+
+    @Test
+    @DisplayName("Should reject a key longer than the maximum")
+    void shouldRejectLongKey() {
+        post("k".repeat(properties.getMaxKeyLength() + 1), "Franquicia").expectStatus().isBadRequest();
+
+        assertEquals(0, executions.get());
+        verifyNoInteractions(idempotencyService);
+    }
+}
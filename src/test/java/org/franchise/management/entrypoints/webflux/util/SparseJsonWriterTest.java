@@ -0,0 +1,65 @@
+package org.franchise.management.entrypoints.webflux.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.franchise.management.domain.model.CursorPage;
+import org.franchise.management.domain.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+class SparseJsonWriterTest {
+
+    private final Product sparse = Product.builder().id("p1").stock(5).build();
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        SparseJsonWriter writer = new SparseJsonWriter(new ObjectMapper().findAndRegisterModules());
+        webTestClient = WebTestClient.bindToRouterFunction(RouterFunctions
+                .route(GET("/sparse"), request -> writer.ok(new CursorPage<>(List.of(sparse), null)))
+                .andRoute(GET("/stream"), request -> writer.stream(request, Flux.just(sparse)))
+                .andRoute(GET("/full"), request -> ResponseUtil.ok(sparse)))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should leave unselected fields out of sparse pages")
+    void shouldOmitNullFieldsInSparsePages() {
+        webTestClient.get().uri("/sparse")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].stock").isEqualTo(5)
+                .jsonPath("$.items[0].name").doesNotExist()
+                .jsonPath("$.nextCursor").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should leave unselected fields out of each streamed element")
+    void shouldOmitNullFieldsInStreams() {
+        webTestClient.get().uri("/stream")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo("p1")
+                .jsonPath("$[0].branchId").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should keep null fields in responses that are not sparse")
+    void shouldKeepNullFieldsElsewhere() {
+        webTestClient.get().uri("/full")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertTrue(body.contains("\"name\":null")));
+    }
+}
@@ -0,0 +1,69 @@
+package org.franchise.management.infrastructure.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.event.ConnectionPoolListener;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class MongoConfigTest {
+
+    private final MongoConfig mongoConfig = new MongoConfig();
+
+    @Test
+    @DisplayName("Should apply pool, timeouts, compression and read preference from franchise.mongo")
+    void shouldApplyClientProperties() {
+        MongoClientProperties properties = new MongoClientProperties();
+        properties.getPool().setMinSize(10);
+        properties.getPool().setMaxSize(200);
+        properties.getPool().setMaxConnecting(4);
+        properties.getPool().setMaxWaitTime(Duration.ofSeconds(1));
+        properties.getPool().setMaxIdleTime(Duration.ofMinutes(5));
+        properties.setConnectTimeout(Duration.ofSeconds(2));
+        properties.setServerSelectionTimeout(Duration.ofSeconds(5));
+        properties.setCompressors(List.of("zstd", "snappy"));
+        properties.setReadPreference("primaryPreferred");
+
+        MongoClientSettings.Builder builder = MongoClientSettings.builder();
+        mongoConfig.mongoClientTuning(properties).customize(builder);
+        MongoClientSettings settings = builder.build();
+
+        assertEquals(10, settings.getConnectionPoolSettings().getMinSize());
+        assertEquals(200, settings.getConnectionPoolSettings().getMaxSize());
+        assertEquals(4, settings.getConnectionPoolSettings().getMaxConnecting());
+        assertEquals(1000, settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS));
+        assertEquals(300, settings.getConnectionPoolSettings().getMaxConnectionIdleTime(TimeUnit.SECONDS));
+        assertEquals(2000, settings.getSocketSettings().getConnectTimeout(TimeUnit.MILLISECONDS));
+        assertEquals(5000, settings.getClusterSettings().getServerSelectionTimeout(TimeUnit.MILLISECONDS));
+        assertEquals(List.of("zstd", "snappy"),
+                settings.getCompressorList().stream().map(MongoCompressor::getName).toList());
+        assertEquals(ReadPreference.primaryPreferred(), settings.getReadPreference());
+    }
+
+    @Test
+    @DisplayName("Should keep pool listeners registered before the customizer")
+    void shouldKeepPoolListeners() {
+        ConnectionPoolListener metricsListener = mock(ConnectionPoolListener.class);
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(metricsListener));
+
+        mongoConfig.mongoClientTuning(new MongoClientProperties()).customize(builder);
+
+        assertTrue(builder.build().getConnectionPoolSettings().getConnectionPoolListeners()
+                .contains(metricsListener));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown compressors")
+    void shouldRejectUnknownCompressor() {
+        assertThrows(IllegalArgumentException.class, () -> MongoConfig.compressors(List.of("lz4")));
+    }
+}
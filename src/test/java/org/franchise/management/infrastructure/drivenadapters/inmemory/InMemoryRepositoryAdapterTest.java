@@ -0,0 +1,359 @@
+package org.franchise.management.infrastructure.drivenadapters.inmemory;
+
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.CatalogChangeEvent;
+import org.franchise.management.domain.model.CatalogExportRecord;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.IdempotencyRecord;
+import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.SparseFields;
+import org.franchise.management.domain.model.StockChange;
+import org.franchise.management.domain.model.StockUpdateResult;
+import org.franchise.management.infrastructure.config.BulkProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class InMemoryRepositoryAdapterTest {
+
+    private InMemoryRepositoryAdapter adapter;
+    private Franchise franchise;
+    private Branch branch;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new InMemoryRepositoryAdapter(new BulkProperties());
+        franchise = adapter.save(Franchise.builder().name("Franquicia").build()).block();
+        branch = adapter.addBranchToFranchise(franchise.getId(), Branch.builder().name("Centro").build()).block();
+    }
+
+    private Product addProduct(String name, int stock) {
+        return adapter.addProductToBranch(branch.getId(), Product.builder().name(name).stock(stock).build()).block();
+    }
+
+    @Test
+    @DisplayName("Should assign ids and record branch membership")
+    void shouldAssignIdsAndRecordMembership() {
+        Product product = addProduct("Café", 5);
+
+        assertNotNull(franchise.getId());
+        assertNotNull(product.getId());
+        assertEquals(branch.getId(), product.getBranchId());
+
+        StepVerifier.create(adapter.findAllByFranchise(franchise.getId()))
+                .expectNextMatches(b -> b.getId().equals(branch.getId()))
+                .verifyComplete();
+        StepVerifier.create(adapter.findById(branch.getId()))
+                .expectNextMatches(b -> b.getProductIds().contains(product.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should not expose stored documents to callers")
+    void shouldNotExposeStoredDocuments() {
+        Branch read = adapter.findById(branch.getId()).block();
+        read.setName("Modificado fuera");
+
+        StepVerifier.create(adapter.findById(branch.getId()))
+                .expectNextMatches(b -> b.getName().equals("Centro"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should fail when adding a branch to a missing franchise")
+    void shouldFailWhenFranchiseMissing() {
+        StepVerifier.create(adapter.addBranchToFranchise("missing", Branch.builder().name("X").build()))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException
+                        && e.getMessage().contains("Franquicia no encontrada"))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should return empty when adding a product to a missing branch")
+    void shouldReturnEmptyWhenBranchMissing() {
+        StepVerifier.create(adapter.addProductToBranch("missing", Product.builder().name("X").stock(1).build()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should keep the max-stock product up to date after stock writes")
+    void shouldTrackMaxStockAfterWrites() {
+        Product low = addProduct("Té", 3);
+        Product high = addProduct("Café", 10);
+
+        StepVerifier.create(adapter.findMaxStockProductByBranch(franchise.getId()))
+                .expectNextMatches(p -> p.getId().equals(high.getId()))
+                .verifyComplete();
+
+        StepVerifier.create(adapter.updateProductStock(low.getId(), 20))
+                .expectNextMatches(p -> p.getStock() == 20)
+                .verifyComplete();
+
+        StepVerifier.create(adapter.findLeadersByFranchise(franchise.getId()))
+                .expectNextMatches(p -> p.getId().equals(low.getId()) && p.getStock() == 20)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should keep a product indexed when its stock is set to the same value")
+    void shouldKeepIndexOnSameStockWrite() {
+        addProduct("Té", 3);
+        Product high = addProduct("Café", 10);
+
+        StepVerifier.create(adapter.updateProductStock(high.getId(), 10))
+                .expectNextMatches(p -> p.getStock() == 10)
+                .verifyComplete();
+
+        StepVerifier.create(adapter.findMaxStockProductByBranch(franchise.getId()))
+                .expectNextMatches(p -> p.getId().equals(high.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should rank top stock across the franchise and per branch")
+    void shouldRankTopStock() {
+        Branch north = adapter.addBranchToFranchise(franchise.getId(), Branch.builder().name("Norte").build()).block();
+        Product tea = addProduct("Té", 3);
+        Product coffee = addProduct("Café", 10);
+        Product water = adapter.addProductToBranch(north.getId(), Product.builder().name("Agua").stock(7).build())
+                .block();
+
+        StepVerifier.create(adapter.findTopStockProducts(franchise, 2, false, SparseFields.PRODUCT))
+                .expectNextMatches(p -> p.getId().equals(coffee.getId()))
+                .expectNextMatches(p -> p.getId().equals(water.getId()))
+                .verifyComplete();
+
+        StepVerifier.create(adapter.findTopStockProducts(franchise, 1, true, SparseFields.PRODUCT)
+                        .map(Product::getId).collectList())
+                .expectNextMatches(ids -> ids.size() == 2 && ids.contains(coffee.getId())
+                        && ids.contains(water.getId()) && !ids.contains(tea.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should list products below the threshold from lowest to highest")
+    void shouldListLowStock() {
+        Product empty = addProduct("Leche", 0);
+        Product low = addProduct("Té", 3);
+        addProduct("Café", 5);
+        addProduct("Azúcar", 10);
+
+        StepVerifier.create(adapter.findLowStockProducts(franchise, 5, 10, SparseFields.PRODUCT))
+                .expectNextMatches(p -> p.getId().equals(empty.getId()))
+                .expectNextMatches(p -> p.getId().equals(low.getId()))
+                .verifyComplete();
+
+        StepVerifier.create(adapter.findLowStockProducts(franchise, 5, 1, Set.of("stock")))
+                .expectNextMatches(p -> p.getId().equals(empty.getId()) && p.getStock() == 0 && p.getName() == null)
+                .verifyComplete();
+
+        // La proyección no toca el producto guardado
+        StepVerifier.create(adapter.findLowStockProducts(franchise, 5, 1, SparseFields.PRODUCT))
+                .expectNextMatches(p -> "Leche".equals(p.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should reserve an idempotency key once and free it when released or expired")
+    void shouldReserveIdempotencyKeys() {
+        Instant later = Instant.now().plusSeconds(30);
+
+        StepVerifier.create(adapter.reserve(IdempotencyRecord.pending("k1", "abc", later)))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(adapter.reserve(IdempotencyRecord.pending("k1", "abc", later)))
+                .expectNext(false)
+                .verifyComplete();
+
+        adapter.release("k1").block();
+        StepVerifier.create(adapter.reserve(IdempotencyRecord.pending("k1", "abc", Instant.now().minusSeconds(1))))
+                .expectNext(true)
+                .verifyComplete();
+
+        // Caducada: no se lee y se puede volver a reservar
+        StepVerifier.create(adapter.findByKey("k1"))
+                .verifyComplete();
+        StepVerifier.create(adapter.reserve(IdempotencyRecord.pending("k1", "abc", later)))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should publish a change event for every product write")
+    void shouldPublishChangeEvents() {
+        StepVerifier.create(adapter.watch(null).take(3))
+                .then(() -> {
+                    Product product = addProduct("Café", 5);
+                    adapter.updateProductStock(product.getId(), 8).block();
+                    adapter.deleteProductFromBranch(branch.getId(), product.getId()).block();
+                })
+                .expectNextMatches(e -> e.getType() == CatalogChangeEvent.Type.PRODUCT_CHANGED
+                        && franchise.getId().equals(e.getFranchiseId()) && e.getStock() == 5)
+                .expectNextMatches(e -> e.getStock() == 8)
+                .expectNextMatches(e -> e.getType() == CatalogChangeEvent.Type.PRODUCT_DELETED
+                        && e.getStock() == null)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should reject an adjustment that would leave negative stock")
+    void shouldRejectNegativeAdjustment() {
+        Product product = addProduct("Café", 2);
+
+        StepVerifier.create(adapter.adjustProductStock(product.getId(), -3))
+                .expectErrorMatches(e -> e.getMessage().contains("Stock insuficiente"))
+                .verify();
+        StepVerifier.create(adapter.adjustProductStock(product.getId(), -2))
+                .expectNextMatches(p -> p.getStock() == 0)
+                .verifyComplete();
+        StepVerifier.create(adapter.adjustProductStock("missing", 1))
+                .expectErrorMatches(e -> e.getMessage().contains("Producto no encontrado"))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should reject adjustments that would overflow the stock")
+    void shouldRejectOverflowingAdjustment() {
+        Product product = addProduct("Café", 2);
+
+        StepVerifier.create(adapter.adjustProductStock(product.getId(), Integer.MAX_VALUE))
+                .expectErrorMatches(e -> e.getMessage().contains("stock máximo"))
+                .verify();
+        StepVerifier.create(adapter.adjustProductStock(product.getId(), Integer.MIN_VALUE))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should not lose concurrent stock adjustments")
+    void shouldNotLoseConcurrentAdjustments() {
+        Product product = addProduct("Café", 0);
+
+        StepVerifier.create(Flux.range(0, 1000)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .flatMap(i -> adapter.adjustProductStock(product.getId(), 1))
+                .sequential()
+                .then(adapter.findMaxStockProductByBranch(franchise.getId()).single()))
+                .expectNextMatches(p -> p.getStock() == 1000)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should apply coalesced changes and skip missing products")
+    void shouldApplyCoalescedChanges() {
+        Product cafe = addProduct("Café", 2);
+        Product te = addProduct("Té", 5);
+
+        StepVerifier.create(adapter.applyStockChanges(List.of(
+                        StockChange.set(cafe.getId(), 9),
+                        StockChange.increment(te.getId(), 3),
+                        StockChange.increment("missing", 1))))
+                .expectNextMatches(p -> p.getId().equals(cafe.getId()) && p.getStock() == 9)
+                .expectNextMatches(p -> p.getId().equals(te.getId()) && p.getStock() == 8)
+                .verifyComplete();
+        StepVerifier.create(adapter.applyStockChanges(List.of(StockChange.increment(te.getId(), -1))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should skip coalesced increments that would overflow stock")
+    void shouldSkipOverflowingCoalescedIncrements() {
+        Product cafe = addProduct("Café", Integer.MAX_VALUE - 1);
+        Product te = addProduct("Té", 5);
+
+        StepVerifier.create(adapter.applyStockChanges(List.of(
+                        StockChange.increment(cafe.getId(), 2),
+                        StockChange.increment(te.getId(), 1))))
+                .expectNextMatches(p -> p.getId().equals(te.getId()) && p.getStock() == 6)
+                .verifyComplete();
+        StepVerifier.create(adapter.findMaxStockProductByBranch(franchise.getId()))
+                .expectNextMatches(p -> p.getId().equals(cafe.getId()) && p.getStock() == Integer.MAX_VALUE - 1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should move a product inserted with an existing id to the new branch")
+    void shouldMoveProductInsertedWithExistingId() {
+        Product product = addProduct("Café", 5);
+        Branch other = adapter.addBranchToFranchise(franchise.getId(), Branch.builder().name("Norte").build())
+                .block();
+
+        adapter.addProductToBranch(other.getId(), Product.builder().id(product.getId()).name("Café").stock(5).build())
+                .block();
+
+        StepVerifier.create(adapter.findById(branch.getId()))
+                .expectNextMatches(b -> !b.getProductIds().contains(product.getId()))
+                .verifyComplete();
+        StepVerifier.create(adapter.findById(other.getId()))
+                .expectNextMatches(b -> b.getProductIds().contains(product.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should delete a product and drop it from the branch index")
+    void shouldDeleteProduct() {
+        Product product = addProduct("Café", 10);
+
+        StepVerifier.create(adapter.deleteProductFromBranch(branch.getId(), product.getId()))
+                .verifyComplete();
+
+        StepVerifier.create(adapter.findMaxStockProductByBranch(franchise.getId()))
+                .verifyComplete();
+        StepVerifier.create(adapter.deleteProductFromBranch(branch.getId(), product.getId()))
+                .expectErrorMatches(e -> e.getMessage().contains("Producto no encontrado"))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should report bulk stock results in input order")
+    void shouldReportBulkResultsInOrder() {
+        Product product = addProduct("Café", 1);
+
+        StepVerifier.create(adapter.bulkUpdateProductStock(Flux.just(
+                Product.builder().id(product.getId()).stock(5).build(),
+                Product.builder().id("missing").stock(1).build(),
+                Product.builder().id(product.getId()).stock(-1).build(),
+                Product.builder().id(product.getId()).stock(7).build())))
+                .expectNextMatches(r -> r.getStatus() == StockUpdateResult.Status.SUPERSEDED)
+                .expectNextMatches(r -> r.getStatus() == StockUpdateResult.Status.NOT_FOUND)
+                .expectNextMatches(r -> r.getStatus() == StockUpdateResult.Status.INVALID)
+                .expectNextMatches(r -> r.getStatus() == StockUpdateResult.Status.UPDATED
+                        && branch.getId().equals(r.getBranchId()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should import products and export the catalog")
+    void shouldImportAndExport() {
+        StepVerifier.create(adapter.importProductsToBranch(branch.getId(), Flux.range(0, 3)
+                .map(i -> Product.builder().name("Importado " + i).stock(i).build())))
+                .expectNext(3L)
+                .verifyComplete();
+
+        StepVerifier.create(adapter.exportCatalog(franchise))
+                .expectNextMatches(r -> r.getType() == CatalogExportRecord.Type.FRANCHISE)
+                .expectNextMatches(r -> r.getType() == CatalogExportRecord.Type.BRANCH)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should fail the import when the branch does not exist")
+    void shouldFailImportWhenBranchMissing() {
+        StepVerifier.create(adapter.importProductsToBranch("missing", Flux.empty()))
+                .expectErrorMatches(e -> e.getMessage().contains("Sucursal no encontrada"))
+                .verify();
+    }
+}
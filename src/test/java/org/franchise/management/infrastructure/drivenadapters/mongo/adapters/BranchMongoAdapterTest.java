@@ -2,6 +2,12 @@ package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
 
 import org.franchise.management.domain.model.Branch;
 import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.PageCursor;
+import org.franchise.management.domain.model.SparseFields;
+import org.franchise.management.infrastructure.config.BranchListingProperties;
+import org.franchise.management.infrastructure.config.LookupCacheProperties;
+import org.franchise.management.infrastructure.config.MembershipProperties;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
 import org.franchise.management.infrastructure.drivenadapters.mongo.repository.BranchMongoRepository;
 import org.franchise.management.infrastructure.drivenadapters.mongo.repository.FranchiseMongoRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,15 +15,28 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +48,18 @@ class BranchMongoAdapterTest {
     @Mock
     private FranchiseMongoRepository franchiseMongoRepository;
 
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Spy
+    private LookupCaches lookupCaches = new LookupCaches(new LookupCacheProperties());
+
+    @Spy
+    private MembershipProperties membershipProperties = new MembershipProperties();
+
+    @Spy
+    private BranchListingProperties branchListingProperties = new BranchListingProperties();
+
     @InjectMocks
     private BranchMongoAdapter branchMongoAdapter;
 
@@ -55,7 +86,8 @@ class BranchMongoAdapterTest {
     void shouldAddBranchToExistingFranchise() {
         when(franchiseMongoRepository.findById(franchiseId)).thenReturn(Mono.just(franchise));
         when(branchMongoRepository.save(any(Branch.class))).thenReturn(Mono.just(branch));
-        when(franchiseMongoRepository.save(any(Franchise.class))).thenReturn(Mono.just(franchise));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Franchise.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
 
         StepVerifier.create(branchMongoAdapter.addBranchToFranchise(franchiseId, branch))
                 .expectNext(branch)
@@ -63,7 +95,8 @@ class BranchMongoAdapterTest {
 
         verify(franchiseMongoRepository).findById(franchiseId);
         verify(branchMongoRepository).save(branch);
-        verify(franchiseMongoRepository).save(franchise);
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(Franchise.class));
+        verify(franchiseMongoRepository, never()).save(any());
     }
 
     @Test
@@ -83,14 +116,54 @@ class BranchMongoAdapterTest {
     @DisplayName("Should list all branches of a franchise")
     void shouldFindAllBranchesByFranchise() {
         when(franchiseMongoRepository.findById(franchiseId)).thenReturn(Mono.just(franchise));
-        when(branchMongoRepository.findById(branchId)).thenReturn(Mono.just(branch));
+        when(mongoTemplate.find(any(Query.class), eq(Branch.class))).thenReturn(Flux.just(branch));
 
         StepVerifier.create(branchMongoAdapter.findAllByFranchise(franchiseId))
                 .expectNext(branch)
                 .verifyComplete();
 
         verify(franchiseMongoRepository).findById(franchiseId);
-        verify(branchMongoRepository).findById(branchId);
+        verify(branchMongoRepository, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("Should list branches with one $in query per chunk, in branchIds order")
+    void shouldListBranchesInChunksPreservingOrder() {
+        branchListingProperties.setChunkSize(2);
+        List<String> ids = List.of("b1", "b2", "b3", "b4", "b5");
+        franchise.setBranchIds(ids);
+        when(franchiseMongoRepository.findById(franchiseId)).thenReturn(Mono.just(franchise));
+        when(mongoTemplate.find(any(Query.class), eq(Branch.class))).thenAnswer(invocation -> {
+            List<String> chunk = invocation.<Query>getArgument(0).getQueryObject()
+                    .get("_id", Document.class).getList("$in", String.class);
+            // El servidor no garantiza el orden del $in
+            List<Branch> found = new ArrayList<>(chunk.stream()
+                    .filter(id -> !"b3".equals(id))
+                    .map(id -> Branch.builder().id(id).build())
+                    .toList());
+            Collections.reverse(found);
+            return Flux.fromIterable(found);
+        });
+
+        StepVerifier.create(branchMongoAdapter.findAllByFranchise(franchiseId).map(Branch::getId))
+                .expectNext("b1", "b2", "b4", "b5")
+                .verifyComplete();
+
+        verify(mongoTemplate, times(3)).find(any(Query.class), eq(Branch.class));
+    }
+
+    @Test
+    @DisplayName("Should only query branches missing from the cache when listing")
+    void shouldListCachedBranchesWithoutQuery() {
+        when(franchiseMongoRepository.findById(franchiseId)).thenReturn(Mono.just(franchise));
+        when(branchMongoRepository.findById(branchId)).thenReturn(Mono.just(branch));
+
+        StepVerifier.create(branchMongoAdapter.findById(branchId)
+                .thenMany(branchMongoAdapter.findAllByFranchise(franchiseId)))
+                .expectNext(branch)
+                .verifyComplete();
+
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Branch.class));
     }
 
     @Test
@@ -118,25 +191,161 @@ class BranchMongoAdapterTest {
     @Test
     @DisplayName("Should update branch name successfully")
     void shouldUpdateBranchName() {
-        when(branchMongoRepository.findById(branchId)).thenReturn(Mono.just(branch));
-        when(branchMongoRepository.save(any())).thenReturn(Mono.just(branch));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Branch.class))).thenReturn(Mono.just(branch));
 
         StepVerifier.create(branchMongoAdapter.updateBranchName(branchId, "New Name"))
                 .expectNext(branch)
                 .verifyComplete();
 
-        verify(branchMongoRepository).findById(branchId);
-        verify(branchMongoRepository).save(branch);
+        verify(mongoTemplate).findAndModify(any(Query.class),
+                argThat(update -> update.getUpdateObject().get("$set", Document.class).keySet()
+                        .equals(Set.of("name", "updatedAt"))),
+                argThat(FindAndModifyOptions::isReturnNew), eq(Branch.class));
+        verify(branchMongoRepository, never()).findById(anyString());
+        verify(branchMongoRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("Should return empty when branch not found while updating name")
     void shouldReturnEmptyWhenBranchNotFoundOnUpdate() {
-        when(branchMongoRepository.findById(branchId)).thenReturn(Mono.empty());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Branch.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(branchMongoAdapter.updateBranchName(branchId, "New Name"))
                 .verifyComplete();
 
         verify(branchMongoRepository, never()).save(any());
     }
+
+    @Test
+    @DisplayName("Should serve repeated branch lookups from the cache")
+    void shouldServeRepeatedBranchLookupsFromCache() {
+        when(branchMongoRepository.findById(branchId)).thenReturn(Mono.just(branch));
+
+        StepVerifier.create(branchMongoAdapter.findById(branchId).then(branchMongoAdapter.findById(branchId)))
+                .expectNext(branch)
+                .verifyComplete();
+
+        verify(branchMongoRepository, times(1)).findById(branchId);
+    }
+
+    @Test
+    @DisplayName("Should invalidate the cached branch after a name update")
+    void shouldInvalidateCachedBranchAfterNameUpdate() {
+        when(branchMongoRepository.findById(branchId)).thenReturn(Mono.just(branch));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Branch.class))).thenReturn(Mono.just(branch));
+
+        StepVerifier.create(branchMongoAdapter.findById(branchId)
+                .then(branchMongoAdapter.updateBranchName(branchId, "New Name"))
+                .then(branchMongoAdapter.findById(branchId)))
+                .expectNext(branch)
+                .verifyComplete();
+
+        verify(branchMongoRepository, times(2)).findById(branchId);
+    }
+
+    @Test
+    @DisplayName("Should add branch without updating the franchise in REFERENCE mode")
+    void shouldAddBranchWithoutFranchiseUpdateInReferenceMode() {
+        membershipProperties.setMode(MembershipProperties.Mode.REFERENCE);
+        when(franchiseMongoRepository.findById(franchiseId)).thenReturn(Mono.just(franchise));
+        when(branchMongoRepository.save(any(Branch.class))).thenReturn(Mono.just(branch));
+
+        StepVerifier.create(branchMongoAdapter.addBranchToFranchise(franchiseId, branch))
+                .expectNext(branch)
+                .verifyComplete();
+
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(Franchise.class));
+    }
+
+    @Test
+    @DisplayName("Should list branches by franchiseId in REFERENCE mode")
+    void shouldListBranchesByReferenceInReferenceMode() {
+        membershipProperties.setMode(MembershipProperties.Mode.REFERENCE);
+        when(franchiseMongoRepository.findById(franchiseId)).thenReturn(Mono.just(franchise));
+        when(branchMongoRepository.findByFranchiseId(franchiseId)).thenReturn(Flux.just(branch));
+
+        StepVerifier.create(branchMongoAdapter.findAllByFranchise(franchiseId))
+                .expectNext(branch)
+                .verifyComplete();
+
+        verify(branchMongoRepository, never()).findById(any(String.class));
+    }
+
+    @Test
+    @DisplayName("Should page EMBEDDED branches by sorted id with a projected read or the branch cache")
+    void shouldPageEmbeddedBranchesById() {
+        franchise.setBranchIds(List.of("b4", "b1", "b3", "b2", "b5"));
+        when(mongoTemplate.find(any(Query.class), eq(Branch.class))).thenAnswer(invocation -> Flux.fromIterable(
+                invocation.<Query>getArgument(0).getQueryObject().get("_id", Document.class)
+                        .getList("$in", String.class).stream()
+                        .map(id -> Branch.builder().id(id).build())
+                        .toList()));
+
+        // Sin productIds: $in proyectado, que no llena la caché
+        StepVerifier.create(branchMongoAdapter.findPageByFranchise(franchise, PageCursor.of("b1"), 2,
+                        SparseFields.BRANCH_DEFAULT))
+                .expectNextMatches(page -> page.getItems().stream().map(Branch::getId).toList()
+                        .equals(List.of("b2", "b3"))
+                        && page.getItems().get(0).getProductIds() == null
+                        && PageCursor.of("b3").equals(PageCursor.decode(page.getNextCursor())))
+                .verifyComplete();
+        verify(mongoTemplate).find(argThat((Query query) -> query.getFieldsObject().containsKey("name")
+                && !query.getFieldsObject().containsKey("productIds")), eq(Branch.class));
+
+        // Con productIds: documentos completos por la caché
+        StepVerifier.create(branchMongoAdapter.findPageByFranchise(franchise, PageCursor.of("b1"), 2,
+                        SparseFields.BRANCH))
+                .expectNextMatches(page -> page.getItems().get(0).getProductIds() != null)
+                .verifyComplete();
+
+        // Ya en caché: sin consulta y sin recortar la entrada cacheada
+        StepVerifier.create(branchMongoAdapter.findPageByFranchise(franchise, PageCursor.of("b1"), 2,
+                        SparseFields.BRANCH_DEFAULT))
+                .expectNextMatches(page -> page.getItems().get(0).getProductIds() == null)
+                .verifyComplete();
+        StepVerifier.create(branchMongoAdapter.findPageByFranchise(franchise, PageCursor.of("b1"), 2,
+                        SparseFields.BRANCH))
+                .expectNextMatches(page -> page.getItems().get(0).getProductIds() != null)
+                .verifyComplete();
+
+        verify(mongoTemplate, times(2)).find(argThat((Query query) -> query.getQueryObject()
+                .get("_id", Document.class).getList("$in", String.class).equals(List.of("b2", "b3"))),
+                eq(Branch.class));
+    }
+
+    @Test
+    @DisplayName("Should page REFERENCE branches with an _id range and limit + 1")
+    void shouldPageReferenceBranchesByRange() {
+        membershipProperties.setMode(MembershipProperties.Mode.REFERENCE);
+        when(mongoTemplate.find(any(Query.class), eq(Branch.class)))
+                .thenReturn(Flux.just(Branch.builder().id("b2").build()));
+
+        StepVerifier.create(branchMongoAdapter.findPageByFranchise(franchise, PageCursor.of("b1"), 2,
+                        SparseFields.BRANCH))
+                .expectNextMatches(page -> page.getItems().size() == 1 && page.getNextCursor() == null)
+                .verifyComplete();
+
+        verify(mongoTemplate).find(argThat((Query query) -> query.getLimit() == 3
+                && franchiseId.equals(query.getQueryObject().getString("franchiseId"))
+                && "b1".equals(query.getQueryObject().get("_id", Document.class).get("$gt"))
+                && query.getSortObject().equals(new Document("_id", 1))
+                && query.getFieldsObject().containsKey("productIds")), eq(Branch.class));
+    }
+
+    @Test
+    @DisplayName("Should check a branch exists without loading it")
+    void shouldCheckBranchExists() {
+        when(mongoTemplate.exists(any(Query.class), eq(Branch.class))).thenReturn(Mono.just(false));
+
+        StepVerifier.create(branchMongoAdapter.existsById("missing"))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(mongoTemplate).exists(argThat((Query query) -> "missing".equals(query.getQueryObject().get("_id"))),
+                eq(Branch.class));
+        verifyNoInteractions(branchMongoRepository);
+    }
 }
@@ -0,0 +1,149 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
+
+import org.bson.Document;
+import org.franchise.management.application.config.StockLeadersProperties;
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.BranchStockLeader;
+import org.franchise.management.domain.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BranchStockLeaderMongoAdapterTest {
+
+        @Mock
+        private ReactiveMongoTemplate mongoTemplate;
+
+        @Spy
+        private StockLeadersProperties stockLeadersProperties = new StockLeadersProperties();
+
+        @InjectMocks
+        private BranchStockLeaderMongoAdapter adapter;
+
+        private Branch branch;
+        private Product product;
+
+        @BeforeEach
+        void setUp() {
+                stockLeadersProperties.setEnabled(true);
+
+                branch = Branch.builder()
+                                .id("branch1")
+                                .franchiseId("franchise1")
+                                .build();
+
+                product = Product.builder()
+                                .id("product1")
+                                .name("Café")
+                                .stock(30)
+                                .branchId("branch1")
+                                .build();
+        }
+
+        @Test
+        @DisplayName("Should refresh the branch leader with one aggregation and a conditional $merge")
+        void shouldRefreshLeaderWithConditionalMerge() {
+                when(mongoTemplate.aggregate(any(Aggregation.class), eq("branches"), eq(Document.class)))
+                                .thenReturn(Flux.empty());
+
+                StepVerifier.create(adapter.refresh("branch1"))
+                                .verifyComplete();
+
+                ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+                verify(mongoTemplate).aggregate(captor.capture(), eq("branches"), eq(Document.class));
+                List<Document> pipeline = captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+                Document unwind = pipeline.get(3).get("$unwind", Document.class);
+                Document merge = pipeline.get(pipeline.size() - 1).get("$merge", Document.class);
+                assertEquals(true, unwind.get("preserveNullAndEmptyArrays"));
+                assertEquals("branch_stock_leaders", merge.get("into"));
+                assertTrue(merge.get("whenMatched").toString().contains("$$new.updatedAt"));
+                verify(mongoTemplate, never()).save(any(BranchStockLeader.class));
+        }
+
+        @Test
+        @DisplayName("Should not touch Mongo when the projection is disabled")
+        void shouldSkipRefreshWhenDisabled() {
+                stockLeadersProperties.setEnabled(false);
+
+                StepVerifier.create(adapter.refresh("branch1"))
+                                .verifyComplete();
+
+                verifyNoInteractions(mongoTemplate);
+        }
+
+        @Test
+        @DisplayName("Should swallow refresh errors so the original write succeeds")
+        void shouldSwallowRefreshErrors() {
+                when(mongoTemplate.aggregate(any(Aggregation.class), eq("branches"), eq(Document.class)))
+                                .thenReturn(Flux.error(new RuntimeException("Database error")));
+
+                StepVerifier.create(adapter.refresh("branch1"))
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should read leaders of a franchise as products")
+        void shouldFindLeadersByFranchise() {
+                BranchStockLeader leader = BranchStockLeader.of(branch, product);
+                when(mongoTemplate.find(any(Query.class), eq(BranchStockLeader.class))).thenReturn(Flux.just(leader));
+                when(mongoTemplate.exists(any(Query.class), eq("franchises"))).thenReturn(Mono.just(true));
+
+                StepVerifier.create(adapter.findLeadersByFranchise("franchise1"))
+                                .expectNextMatches(p -> p.getId().equals("product1") && p.getBranchId().equals("branch1")
+                                                && p.getStock() == 30)
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should fail when franchise does not exist and has no leaders")
+        void shouldFailWhenFranchiseNotFound() {
+                when(mongoTemplate.find(any(Query.class), eq(BranchStockLeader.class))).thenReturn(Flux.empty());
+                when(mongoTemplate.exists(any(Query.class), eq("franchises"))).thenReturn(Mono.just(false));
+
+                StepVerifier.create(adapter.findLeadersByFranchise("missing"))
+                                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                                                e.getMessage().contains("Franquicia no encontrada"))
+                                .verify();
+        }
+
+        @Test
+        @DisplayName("Should rebuild the projection with the guarded $merge and return its size")
+        void shouldRebuildProjection() {
+                when(mongoTemplate.aggregate(any(Aggregation.class), eq("branches"), eq(Document.class)))
+                                .thenReturn(Flux.empty());
+                when(mongoTemplate.count(any(Query.class), eq("branch_stock_leaders"))).thenReturn(Mono.just(5L));
+
+                StepVerifier.create(adapter.rebuild())
+                                .expectNext(5L)
+                                .verifyComplete();
+
+                // $out sustituiría la colección y borraría los refrescos hechos durante la reconstrucción
+                ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+                verify(mongoTemplate).aggregate(captor.capture(), eq("branches"), eq(Document.class));
+                List<Document> pipeline = captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+                Document merge = pipeline.get(pipeline.size() - 1).get("$merge", Document.class);
+                assertTrue(pipeline.stream().noneMatch(stage -> stage.containsKey("$out")));
+                assertEquals("branch_stock_leaders", merge.get("into"));
+                assertTrue(merge.get("whenMatched").toString().contains("$$new.updatedAt"));
+        }
+}
@@ -0,0 +1,126 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.franchise.management.application.config.EventsProperties;
+import org.franchise.management.domain.model.Branch;
+import org.franchise.management.domain.model.CatalogChangeEvent;
+import org.franchise.management.domain.repository.CatalogChangeFeed;
+import org.franchise.management.infrastructure.config.LookupCacheProperties;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogChangeStreamMongoAdapterTest {
+
+        @Mock
+        private ReactiveMongoTemplate mongoTemplate;
+
+        @Spy
+        private LookupCaches lookupCaches = new LookupCaches(new LookupCacheProperties());
+
+        @Spy
+        private EventsProperties eventsProperties = new EventsProperties();
+
+        @InjectMocks
+        private CatalogChangeStreamMongoAdapter adapter;
+
+        private final ObjectId productId = new ObjectId();
+
+        @BeforeEach
+        void setUp() {
+                lenient().when(mongoTemplate.executeCommand(any(Document.class)))
+                                .thenReturn(Mono.just(new Document("ok", 1)));
+        }
+
+        @SuppressWarnings("unchecked")
+        private ChangeStreamEvent<Document> productEvent(OperationType operation, Document body, Document before) {
+                ChangeStreamDocument<Document> raw = mock(ChangeStreamDocument.class);
+                when(raw.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonObjectId(productId)));
+                lenient().when(raw.getFullDocumentBeforeChange()).thenReturn(before);
+
+                ChangeStreamEvent<Document> event = mock(ChangeStreamEvent.class);
+                when(event.getOperationType()).thenReturn(operation);
+                when(event.getCollectionName()).thenReturn("products");
+                when(event.getResumeToken()).thenReturn(new BsonDocument("_data", new BsonString("token1")));
+                when(event.getRaw()).thenReturn(raw);
+                lenient().when(event.getBody()).thenReturn(body);
+                lenient().when(event.getTimestamp()).thenReturn(Instant.now());
+                return event;
+        }
+
+        @Test
+        @DisplayName("Should map a product update to its franchise through the branch cache")
+        void shouldMapProductChangeToFranchise() {
+                ChangeStreamEvent<Document> event = productEvent(OperationType.UPDATE,
+                                new Document("branchId", "b1").append("name", "Café").append("stock", 7), null);
+                when(mongoTemplate.changeStream(isNull(), isNull(), any(ChangeStreamOptions.class), eq(Document.class)))
+                                .thenReturn(Flux.just(event, event));
+                when(mongoTemplate.findById("b1", Branch.class))
+                                .thenReturn(Mono.just(Branch.builder().id("b1").franchiseId("f1").build()));
+
+                StepVerifier.create(adapter.watch(null))
+                                .expectNextMatches(e -> e.getType() == CatalogChangeEvent.Type.PRODUCT_CHANGED
+                                                && "token1".equals(e.getId())
+                                                && "f1".equals(e.getFranchiseId())
+                                                && productId.toHexString().equals(e.getProductId())
+                                                && e.getStock() == 7)
+                                .expectNextCount(1)
+                                .verifyComplete();
+
+                verify(mongoTemplate, times(1)).findById("b1", Branch.class);
+        }
+
+        @Test
+        @DisplayName("Should skip a delete without pre-image and resume after the given token")
+        void shouldSkipDeleteWithoutPreImage() {
+                ChangeStreamEvent<Document> event = productEvent(OperationType.DELETE, null, null);
+                when(mongoTemplate.changeStream(isNull(), isNull(),
+                                argThat((ChangeStreamOptions options) -> options.getResumeToken().isPresent()),
+                                eq(Document.class)))
+                                .thenReturn(Flux.just(event));
+
+                StepVerifier.create(adapter.watch("token0"))
+                                .verifyComplete();
+
+                verify(mongoTemplate, never()).findById(any(), eq(Branch.class));
+        }
+
+        @Test
+        @DisplayName("Should report a resume token whose history was lost")
+        void shouldReportLostResumeToken() {
+                when(mongoTemplate.changeStream(isNull(), isNull(), any(ChangeStreamOptions.class), eq(Document.class)))
+                                .thenReturn(Flux.error(new UncategorizedMongoDbException("historial perdido",
+                                                new MongoException(286, "ChangeStreamHistoryLost"))));
+
+                StepVerifier.create(adapter.watch("token0"))
+                                .expectError(CatalogChangeFeed.ResumeTokenLostException.class)
+                                .verify();
+        }
+}
@@ -0,0 +1,97 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
+
+import org.bson.Document;
+import org.franchise.management.domain.model.CatalogExportRecord;
+import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.infrastructure.config.ExportProperties;
+import org.franchise.management.infrastructure.config.LookupCacheProperties;
+import org.franchise.management.infrastructure.config.MongoClientProperties;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogExportMongoAdapterTest {
+
+        @Mock
+        private ReactiveMongoTemplate mongoTemplate;
+
+        @Spy
+        private LookupCaches lookupCaches = new LookupCaches(new LookupCacheProperties());
+
+        @Spy
+        private ExportProperties exportProperties = new ExportProperties();
+
+        @Spy
+        private MongoClientProperties mongoClientProperties = new MongoClientProperties();
+
+        @InjectMocks
+        private CatalogExportMongoAdapter adapter;
+
+        private Franchise franchise;
+
+        @BeforeEach
+        void setUp() {
+                franchise = Franchise.builder().id("franchise1").name("McDonald's").build();
+        }
+
+        @Test
+        @DisplayName("Should stream franchise, branch headers and products in order")
+        void shouldStreamCatalogRecords() {
+                Flux<Document> rows = Flux.just(
+                                row("branch1", "Centro", new Document("id", "p1").append("name", "Café").append("stock", 5)),
+                                row("branch1", "Centro", new Document("id", "p2").append("name", "Té").append("stock", 3)),
+                                row("branch2", "Norte", null));
+                when(mongoTemplate.aggregate(any(Aggregation.class), eq("branches"), eq(Document.class)))
+                                .thenReturn(rows);
+
+                StepVerifier.create(adapter.exportCatalog(franchise))
+                                .expectNextMatches(r -> r.getType() == CatalogExportRecord.Type.FRANCHISE
+                                                && "franchise1".equals(r.getId()))
+                                .expectNextMatches(r -> r.getType() == CatalogExportRecord.Type.BRANCH
+                                                && "branch1".equals(r.getId()))
+                                .expectNextMatches(r -> r.getType() == CatalogExportRecord.Type.PRODUCT
+                                                && "p1".equals(r.getId()) && r.getStock() == 5)
+                                .expectNextMatches(r -> r.getType() == CatalogExportRecord.Type.PRODUCT
+                                                && "p2".equals(r.getId()))
+                                .expectNextMatches(r -> r.getType() == CatalogExportRecord.Type.BRANCH
+                                                && "branch2".equals(r.getId()))
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should fail when franchise does not exist")
+        void shouldFailWhenFranchiseNotFound() {
+                when(mongoTemplate.findOne(any(Query.class), eq(Franchise.class), eq("franchises")))
+                                .thenReturn(Mono.empty());
+
+                StepVerifier.create(adapter.findFranchise("missing"))
+                                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                                                e.getMessage().equals("Franquicia no encontrada"))
+                                .verify();
+        }
+
+        private static Document row(String branchId, String branchName, Document product) {
+                Document row = new Document("branchId", branchId).append("branchName", branchName);
+                if (product != null) {
+                        row.append("product", product);
+                }
+                return row;
+        }
+}
@@ -1,6 +1,9 @@
 package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
 
+import org.bson.Document;
 import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.infrastructure.config.LookupCacheProperties;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
 import org.franchise.management.infrastructure.drivenadapters.mongo.repository.FranchiseMongoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,11 +11,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,6 +31,12 @@ class FranchiseMongoAdapterTest {
     @Mock
     private FranchiseMongoRepository franchiseMongoRepository;
 
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Spy
+    private LookupCaches lookupCaches = new LookupCaches(new LookupCacheProperties());
+
     @InjectMocks
     private FranchiseMongoAdapter franchiseMongoAdapter;
 
@@ -49,13 +65,17 @@ class FranchiseMongoAdapterTest {
     @Test
     @DisplayName("Should update franchise successfully")
     void shouldUpdateFranchiseSuccessfully() {
-        when(franchiseMongoRepository.save(any(Franchise.class))).thenReturn(Mono.just(franchise));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Franchise.class))).thenReturn(Mono.just(franchise));
 
         StepVerifier.create(franchiseMongoAdapter.update(franchise))
                 .expectNext(franchise)
                 .verifyComplete();
 
-        verify(franchiseMongoRepository).save(franchise);
+        verify(mongoTemplate).findAndModify(any(Query.class),
+                argThat(update -> !update.getUpdateObject().get("$set", Document.class).containsKey("branchIds")),
+                argThat(FindAndModifyOptions::isReturnNew), eq(Franchise.class));
+        verify(franchiseMongoRepository, never()).save(any());
     }
 
     @Test
@@ -75,14 +95,12 @@ class FranchiseMongoAdapterTest {
     @Test
     @DisplayName("Should handle error when updating franchise fails")
     void shouldHandleErrorWhenUpdatingFranchiseFails() {
-        when(franchiseMongoRepository.save(any(Franchise.class)))
-                .thenReturn(Mono.error(new RuntimeException("Update failed")));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Franchise.class))).thenReturn(Mono.error(new RuntimeException("Update failed")));
 
         StepVerifier.create(franchiseMongoAdapter.update(franchise))
                 .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
                         throwable.getMessage().equals("Update failed"))
                 .verify();
-
-        verify(franchiseMongoRepository).save(franchise);
     }
 }
@@ -0,0 +1,108 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.franchise.management.domain.model.IdempotencyRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyMongoAdapterTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private IdempotencyMongoAdapter adapter;
+
+    private final IdempotencyRecord pending = IdempotencyRecord.pending("k1", "abc", Instant.now().plusSeconds(30));
+
+    @Test
+    @DisplayName("Should reserve with an upsert that only matches an expired key")
+    void shouldReserveWithUpsertOnExpiredKey() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+        StepVerifier.create(adapter.reserve(pending))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(mongoTemplate).upsert(argThat((Query query) -> "k1".equals(query.getQueryObject().get("_id"))
+                && query.getQueryObject().get("expiresAt", Document.class).containsKey("$lt")),
+                argThat((Update update) -> update.getUpdateObject().get("$unset", Document.class)
+                        .containsKey("status")),
+                eq(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should report a live key as taken on duplicate key")
+    void shouldReportLiveKeyAsTaken() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000")));
+
+        StepVerifier.create(adapter.reserve(pending))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should only read keys that have not expired")
+    void shouldFindLiveKey() {
+        when(mongoTemplate.findOne(any(Query.class), eq(IdempotencyRecord.class))).thenReturn(Mono.just(pending));
+
+        StepVerifier.create(adapter.findByKey("k1"))
+                .expectNext(pending)
+                .verifyComplete();
+
+        verify(mongoTemplate).findOne(argThat((Query query) -> query.getQueryObject()
+                .get("expiresAt", Document.class).containsKey("$gt")), eq(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should release only a key that is still in flight")
+    void shouldReleaseInFlightKey() {
+        when(mongoTemplate.remove(any(Query.class), eq(IdempotencyRecord.class)))
+                .thenReturn(Mono.just(DeleteResult.acknowledged(1)));
+
+        StepVerifier.create(adapter.release("k1"))
+                .verifyComplete();
+
+        verify(mongoTemplate).remove(argThat((Query query) -> "k1".equals(query.getQueryObject().get("_id"))
+                && new Document("$exists", false).equals(query.getQueryObject().get("status"))),
+                eq(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should extend only the in-flight reservation of the same request")
+    void shouldExtendInFlightReservation() {
+        Instant expiresAt = Instant.now().plusSeconds(30);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+        StepVerifier.create(adapter.extend("k1", "abc", expiresAt))
+                .verifyComplete();
+
+        verify(mongoTemplate).updateFirst(argThat((Query query) -> "abc".equals(query.getQueryObject()
+                        .get("fingerprint"))
+                && new Document("$exists", false).equals(query.getQueryObject().get("status"))),
+                argThat((Update update) -> expiresAt.equals(update.getUpdateObject()
+                        .get("$set", Document.class).get("expiresAt"))),
+                eq(IdempotencyRecord.class));
+    }
+}
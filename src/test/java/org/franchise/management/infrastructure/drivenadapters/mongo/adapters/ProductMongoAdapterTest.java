@@ -1,18 +1,41 @@
 package org.franchise.management.infrastructure.drivenadapters.mongo.adapters;
 
+import org.bson.Document;
 import org.franchise.management.domain.model.Branch;
 import org.franchise.management.domain.model.Franchise;
+import org.franchise.management.domain.model.PageCursor;
 import org.franchise.management.domain.model.Product;
+import org.franchise.management.domain.model.ProductOrder;
+import org.franchise.management.domain.model.SparseFields;
+import org.franchise.management.domain.model.StockChange;
+import org.franchise.management.domain.model.StockUpdateResult;
+import org.franchise.management.infrastructure.config.BulkProperties;
+import org.franchise.management.infrastructure.config.LookupCacheProperties;
+import org.franchise.management.infrastructure.config.MaxStockProperties;
+import org.franchise.management.infrastructure.config.MembershipProperties;
+import org.franchise.management.infrastructure.config.MongoClientProperties;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
 import org.franchise.management.infrastructure.drivenadapters.mongo.repository.BranchMongoRepository;
 import org.franchise.management.infrastructure.drivenadapters.mongo.repository.ProductMongoRepository;
+import org.franchise.management.infrastructure.drivenadapters.mongo.transaction.MongoTransactions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import com.mongodb.ReadPreference;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import reactor.core.publisher.Flux;
@@ -22,6 +45,7 @@ import reactor.test.StepVerifier;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,6 +63,24 @@ class ProductMongoAdapterTest {
         @Mock
         private ReactiveMongoTemplate mongoTemplate;
 
+        @Spy
+        private MaxStockProperties maxStockProperties = new MaxStockProperties();
+
+        @Spy
+        private LookupCaches lookupCaches = new LookupCaches(new LookupCacheProperties());
+
+        @Spy
+        private BulkProperties bulkProperties = new BulkProperties();
+
+        @Spy
+        private MembershipProperties membershipProperties = new MembershipProperties();
+
+        @Mock
+        private MongoTransactions transactions;
+
+        @Spy
+        private MongoClientProperties mongoClientProperties = new MongoClientProperties();
+
         @InjectMocks
         private ProductMongoAdapter productMongoAdapter;
 
@@ -94,52 +136,86 @@ class ProductMongoAdapterTest {
                 verify(mongoTemplate, never()).save(any());
         }
 
+        @Test
+        @DisplayName("Should add product and update branch in one transaction without an exists check")
+        void shouldAddProductInTransaction() {
+                when(transactions.isEnabled()).thenReturn(true);
+                when(transactions.inTransaction(any())).thenAnswer(invocation -> invocation.getArgument(0));
+                when(mongoTemplate.insert(product)).thenReturn(Mono.just(product));
+                when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq("branches")))
+                                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+                StepVerifier.create(productMongoAdapter.addProductToBranch(branchId, product))
+                                .expectNext(product)
+                                .verifyComplete();
+
+                verify(transactions).inTransaction(any());
+                verify(mongoTemplate, never()).exists(any(Query.class), anyString());
+        }
+
+        @Test
+        @DisplayName("Should abort the add transaction and return empty when branch does not exist")
+        void shouldAbortAddTransactionWhenBranchDoesNotExist() {
+                when(transactions.isEnabled()).thenReturn(true);
+                when(transactions.inTransaction(any())).thenAnswer(invocation -> invocation.getArgument(0));
+                when(mongoTemplate.insert(product)).thenReturn(Mono.just(product));
+                when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq("branches")))
+                                .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+                StepVerifier.create(productMongoAdapter.addProductToBranch(branchId, product))
+                                .verifyComplete();
+        }
+
         @Test
         @DisplayName("Should delete product from branch successfully")
         void shouldDeleteProductFromBranchSuccessfully() {
                 branchId = "branch1";
                 productId = "prod1";
 
-                branch = Branch.builder()
-                                .id(branchId)
-                                .productIds(new ArrayList<>(List.of(productId)))
-                                .updatedAt(LocalDateTime.now())
-                                .build();
-
                 product = Product.builder()
                                 .id(productId)
                                 .branchId(branchId)
                                 .build();
 
-                when(branchMongoRepository.findById(branchId)).thenReturn(Mono.just(branch));
+                when(branchMongoRepository.existsById(branchId)).thenReturn(Mono.just(true));
                 when(productMongoRepository.findById(productId)).thenReturn(Mono.just(product));
-                when(productMongoRepository.delete(product)).thenReturn(Mono.empty());
-                when(branchMongoRepository.save(any())).thenReturn(Mono.just(branch));
+                when(transactions.inTransaction(any())).thenAnswer(invocation -> invocation.getArgument(0));
+                when(mongoTemplate.remove(any(Query.class), eq(Product.class)))
+                                .thenReturn(Mono.just(DeleteResult.acknowledged(1)));
+                when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq("branches")))
+                                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
 
                 StepVerifier.create(productMongoAdapter.deleteProductFromBranch(branchId, productId))
                                 .verifyComplete();
 
-                verify(branchMongoRepository).findById(branchId);
+                verify(branchMongoRepository).existsById(branchId);
                 verify(productMongoRepository).findById(productId);
-                verify(productMongoRepository).delete(product);
-                verify(branchMongoRepository).save(any());
+                verify(mongoTemplate).remove(argThat((Query query) -> "branch1".equals(
+                                query.getQueryObject().get("branchId"))), eq(Product.class));
+                verify(mongoTemplate).updateFirst(any(Query.class), argThat((Update update) -> update
+                                .getUpdateObject().containsKey("$pull")), eq("branches"));
+                verify(transactions).inTransaction(any());
+                verify(branchMongoRepository, never()).save(any());
         }
 
         @Test
         @DisplayName("Should throw error when branch not found during deletion")
         void shouldThrowErrorWhenBranchNotFoundDuringDeletion() {
-                when(branchMongoRepository.findById(branchId)).thenReturn(Mono.empty());
+                when(branchMongoRepository.existsById(branchId)).thenReturn(Mono.just(false));
+                when(productMongoRepository.findById(productId)).thenReturn(Mono.just(product));
 
                 StepVerifier.create(productMongoAdapter.deleteProductFromBranch(branchId, productId))
                                 .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
                                                 e.getMessage().contains("Branch no encontrado"))
                                 .verify();
+
+                verify(mongoTemplate, never()).remove(any(Query.class), eq(Product.class));
         }
 
         @Test
         @DisplayName("Should throw error when product not found during deletion")
         void shouldThrowErrorWhenProductNotFoundDuringDeletion() {
-                when(branchMongoRepository.findById(branchId)).thenReturn(Mono.just(branch));
+                when(branchMongoRepository.existsById(branchId)).thenReturn(Mono.just(true));
                 when(productMongoRepository.findById(productId)).thenReturn(Mono.empty());
 
                 StepVerifier.create(productMongoAdapter.deleteProductFromBranch(branchId, productId))
@@ -156,7 +232,7 @@ class ProductMongoAdapterTest {
                                 .branchId("anotherBranch")
                                 .build();
 
-                when(branchMongoRepository.findById(branchId)).thenReturn(Mono.just(branch));
+                when(branchMongoRepository.existsById(branchId)).thenReturn(Mono.just(true));
                 when(productMongoRepository.findById(productId)).thenReturn(Mono.just(wrongBranchProduct));
 
                 StepVerifier.create(productMongoAdapter.deleteProductFromBranch(branchId, productId))
@@ -166,22 +242,42 @@ class ProductMongoAdapterTest {
         }
 
         @Test
-        @DisplayName("Should update product stock successfully")
-        void shouldUpdateProductStockSuccessfully() {
+        @DisplayName("Should report product not found when it is deleted concurrently")
+        void shouldFailWhenProductDeletedConcurrently() {
+                when(branchMongoRepository.existsById(branchId)).thenReturn(Mono.just(true));
                 when(productMongoRepository.findById(productId)).thenReturn(Mono.just(product));
-                when(productMongoRepository.save(any(Product.class))).thenReturn(Mono.just(product));
+                when(transactions.inTransaction(any())).thenAnswer(invocation -> invocation.getArgument(0));
+                when(mongoTemplate.remove(any(Query.class), eq(Product.class)))
+                                .thenReturn(Mono.just(DeleteResult.acknowledged(0)));
+                when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq("branches")))
+                                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+                StepVerifier.create(productMongoAdapter.deleteProductFromBranch(branchId, productId))
+                                .expectErrorMatches(e -> e.getMessage().contains("Producto no encontrado"))
+                                .verify();
+        }
+
+        @Test
+        @DisplayName("Should update product stock atomically with findAndModify")
+        void shouldUpdateProductStockSuccessfully() {
+                when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                                eq(Product.class)))
+                                .thenReturn(Mono.just(product));
 
                 StepVerifier.create(productMongoAdapter.updateProductStock(productId, 20))
                                 .expectNext(product)
                                 .verifyComplete();
 
-                verify(productMongoRepository).save(product);
+                verify(productMongoRepository, never()).findById(anyString());
+                verify(productMongoRepository, never()).save(any(Product.class));
         }
 
         @Test
         @DisplayName("Should throw error when product not found during stock update")
         void shouldThrowErrorWhenProductNotFoundDuringStockUpdate() {
-                when(productMongoRepository.findById(productId)).thenReturn(Mono.empty());
+                when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                                eq(Product.class)))
+                                .thenReturn(Mono.empty());
 
                 StepVerifier.create(productMongoAdapter.updateProductStock(productId, 20))
                                 .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
@@ -189,24 +285,125 @@ class ProductMongoAdapterTest {
                                 .verify();
         }
 
+        @Test
+        @DisplayName("Should reject negative stock without touching Mongo")
+        void shouldRejectNegativeStock() {
+                StepVerifier.create(productMongoAdapter.updateProductStock(productId, -1))
+                                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                                                e.getMessage().contains("negative"))
+                                .verify();
+
+                verifyNoInteractions(mongoTemplate);
+        }
+
+        @Test
+        @DisplayName("Should adjust product stock with a guarded $inc")
+        void shouldAdjustProductStock() {
+                when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                                eq(Product.class)))
+                                .thenReturn(Mono.just(product));
+
+                StepVerifier.create(productMongoAdapter.adjustProductStock(productId, -5))
+                                .expectNext(product)
+                                .verifyComplete();
+
+                verify(mongoTemplate).findAndModify(
+                                argThat(query -> query.getQueryObject().containsKey("stock")),
+                                argThat(update -> update.getUpdateObject().containsKey("$inc")),
+                                any(FindAndModifyOptions.class), eq(Product.class));
+        }
+
+        @Test
+        @DisplayName("Should report insufficient stock when the guard rejects the adjustment")
+        void shouldReportInsufficientStockOnAdjustment() {
+                when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                                eq(Product.class)))
+                                .thenReturn(Mono.empty());
+                when(productMongoRepository.existsById(productId)).thenReturn(Mono.just(true));
+
+                StepVerifier.create(productMongoAdapter.adjustProductStock(productId, -500))
+                                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                                                e.getMessage().contains("Stock insuficiente"))
+                                .verify();
+        }
+
+        @Test
+        @DisplayName("Should guard positive adjustments against int overflow")
+        void shouldGuardPositiveAdjustmentAgainstOverflow() {
+                when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                                eq(Product.class)))
+                                .thenReturn(Mono.empty());
+                when(productMongoRepository.existsById(productId)).thenReturn(Mono.just(true));
+
+                StepVerifier.create(productMongoAdapter.adjustProductStock(productId, 10))
+                                .expectErrorMatches(e -> e.getMessage().contains("stock máximo"))
+                                .verify();
+
+                verify(mongoTemplate).findAndModify(
+                                argThat(query -> new Document("$lte", Integer.MAX_VALUE - 10)
+                                                .equals(query.getQueryObject().get("stock"))),
+                                any(Update.class), any(FindAndModifyOptions.class), eq(Product.class));
+        }
+
+        @Test
+        @DisplayName("Should reject Integer.MIN_VALUE as an adjustment without querying")
+        void shouldRejectMinValueAdjustment() {
+                StepVerifier.create(productMongoAdapter.adjustProductStock(productId, Integer.MIN_VALUE))
+                                .expectError(IllegalArgumentException.class)
+                                .verify();
+
+                verifyNoInteractions(mongoTemplate);
+        }
+
+        @Test
+        @DisplayName("Should report product not found when adjusting a missing product")
+        void shouldReportProductNotFoundOnAdjustment() {
+                when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                                eq(Product.class)))
+                                .thenReturn(Mono.empty());
+                when(productMongoRepository.existsById(productId)).thenReturn(Mono.just(false));
+
+                StepVerifier.create(productMongoAdapter.adjustProductStock(productId, 5))
+                                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                                                e.getMessage().contains("Producto no encontrado"))
+                                .verify();
+        }
+
         @Test
         @DisplayName("Should update product name successfully")
         void shouldUpdateProductNameSuccessfully() {
-                when(productMongoRepository.findById(productId)).thenReturn(Mono.just(product));
-                when(productMongoRepository.save(any(Product.class))).thenReturn(Mono.just(product));
+                when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                                eq(Product.class)))
+                                .thenReturn(Mono.just(product));
 
-                StepVerifier.create(productMongoAdapter.updateProductName(productId, "Nuevo Café"))
+                StepVerifier.create(productMongoAdapter.updateProductName(productId, "  Nuevo Café "))
                                 .expectNext(product)
                                 .verifyComplete();
 
-                verify(productMongoRepository).findById(productId);
-                verify(productMongoRepository).save(any(Product.class));
+                verify(mongoTemplate).findAndModify(any(Query.class),
+                                argThat(update -> "Nuevo Café".equals(update.getUpdateObject()
+                                                .get("$set", Document.class).get("name"))),
+                                argThat(FindAndModifyOptions::isReturnNew), eq(Product.class));
+                verify(productMongoRepository, never()).findById(anyString());
+                verify(productMongoRepository, never()).save(any(Product.class));
+        }
+
+        @Test
+        @DisplayName("Should reject a blank product name without querying")
+        void shouldRejectBlankProductName() {
+                StepVerifier.create(productMongoAdapter.updateProductName(productId, " "))
+                                .expectError(IllegalArgumentException.class)
+                                .verify();
+
+                verifyNoInteractions(mongoTemplate);
         }
 
         @Test
         @DisplayName("Should throw error when product not found during name update")
         void shouldThrowErrorWhenProductNotFoundDuringNameUpdate() {
-                when(productMongoRepository.findById(productId)).thenReturn(Mono.empty());
+                when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                                eq(Product.class)))
+                                .thenReturn(Mono.empty());
 
                 StepVerifier.create(productMongoAdapter.updateProductName(productId, "Nuevo Café"))
                                 .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
@@ -215,8 +412,10 @@ class ProductMongoAdapterTest {
         }
 
         @Test
-        @DisplayName("Should find max stock product by branch")
+        @DisplayName("Should find max stock product by branch using fan-out strategy")
         void shouldFindMaxStockProductByBranch() {
+                maxStockProperties.setStrategy(MaxStockProperties.Strategy.FAN_OUT);
+
                 Product p2 = Product.builder().id("2").branchId("b1").name("P2").stock(20).build();
                 Product p4 = Product.builder().id("4").branchId("b2").name("P4").stock(50).build();
 
@@ -259,4 +458,482 @@ class ProductMongoAdapterTest {
                 verify(mongoTemplate, times(2)).find(any(Query.class), eq(Product.class));
         }
 
+        @Test
+        @DisplayName("Should find max stock product by branch with a single aggregation")
+        void shouldFindMaxStockProductByBranchWithAggregation() {
+                Product p2 = Product.builder().id("2").branchId("b1").name("P2").stock(20).build();
+                Product p4 = Product.builder().id("4").branchId("b2").name("P4").stock(50).build();
+
+                Franchise franchise = new Franchise();
+                franchise.setId("anyFranchise");
+                franchise.setBranchIds(List.of("b1", "b2"));
+
+                when(mongoTemplate.findOne(any(Query.class), eq(Franchise.class), eq("franchises")))
+                                .thenReturn(Mono.just(franchise));
+                when(mongoTemplate.aggregate(any(Aggregation.class), eq("products"), eq(Product.class)))
+                                .thenReturn(Flux.just(p2, p4));
+
+                StepVerifier.create(productMongoAdapter.findMaxStockProductByBranch("anyFranchise"))
+                                .expectNext(p2, p4)
+                                .verifyComplete();
+
+                verify(mongoTemplate, times(1)).aggregate(any(Aggregation.class), eq("products"), eq(Product.class));
+                verify(mongoTemplate, never()).find(any(Query.class), eq(Product.class));
+        }
+
+        @Test
+        @DisplayName("Should read the top stock products of a branch sorted and limited")
+        void shouldFindTopStockProductsByBranch() {
+                Product p1 = Product.builder().id("1").branchId("b1").name("P1").stock(50).build();
+                Product p2 = Product.builder().id("2").branchId("b1").name("P2").stock(20).build();
+
+                when(mongoTemplate.find(argThat((Query query) -> "b1".equals(query.getQueryObject().get("branchId"))
+                                && query.getLimit() == 2
+                                && query.getSortObject().getInteger("stock") == -1), eq(Product.class)))
+                                .thenReturn(Flux.just(p1, p2));
+
+                StepVerifier.create(productMongoAdapter.findTopStockProductsByBranch("b1", 2))
+                                .expectNext(p1, p2)
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should rank the top stock products per branch with $topN")
+        void shouldFindTopStockProductsPerBranchWithTopN() {
+                Product p1 = Product.builder().id("1").branchId("b1").name("P1").stock(50).build();
+                Franchise franchise = Franchise.builder().id("f1").branchIds(List.of("b1", "b2")).build();
+
+                when(mongoTemplate.aggregate(argThat((Aggregation aggregation) -> {
+                        List<Document> pipeline = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT);
+                        Document topN = pipeline.get(2).get("$group", Document.class)
+                                        .get("products", Document.class).get("$topN", Document.class);
+                        return topN.getInteger("n") == 3 && pipeline.size() == 5;
+                }), eq("products"), eq(Product.class))).thenReturn(Flux.just(p1));
+
+                StepVerifier.create(productMongoAdapter.findTopStockProducts(franchise, 3, true, SparseFields.PRODUCT))
+                                .expectNext(p1)
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should apply the configured read preference to analytic reads only")
+        void shouldApplyConfiguredReadPreference() {
+                mongoClientProperties.getReadPreferences().put("top-stock", "secondaryPreferred");
+                Franchise franchise = Franchise.builder().id("f1").branchIds(List.of("b1")).build();
+
+                when(mongoTemplate.aggregate(argThat((Aggregation aggregation) -> aggregation.getOptions()
+                                .hasReadPreference()
+                                && ReadPreference.secondaryPreferred().equals(aggregation.getOptions().getReadPreference())),
+                                eq("products"), eq(Product.class))).thenReturn(Flux.empty());
+                when(mongoTemplate.find(argThat((Query query) -> !query.hasReadPreference()), eq(Product.class)))
+                                .thenReturn(Flux.empty());
+
+                StepVerifier.create(productMongoAdapter.findTopStockProducts(franchise, 3, false, SparseFields.PRODUCT)
+                                .thenMany(productMongoAdapter.findTopStockProductsByBranch("b1", 3)))
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should rank the top stock products of the whole franchise with $sort and $limit")
+        void shouldFindTopStockProductsAcrossFranchise() {
+                Franchise franchise = Franchise.builder().id("f1").branchIds(List.of("b1", "b2")).build();
+
+                when(mongoTemplate.aggregate(argThat((Aggregation aggregation) -> {
+                        List<Document> pipeline = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT);
+                        return pipeline.get(1).containsKey("$sort") && pipeline.get(2).getInteger("$limit") == 5;
+                }), eq("products"), eq(Product.class))).thenReturn(Flux.empty());
+
+                StepVerifier.create(productMongoAdapter.findTopStockProducts(franchise, 5, false, SparseFields.PRODUCT))
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should filter low stock on the index range and keep the lowest per branch with $bottomN")
+        void shouldFindLowStockProductsWithBottomN() {
+                Product p1 = Product.builder().id("1").branchId("b1").name("P1").stock(1).build();
+                Franchise franchise = Franchise.builder().id("f1").branchIds(List.of("b1")).build();
+
+                when(mongoTemplate.aggregate(argThat((Aggregation aggregation) -> {
+                        List<Document> pipeline = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT);
+                        Document stock = pipeline.get(0).get("$match", Document.class).get("stock", Document.class);
+                        Document bottomN = pipeline.get(2).get("$group", Document.class)
+                                        .get("products", Document.class).get("$bottomN", Document.class);
+                        return stock.getInteger("$lt") == 5 && bottomN.getInteger("n") == 10;
+                }), eq("products"), eq(Product.class))).thenReturn(Flux.just(p1));
+
+                StepVerifier.create(productMongoAdapter.findLowStockProducts(franchise, 5, 10, SparseFields.PRODUCT))
+                                .expectNext(p1)
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should not query products when ranking a franchise without branches")
+        void shouldNotRankFranchiseWithoutBranches() {
+                Franchise franchise = Franchise.builder().id("f1").branchIds(List.of()).build();
+
+                StepVerifier.create(productMongoAdapter.findLowStockProducts(franchise, 5, 10, SparseFields.PRODUCT))
+                                .verifyComplete();
+
+                verify(mongoTemplate, never()).aggregate(any(Aggregation.class), anyString(), eq(Product.class));
+        }
+
+        @Test
+        @DisplayName("Should return empty flux when franchise has no branches")
+        void shouldReturnEmptyWhenFranchiseHasNoBranches() {
+                Franchise franchise = new Franchise();
+                franchise.setId("anyFranchise");
+                franchise.setBranchIds(new ArrayList<>());
+
+                when(mongoTemplate.findOne(any(Query.class), eq(Franchise.class), eq("franchises")))
+                                .thenReturn(Mono.just(franchise));
+
+                StepVerifier.create(productMongoAdapter.findMaxStockProductByBranch("anyFranchise"))
+                                .verifyComplete();
+
+                verify(mongoTemplate, never()).aggregate(any(Aggregation.class), anyString(), eq(Product.class));
+        }
+
+
+        @Test
+        @DisplayName("Should apply batch stock updates with a single bulkWrite per chunk")
+        void shouldApplyBatchStockUpdatesWithBulkWrite() {
+                ReactiveBulkOperations bulkOps = mock(ReactiveBulkOperations.class);
+                Product other = Product.builder().id("product456").branchId("branch999").build();
+
+                when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(Flux.just(product, other));
+                when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(bulkOps);
+                when(bulkOps.execute()).thenReturn(Mono.just(mock(BulkWriteResult.class)));
+
+                Flux<Product> updates = Flux.just(
+                                Product.builder().id(productId).stock(5).build(),
+                                Product.builder().id("product456").stock(7).build(),
+                                Product.builder().id("missing").stock(1).build(),
+                                Product.builder().id(productId).stock(-1).build());
+
+                StepVerifier.create(productMongoAdapter.bulkUpdateProductStock(updates))
+                                .expectNextMatches(r -> r.getStatus() == StockUpdateResult.Status.UPDATED
+                                                && branchId.equals(r.getBranchId()))
+                                .expectNextMatches(r -> r.getStatus() == StockUpdateResult.Status.UPDATED
+                                                && "branch999".equals(r.getBranchId()))
+                                .expectNextMatches(r -> r.getStatus() == StockUpdateResult.Status.NOT_FOUND)
+                                .expectNextMatches(r -> r.getStatus() == StockUpdateResult.Status.INVALID)
+                                .verifyComplete();
+
+                verify(bulkOps, times(3)).updateOne(any(Query.class), any(Update.class));
+                verify(bulkOps, times(1)).execute();
+        }
+
+        @Test
+        @DisplayName("Should report a product deleted after the write as updated when every updateOne matched")
+        void shouldTrustMatchedCountOverLaterRead() {
+                ReactiveBulkOperations bulkOps = mock(ReactiveBulkOperations.class);
+                BulkWriteResult result = mock(BulkWriteResult.class);
+
+                when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(bulkOps);
+                when(bulkOps.execute()).thenReturn(Mono.just(result));
+                when(result.getMatchedCount()).thenReturn(1);
+                when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(Flux.empty());
+
+                StepVerifier.create(productMongoAdapter.bulkUpdateProductStock(Flux.just(
+                                Product.builder().id(productId).stock(5).build())))
+                                .expectNextMatches(r -> r.getStatus() == StockUpdateResult.Status.UPDATED)
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should write chunks one after another so the last update wins across chunks")
+        void shouldApplyChunksInOrder() {
+                bulkProperties.setChunkSize(1);
+                ReactiveBulkOperations bulkOps = mock(ReactiveBulkOperations.class);
+
+                when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(bulkOps);
+                when(bulkOps.execute()).thenReturn(Mono.just(mock(BulkWriteResult.class)));
+                when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(Flux.just(product));
+
+                StepVerifier.create(productMongoAdapter.bulkUpdateProductStock(Flux.just(
+                                Product.builder().id(productId).stock(5).build(),
+                                Product.builder().id(productId).stock(8).build())))
+                                .expectNextCount(2)
+                                .verifyComplete();
+
+                InOrder inOrder = inOrder(bulkOps);
+                inOrder.verify(bulkOps).updateOne(any(Query.class), argThat((Update update) -> Integer.valueOf(5)
+                                .equals(update.getUpdateObject().get("$set", Document.class).get("stock"))));
+                inOrder.verify(bulkOps).execute();
+                inOrder.verify(bulkOps).updateOne(any(Query.class), argThat((Update update) -> Integer.valueOf(8)
+                                .equals(update.getUpdateObject().get("$set", Document.class).get("stock"))));
+                inOrder.verify(bulkOps).execute();
+        }
+
+        @Test
+        @DisplayName("Should keep only the last update of a product within a chunk")
+        void shouldSupersedeDuplicateUpdatesInChunk() {
+                ReactiveBulkOperations bulkOps = mock(ReactiveBulkOperations.class);
+
+                when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(Flux.just(product));
+                when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(bulkOps);
+                when(bulkOps.execute()).thenReturn(Mono.just(mock(BulkWriteResult.class)));
+
+                Flux<Product> updates = Flux.just(
+                                Product.builder().id(productId).stock(5).build(),
+                                Product.builder().id(productId).stock(8).build());
+
+                StepVerifier.create(productMongoAdapter.bulkUpdateProductStock(updates))
+                                .expectNextMatches(r -> r.getStatus() == StockUpdateResult.Status.SUPERSEDED)
+                                .expectNextMatches(r -> r.getStatus() == StockUpdateResult.Status.UPDATED
+                                                && r.getStock() == 8)
+                                .verifyComplete();
+
+                verify(bulkOps, times(1)).updateOne(any(Query.class), any(Update.class));
+        }
+
+        @Test
+        @DisplayName("Should apply coalesced $set changes in one bulkWrite and each guarded $inc on its own")
+        void shouldApplyCoalescedChanges() {
+                ReactiveBulkOperations bulkOps = mock(ReactiveBulkOperations.class);
+                Product incremented = Product.builder().id("inc").stock(13).build();
+
+                when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(bulkOps);
+                when(bulkOps.execute()).thenReturn(Mono.just(mock(BulkWriteResult.class)));
+                when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(Flux.just(product));
+                when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                                eq(Product.class))).thenReturn(Mono.just(incremented));
+
+                StepVerifier.create(productMongoAdapter.applyStockChanges(List.of(
+                                StockChange.set(productId, 40),
+                                StockChange.increment("inc", 3))).collectList())
+                                .expectNextMatches(products -> products.size() == 2
+                                                && products.containsAll(List.of(product, incremented)))
+                                .verifyComplete();
+
+                verify(bulkOps, times(1)).updateOne(any(Query.class), argThat((Update update) -> Integer.valueOf(40)
+                                .equals(update.getUpdateObject().get("$set", Document.class).get("stock"))));
+                verify(bulkOps, times(1)).execute();
+                verify(mongoTemplate).findAndModify(
+                                argThat((Query query) -> new Document("$lte", Integer.MAX_VALUE - 3)
+                                                .equals(query.getQueryObject().get("stock"))),
+                                argThat((Update update) -> Integer.valueOf(3)
+                                                .equals(update.getUpdateObject().get("$inc", Document.class)
+                                                                .get("stock"))),
+                                any(FindAndModifyOptions.class), eq(Product.class));
+        }
+
+        @Test
+        @DisplayName("Should leave out only the coalesced increments that were not applied")
+        void shouldLeaveOutUnappliedCoalescedIncrement() {
+                Product applied = Product.builder().id("applied").stock(Integer.MAX_VALUE - 1).build();
+
+                when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                                eq(Product.class))).thenAnswer(invocation -> {
+                                        Query query = invocation.getArgument(0);
+                                        return "applied".equals(query.getQueryObject().get("_id"))
+                                                        ? Mono.just(applied)
+                                                        : Mono.empty();
+                                });
+
+                // Un incremento aplicado que deja el stock cerca del máximo sigue emitiéndose
+                StepVerifier.create(productMongoAdapter.applyStockChanges(List.of(
+                                StockChange.increment("applied", 3),
+                                StockChange.increment("full", 3))))
+                                .expectNext(applied)
+                                .verifyComplete();
+
+                verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Product.class));
+        }
+
+        @Test
+        @DisplayName("Should reject coalesced changes that could leave stock negative")
+        void shouldRejectNegativeCoalescedChanges() {
+                StepVerifier.create(productMongoAdapter.applyStockChanges(List.of(
+                                StockChange.increment(productId, -1))))
+                                .expectError(IllegalArgumentException.class)
+                                .verify();
+
+                verifyNoInteractions(mongoTemplate);
+        }
+
+        @Test
+        @DisplayName("Should import products in chunks with one $addToSet per chunk")
+        void shouldImportProductsInChunks() {
+                bulkProperties.setChunkSize(2);
+                when(mongoTemplate.exists(any(Query.class), eq("branches"))).thenReturn(Mono.just(true));
+                when(mongoTemplate.insert(anyList(), eq(Product.class))).thenAnswer(invocation -> {
+                        List<Product> chunk = invocation.getArgument(0);
+                        chunk.forEach(p -> p.setId(p.getName()));
+                        return Flux.fromIterable(chunk);
+                });
+                when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq("branches")))
+                                .thenReturn(Mono.empty());
+
+                Flux<Product> products = Flux.range(1, 5)
+                                .map(i -> Product.builder().name("p" + i).stock(i).build());
+
+                StepVerifier.create(productMongoAdapter.importProductsToBranch(branchId, products))
+                                .expectNext(5L)
+                                .verifyComplete();
+
+                verify(mongoTemplate, times(3)).insert(anyList(), eq(Product.class));
+                verify(mongoTemplate, times(3)).updateFirst(any(Query.class), any(Update.class), eq("branches"));
+        }
+
+        @Test
+        @DisplayName("Should fail import without consuming the body when branch does not exist")
+        void shouldFailImportWhenBranchMissing() {
+                when(mongoTemplate.exists(any(Query.class), eq("branches"))).thenReturn(Mono.just(false));
+
+                StepVerifier.create(productMongoAdapter.importProductsToBranch(branchId,
+                                Flux.just(Product.builder().name("p").stock(1).build())))
+                                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                                                e.getMessage().equals("Sucursal no encontrada."))
+                                .verify();
+
+                verify(mongoTemplate, never()).insert(anyList(), eq(Product.class));
+        }
+
+        @Test
+        @DisplayName("Should add product without touching the branch in REFERENCE mode")
+        void shouldAddProductWithoutBranchUpdateInReferenceMode() {
+                membershipProperties.setMode(MembershipProperties.Mode.REFERENCE);
+                when(mongoTemplate.exists(any(Query.class), eq("branches"))).thenReturn(Mono.just(true));
+                when(mongoTemplate.save(any(Product.class))).thenReturn(Mono.just(product));
+
+                StepVerifier.create(productMongoAdapter.addProductToBranch(branchId, product))
+                                .expectNext(product)
+                                .verifyComplete();
+
+                verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq("branches"));
+        }
+
+        @Test
+        @DisplayName("Should delete product without rewriting the branch in REFERENCE mode")
+        void shouldDeleteProductWithoutBranchSaveInReferenceMode() {
+                membershipProperties.setMode(MembershipProperties.Mode.REFERENCE);
+                when(branchMongoRepository.existsById(branchId)).thenReturn(Mono.just(true));
+                when(productMongoRepository.findById(productId)).thenReturn(Mono.just(product));
+                when(mongoTemplate.remove(any(Query.class), eq(Product.class)))
+                                .thenReturn(Mono.just(DeleteResult.acknowledged(1)));
+
+                StepVerifier.create(productMongoAdapter.deleteProductFromBranch(branchId, productId))
+                                .verifyComplete();
+
+                verify(mongoTemplate).remove(any(Query.class), eq(Product.class));
+                verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq("branches"));
+                verifyNoInteractions(transactions);
+        }
+
+        @Test
+        @DisplayName("Should resolve franchise branches by reference query in REFERENCE mode")
+        void shouldResolveBranchesByReferenceInReferenceMode() {
+                membershipProperties.setMode(MembershipProperties.Mode.REFERENCE);
+                Franchise franchise = Franchise.builder().id("anyFranchise").build();
+                Product p2 = Product.builder().id("2").branchId("b1").name("P2").stock(20).build();
+
+                when(mongoTemplate.findOne(any(Query.class), eq(Franchise.class), eq("franchises")))
+                                .thenReturn(Mono.just(franchise));
+                when(mongoTemplate.find(any(Query.class), eq(Branch.class)))
+                                .thenReturn(Flux.just(Branch.builder().id("b1").build()));
+                when(mongoTemplate.aggregate(any(Aggregation.class), eq("products"), eq(Product.class)))
+                                .thenReturn(Flux.just(p2));
+
+                StepVerifier.create(productMongoAdapter.findMaxStockProductByBranch("anyFranchise"))
+                                .expectNext(p2)
+                                .verifyComplete();
+
+                verify(mongoTemplate).find(any(Query.class), eq(Branch.class));
+        }
+
+        @Test
+        @DisplayName("Should page products by stock with a keyset range after the cursor")
+        void shouldPageProductsByStockAfterCursor() {
+                when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(Flux.just(
+                                Product.builder().id("p3").stock(10).build(),
+                                Product.builder().id("p4").stock(7).build(),
+                                Product.builder().id("p5").stock(7).build()));
+
+                StepVerifier.create(productMongoAdapter.findPageByBranch("branch1", ProductOrder.STOCK,
+                                PageCursor.of(10, "p2"), 2, SparseFields.PRODUCT))
+                                .expectNextMatches(page -> page.getItems().size() == 2
+                                                && PageCursor.of(7, "p4").equals(PageCursor.decode(page.getNextCursor())))
+                                .verifyComplete();
+
+                verify(mongoTemplate).find(argThat((Query query) -> {
+                        Document filter = query.getQueryObject();
+                        List<Document> range = filter.getList("$or", Document.class);
+                        return query.getLimit() == 3
+                                        && "branch1".equals(filter.getString("branchId"))
+                                        && new Document("$lt", 10).equals(range.get(0).get("stock"))
+                                        && new Document("$gt", "p2").equals(range.get(1).get("_id"))
+                                        && query.getSortObject().equals(new Document("stock", -1).append("_id", 1));
+                }), eq(Product.class));
+        }
+
+        @Test
+        @DisplayName("Should read the first page of products by id without a cursor")
+        void shouldPageProductsByIdFromStart() {
+                when(mongoTemplate.find(any(Query.class), eq(Product.class)))
+                                .thenReturn(Flux.just(Product.builder().id("p1").stock(1).build()));
+
+                StepVerifier.create(productMongoAdapter.findPageByBranch("branch1", ProductOrder.ID, null, 50,
+                                SparseFields.PRODUCT))
+                                .expectNextMatches(page -> page.getItems().size() == 1 && page.getNextCursor() == null)
+                                .verifyComplete();
+
+                verify(mongoTemplate).find(argThat((Query query) -> query.getLimit() == 51
+                                && !query.getQueryObject().containsKey("_id")
+                                && query.getSortObject().equals(new Document("_id", 1))), eq(Product.class));
+        }
+
+        @Test
+        @DisplayName("Should project only the requested fields before ranking and drop the helper fields after")
+        void shouldProjectRequestedFieldsInTopStock() {
+                Franchise franchise = Franchise.builder().id("f1").branchIds(List.of("b1")).build();
+
+                when(mongoTemplate.aggregate(argThat((Aggregation aggregation) -> aggregation
+                                .toPipeline(Aggregation.DEFAULT_CONTEXT).get(1).get("$project", Document.class)
+                                .equals(new Document("name", 1).append("stock", 1).append("branchId", 1))),
+                                eq("products"), eq(Product.class)))
+                                .thenReturn(Flux.just(Product.builder().id("1").name("P1").stock(9).branchId("b1").build()));
+
+                StepVerifier.create(productMongoAdapter.findTopStockProducts(franchise, 3, true, Set.of("name")))
+                                .expectNextMatches(product -> "P1".equals(product.getName())
+                                                && product.getStock() == null && product.getBranchId() == null)
+                                .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should project product pages to the requested fields plus the stock the cursor needs")
+        void shouldProjectProductPage() {
+                when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(Flux.just(
+                                Product.builder().id("p1").name("P1").stock(9).build(),
+                                Product.builder().id("p2").name("P2").stock(3).build()));
+
+                StepVerifier.create(productMongoAdapter.findPageByBranch("branch1", ProductOrder.STOCK, null, 1,
+                                Set.of("name")))
+                                .expectNextMatches(page -> page.getItems().get(0).getStock() == null
+                                                && PageCursor.of(9, "p1").equals(PageCursor.decode(page.getNextCursor())))
+                                .verifyComplete();
+
+                verify(mongoTemplate).find(argThat((Query query) -> query.getFieldsObject()
+                                .equals(new Document("_id", 1).append("name", 1).append("stock", 1))), eq(Product.class));
+        }
+
+        @Test
+        @DisplayName("Should end the max-stock pipeline with the summary projection")
+        void shouldProjectMaxStockSummary() {
+                Franchise franchise = Franchise.builder().id("anyFranchise").branchIds(List.of("b1")).build();
+                when(mongoTemplate.findOne(any(Query.class), eq(Franchise.class), eq("franchises")))
+                                .thenReturn(Mono.just(franchise));
+                when(mongoTemplate.aggregate(any(Aggregation.class), eq("products"), eq(Product.class)))
+                                .thenReturn(Flux.empty());
+
+                StepVerifier.create(productMongoAdapter.findMaxStockProductByBranch("anyFranchise"))
+                                .verifyComplete();
+
+                verify(mongoTemplate).aggregate(argThat((Aggregation aggregation) -> {
+                        List<Document> pipeline = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT);
+                        Document project = pipeline.get(pipeline.size() - 1).get("$project", Document.class);
+                        return project != null && project.keySet().containsAll(SparseFields.PRODUCT_SUMMARY)
+                                        && !project.containsKey("createdAt");
+                }), eq("products"), eq(Product.class));
+        }
 }
@@ -0,0 +1,115 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.index;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Date;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoIndexManagerTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private ReactiveIndexOperations indexOps;
+
+    @InjectMocks
+    private MongoIndexManager indexManager;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(mongoTemplate.indexOps(anyString())).thenReturn(indexOps);
+    }
+
+    @Test
+    @DisplayName("Should create missing indexes and report them as created")
+    void shouldCreateMissingIndexes() {
+        when(indexOps.getIndexInfo()).thenReturn(Flux.empty());
+        when(indexOps.ensureIndex(any(IndexDefinition.class)))
+                .thenReturn(Mono.just("branchId_stock_idx"), Mono.just("franchiseId_idx"));
+
+        StepVerifier.create(indexManager.ensureIndexes())
+                .expectNextMatches(r -> r.isCreated() && r.getCollection().equals("products")
+                        && r.getName().equals("branchId_stock_idx"))
+                .expectNextMatches(r -> r.isCreated() && r.getCollection().equals("branches")
+                        && r.getName().equals("franchiseId_idx"))
+                .expectNextMatches(r -> r.isCreated() && r.getCollection().equals("branch_stock_leaders"))
+                .expectNextMatches(r -> r.isCreated() && r.getCollection().equals("products"))
+                .expectNextMatches(r -> r.isCreated() && r.getCollection().equals("products"))
+                .expectNextMatches(r -> r.isCreated() && r.getCollection().equals("branches"))
+                .expectNextMatches(r -> r.isCreated() && r.getCollection().equals("idempotency_keys"))
+                .verifyComplete();
+
+        verify(indexOps, times(MongoIndexManager.MANAGED_INDEXES.size())).ensureIndex(any(IndexDefinition.class));
+        verify(indexOps).ensureIndex(argThat((IndexDefinition index) -> Long.valueOf(0)
+                .equals(index.getIndexOptions().get("expireAfterSeconds"))));
+    }
+
+    @Test
+    @DisplayName("Should report existing indexes as not created")
+    void shouldReportExistingIndexesAsNotCreated() {
+        IndexInfo productsIndex = mock(IndexInfo.class);
+        IndexInfo branchesIndex = mock(IndexInfo.class);
+        IndexInfo productsIdIndex = mock(IndexInfo.class);
+        IndexInfo productsStockIdIndex = mock(IndexInfo.class);
+        IndexInfo branchesIdIndex = mock(IndexInfo.class);
+        IndexInfo idempotencyTtlIndex = mock(IndexInfo.class);
+        when(productsIndex.getName()).thenReturn("branchId_stock_idx");
+        lenient().when(branchesIndex.getName()).thenReturn("franchiseId_idx");
+        lenient().when(productsIdIndex.getName()).thenReturn("branchId_id_idx");
+        lenient().when(productsStockIdIndex.getName()).thenReturn("branchId_stock_id_idx");
+        lenient().when(branchesIdIndex.getName()).thenReturn("franchiseId_id_idx");
+        lenient().when(idempotencyTtlIndex.getName()).thenReturn("expiresAt_ttl_idx");
+
+        when(indexOps.getIndexInfo()).thenReturn(Flux.just(productsIndex, branchesIndex, productsIdIndex,
+                productsStockIdIndex, branchesIdIndex, idempotencyTtlIndex));
+        when(indexOps.ensureIndex(any(IndexDefinition.class)))
+                .thenReturn(Mono.just("branchId_stock_idx"), Mono.just("franchiseId_idx"));
+
+        StepVerifier.create(indexManager.ensureIndexes())
+                .expectNextMatches(r -> !r.isCreated())
+                .expectNextMatches(r -> !r.isCreated())
+                .expectNextMatches(r -> !r.isCreated())
+                .expectNextMatches(r -> !r.isCreated())
+                .expectNextMatches(r -> !r.isCreated())
+                .expectNextMatches(r -> !r.isCreated())
+                .expectNextMatches(r -> !r.isCreated())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should map $indexStats output to index usage")
+    void shouldMapIndexStats() {
+        Document stats = new Document("name", "branchId_stock_idx")
+                .append("key", new Document("branchId", 1).append("stock", -1))
+                .append("accesses", new Document("ops", 42L).append("since", new Date()));
+
+        when(mongoTemplate.aggregate(any(Aggregation.class), anyString(), eq(Document.class)))
+                .thenReturn(Flux.just(stats));
+
+        StepVerifier.create(indexManager.indexUsageStats())
+                .expectNextMatches(u -> u.getCollection().equals("products") && u.getOps() == 42L)
+                .expectNextMatches(u -> u.getCollection().equals("branches"))
+                .expectNextMatches(u -> u.getCollection().equals("branch_stock_leaders"))
+                .expectNextMatches(u -> u.getCollection().equals("idempotency_keys"))
+                .verifyComplete();
+    }
+}
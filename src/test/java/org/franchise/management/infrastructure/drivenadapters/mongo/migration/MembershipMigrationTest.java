@@ -0,0 +1,90 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.migration;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.franchise.management.infrastructure.config.LookupCacheProperties;
+import org.franchise.management.infrastructure.config.MembershipProperties;
+import org.franchise.management.infrastructure.drivenadapters.mongo.cache.LookupCaches;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipMigrationTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Spy
+    private MembershipProperties membershipProperties = new MembershipProperties();
+
+    @Spy
+    private LookupCaches lookupCaches = new LookupCaches(new LookupCacheProperties());
+
+    @InjectMocks
+    private MembershipMigration migration;
+
+    @Test
+    @DisplayName("Should refuse to migrate while membership is EMBEDDED")
+    void shouldRefuseMigrationInEmbeddedMode() {
+        StepVerifier.create(migration.migrate())
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should backfill references and keep the embedded arrays")
+    void shouldBackfillWithoutDroppingArrays() {
+        membershipProperties.setMode(MembershipProperties.Mode.REFERENCE);
+        when(mongoTemplate.aggregate(any(Aggregation.class), anyString(), eq(Document.class)))
+                .thenReturn(Flux.empty());
+        when(mongoTemplate.count(any(Query.class), anyString())).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(migration.migrate())
+                .expectNextMatches(report -> report.getFranchisesCompacted() == 0
+                        && report.getBranchesCompacted() == 0)
+                .verifyComplete();
+
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), anyString());
+    }
+
+    @Test
+    @DisplayName("Should backfill references and then drop embedded arrays on compact")
+    void shouldBackfillThenCompact() {
+        membershipProperties.setMode(MembershipProperties.Mode.REFERENCE);
+        when(mongoTemplate.aggregate(any(Aggregation.class), anyString(), eq(Document.class)))
+                .thenReturn(Flux.empty());
+        when(mongoTemplate.count(any(Query.class), anyString())).thenReturn(Mono.just(0L));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq("franchises")))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(2, 2L, null)));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq("branches")))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(5, 5L, null)));
+
+        StepVerifier.create(migration.compact())
+                .expectNextMatches(report -> report.getFranchisesCompacted() == 2
+                        && report.getBranchesCompacted() == 5
+                        && report.getProductsWithoutBranch() == 0)
+                .verifyComplete();
+
+        verify(mongoTemplate).aggregate(any(Aggregation.class), eq("franchises"), eq(Document.class));
+        verify(mongoTemplate).aggregate(any(Aggregation.class), eq("branches"), eq(Document.class));
+    }
+}
@@ -0,0 +1,109 @@
+package org.franchise.management.infrastructure.drivenadapters.mongo.transaction;
+
+import com.mongodb.MongoException;
+import org.franchise.management.infrastructure.config.TransactionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoTransactionsTest {
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Spy
+    private TransactionProperties properties = new TransactionProperties();
+
+    @InjectMocks
+    private MongoTransactions transactions;
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties.setMinBackoff(Duration.ofMillis(1));
+        lenient().when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static MongoException transientError() {
+        MongoException error = new MongoException(112, "WriteConflict");
+        error.addLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+        return error;
+    }
+
+    @Test
+    @DisplayName("Should retry the whole transaction on a transient error")
+    void shouldRetryOnTransientError() {
+        Mono<String> writes = Mono.defer(() -> attempts.incrementAndGet() < 3
+                ? Mono.error(new DataIntegrityViolationException("conflicto", transientError()))
+                : Mono.just("ok"));
+
+        StepVerifier.create(transactions.inTransaction(writes))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertEquals(3, attempts.get());
+        verify(transactionalOperator, times(3)).transactional(any(Mono.class));
+    }
+
+    @Test
+    @DisplayName("Should not retry errors without the transient label")
+    void shouldNotRetryOtherErrors() {
+        Mono<String> writes = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new IllegalArgumentException("Producto no encontrado: p1"));
+        });
+
+        StepVerifier.create(transactions.inTransaction(writes))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should surface the original error when retries are exhausted")
+    void shouldSurfaceOriginalErrorWhenExhausted() {
+        properties.setMaxRetries(1);
+        Mono<String> writes = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(transientError());
+        });
+
+        StepVerifier.create(transactions.inTransaction(writes))
+                .expectError(MongoException.class)
+                .verify();
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should run writes without a transaction when disabled")
+    void shouldBypassWhenDisabled() {
+        properties.setEnabled(false);
+
+        StepVerifier.create(transactions.inTransaction(Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+
+        verifyNoInteractions(transactionalOperator);
+    }
+}